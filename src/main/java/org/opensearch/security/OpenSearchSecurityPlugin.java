@@ -56,6 +56,7 @@ import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -93,6 +94,7 @@ import org.opensearch.common.util.BigArrays;
 import org.opensearch.common.util.PageCacheRecycler;
 import org.opensearch.common.util.concurrent.ThreadContext;
 import org.opensearch.core.action.ActionResponse;
+import org.opensearch.core.common.breaker.CircuitBreaker;
 import org.opensearch.core.common.io.stream.NamedWriteableRegistry;
 import org.opensearch.core.index.Index;
 import org.opensearch.core.indices.breaker.CircuitBreakerService;
@@ -110,10 +112,13 @@ import org.opensearch.index.IndexModule;
 import org.opensearch.index.cache.query.QueryCache;
 import org.opensearch.indices.IndicesService;
 import org.opensearch.indices.SystemIndexDescriptor;
+import org.opensearch.indices.breaker.BreakerSettings;
+import org.opensearch.plugins.CircuitBreakerPlugin;
 import org.opensearch.plugins.ClusterPlugin;
 import org.opensearch.plugins.ExtensionAwarePlugin;
 import org.opensearch.plugins.IdentityPlugin;
 import org.opensearch.plugins.MapperPlugin;
+import org.opensearch.plugins.SearchPlugin;
 import org.opensearch.repositories.RepositoriesService;
 import org.opensearch.rest.RestController;
 import org.opensearch.rest.RestHandler;
@@ -140,11 +145,19 @@ import org.opensearch.security.configuration.AdminDNs;
 import org.opensearch.security.configuration.ClusterInfoHolder;
 import org.opensearch.security.configuration.CompatConfig;
 import org.opensearch.security.configuration.ConfigurationRepository;
+import org.opensearch.security.configuration.DlsBitsetCache;
+import org.opensearch.security.configuration.DlsFlsCacheKeyExtBuilder;
 import org.opensearch.security.configuration.DlsFlsRequestValve;
 import org.opensearch.security.configuration.DlsFlsValveImpl;
+import org.opensearch.security.configuration.DlsModeSelector;
+import org.opensearch.security.configuration.DlsQueryCache;
+import org.opensearch.security.configuration.FlsFieldInfosCache;
+import org.opensearch.security.configuration.MaskedOrdinalsCache;
+import org.opensearch.security.configuration.MaskedValueCache;
 import org.opensearch.security.configuration.PrivilegesInterceptorImpl;
 import org.opensearch.security.configuration.Salt;
 import org.opensearch.security.configuration.SecurityFlsDlsIndexSearcherWrapper;
+import org.opensearch.security.configuration.TermsLookupCache;
 import org.opensearch.security.dlic.rest.api.Endpoint;
 import org.opensearch.security.dlic.rest.api.SecurityRestApiActions;
 import org.opensearch.security.dlic.rest.validation.PasswordValidator;
@@ -158,7 +171,9 @@ import org.opensearch.security.privileges.PrivilegesEvaluator;
 import org.opensearch.security.privileges.PrivilegesInterceptor;
 import org.opensearch.security.privileges.RestLayerPrivilegesEvaluator;
 import org.opensearch.security.resolver.IndexResolverReplacer;
+import org.opensearch.security.rest.AuditStatsAction;
 import org.opensearch.security.rest.DashboardsInfoAction;
+import org.opensearch.security.rest.DlsFlsStatsAction;
 import org.opensearch.security.rest.SecurityConfigUpdateAction;
 import org.opensearch.security.rest.SecurityHealthAction;
 import org.opensearch.security.rest.SecurityInfoAction;
@@ -211,6 +226,8 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
     implements
         ClusterPlugin,
         MapperPlugin,
+        CircuitBreakerPlugin,
+        SearchPlugin,
         // CS-SUPPRESS-SINGLE: RegexpSingleline get Extensions Settings
         ExtensionAwarePlugin,
         IdentityPlugin
@@ -248,6 +265,14 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
     private final AtomicReference<NamedXContentRegistry> namedXContentRegistry = new AtomicReference<>(NamedXContentRegistry.EMPTY);;
     private volatile DlsFlsRequestValve dlsFlsValve = null;
     private volatile Salt salt;
+    private volatile DlsBitsetCache dlsBitsetCache;
+    private volatile CircuitBreaker dlsBitsetCacheBreaker;
+    private volatile MaskedValueCache maskedValueCache;
+    private volatile MaskedOrdinalsCache maskedOrdinalsCache;
+    private volatile FlsFieldInfosCache flsFieldInfosCache;
+    private volatile DlsModeSelector dlsModeSelector;
+    private volatile TermsLookupCache termsLookupCache;
+    private volatile DlsQueryCache dlsQueryCache;
     private volatile OpensearchDynamicSetting<Boolean> transportPassiveAuthSetting;
 
     public static boolean isActionTraceEnabled() {
@@ -569,6 +594,24 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                     )
                 );
                 handlers.add(new CreateOnBehalfOfTokenAction(tokenManager));
+                handlers.add(
+                    new DlsFlsStatsAction(
+                        settings,
+                        restController,
+                        Objects.requireNonNull(threadPool),
+                        adminDns,
+                        ImmutableList.of(Objects.requireNonNull(dlsModeSelector), Objects.requireNonNull(dlsQueryCache))
+                    )
+                );
+                handlers.add(
+                    new AuditStatsAction(
+                        settings,
+                        restController,
+                        Objects.requireNonNull(threadPool),
+                        adminDns,
+                        Objects.requireNonNull(auditLog)
+                    )
+                );
                 handlers.addAll(
                     SecurityRestApiActions.getHandler(
                         settings,
@@ -623,6 +666,8 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
 
             final ComplianceIndexingOperationListener ciol = new ComplianceIndexingOperationListenerImpl(auditLog);
             indexModule.addIndexOperationListener(ciol);
+            indexModule.addIndexOperationListener(termsLookupCache);
+            indexModule.addIndexEventListener(termsLookupCache);
 
             indexModule.setReaderWrapper(
                 indexService -> new SecurityFlsDlsIndexSearcherWrapper(
@@ -633,7 +678,12 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                     auditLog,
                     ciol,
                     evaluator,
-                    salt
+                    salt,
+                    dlsBitsetCache,
+                    maskedValueCache,
+                    maskedOrdinalsCache,
+                    flsFieldInfosCache,
+                    dlsQueryCache
                 )
             );
             indexModule.forceQueryCacheProvider((indexSettings, nodeCache) -> new QueryCache() {
@@ -994,6 +1044,11 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
         final ClusterInfoHolder cih = new ClusterInfoHolder(this.cs.getClusterName().value());
         this.cs.addListener(cih);
         this.salt = Salt.from(settings);
+        this.dlsBitsetCache = new DlsBitsetCache(settings, () -> dlsBitsetCacheBreaker);
+        this.maskedValueCache = MaskedValueCache.from(settings);
+        this.maskedOrdinalsCache = new MaskedOrdinalsCache(settings);
+        this.flsFieldInfosCache = new FlsFieldInfosCache();
+        this.dlsQueryCache = new DlsQueryCache(settings);
 
         final IndexNameExpressionResolver resolver = new IndexNameExpressionResolver(threadPool.getThreadContext());
         irr = new IndexResolverReplacer(resolver, clusterService, cih);
@@ -1018,14 +1073,19 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
             auditLog = new NullAuditLog();
             privilegesInterceptor = new PrivilegesInterceptor(resolver, clusterService, localClient, threadPool);
         } else {
-            dlsFlsValve = new DlsFlsValveImpl(
+            termsLookupCache = new TermsLookupCache(settings, threadPool.getThreadContext(), xContentRegistry, namedWriteableRegistry);
+            final DlsFlsValveImpl dlsFlsValveImpl = new DlsFlsValveImpl(
                 settings,
                 localClient,
                 clusterService,
                 resolver,
                 xContentRegistry,
-                threadPool.getThreadContext()
+                threadPool.getThreadContext(),
+                termsLookupCache,
+                dlsQueryCache
             );
+            dlsFlsValve = dlsFlsValveImpl;
+            dlsModeSelector = dlsFlsValveImpl.getModeSelector();
             auditLog = new AuditLogImpl(settings, configPath, localClient, threadPool, resolver, clusterService, environment);
             privilegesInterceptor = new PrivilegesInterceptorImpl(resolver, clusterService, localClient, threadPool);
         }
@@ -1312,6 +1372,41 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                     Property.Filtered
                 )
             );
+            settings.add(Setting.boolSetting(ConfigConstants.SECURITY_AUDIT_SPOOL_ENABLED, false, Property.NodeScope, Property.Filtered));
+            settings.add(Setting.simpleString(ConfigConstants.SECURITY_AUDIT_SPOOL_PATH, Property.NodeScope, Property.Filtered));
+            settings.add(
+                Setting.byteSizeSetting(
+                    ConfigConstants.SECURITY_AUDIT_SPOOL_SEGMENT_SIZE,
+                    s -> ConfigConstants.SECURITY_AUDIT_SPOOL_SEGMENT_SIZE_DEFAULT,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.byteSizeSetting(
+                    ConfigConstants.SECURITY_AUDIT_SPOOL_MAX_SIZE,
+                    s -> ConfigConstants.SECURITY_AUDIT_SPOOL_MAX_SIZE_DEFAULT,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.intSetting(
+                    ConfigConstants.SECURITY_AUDIT_AGGREGATION_MAX_ENTRIES,
+                    ConfigConstants.SECURITY_AUDIT_AGGREGATION_MAX_ENTRIES_DEFAULT,
+                    0,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.byteSizeSetting(
+                    ConfigConstants.SECURITY_AUDIT_REQUEST_BODY_MAX_SIZE,
+                    s -> ConfigConstants.SECURITY_AUDIT_REQUEST_BODY_MAX_SIZE_DEFAULT,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
             settings.add(
                 Setting.boolSetting(ConfigConstants.OPENDISTRO_SECURITY_AUDIT_LOG_REQUEST_BODY, true, Property.NodeScope, Property.Filtered)
             );
@@ -1415,6 +1510,8 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                         return boolSettingNodeScopeFiltered.apply(filterEntry.getKeyWithNamespace(), true);
                     case RESOLVE_BULK_REQUESTS:
                         return boolSettingNodeScopeFiltered.apply(filterEntry.getKeyWithNamespace(), false);
+                    case AGGREGATED_CATEGORIES:
+                        return Setting.groupSetting(filterEntry.getKeyWithNamespace() + ".", Property.NodeScope);
                     default:
                         throw new RuntimeException("Please add support for new FilterEntries value '" + filterEntry.name() + "'");
                 }
@@ -1435,6 +1532,25 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                     Property.Filtered
                 )
             );
+            Stream.of(
+                ConfigConstants.SECURITY_AUDIT_BATCH_ENABLED,
+                ConfigConstants.SECURITY_AUDIT_BATCH_MAX_MESSAGES,
+                ConfigConstants.SECURITY_AUDIT_BATCH_MAX_SIZE,
+                ConfigConstants.SECURITY_AUDIT_BATCH_LINGER,
+                ConfigConstants.SECURITY_AUDIT_BATCH_MAX_IN_FLIGHT,
+                ConfigConstants.SECURITY_AUDIT_BATCH_MAX_QUEUED_MESSAGES,
+                ConfigConstants.SECURITY_AUDIT_EXECUTOR_THREADS,
+                ConfigConstants.SECURITY_AUDIT_EXECUTOR_QUEUE_SIZE,
+                ConfigConstants.SECURITY_AUDIT_EXECUTOR_OVERFLOW
+            )
+                .map(
+                    key -> Setting.simpleString(
+                        ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT_PREFIX + key,
+                        Property.NodeScope,
+                        Property.Filtered
+                    )
+                )
+                .forEach(settings::add);
 
             // External OpenSearch
             settings.add(
@@ -1584,6 +1700,13 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                     Property.Filtered
                 )
             );
+            settings.add(
+                Setting.simpleString(
+                    ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT_PREFIX + ConfigConstants.SECURITY_AUDIT_WEBHOOK_BATCH_PAYLOAD,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
             settings.add(
                 Setting.boolSetting(
                     ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT_PREFIX + ConfigConstants.SECURITY_AUDIT_WEBHOOK_SSL_VERIFY,
@@ -1699,6 +1822,14 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                     Property.Filtered
                 )
             );
+            settings.add(
+                Setting.boolSetting(
+                    ConfigConstants.SECURITY_COMPLIANCE_HISTORY_READ_AGGREGATED,
+                    false,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
             settings.add(
                 Setting.boolSetting(
                     ConfigConstants.OPENDISTRO_SECURITY_COMPLIANCE_HISTORY_WRITE_LOG_DIFFS,
@@ -1707,6 +1838,22 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                     Property.Filtered
                 )
             );
+            settings.add(
+                Setting.byteSizeSetting(
+                    ConfigConstants.SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_SOURCE_SIZE,
+                    s -> ConfigConstants.SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_SOURCE_SIZE_DEFAULT,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.byteSizeSetting(
+                    ConfigConstants.SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_QUEUED_SIZE,
+                    s -> ConfigConstants.SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_QUEUED_SIZE_DEFAULT,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
             settings.add(
                 Setting.boolSetting(
                     ConfigConstants.OPENDISTRO_SECURITY_COMPLIANCE_HISTORY_EXTERNAL_CONFIG_ENABLED,
@@ -1808,6 +1955,71 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
             settings.add(
                 Setting.boolSetting(ConfigConstants.SECURITY_UNSUPPORTED_ALLOW_NOW_IN_DLS, false, Property.NodeScope, Property.Filtered)
             );
+            settings.add(
+                Setting.boolSetting(
+                    ConfigConstants.SECURITY_DLS_FLS_REQUEST_CACHE_ENABLED,
+                    ConfigConstants.SECURITY_DLS_FLS_REQUEST_CACHE_ENABLED_DEFAULT,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.boolSetting(
+                    ConfigConstants.SECURITY_DLS_FILTER_LEVEL_REALTIME_GET_ENABLED,
+                    ConfigConstants.SECURITY_DLS_FILTER_LEVEL_REALTIME_GET_ENABLED_DEFAULT,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.intSetting(
+                    ConfigConstants.SECURITY_DLS_TERMS_LOOKUP_CACHE_SIZE,
+                    ConfigConstants.SECURITY_DLS_TERMS_LOOKUP_CACHE_SIZE_DEFAULT,
+                    0,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.timeSetting(
+                    ConfigConstants.SECURITY_DLS_TERMS_LOOKUP_CACHE_EXPIRE_AFTER,
+                    ConfigConstants.SECURITY_DLS_TERMS_LOOKUP_CACHE_EXPIRE_AFTER_DEFAULT,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.memorySizeSetting(
+                    ConfigConstants.SECURITY_DLS_BITSET_CACHE_SIZE,
+                    ConfigConstants.SECURITY_DLS_BITSET_CACHE_SIZE_DEFAULT,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.memorySizeSetting(
+                    ConfigConstants.SECURITY_DLS_QUERY_CACHE_SIZE,
+                    ConfigConstants.SECURITY_DLS_QUERY_CACHE_SIZE_DEFAULT,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.memorySizeSetting(
+                    ConfigConstants.SECURITY_MASKED_FIELDS_CACHE_SIZE,
+                    ConfigConstants.SECURITY_MASKED_FIELDS_CACHE_SIZE_DEFAULT,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.memorySizeSetting(
+                    ConfigConstants.SECURITY_MASKED_FIELDS_ORDINALS_CACHE_SIZE,
+                    ConfigConstants.SECURITY_MASKED_FIELDS_ORDINALS_CACHE_SIZE_DEFAULT,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
             settings.add(
                 Setting.boolSetting(
                     SECURITY_UNSUPPORTED_RESTAPI_ALLOW_SECURITYCONFIG_MODIFICATION,
@@ -1843,6 +2055,27 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
         return settings;
     }
 
+    @Override
+    public BreakerSettings getCircuitBreaker(Settings settings) {
+        return new BreakerSettings(DlsBitsetCache.CIRCUIT_BREAKER_NAME, DlsBitsetCache.maxSizeInBytes(settings), 1.0d);
+    }
+
+    @Override
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.dlsBitsetCacheBreaker = circuitBreaker;
+    }
+
+    @Override
+    public List<SearchExtSpec<?>> getSearchExts() {
+        return Collections.singletonList(
+            new SearchExtSpec<>(
+                DlsFlsCacheKeyExtBuilder.NAME,
+                DlsFlsCacheKeyExtBuilder::new,
+                DlsFlsCacheKeyExtBuilder::fromXContent
+            )
+        );
+    }
+
     @Override
     public List<String> getSettingsFilter() {
         List<String> settingsFilter = new ArrayList<>();
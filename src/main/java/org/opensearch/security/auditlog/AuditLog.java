@@ -30,6 +30,7 @@ import java.io.Closeable;
 import java.util.Map;
 
 import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.xcontent.ToXContentFragment;
 import org.opensearch.index.engine.Engine.Delete;
 import org.opensearch.index.engine.Engine.DeleteResult;
 import org.opensearch.index.engine.Engine.Index;
@@ -73,6 +74,9 @@ public interface AuditLog extends Closeable {
 
     void logDocumentRead(String index, String id, ShardId shardId, Map<String, String> fieldNameValues);
 
+    // aggregated compliance read history, the number of read documents per field
+    void logDocumentsRead(String index, ShardId shardId, Map<String, String> fieldNameCounts);
+
     void logDocumentWritten(ShardId shardId, GetResult originalIndex, Index currentIndex, IndexResult result);
 
     void logDocumentDeleted(ShardId shardId, Delete delete, DeleteResult result);
@@ -83,6 +87,11 @@ public interface AuditLog extends Closeable {
     // set config
     void setConfig(AuditConfig auditConfig);
 
+    // stats
+    default ToXContentFragment getStats() {
+        return (builder, params) -> builder;
+    }
+
     public enum Origin {
         REST,
         TRANSPORT,
@@ -113,6 +113,11 @@ public class NullAuditLog implements AuditLog {
         // noop, intentionally left empty
     }
 
+    @Override
+    public void logDocumentsRead(String index, ShardId shardId, Map<String, String> fieldNameCounts) {
+        // noop, intentionally left empty
+    }
+
     @Override
     public void logDocumentWritten(ShardId shardId, GetResult originalIndex, Index currentIndex, IndexResult result) {
         // noop, intentionally left empty
@@ -12,6 +12,7 @@
 package org.opensearch.security.auditlog.config;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -20,6 +21,7 @@ import java.util.stream.Collectors;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -29,6 +31,7 @@ import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
 import org.apache.logging.log4j.Logger;
 
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.security.DefaultObjectMapper;
 import org.opensearch.security.auditlog.impl.AuditCategory;
 import org.opensearch.security.compliance.ComplianceConfig;
@@ -142,6 +145,11 @@ public class AuditConfig {
         private final WildcardMatcher ignoredAuditRequestsMatcher;
         private final Set<AuditCategory> disabledRestCategories;
         private final Set<AuditCategory> disabledTransportCategories;
+        private final Map<AuditCategory, TimeValue> aggregatedCategories;
+        // the filters above compiled for the checks on every audited request
+        private final boolean[] auditedRestCategories;
+        private final boolean[] auditedTransportCategories;
+        private final ClassValue<Boolean> ignoredAuditRequestClasses;
 
         @VisibleForTesting
         Filter(
@@ -155,6 +163,35 @@ public class AuditConfig {
             final Set<String> ignoredAuditRequests,
             final Set<AuditCategory> disabledRestCategories,
             final Set<AuditCategory> disabledTransportCategories
+        ) {
+            this(
+                isRestApiAuditEnabled,
+                isTransportApiAuditEnabled,
+                resolveBulkRequests,
+                logRequestBody,
+                resolveIndices,
+                excludeSensitiveHeaders,
+                ignoredAuditUsers,
+                ignoredAuditRequests,
+                disabledRestCategories,
+                disabledTransportCategories,
+                Collections.emptyMap()
+            );
+        }
+
+        @VisibleForTesting
+        Filter(
+            final boolean isRestApiAuditEnabled,
+            final boolean isTransportApiAuditEnabled,
+            final boolean resolveBulkRequests,
+            final boolean logRequestBody,
+            final boolean resolveIndices,
+            final boolean excludeSensitiveHeaders,
+            final Set<String> ignoredAuditUsers,
+            final Set<String> ignoredAuditRequests,
+            final Set<AuditCategory> disabledRestCategories,
+            final Set<AuditCategory> disabledTransportCategories,
+            final Map<AuditCategory, TimeValue> aggregatedCategories
         ) {
             this.isRestApiAuditEnabled = isRestApiAuditEnabled;
             this.isTransportApiAuditEnabled = isTransportApiAuditEnabled;
@@ -168,6 +205,24 @@ public class AuditConfig {
             this.ignoredAuditRequestsMatcher = WildcardMatcher.from(ignoredAuditRequests);
             this.disabledRestCategories = disabledRestCategories;
             this.disabledTransportCategories = disabledTransportCategories;
+            this.aggregatedCategories = Maps.immutableEnumMap(aggregatedCategories);
+            this.auditedRestCategories = auditedCategories(isRestApiAuditEnabled, disabledRestCategories);
+            this.auditedTransportCategories = auditedCategories(isTransportApiAuditEnabled, disabledTransportCategories);
+            final WildcardMatcher ignoredAuditRequestsMatcher = this.ignoredAuditRequestsMatcher;
+            this.ignoredAuditRequestClasses = new ClassValue<Boolean>() {
+                @Override
+                protected Boolean computeValue(Class<?> requestClass) {
+                    return ignoredAuditRequestsMatcher.test(requestClass.getSimpleName());
+                }
+            };
+        }
+
+        private static boolean[] auditedCategories(final boolean apiAuditEnabled, final Set<AuditCategory> disabledCategories) {
+            final boolean[] audited = new boolean[AuditCategory.values().length];
+            for (final AuditCategory category : AuditCategory.values()) {
+                audited[category.ordinal()] = apiAuditEnabled && !disabledCategories.contains(category);
+            }
+            return audited;
         }
 
         public enum FilterEntries {
@@ -183,7 +238,9 @@ public class AuditConfig {
                 ConfigConstants.OPENDISTRO_SECURITY_AUDIT_CONFIG_DISABLED_TRANSPORT_CATEGORIES
             ),
             IGNORE_USERS("ignore_users", ConfigConstants.OPENDISTRO_SECURITY_AUDIT_IGNORE_USERS),
-            IGNORE_REQUESTS("ignore_requests", ConfigConstants.OPENDISTRO_SECURITY_AUDIT_IGNORE_REQUESTS);
+            IGNORE_REQUESTS("ignore_requests", ConfigConstants.OPENDISTRO_SECURITY_AUDIT_IGNORE_REQUESTS),
+            // there is no legacy key, the current key is used instead
+            AGGREGATED_CATEGORIES("aggregated_categories", ConfigConstants.SECURITY_AUDIT_CONFIG_AGGREGATED_CATEGORIES);
 
             private final String key;
             private final String legacyKeyWithNamespace;
@@ -246,6 +303,9 @@ public class AuditConfig {
             final Set<String> ignoreAuditRequests = ImmutableSet.copyOf(
                 getOrDefault(properties, FilterEntries.IGNORE_REQUESTS.getKey(), Collections.emptyList())
             );
+            final Map<AuditCategory, TimeValue> aggregatedCategories = parseAggregatedCategories(
+                getOrDefault(properties, FilterEntries.AGGREGATED_CATEGORIES.getKey(), Collections.<String, Object>emptyMap())
+            );
 
             return new Filter(
                 isRestApiAuditEnabled,
@@ -257,7 +317,8 @@ public class AuditConfig {
                 ignoredAuditUsers,
                 ignoreAuditRequests,
                 disabledRestCategories,
-                disabledTransportCategories
+                disabledTransportCategories,
+                aggregatedCategories
             );
 
         }
@@ -290,6 +351,10 @@ public class AuditConfig {
             );
             final Set<String> ignoredAuditUsers = fromSettingStringSet(settings, FilterEntries.IGNORE_USERS, DEFAULT_IGNORED_USERS);
             final Set<String> ignoreAuditRequests = fromSettingStringSet(settings, FilterEntries.IGNORE_REQUESTS, Collections.emptyList());
+            final Settings aggregatedCategorySettings = settings.getAsSettings(FilterEntries.AGGREGATED_CATEGORIES.getKeyWithNamespace());
+            final Map<AuditCategory, TimeValue> aggregatedCategories = parseAggregatedCategories(
+                aggregatedCategorySettings.keySet().stream().collect(Collectors.toMap(key -> key, aggregatedCategorySettings::get))
+            );
 
             return new Filter(
                 isRestApiAuditEnabled,
@@ -301,10 +366,40 @@ public class AuditConfig {
                 ignoredAuditUsers,
                 ignoreAuditRequests,
                 disabledRestCategories,
-                disabledTransportCategories
+                disabledTransportCategories,
+                aggregatedCategories
             );
         }
 
+        /**
+         * Compliance events carry the ids, fields and diffs of individual documents, so these cannot be aggregated.
+         */
+        private static Map<AuditCategory, TimeValue> parseAggregatedCategories(final Map<String, ?> windows) {
+            final Map<AuditCategory, TimeValue> aggregatedCategories = new EnumMap<>(AuditCategory.class);
+            for (final Map.Entry<String, ?> window : windows.entrySet()) {
+                final AuditCategory category;
+                try {
+                    category = AuditCategory.valueOf(window.getKey().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(
+                        "Unknown audit category " + window.getKey() + " in " + FilterEntries.AGGREGATED_CATEGORIES.getKey(),
+                        e
+                    );
+                }
+                if (category.name().startsWith("COMPLIANCE_")) {
+                    throw new IllegalArgumentException(
+                        "Compliance category " + category + " cannot be aggregated, remove it from "
+                            + FilterEntries.AGGREGATED_CATEGORIES.getKey()
+                    );
+                }
+                aggregatedCategories.put(
+                    category,
+                    TimeValue.parseTimeValue(String.valueOf(window.getValue()), FilterEntries.AGGREGATED_CATEGORIES.getKey())
+                );
+            }
+            return aggregatedCategories;
+        }
+
         static boolean fromSettingBoolean(final Settings settings, FilterEntries filterEntry, final boolean defaultValue) {
             return settings.getAsBoolean(
                 filterEntry.getKeyWithNamespace(),
@@ -412,6 +507,35 @@ public class AuditConfig {
             return ignoredAuditRequestsMatcher.test(action);
         }
 
+        /**
+         * Check if requests of the given class are excluded from audit; the result is computed once per class
+         * @param requestClass
+         * @return true if the simple name of the class is excluded from audit logging
+         */
+        public boolean isRequestAuditDisabled(Class<?> requestClass) {
+            return ignoredAuditRequestClasses.get(requestClass);
+        }
+
+        /**
+         * Check if events of the given category are audited for REST requests, considering both
+         * enable_rest and disabled_rest_categories
+         * @param category
+         * @return true if the category is audited
+         */
+        public boolean isRestCategoryAudited(AuditCategory category) {
+            return auditedRestCategories[category.ordinal()];
+        }
+
+        /**
+         * Check if events of the given category are audited for transport requests, considering both
+         * enable_transport and disabled_transport_categories
+         * @param category
+         * @return true if the category is audited
+         */
+        public boolean isTransportCategoryAudited(AuditCategory category) {
+            return auditedTransportCategories[category.ordinal()];
+        }
+
         /**
          * Disabled categories for REST API auditing
          * @return set of categories
@@ -430,6 +554,25 @@ public class AuditConfig {
             return disabledTransportCategories;
         }
 
+        /**
+         * Categories whose identical events are aggregated, with the aggregation window of each
+         * @return map of categories to windows
+         */
+        @JsonProperty("aggregated_categories")
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        public Map<AuditCategory, String> getAggregatedCategories() {
+            return Maps.transformValues(aggregatedCategories, TimeValue::getStringRep);
+        }
+
+        /**
+         * Window in which identical events of the given category are aggregated into one
+         * @param category
+         * @return the window, or null if events of the category are not aggregated
+         */
+        public TimeValue getAggregationWindow(AuditCategory category) {
+            return aggregatedCategories.get(category);
+        }
+
         public void log(Logger logger) {
             logger.info("Auditing on REST API is {}.", isRestApiAuditEnabled ? "enabled" : "disabled");
             logger.info("{} are excluded from REST API auditing.", disabledRestCategories);
@@ -440,6 +583,9 @@ public class AuditConfig {
             logger.info("Index resolution is {} during request auditing.", resolveIndices ? "enabled" : "disabled");
             logger.info("Sensitive headers auditing is {}.", excludeSensitiveHeaders ? "enabled" : "disabled");
             logger.info("Auditing requests from {} users is disabled.", ignoredAuditUsersMatcher);
+            if (!aggregatedCategories.isEmpty()) {
+                logger.info("Identical events of {} are aggregated.", aggregatedCategories);
+            }
         }
 
         @Override
@@ -465,6 +611,8 @@ public class AuditConfig {
                 + ignoredAuditUsersMatcher
                 + ", ignoreAuditRequests="
                 + ignoredAuditRequestsMatcher
+                + ", aggregatedCategories="
+                + aggregatedCategories
                 + '}';
         }
     }
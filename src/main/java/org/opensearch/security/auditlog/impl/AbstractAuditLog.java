@@ -17,6 +17,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.AccessController;
+import java.security.MessageDigest;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -24,14 +25,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
 import com.google.common.io.BaseEncoding;
 import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
 
 import org.opensearch.SpecialPermission;
 import org.opensearch.action.bulk.BulkRequest;
@@ -46,11 +53,14 @@ import org.opensearch.common.settings.Settings;
 import org.opensearch.common.xcontent.XContentHelper;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.core.common.bytes.BytesArray;
 import org.opensearch.core.common.bytes.BytesReference;
 import org.opensearch.core.common.transport.TransportAddress;
+import org.opensearch.core.common.unit.ByteSizeValue;
 import org.opensearch.core.index.shard.ShardId;
 import org.opensearch.core.xcontent.MediaType;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.ToXContentFragment;
 import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.core.xcontent.XContentParser;
 import org.opensearch.env.Environment;
@@ -88,6 +98,11 @@ public abstract class AbstractAuditLog implements AuditLog {
     private volatile ComplianceConfig complianceConfig;
     private final Environment environment;
     private AtomicBoolean externalConfigLogged = new AtomicBoolean();
+    private final long writeDiffMaxSourceSize;
+    private final long writeDiffMaxQueuedSize;
+    private final AtomicLong writeDiffQueuedBytes = new AtomicLong();
+    private final WriteDiffStats writeDiffStats = new WriteDiffStats();
+    private final RequestBodyCapture requestBodyCapture;
 
     protected abstract void enableRoutes();
 
@@ -117,6 +132,21 @@ public abstract class AbstractAuditLog implements AuditLog {
             ConfigConstants.OPENDISTRO_SECURITY_DEFAULT_CONFIG_INDEX
         );
         this.environment = environment;
+        this.writeDiffMaxSourceSize = ByteSizeValue.parseBytesSizeValue(
+            settings.get(
+                ConfigConstants.SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_SOURCE_SIZE,
+                ConfigConstants.SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_SOURCE_SIZE_DEFAULT
+            ),
+            ConfigConstants.SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_SOURCE_SIZE
+        ).getBytes();
+        this.writeDiffMaxQueuedSize = ByteSizeValue.parseBytesSizeValue(
+            settings.get(
+                ConfigConstants.SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_QUEUED_SIZE,
+                ConfigConstants.SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_QUEUED_SIZE_DEFAULT
+            ),
+            ConfigConstants.SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_QUEUED_SIZE
+        ).getBytes();
+        this.requestBodyCapture = RequestBodyCapture.from(settings);
     }
 
     protected void onAuditConfigFilterChanged(AuditConfig.Filter auditConfigFilter) {
@@ -206,7 +236,8 @@ public abstract class AbstractAuditLog implements AuditLog {
     public void logMissingPrivileges(String privilege, TransportRequest request, Task task) {
         final String action = null;
 
-        if (!checkTransportFilter(AuditCategory.MISSING_PRIVILEGES, privilege, getUser(), request)) {
+        final Supplier<String> effectiveUser = Suppliers.memoize(this::getUser);
+        if (!checkTransportFilter(AuditCategory.MISSING_PRIVILEGES, privilege, effectiveUser, request)) {
             return;
         }
 
@@ -216,7 +247,7 @@ public abstract class AbstractAuditLog implements AuditLog {
             getOrigin(),
             action,
             privilege,
-            getUser(),
+            effectiveUser.get(),
             null,
             null,
             remoteAddress,
@@ -231,7 +262,8 @@ public abstract class AbstractAuditLog implements AuditLog {
             auditConfigFilter.shouldResolveBulkRequests(),
             securityIndex,
             auditConfigFilter.shouldExcludeSensitiveHeaders(),
-            null
+            null,
+            requestBodyCapture
         );
 
         for (AuditMessage msg : msgs) {
@@ -243,7 +275,8 @@ public abstract class AbstractAuditLog implements AuditLog {
     public void logGrantedPrivileges(String privilege, TransportRequest request, Task task) {
         final String action = null;
 
-        if (!checkTransportFilter(AuditCategory.GRANTED_PRIVILEGES, privilege, getUser(), request)) {
+        final Supplier<String> effectiveUser = Suppliers.memoize(this::getUser);
+        if (!checkTransportFilter(AuditCategory.GRANTED_PRIVILEGES, privilege, effectiveUser, request)) {
             return;
         }
 
@@ -253,7 +286,7 @@ public abstract class AbstractAuditLog implements AuditLog {
             getOrigin(),
             action,
             privilege,
-            getUser(),
+            effectiveUser.get(),
             null,
             null,
             remoteAddress,
@@ -268,7 +301,8 @@ public abstract class AbstractAuditLog implements AuditLog {
             auditConfigFilter.shouldResolveBulkRequests(),
             securityIndex,
             auditConfigFilter.shouldExcludeSensitiveHeaders(),
-            null
+            null,
+            requestBodyCapture
         );
 
         for (AuditMessage msg : msgs) {
@@ -278,11 +312,12 @@ public abstract class AbstractAuditLog implements AuditLog {
 
     @Override
     public void logIndexEvent(String privilege, TransportRequest request, Task task) {
-        if (!checkTransportFilter(AuditCategory.INDEX_EVENT, privilege, getUser(), request)) {
+        // log only cluster admin action
+        if (privilege == null || !privilege.startsWith("indices:admin/")) {
             return;
         }
-        // log only cluster admin action
-        if (!privilege.startsWith("indices:admin/")) {
+        final Supplier<String> effectiveUser = Suppliers.memoize(this::getUser);
+        if (!checkTransportFilter(AuditCategory.INDEX_EVENT, privilege, effectiveUser, request)) {
             return;
         }
         final TransportAddress remoteAddress = getRemoteAddress();
@@ -291,7 +326,7 @@ public abstract class AbstractAuditLog implements AuditLog {
             getOrigin(),
             null,
             privilege,
-            getUser(),
+            effectiveUser.get(),
             null,
             null,
             remoteAddress,
@@ -306,7 +341,8 @@ public abstract class AbstractAuditLog implements AuditLog {
             auditConfigFilter.shouldResolveBulkRequests(),
             securityIndex,
             auditConfigFilter.shouldExcludeSensitiveHeaders(),
-            null
+            null,
+            requestBodyCapture
         );
 
         msgs.forEach(this::save);
@@ -315,7 +351,8 @@ public abstract class AbstractAuditLog implements AuditLog {
     @Override
     public void logBadHeaders(TransportRequest request, String action, Task task) {
 
-        if (!checkTransportFilter(AuditCategory.BAD_HEADERS, action, getUser(), request)) {
+        final Supplier<String> effectiveUser = Suppliers.memoize(this::getUser);
+        if (!checkTransportFilter(AuditCategory.BAD_HEADERS, action, effectiveUser, request)) {
             return;
         }
 
@@ -325,7 +362,7 @@ public abstract class AbstractAuditLog implements AuditLog {
             getOrigin(),
             action,
             null,
-            getUser(),
+            effectiveUser.get(),
             null,
             null,
             remoteAddress,
@@ -340,7 +377,8 @@ public abstract class AbstractAuditLog implements AuditLog {
             auditConfigFilter.shouldResolveBulkRequests(),
             securityIndex,
             auditConfigFilter.shouldExcludeSensitiveHeaders(),
-            null
+            null,
+            requestBodyCapture
         );
 
         for (AuditMessage msg : msgs) {
@@ -351,7 +389,8 @@ public abstract class AbstractAuditLog implements AuditLog {
     @Override
     public void logBadHeaders(SecurityRequest request) {
 
-        if (!checkRestFilter(AuditCategory.BAD_HEADERS, getUser(), request)) {
+        final Supplier<String> effectiveUser = Suppliers.memoize(this::getUser);
+        if (!checkRestFilter(AuditCategory.BAD_HEADERS, effectiveUser, request)) {
             return;
         }
 
@@ -359,7 +398,7 @@ public abstract class AbstractAuditLog implements AuditLog {
         TransportAddress remoteAddress = getRemoteAddress();
         msg.addRemoteAddress(remoteAddress);
         msg.addRestRequestInfo(request, auditConfigFilter);
-        msg.addEffectiveUser(getUser());
+        msg.addEffectiveUser(effectiveUser.get());
 
         save(msg);
     }
@@ -367,7 +406,8 @@ public abstract class AbstractAuditLog implements AuditLog {
     @Override
     public void logSecurityIndexAttempt(TransportRequest request, String action, Task task) {
 
-        if (!checkTransportFilter(AuditCategory.OPENDISTRO_SECURITY_INDEX_ATTEMPT, action, getUser(), request)) {
+        final Supplier<String> effectiveUser = Suppliers.memoize(this::getUser);
+        if (!checkTransportFilter(AuditCategory.OPENDISTRO_SECURITY_INDEX_ATTEMPT, action, effectiveUser, request)) {
             return;
         }
 
@@ -377,7 +417,7 @@ public abstract class AbstractAuditLog implements AuditLog {
             getOrigin(),
             action,
             null,
-            getUser(),
+            effectiveUser.get(),
             false,
             null,
             remoteAddress,
@@ -392,7 +432,8 @@ public abstract class AbstractAuditLog implements AuditLog {
             auditConfigFilter.shouldResolveBulkRequests(),
             securityIndex,
             auditConfigFilter.shouldExcludeSensitiveHeaders(),
-            null
+            null,
+            requestBodyCapture
         );
 
         for (AuditMessage msg : msgs) {
@@ -403,7 +444,8 @@ public abstract class AbstractAuditLog implements AuditLog {
     @Override
     public void logSSLException(TransportRequest request, Throwable t, String action, Task task) {
 
-        if (!checkTransportFilter(AuditCategory.SSL_EXCEPTION, action, getUser(), request)) {
+        final Supplier<String> effectiveUser = Suppliers.memoize(this::getUser);
+        if (!checkTransportFilter(AuditCategory.SSL_EXCEPTION, action, effectiveUser, request)) {
             return;
         }
 
@@ -414,7 +456,7 @@ public abstract class AbstractAuditLog implements AuditLog {
             Origin.TRANSPORT,
             action,
             null,
-            getUser(),
+            effectiveUser.get(),
             false,
             null,
             remoteAddress,
@@ -429,7 +471,8 @@ public abstract class AbstractAuditLog implements AuditLog {
             auditConfigFilter.shouldResolveBulkRequests(),
             securityIndex,
             auditConfigFilter.shouldExcludeSensitiveHeaders(),
-            t
+            t,
+            requestBodyCapture
         );
 
         for (AuditMessage msg : msgs) {
@@ -440,7 +483,8 @@ public abstract class AbstractAuditLog implements AuditLog {
     @Override
     public void logSSLException(SecurityRequest request, Throwable t) {
 
-        if (!checkRestFilter(AuditCategory.SSL_EXCEPTION, getUser(), request)) {
+        final Supplier<String> effectiveUser = Suppliers.memoize(this::getUser);
+        if (!checkRestFilter(AuditCategory.SSL_EXCEPTION, effectiveUser, request)) {
             return;
         }
 
@@ -450,12 +494,21 @@ public abstract class AbstractAuditLog implements AuditLog {
         msg.addRemoteAddress(remoteAddress);
         msg.addRestRequestInfo(request, auditConfigFilter);
         msg.addException(t);
-        msg.addEffectiveUser(getUser());
+        msg.addEffectiveUser(effectiveUser.get());
         save(msg);
     }
 
     @Override
     public void logDocumentRead(String index, String id, ShardId shardId, Map<String, String> fieldNameValues) {
+        logDocumentRead(index, id, shardId, fieldNameValues, false);
+    }
+
+    @Override
+    public void logDocumentsRead(String index, ShardId shardId, Map<String, String> fieldNameCounts) {
+        logDocumentRead(index, null, shardId, fieldNameCounts, true);
+    }
+
+    private void logDocumentRead(String index, String id, ShardId shardId, Map<String, String> fieldNameValues, boolean aggregated) {
         final ComplianceConfig complianceConfig = getComplianceConfig();
         if (complianceConfig == null || !complianceConfig.readHistoryEnabledForIndex(index)) {
             return;
@@ -487,6 +540,9 @@ public abstract class AbstractAuditLog implements AuditLog {
             msg.addShardId(shardId);
             // msg.addIsAdminDn(securityadmin);
             msg.addId(id);
+            if (aggregated) {
+                msg.addComplianceReadAggregated();
+            }
 
             try {
                 if (complianceConfig.shouldLogReadMetadataOnly()) {
@@ -557,65 +613,34 @@ public abstract class AbstractAuditLog implements AuditLog {
         msg.addComplianceDocVersion(result.getVersion());
         msg.addComplianceOperation(result.isCreated() ? Operation.CREATE : Operation.UPDATE);
 
+        Runnable writeDiff = null;
         if (complianceConfig.shouldLogDiffsForWrite()
             && originalResult != null
             && originalResult.isExists()
             && originalResult.internalSourceRef() != null) {
-            try {
-                String originalSource = null;
-                String currentSource = null;
-                if (securityIndex.equals(shardId.getIndexName())) {
-                    try (
-                        XContentParser parser = XContentHelper.createParser(
-                            NamedXContentRegistry.EMPTY,
-                            THROW_UNSUPPORTED_OPERATION,
-                            originalResult.internalSourceRef(),
-                            XContentType.JSON
-                        )
-                    ) {
-                        Object base64 = parser.map().values().iterator().next();
-                        if (base64 instanceof String) {
-                            originalSource = (new String(BaseEncoding.base64().decode((String) base64), StandardCharsets.UTF_8));
-                        } else {
-                            originalSource = XContentHelper.convertToJson(originalResult.internalSourceRef(), false, XContentType.JSON);
-                        }
-                    } catch (Exception e) {
-                        log.error(e.toString());
-                    }
-
-                    try (
-                        XContentParser parser = XContentHelper.createParser(
-                            NamedXContentRegistry.EMPTY,
-                            THROW_UNSUPPORTED_OPERATION,
-                            currentIndex.source(),
-                            XContentType.JSON
-                        )
-                    ) {
-                        Object base64 = parser.map().values().iterator().next();
-                        if (base64 instanceof String) {
-                            currentSource = new String(BaseEncoding.base64().decode((String) base64), StandardCharsets.UTF_8);
-                        } else {
-                            currentSource = XContentHelper.convertToJson(currentIndex.source(), false, XContentType.JSON);
-                        }
-                    } catch (Exception e) {
-                        log.error(e.toString());
+            final BytesReference originalSource = originalResult.internalSourceRef();
+            final BytesReference currentSource = currentIndex.source();
+            final boolean isSecurityIndex = securityIndex.equals(shardId.getIndexName());
+            final long sourcesSize = originalSource.length() + currentSource.length();
+            if (originalSource.length() > writeDiffMaxSourceSize || currentSource.length() > writeDiffMaxSourceSize) {
+                // hashing is cheap compared to copying the sources for a diff
+                addWriteDiffHashes(msg, originalSource, currentSource);
+            } else if (writeDiffQueuedBytes.addAndGet(sourcesSize) > writeDiffMaxQueuedSize) {
+                // the sources waiting for their diffs take too much memory already, rather slow down the caller
+                writeDiffQueuedBytes.addAndGet(-sourcesSize);
+                addWriteDiff(msg, id, isSecurityIndex, originalSource, currentSource, System.nanoTime());
+            } else {
+                // The sources are copied, as the buffers of the indexing request might be reused before the diff is generated
+                final BytesReference originalSourceCopy = new BytesArray(BytesReference.toBytes(originalSource));
+                final BytesReference currentSourceCopy = new BytesArray(BytesReference.toBytes(currentSource));
+                final long queuedAt = System.nanoTime();
+                writeDiff = () -> {
+                    try {
+                        addWriteDiff(msg, id, isSecurityIndex, originalSourceCopy, currentSourceCopy, queuedAt);
+                    } finally {
+                        writeDiffQueuedBytes.addAndGet(-sourcesSize);
                     }
-                    final JsonNode diffnode = JsonDiff.asJson(
-                        DefaultObjectMapper.objectMapper.readTree(originalSource),
-                        DefaultObjectMapper.objectMapper.readTree(currentSource)
-                    );
-                    msg.addSecurityConfigWriteDiffSource(diffnode.size() == 0 ? "" : diffnode.toString(), id);
-                } else {
-                    originalSource = XContentHelper.convertToJson(originalResult.internalSourceRef(), false, XContentType.JSON);
-                    currentSource = XContentHelper.convertToJson(currentIndex.source(), false, XContentType.JSON);
-                    final JsonNode diffnode = JsonDiff.asJson(
-                        DefaultObjectMapper.objectMapper.readTree(originalSource),
-                        DefaultObjectMapper.objectMapper.readTree(currentSource)
-                    );
-                    msg.addComplianceWriteDiffSource(diffnode.size() == 0 ? "" : diffnode.toString());
-                }
-            } catch (Exception e) {
-                log.error("Unable to generate diff for {}", msg.toPrettyString(), e);
+                };
             }
         }
 
@@ -660,7 +685,107 @@ public abstract class AbstractAuditLog implements AuditLog {
 
         }
 
-        save(msg);
+        if (writeDiff != null) {
+            saveAsync(msg, writeDiff);
+        } else {
+            save(msg);
+        }
+    }
+
+    /**
+     * Adds the hashes of the given sources to the message instead of their diff. This is used for sources larger than
+     * {@link ConfigConstants#SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_SOURCE_SIZE}.
+     */
+    private void addWriteDiffHashes(final AuditMessage msg, final BytesReference originalSource, final BytesReference currentSource) {
+        final long start = System.nanoTime();
+        try {
+            msg.addComplianceWriteDiffHashes(sha256Hex(originalSource), sha256Hex(currentSource));
+            writeDiffStats.record(true, 0, System.nanoTime() - start);
+        } catch (Exception e) {
+            writeDiffStats.failed();
+            log.error("Unable to hash sources for {}", msg.toPrettyString(), e);
+        }
+    }
+
+    private static String sha256Hex(final BytesReference source) throws IOException {
+        final MessageDigest digest = DigestUtils.getSha256Digest();
+        final BytesRefIterator iterator = source.iterator();
+        for (BytesRef ref = iterator.next(); ref != null; ref = iterator.next()) {
+            digest.update(ref.bytes, ref.offset, ref.length);
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    /**
+     * Adds the diff between the given sources to the message.
+     */
+    private void addWriteDiff(
+        final AuditMessage msg,
+        final String id,
+        final boolean isSecurityIndex,
+        final BytesReference originalSourceRef,
+        final BytesReference currentSourceRef,
+        final long queuedAt
+    ) {
+        final long start = System.nanoTime();
+        try {
+            if (isSecurityIndex) {
+                String originalSource = null;
+                String currentSource = null;
+                try (
+                    XContentParser parser = XContentHelper.createParser(
+                        NamedXContentRegistry.EMPTY,
+                        THROW_UNSUPPORTED_OPERATION,
+                        originalSourceRef,
+                        XContentType.JSON
+                    )
+                ) {
+                    Object base64 = parser.map().values().iterator().next();
+                    if (base64 instanceof String) {
+                        originalSource = (new String(BaseEncoding.base64().decode((String) base64), StandardCharsets.UTF_8));
+                    } else {
+                        originalSource = XContentHelper.convertToJson(originalSourceRef, false, XContentType.JSON);
+                    }
+                } catch (Exception e) {
+                    log.error(e.toString());
+                }
+
+                try (
+                    XContentParser parser = XContentHelper.createParser(
+                        NamedXContentRegistry.EMPTY,
+                        THROW_UNSUPPORTED_OPERATION,
+                        currentSourceRef,
+                        XContentType.JSON
+                    )
+                ) {
+                    Object base64 = parser.map().values().iterator().next();
+                    if (base64 instanceof String) {
+                        currentSource = new String(BaseEncoding.base64().decode((String) base64), StandardCharsets.UTF_8);
+                    } else {
+                        currentSource = XContentHelper.convertToJson(currentSourceRef, false, XContentType.JSON);
+                    }
+                } catch (Exception e) {
+                    log.error(e.toString());
+                }
+                final JsonNode diffnode = JsonDiff.asJson(
+                    DefaultObjectMapper.objectMapper.readTree(originalSource),
+                    DefaultObjectMapper.objectMapper.readTree(currentSource)
+                );
+                msg.addSecurityConfigWriteDiffSource(diffnode.size() == 0 ? "" : diffnode.toString(), id);
+            } else {
+                final String originalSource = XContentHelper.convertToJson(originalSourceRef, false, XContentType.JSON);
+                final String currentSource = XContentHelper.convertToJson(currentSourceRef, false, XContentType.JSON);
+                final JsonNode diffnode = JsonDiff.asJson(
+                    DefaultObjectMapper.objectMapper.readTree(originalSource),
+                    DefaultObjectMapper.objectMapper.readTree(currentSource)
+                );
+                msg.addComplianceWriteDiffSource(diffnode.size() == 0 ? "" : diffnode.toString());
+            }
+            writeDiffStats.record(false, start - queuedAt, System.nanoTime() - start);
+        } catch (Exception e) {
+            writeDiffStats.failed();
+            log.error("Unable to generate diff for {}", msg.toPrettyString(), e);
+        }
     }
 
     @Override
@@ -786,18 +911,36 @@ public abstract class AbstractAuditLog implements AuditLog {
 
     @VisibleForTesting
     boolean checkTransportFilter(final AuditCategory category, final String action, final String effectiveUser, TransportRequest request) {
+        return checkTransportFilter(category, action, () -> effectiveUser, request);
+    }
+
+    /**
+     * Checks the audit filter on the attributes of the request, cheapest first, before any audit message is built.
+     * The effective user is only determined if all other checks pass.
+     */
+    private boolean checkTransportFilter(
+        final AuditCategory category,
+        final String action,
+        final Supplier<String> effectiveUser,
+        final TransportRequest request
+    ) {
+        final AuditConfig.Filter filter = auditConfigFilter;
         final boolean isTraceEnabled = log.isTraceEnabled();
         if (isTraceEnabled) {
             log.trace(
                 "Check category:{}, action:{}, effectiveUser:{}, request:{}",
                 category,
                 action,
-                effectiveUser,
+                effectiveUser.get(),
                 request == null ? null : request.getClass().getSimpleName()
             );
         }
 
-        if (!auditConfigFilter.isTransportApiAuditEnabled()) {
+        // check transport audit and category enabled
+        if (!filter.isTransportCategoryAudited(category)) {
+            if (isTraceEnabled) {
+                log.trace("Skipped audit log message because category {} not enabled", category);
+            }
             return false;
         }
 
@@ -806,41 +949,25 @@ public abstract class AbstractAuditLog implements AuditLog {
             return false;
         }
 
-        if (auditConfigFilter.isAuditDisabled(effectiveUser)) {
+        if (request != null && (filter.isRequestAuditDisabled(action) || filter.isRequestAuditDisabled(request.getClass()))) {
 
             if (isTraceEnabled) {
-                log.trace("Skipped audit log message because of user {} is ignored", effectiveUser);
+                log.trace("Skipped audit log message because request {} is ignored", action + "#" + request.getClass().getSimpleName());
             }
 
             return false;
         }
 
-        if (request != null
-            && (auditConfigFilter.isRequestAuditDisabled(action)
-                || auditConfigFilter.isRequestAuditDisabled(request.getClass().getSimpleName()))) {
+        if (filter.isAuditDisabled(effectiveUser.get())) {
 
             if (isTraceEnabled) {
-                log.trace("Skipped audit log message because request {} is ignored", action + "#" + request.getClass().getSimpleName());
+                log.trace("Skipped audit log message because of user {} is ignored", effectiveUser.get());
             }
 
             return false;
         }
 
-        if (!auditConfigFilter.getDisabledTransportCategories().contains(category)) {
-            return true;
-        } else {
-            if (isTraceEnabled) {
-                log.trace("Skipped audit log message because category {} not enabled", category);
-            }
-            return false;
-        }
-
-        // skip internal:*
-        // check transport audit enabled
-        // check category enabled
-        // check action
-        // check ignoreAuditUsers
-
+        return true;
     }
 
     private boolean checkComplianceFilter(
@@ -887,30 +1014,34 @@ public abstract class AbstractAuditLog implements AuditLog {
 
     @VisibleForTesting
     boolean checkRestFilter(final AuditCategory category, final String effectiveUser, SecurityRequest request) {
+        return checkRestFilter(category, () -> effectiveUser, request);
+    }
+
+    /**
+     * Checks the audit filter on the attributes of the request, cheapest first, before any audit message is built.
+     * The effective user is only determined if all other checks pass.
+     */
+    private boolean checkRestFilter(final AuditCategory category, final Supplier<String> effectiveUser, final SecurityRequest request) {
+        final AuditConfig.Filter filter = auditConfigFilter;
         final boolean isTraceEnabled = log.isTraceEnabled();
         if (isTraceEnabled) {
             log.trace(
                 "Check for REST category:{}, effectiveUser:{}, request:{}",
                 category,
-                effectiveUser,
+                effectiveUser.get(),
                 request == null ? null : request.path()
             );
         }
 
-        if (!auditConfigFilter.isRestApiAuditEnabled()) {
-            return false;
-        }
-
-        if (auditConfigFilter.isAuditDisabled(effectiveUser)) {
-
+        // check rest audit and category enabled
+        if (!filter.isRestCategoryAudited(category)) {
             if (isTraceEnabled) {
-                log.trace("Skipped audit log message because of user {} is ignored", effectiveUser);
+                log.trace("Skipped audit log message because category {} not enabled", category);
             }
-
             return false;
         }
 
-        if (request != null && auditConfigFilter.isRequestAuditDisabled(request.path())) {
+        if (request != null && filter.isRequestAuditDisabled(request.path())) {
 
             if (isTraceEnabled) {
                 log.trace("Skipped audit log message because request {} is ignored", request.path());
@@ -919,20 +1050,37 @@ public abstract class AbstractAuditLog implements AuditLog {
             return false;
         }
 
-        if (!auditConfigFilter.getDisabledRestCategories().contains(category)) {
-            return true;
-        } else {
+        if (filter.isAuditDisabled(effectiveUser.get())) {
+
             if (isTraceEnabled) {
-                log.trace("Skipped audit log message because category {} not enabled", category);
+                log.trace("Skipped audit log message because of user {} is ignored", effectiveUser.get());
             }
+
             return false;
         }
 
-        // check rest audit enabled
-        // check category enabled
-        // check action
-        // check ignoreAuditUsers
+        return true;
     }
 
     protected abstract void save(final AuditMessage msg);
+
+    /**
+     * Saves the given message after running the given task, which completes the message with expensive parts
+     * such as write diffs. Implementations may run both off the calling thread; by default, these run synchronously.
+     * The sources of write diffs waiting for an audit thread are bounded by
+     * {@link ConfigConstants#SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_QUEUED_SIZE}; beyond that, diffs are generated
+     * on the calling thread without going through this method.
+     */
+    protected void saveAsync(final AuditMessage msg, final Runnable completion) {
+        completion.run();
+        save(msg);
+    }
+
+    @Override
+    public ToXContentFragment getStats() {
+        return (builder, params) -> {
+            writeDiffStats.toXContent(builder, params);
+            return requestBodyCapture.toXContent(builder, params);
+        };
+    }
 }
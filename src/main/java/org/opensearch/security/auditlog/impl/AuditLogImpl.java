@@ -17,12 +17,15 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Map;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import org.opensearch.SpecialPermission;
 import org.opensearch.client.Client;
 import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.xcontent.ToXContentFragment;
 import org.opensearch.env.Environment;
 import org.opensearch.index.engine.Engine.Delete;
 import org.opensearch.index.engine.Engine.DeleteResult;
@@ -32,6 +35,7 @@ import org.opensearch.index.get.GetResult;
 import org.opensearch.security.auditlog.config.AuditConfig;
 import org.opensearch.security.auditlog.routing.AuditMessageRouter;
 import org.opensearch.security.filter.SecurityRequest;
+import org.opensearch.security.support.ConfigConstants;
 import org.opensearch.tasks.Task;
 import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.transport.TransportRequest;
@@ -41,6 +45,7 @@ import org.greenrobot.eventbus.Subscribe;
 public final class AuditLogImpl extends AbstractAuditLog {
 
     private final AuditMessageRouter messageRouter;
+    private final AuditMessageAggregator aggregator;
     private final Settings settings;
     private final boolean messageRouterEnabled;
     private volatile boolean enabled;
@@ -57,7 +62,6 @@ public final class AuditLogImpl extends AbstractAuditLog {
         this(settings, configPath, clientProvider, threadPool, resolver, clusterService, null);
     }
 
-    @SuppressWarnings("removal")
     public AuditLogImpl(
         final Settings settings,
         final Path configPath,
@@ -66,11 +70,38 @@ public final class AuditLogImpl extends AbstractAuditLog {
         final IndexNameExpressionResolver resolver,
         final ClusterService clusterService,
         final Environment environment
+    ) {
+        this(
+            settings,
+            threadPool,
+            resolver,
+            clusterService,
+            environment,
+            new AuditMessageRouter(settings, clientProvider, threadPool, configPath)
+        );
+    }
+
+    @VisibleForTesting
+    @SuppressWarnings("removal")
+    AuditLogImpl(
+        final Settings settings,
+        final ThreadPool threadPool,
+        final IndexNameExpressionResolver resolver,
+        final ClusterService clusterService,
+        final Environment environment,
+        final AuditMessageRouter messageRouter
     ) {
         super(settings, threadPool, resolver, clusterService, environment);
         this.settings = settings;
-        this.messageRouter = new AuditMessageRouter(settings, clientProvider, threadPool, configPath);
+        this.messageRouter = messageRouter;
         this.messageRouterEnabled = this.messageRouter.isEnabled();
+        this.aggregator = new AuditMessageAggregator(
+            settings.getAsInt(
+                ConfigConstants.SECURITY_AUDIT_AGGREGATION_MAX_ENTRIES,
+                ConfigConstants.SECURITY_AUDIT_AGGREGATION_MAX_ENTRIES_DEFAULT
+            ),
+            messageRouter::route
+        );
 
         log.info("Message routing enabled: {}", this.messageRouterEnabled);
 
@@ -86,6 +117,12 @@ public final class AuditLogImpl extends AbstractAuditLog {
         onComplianceConfigChanged(auditConfig.getCompliance());
     }
 
+    @Override
+    protected void onAuditConfigFilterChanged(AuditConfig.Filter auditConfigFilter) {
+        super.onAuditConfigFilterChanged(auditConfigFilter);
+        aggregator.setFilter(auditConfigFilter);
+    }
+
     @Override
     protected void enableRoutes() {
         if (messageRouterEnabled) {
@@ -94,7 +131,11 @@ public final class AuditLogImpl extends AbstractAuditLog {
     }
 
     private Thread addShutdownHook() {
-        Thread shutdownHook = new Thread(() -> messageRouter.close());
+        Thread shutdownHook = new Thread(() -> {
+            // aggregated messages are routed before the router closes
+            aggregator.close();
+            messageRouter.close();
+        });
         Runtime.getRuntime().addShutdownHook(shutdownHook);
         return shutdownHook;
     }
@@ -125,11 +166,41 @@ public final class AuditLogImpl extends AbstractAuditLog {
 
     @Override
     protected void save(final AuditMessage msg) {
-        if (enabled) {
+        if (enabled && !aggregator.aggregate(msg)) {
             messageRouter.route(msg);
         }
     }
 
+    @Override
+    protected void saveAsync(final AuditMessage msg, final Runnable completion) {
+        if (!enabled) {
+            // the completion releases the sources queued for the message
+            completion.run();
+            return;
+        }
+        final Runnable task = () -> {
+            completion.run();
+            messageRouter.route(msg);
+        };
+        if (!messageRouter.execute(task)) {
+            // the audit thread pool is saturated; rather slow down the caller than lose the message
+            task.run();
+        }
+    }
+
+    @Override
+    public ToXContentFragment getStats() {
+        final ToXContentFragment stats = super.getStats();
+        if (!messageRouterEnabled) {
+            return stats;
+        }
+        final ToXContentFragment routerStats = messageRouter.getStats();
+        return (builder, params) -> {
+            stats.toXContent(builder, params);
+            return routerStats.toXContent(builder, params);
+        };
+    }
+
     @Override
     public void logFailedLogin(String effectiveUser, boolean securityAdmin, String initiatingUser, SecurityRequest request) {
         if (enabled) {
@@ -221,6 +292,13 @@ public final class AuditLogImpl extends AbstractAuditLog {
         }
     }
 
+    @Override
+    public void logDocumentsRead(String index, ShardId shardId, Map<String, String> fieldNameCounts) {
+        if (enabled) {
+            super.logDocumentsRead(index, shardId, fieldNameCounts);
+        }
+    }
+
     @Override
     public void logDocumentWritten(ShardId shardId, GetResult originalResult, Index currentIndex, IndexResult result) {
         if (enabled) {
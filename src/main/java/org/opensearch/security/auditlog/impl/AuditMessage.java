@@ -11,6 +11,7 @@
 
 package org.opensearch.security.auditlog.impl;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
@@ -29,16 +30,19 @@ import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.hc.core5.net.URIBuilder;
 
 import org.opensearch.ExceptionsHelper;
+import org.opensearch.cluster.node.DiscoveryNode;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.collect.Tuple;
 import org.opensearch.common.xcontent.XContentHelper;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.common.xcontent.json.JsonXContent;
 import org.opensearch.core.common.Strings;
+import org.opensearch.core.common.bytes.BytesArray;
 import org.opensearch.core.common.bytes.BytesReference;
 import org.opensearch.core.common.transport.TransportAddress;
 import org.opensearch.core.index.shard.ShardId;
 import org.opensearch.core.xcontent.MediaType;
+import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.rest.RestRequest;
 import org.opensearch.security.auditlog.AuditLog.Operation;
 import org.opensearch.security.auditlog.AuditLog.Origin;
@@ -112,8 +116,11 @@ public final class AuditMessage {
     public static final String TASK_PARENT_ID = "audit_trace_task_parent_id";
 
     public static final String REQUEST_BODY = "audit_request_body";
+    public static final String REQUEST_BODY_TRUNCATED = "audit_request_body_truncated";
     public static final String COMPLIANCE_DIFF_IS_NOOP = "audit_compliance_diff_is_noop";
     public static final String COMPLIANCE_DIFF_CONTENT = "audit_compliance_diff_content";
+    public static final String COMPLIANCE_DIFF_ORIGINAL_SHA256 = "audit_compliance_diff_original_sha256";
+    public static final String COMPLIANCE_DIFF_CURRENT_SHA256 = "audit_compliance_diff_current_sha256";
     public static final String COMPLIANCE_FILE_INFOS = "audit_compliance_file_infos";
 
     // public static final String COMPLIANCE_DIFF_STORED_IS_NOOP = "audit_compliance_diff_stored_is_noop";
@@ -123,81 +130,135 @@ public final class AuditMessage {
 
     public static final String COMPLIANCE_OPERATION = "audit_compliance_operation";
     public static final String COMPLIANCE_DOC_VERSION = "audit_compliance_doc_version";
+    public static final String COMPLIANCE_READ_AGGREGATED = "audit_compliance_read_aggregated";
+
+    public static final String AGGREGATION_COUNT = "audit_aggregation_count";
+    public static final String AGGREGATION_FIRST_TIMESTAMP = "audit_aggregation_first_timestamp";
+    public static final String AGGREGATION_LAST_TIMESTAMP = "audit_aggregation_last_timestamp";
 
     private static final DateTimeFormatter DEFAULT_FORMAT = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZZ");
+    private static final int MAX_RETAINED_BUFFER_BYTES = 1024 * 1024;
+    private static final ThreadLocal<ByteArrayOutputStream> SERIALIZATION_BUFFER = ThreadLocal.withInitial(
+        () -> new ByteArrayOutputStream(4096)
+    );
+    private static volatile NodeFields nodeFields;
+
     private final Map<String, Object> auditInfo = new HashMap<String, Object>(50);
     private final AuditCategory msgCategory;
+    // serialized once, no matter to how many sinks the message is routed
+    private volatile BytesReference json;
+    // converted when the message is serialized, off the thread of the audited request
+    private volatile CapturedRequestBody capturedRequestBody;
+    // System.nanoTime() when the message was routed to its sinks, not part of the message
+    private volatile long routedNanos;
 
     public AuditMessage(final AuditCategory msgCategory, final ClusterService clusterService, final Origin origin, final Origin layer) {
         this.msgCategory = Objects.requireNonNull(msgCategory);
         final String currentTime = currentTime();
-        auditInfo.put(FORMAT_VERSION, 4);
-        auditInfo.put(CATEGORY, Objects.requireNonNull(msgCategory));
-        auditInfo.put(UTC_TIMESTAMP, currentTime);
-        auditInfo.put(NODE_HOST_ADDRESS, Objects.requireNonNull(clusterService).localNode().getHostAddress());
-        auditInfo.put(NODE_ID, Objects.requireNonNull(clusterService).localNode().getId());
-        auditInfo.put(NODE_HOST_NAME, Objects.requireNonNull(clusterService).localNode().getHostName());
-        auditInfo.put(NODE_NAME, Objects.requireNonNull(clusterService).localNode().getName());
-        auditInfo.put(CLUSTER_NAME, Objects.requireNonNull(clusterService).getClusterName().value());
+        final NodeFields node = NodeFields.of(Objects.requireNonNull(clusterService));
+        put(FORMAT_VERSION, 4);
+        put(CATEGORY, Objects.requireNonNull(msgCategory));
+        put(UTC_TIMESTAMP, currentTime);
+        put(NODE_HOST_ADDRESS, node.hostAddress);
+        put(NODE_ID, node.id);
+        put(NODE_HOST_NAME, node.hostName);
+        put(NODE_NAME, node.name);
+        put(CLUSTER_NAME, node.clusterName);
 
         if (origin != null) {
-            auditInfo.put(ORIGIN, origin);
+            put(ORIGIN, origin);
         }
 
         if (layer != null) {
-            auditInfo.put(REQUEST_LAYER, layer);
+            put(REQUEST_LAYER, layer);
         }
     }
 
+    private AuditMessage(final AuditCategory msgCategory) {
+        this.msgCategory = msgCategory;
+    }
+
+    /**
+     * Restores a message from the map of its fields, as returned by {@link #getAsMap()} and parsed from JSON.
+     * Fields which are enums in the original message are restored as such; arrays are restored as lists.
+     */
+    public static AuditMessage fromMap(final Map<String, Object> map) {
+        final AuditMessage msg = new AuditMessage(AuditCategory.valueOf(String.valueOf(map.get(CATEGORY))));
+        msg.auditInfo.putAll(map);
+        msg.auditInfo.put(CATEGORY, msg.msgCategory);
+        msg.auditInfo.computeIfPresent(ORIGIN, (key, value) -> Origin.valueOf(String.valueOf(value)));
+        msg.auditInfo.computeIfPresent(REQUEST_LAYER, (key, value) -> Origin.valueOf(String.valueOf(value)));
+        msg.auditInfo.computeIfPresent(REST_REQUEST_METHOD, (key, value) -> RestRequest.Method.valueOf(String.valueOf(value)));
+        msg.auditInfo.computeIfPresent(COMPLIANCE_OPERATION, (key, value) -> Operation.valueOf(String.valueOf(value)));
+        return msg;
+    }
+
+    private void put(final String key, final Object value) {
+        if (REQUEST_BODY.equals(key)) {
+            capturedRequestBody = null;
+        }
+        auditInfo.put(key, value);
+        json = null;
+    }
+
     public void addRemoteAddress(TransportAddress remoteAddress) {
         if (remoteAddress != null && remoteAddress.getAddress() != null) {
-            auditInfo.put(REMOTE_ADDRESS, remoteAddress.getAddress());
+            put(REMOTE_ADDRESS, remoteAddress.getAddress());
         }
     }
 
     public void addIsAdminDn(boolean isAdminDn) {
-        auditInfo.put(IS_ADMIN_DN, isAdminDn);
+        put(IS_ADMIN_DN, isAdminDn);
     }
 
     public void addException(Throwable t) {
         if (t != null) {
-            auditInfo.put(EXCEPTION, ExceptionsHelper.stackTrace(t));
+            put(EXCEPTION, ExceptionsHelper.stackTrace(t));
         }
     }
 
     public void addPrivilege(String priv) {
         if (priv != null) {
-            auditInfo.put(PRIVILEGE, priv);
+            put(PRIVILEGE, priv);
         }
     }
 
     public void addInitiatingUser(String user) {
         if (user != null) {
-            auditInfo.put(REQUEST_INITIATING_USER, user);
+            put(REQUEST_INITIATING_USER, user);
         }
     }
 
     public void addEffectiveUser(String user) {
         if (user != null) {
-            auditInfo.put(REQUEST_EFFECTIVE_USER, user);
+            put(REQUEST_EFFECTIVE_USER, user);
         }
     }
 
     public void addPath(String path) {
         if (path != null) {
-            auditInfo.put(REST_REQUEST_PATH, path);
+            put(REST_REQUEST_PATH, path);
         }
     }
 
     public void addComplianceWriteDiffSource(String diff) {
         if (diff != null && !diff.isEmpty()) {
-            auditInfo.put(COMPLIANCE_DIFF_CONTENT, diff);
-            auditInfo.put(COMPLIANCE_DIFF_IS_NOOP, false);
+            put(COMPLIANCE_DIFF_CONTENT, diff);
+            put(COMPLIANCE_DIFF_IS_NOOP, false);
         } else if (diff != null && diff.isEmpty()) {
-            auditInfo.put(COMPLIANCE_DIFF_IS_NOOP, true);
+            put(COMPLIANCE_DIFF_IS_NOOP, true);
         }
     }
 
+    /**
+     * Records the hashes of the original and the current source instead of a diff, for sources too large to diff
+     */
+    public void addComplianceWriteDiffHashes(final String originalSha256, final String currentSha256) {
+        put(COMPLIANCE_DIFF_ORIGINAL_SHA256, originalSha256);
+        put(COMPLIANCE_DIFF_CURRENT_SHA256, currentSha256);
+        put(COMPLIANCE_DIFF_IS_NOOP, originalSha256.equals(currentSha256));
+    }
+
     void addSecurityConfigWriteDiffSource(final String diff, final String id) {
         addComplianceWriteDiffSource(redactSecurityConfigContent(diff, id));
     }
@@ -211,23 +272,59 @@ public final class AuditMessage {
 
     public void addTupleToRequestBody(Tuple<MediaType, BytesReference> xContentTuple) {
         if (xContentTuple != null) {
-            try {
-                auditInfo.put(REQUEST_BODY, XContentHelper.convertToJson(xContentTuple.v2(), false, xContentTuple.v1()));
-            } catch (Exception e) {
-                auditInfo.put(REQUEST_BODY, "ERROR: Unable to convert to json because of " + e.toString());
+            put(REQUEST_BODY, convertToJson(xContentTuple.v1(), xContentTuple.v2()));
+        }
+    }
+
+    /**
+     * Adds the given request body without converting it; it is converted when the message is serialized.
+     *
+     * @param body the body, null if it was truncated and cannot be converted partially
+     * @param truncated whether the body was truncated
+     */
+    void addCapturedRequestBody(final MediaType mediaType, final BytesReference body, final boolean truncated) {
+        capturedRequestBody = new CapturedRequestBody(mediaType, body, truncated);
+        json = null;
+    }
+
+    private void resolveCapturedRequestBody() {
+        if (capturedRequestBody == null) {
+            return;
+        }
+        synchronized (this) {
+            final CapturedRequestBody captured = capturedRequestBody;
+            if (captured == null) {
+                return;
+            }
+            if (captured.body != null) {
+                auditInfo.put(REQUEST_BODY, convertToJson(captured.mediaType, captured.body));
             }
+            if (captured.truncated) {
+                auditInfo.put(REQUEST_BODY_TRUNCATED, true);
+            }
+            json = null;
+            // published only once the fields are complete
+            capturedRequestBody = null;
+        }
+    }
+
+    private static String convertToJson(final MediaType mediaType, final BytesReference body) {
+        try {
+            return XContentHelper.convertToJson(body, false, mediaType);
+        } catch (Exception e) {
+            return "ERROR: Unable to convert to json because of " + e.toString();
         }
     }
 
     public void addMapToRequestBody(Map<String, ?> map) {
         if (map != null) {
-            auditInfo.put(REQUEST_BODY, Utils.convertStructuredMapToJson(map));
+            put(REQUEST_BODY, Utils.convertStructuredMapToJson(map));
         }
     }
 
     public void addUnescapedJsonToRequestBody(String source) {
         if (source != null) {
-            auditInfo.put(REQUEST_BODY, source);
+            put(REQUEST_BODY, source);
         }
     }
 
@@ -241,7 +338,7 @@ public final class AuditMessage {
     void addSecurityConfigContentToRequestBody(final String source, final String id) {
         if (source != null) {
             final String redactedContent = redactSecurityConfigContent(source, id);
-            auditInfo.put(REQUEST_BODY, redactedContent);
+            put(REQUEST_BODY, redactedContent);
         }
     }
 
@@ -250,7 +347,7 @@ public final class AuditMessage {
             try {
                 addSecurityConfigContentToRequestBody(XContentHelper.convertToJson(xContentTuple.v2(), false, xContentTuple.v1()), id);
             } catch (Exception e) {
-                auditInfo.put(REQUEST_BODY, "ERROR: Unable to convert to json");
+                put(REQUEST_BODY, "ERROR: Unable to convert to json");
             }
         }
     }
@@ -263,19 +360,19 @@ public final class AuditMessage {
 
     public void addRequestType(String requestType) {
         if (requestType != null) {
-            auditInfo.put(TRANSPORT_REQUEST_TYPE, requestType);
+            put(TRANSPORT_REQUEST_TYPE, requestType);
         }
     }
 
     public void addAction(String action) {
         if (action != null) {
-            auditInfo.put(TRANSPORT_ACTION, action);
+            put(TRANSPORT_ACTION, action);
         }
     }
 
     public void addId(String id) {
         if (id != null) {
-            auditInfo.put(ID, id);
+            put(ID, id);
         }
     }
 
@@ -311,7 +408,7 @@ public final class AuditMessage {
                     // ignore non readable files
                 }
             }
-            auditInfo.put(COMPLIANCE_FILE_INFOS, infos);
+            put(COMPLIANCE_FILE_INFOS, infos);
         }
     }
 
@@ -323,36 +420,36 @@ public final class AuditMessage {
 
     public void addIndices(String[] indices) {
         if (indices != null && indices.length > 0) {
-            auditInfo.put(INDICES, indices);
+            put(INDICES, indices);
         }
 
     }
 
     public void addResolvedIndices(String[] resolvedIndices) {
         if (resolvedIndices != null && resolvedIndices.length > 0) {
-            auditInfo.put(RESOLVED_INDICES, resolvedIndices);
+            put(RESOLVED_INDICES, resolvedIndices);
         }
     }
 
     public void addTaskId(long id) {
-        auditInfo.put(TASK_ID, auditInfo.get(NODE_ID) + ":" + id);
+        put(TASK_ID, auditInfo.get(NODE_ID) + ":" + id);
     }
 
     public void addShardId(ShardId id) {
         if (id != null) {
-            auditInfo.put(SHARD_ID, id.getId());
+            put(SHARD_ID, id.getId());
         }
     }
 
     public void addTaskParentId(String id) {
         if (id != null) {
-            auditInfo.put(TASK_PARENT_ID, id);
+            put(TASK_PARENT_ID, id);
         }
     }
 
     public void addRestParams(Map<String, String> params) {
         if (params != null && !params.isEmpty()) {
-            auditInfo.put(REST_REQUEST_PARAMS, new HashMap<>(params));
+            put(REST_REQUEST_PARAMS, new HashMap<>(params));
         }
     }
 
@@ -362,13 +459,13 @@ public final class AuditMessage {
             if (excludeSensitiveHeaders) {
                 headersClone.keySet().removeIf(AUTHORIZATION_HEADER);
             }
-            auditInfo.put(REST_REQUEST_HEADERS, headersClone);
+            put(REST_REQUEST_HEADERS, headersClone);
         }
     }
 
     void addRestMethod(final RestRequest.Method method) {
         if (method != null) {
-            auditInfo.put(REST_REQUEST_METHOD, method);
+            put(REST_REQUEST_METHOD, method);
         }
     }
 
@@ -402,12 +499,12 @@ public final class AuditMessage {
                         && requestBody != null
                         && SENSITIVE_PATHS.matcher(path).matches()
                         && requestBody.contains(SENSITIVE_KEY)) {
-                        auditInfo.put(REQUEST_BODY, SENSITIVE_REPLACEMENT_VALUE);
+                        put(REQUEST_BODY, SENSITIVE_REPLACEMENT_VALUE);
                     } else {
-                        auditInfo.put(REQUEST_BODY, requestBody);
+                        put(REQUEST_BODY, requestBody);
                     }
                 } catch (IOException e) {
-                    auditInfo.put(REQUEST_BODY, "ERROR: Unable to generate request body");
+                    put(REQUEST_BODY, "ERROR: Unable to generate request body");
                 }
             }
         }
@@ -419,21 +516,42 @@ public final class AuditMessage {
             if (excludeSensitiveHeaders) {
                 headersClone.keySet().removeIf(AUTHORIZATION_HEADER);
             }
-            auditInfo.put(TRANSPORT_REQUEST_HEADERS, headersClone);
+            put(TRANSPORT_REQUEST_HEADERS, headersClone);
         }
     }
 
     public void addComplianceOperation(Operation op) {
         if (op != null) {
-            auditInfo.put(COMPLIANCE_OPERATION, op);
+            put(COMPLIANCE_OPERATION, op);
         }
     }
 
     public void addComplianceDocVersion(long version) {
-        auditInfo.put(COMPLIANCE_DOC_VERSION, version);
+        put(COMPLIANCE_DOC_VERSION, version);
+    }
+
+    /**
+     * Marks this message as the aggregated read history of a shard, its request body holds the number of read documents per field
+     */
+    public void addComplianceReadAggregated() {
+        put(COMPLIANCE_READ_AGGREGATED, true);
+    }
+
+    /**
+     * Marks this message as the representative of the given number of identical events
+     */
+    public void addAggregation(int count, String firstTimestamp, String lastTimestamp) {
+        put(AGGREGATION_COUNT, count);
+        put(AGGREGATION_FIRST_TIMESTAMP, firstTimestamp);
+        put(AGGREGATION_LAST_TIMESTAMP, lastTimestamp);
+    }
+
+    Object getField(String key) {
+        return this.auditInfo.get(key);
     }
 
     public Map<String, Object> getAsMap() {
+        resolveCapturedRequestBody();
         return new HashMap<>(this.auditInfo);
     }
 
@@ -449,14 +567,46 @@ public final class AuditMessage {
         return (String) this.auditInfo.get(TRANSPORT_REQUEST_TYPE);
     }
 
+    /**
+     * @return the first of the requested indices, or null if the request has no indices
+     */
+    public String getFirstIndex() {
+        final Object indices = this.auditInfo.get(INDICES);
+        if (indices instanceof Object[] && ((Object[]) indices).length > 0) {
+            return String.valueOf(((Object[]) indices)[0]);
+        }
+        if (indices instanceof List && !((List<?>) indices).isEmpty()) {
+            return String.valueOf(((List<?>) indices).get(0));
+        }
+        return null;
+    }
+
     public RestRequest.Method getRequestMethod() {
         return (RestRequest.Method) this.auditInfo.get(REST_REQUEST_METHOD);
     }
 
+    public String getTimestamp() {
+        return (String) this.auditInfo.get(UTC_TIMESTAMP);
+    }
+
     public AuditCategory getCategory() {
         return msgCategory;
     }
 
+    /**
+     * Records the current time as the time the message was routed to its sinks, for their latency statistics
+     */
+    public void markRouted() {
+        routedNanos = System.nanoTime();
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} of the last call of {@link #markRouted()}
+     */
+    public long getRoutedNanos() {
+        return routedNanos;
+    }
+
     public Origin getOrigin() {
         return (Origin) this.auditInfo.get(ORIGIN);
     }
@@ -470,6 +620,7 @@ public final class AuditMessage {
     }
 
     public String getRequestBody() {
+        resolveCapturedRequestBody();
         return (String) this.auditInfo.get(REQUEST_BODY);
     }
 
@@ -481,15 +632,47 @@ public final class AuditMessage {
         return (String) this.auditInfo.get(ID);
     }
 
-    @Override
-    public String toString() {
+    /**
+     * @return the message as JSON; the result is computed once and shared by all sinks
+     */
+    public BytesReference toJsonBytes() {
+        BytesReference result = json;
+        if (result == null) {
+            json = result = toBytes(XContentType.JSON);
+        }
+        return result;
+    }
+
+    /**
+     * @return the message serialized with the given content type, without intermediate copies of its fields
+     */
+    public BytesReference toBytes(final XContentType contentType) {
+        if (contentType == XContentType.JSON && json != null) {
+            return json;
+        }
+        resolveCapturedRequestBody();
+        final ByteArrayOutputStream buffer = SERIALIZATION_BUFFER.get();
+        buffer.reset();
         try {
-            return JsonXContent.contentBuilder().map(getAsMap()).toString();
+            try (XContentBuilder builder = new XContentBuilder(contentType.xContent(), buffer)) {
+                builder.map(auditInfo);
+            }
+            return new BytesArray(buffer.toByteArray());
         } catch (final IOException e) {
             throw ExceptionsHelper.convertToOpenSearchException(e);
+        } finally {
+            if (buffer.size() > MAX_RETAINED_BUFFER_BYTES) {
+                // do not retain the buffer of exceptionally large messages
+                SERIALIZATION_BUFFER.remove();
+            }
         }
     }
 
+    @Override
+    public String toString() {
+        return toJsonBytes().utf8ToString();
+    }
+
     public String toPrettyString() {
         try {
             return JsonXContent.contentBuilder().prettyPrint().map(getAsMap()).toString();
@@ -537,6 +720,49 @@ public final class AuditMessage {
         return DEFAULT_FORMAT.print(dt);
     }
 
+    private static final class CapturedRequestBody {
+        private final MediaType mediaType;
+        private final BytesReference body;
+        private final boolean truncated;
+
+        private CapturedRequestBody(final MediaType mediaType, final BytesReference body, final boolean truncated) {
+            this.mediaType = mediaType;
+            this.body = body;
+            this.truncated = truncated;
+        }
+    }
+
+    /**
+     * The fields of the local node, which are looked up once instead of for every message
+     */
+    private static final class NodeFields {
+        private final DiscoveryNode node;
+        private final String hostAddress;
+        private final String id;
+        private final String hostName;
+        private final String name;
+        private final String clusterName;
+
+        private NodeFields(final DiscoveryNode node, final String clusterName) {
+            this.node = node;
+            this.hostAddress = node.getHostAddress();
+            this.id = node.getId();
+            this.hostName = node.getHostName();
+            this.name = node.getName();
+            this.clusterName = clusterName;
+        }
+
+        private static NodeFields of(final ClusterService clusterService) {
+            final DiscoveryNode localNode = clusterService.localNode();
+            NodeFields current = nodeFields;
+            if (current == null || current.node != localNode) {
+                current = new NodeFields(Objects.requireNonNull(localNode), clusterService.getClusterName().value());
+                nodeFields = current;
+            }
+            return current;
+        }
+    }
+
     protected String stringOrNull(Object object) {
         if (object == null) {
             return null;
@@ -0,0 +1,198 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.impl;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.security.auditlog.config.AuditConfig;
+
+/**
+ * Collapses identical audit events of the categories configured in {@code aggregated_categories} into one event.
+ * Compliance categories are rejected by the configuration, as their events describe individual documents.
+ * <p>
+ * Events are identical if they have the same category, origin, users, remote address, request and indices; the
+ * first event of a window is emitted when the window of its category has passed, carrying the number of events
+ * and the timestamps of the first and the last one. Other details, like the shard or the task, are those of the
+ * first event. At most {@code max_entries} windows are open at the same time, events which would open another
+ * window are not aggregated. Open windows are emitted when the aggregator is closed.
+ */
+final class AuditMessageAggregator implements Closeable {
+
+    private static final Logger log = LogManager.getLogger(AuditMessageAggregator.class);
+    private static final String[] KEY_FIELDS = {
+        AuditMessage.CATEGORY,
+        AuditMessage.ORIGIN,
+        AuditMessage.REQUEST_LAYER,
+        AuditMessage.REQUEST_EFFECTIVE_USER,
+        AuditMessage.REQUEST_INITIATING_USER,
+        AuditMessage.REMOTE_ADDRESS,
+        AuditMessage.REST_REQUEST_METHOD,
+        AuditMessage.REST_REQUEST_PATH,
+        AuditMessage.TRANSPORT_REQUEST_TYPE,
+        AuditMessage.TRANSPORT_ACTION,
+        AuditMessage.PRIVILEGE,
+        AuditMessage.INDICES,
+        AuditMessage.RESOLVED_INDICES };
+
+    private final int maxEntries;
+    private final Consumer<AuditMessage> emitter;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ConcurrentMap<List<Object>, Aggregate> aggregates = new ConcurrentHashMap<>();
+    private volatile AuditConfig.Filter filter = AuditConfig.Filter.DEFAULT;
+    private volatile boolean closed;
+
+    /**
+     * @param emitter receives the events once their window has passed
+     */
+    AuditMessageAggregator(final int maxEntries, final Consumer<AuditMessage> emitter) {
+        this.maxEntries = maxEntries;
+        this.emitter = emitter;
+        this.scheduler = new ScheduledThreadPoolExecutor(
+            1,
+            OpenSearchExecutors.daemonThreadFactory("opensearch-security-audit-aggregator")
+        );
+        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    void setFilter(final AuditConfig.Filter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Adds the given event to the open window of identical events, or opens a new window.
+     *
+     * @return false if events of the category are not aggregated or no more windows can be opened; the event
+     * must be emitted by the caller then
+     */
+    boolean aggregate(final AuditMessage msg) {
+        final TimeValue window = filter.getAggregationWindow(msg.getCategory());
+        if (window == null || window.millis() <= 0 || closed) {
+            return false;
+        }
+
+        final List<Object> key = keyOf(msg);
+        while (true) {
+            final Aggregate existing = aggregates.get(key);
+            if (existing == null) {
+                if (aggregates.size() >= maxEntries) {
+                    return false;
+                }
+                final Aggregate created = new Aggregate(msg);
+                if (aggregates.putIfAbsent(key, created) == null) {
+                    try {
+                        scheduler.schedule(() -> emit(key, created), window.millis(), TimeUnit.MILLISECONDS);
+                    } catch (RejectedExecutionException e) {
+                        // closed meanwhile
+                        emit(key, created);
+                    }
+                    return true;
+                }
+            } else if (existing.add(msg)) {
+                return true;
+            } else {
+                // the window has just been emitted
+                aggregates.remove(key, existing);
+            }
+        }
+    }
+
+    /**
+     * @return the number of open windows
+     */
+    int size() {
+        return aggregates.size();
+    }
+
+    private void emit(final List<Object> key, final Aggregate aggregate) {
+        final AuditMessage msg = aggregate.seal();
+        if (msg == null) {
+            return;
+        }
+        aggregates.remove(key, aggregate);
+        try {
+            emitter.accept(msg);
+        } catch (Exception e) {
+            log.error("Unable to emit aggregated audit message {}", msg, e);
+        }
+    }
+
+    private static List<Object> keyOf(final AuditMessage msg) {
+        final List<Object> key = new ArrayList<>(KEY_FIELDS.length);
+        for (final String field : KEY_FIELDS) {
+            final Object value = msg.getField(field);
+            key.add(value instanceof Object[] ? Arrays.asList((Object[]) value) : value);
+        }
+        return key;
+    }
+
+    /**
+     * Emits all open windows
+     */
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        for (final Map.Entry<List<Object>, Aggregate> aggregate : aggregates.entrySet()) {
+            emit(aggregate.getKey(), aggregate.getValue());
+        }
+    }
+
+    private static final class Aggregate {
+        private final AuditMessage first;
+        private int count = 1;
+        private String lastTimestamp;
+        private boolean sealed;
+
+        private Aggregate(final AuditMessage first) {
+            this.first = first;
+            this.lastTimestamp = first.getTimestamp();
+        }
+
+        synchronized boolean add(final AuditMessage msg) {
+            if (sealed) {
+                return false;
+            }
+            count++;
+            lastTimestamp = msg.getTimestamp();
+            return true;
+        }
+
+        /**
+         * @return the event to emit, or null if it was emitted already
+         */
+        synchronized AuditMessage seal() {
+            if (sealed) {
+                return null;
+            }
+            sealed = true;
+            if (count > 1) {
+                first.addAggregation(count, first.getTimestamp(), lastTimestamp);
+            }
+            return first;
+        }
+    }
+}
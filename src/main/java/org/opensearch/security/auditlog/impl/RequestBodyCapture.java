@@ -0,0 +1,102 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.impl;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.common.unit.ByteSizeValue;
+import org.opensearch.core.xcontent.MediaType;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.security.support.ConfigConstants;
+
+/**
+ * Captures request bodies for audit messages without converting them.
+ * <p>
+ * The message retains a copy of at most {@code request_body.max_size} bytes of the request source and converts
+ * it to JSON when it is serialized. The source is copied when it is captured, as request sources may be pooled
+ * network buffers which are reused once the request completes. Larger JSON bodies are truncated on a character
+ * boundary; larger bodies of other content types cannot be converted partially and are omitted. Either way, the
+ * message is marked as truncated.
+ */
+final class RequestBodyCapture implements ToXContentFragment {
+
+    private final long maxBytes;
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder capturedBytes = new LongAdder();
+    private final LongAdder truncated = new LongAdder();
+
+    /**
+     * @param maxBytes the maximum size of a captured body, -1 for no limit
+     */
+    RequestBodyCapture(final long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    static RequestBodyCapture from(final Settings settings) {
+        return new RequestBodyCapture(
+            ByteSizeValue.parseBytesSizeValue(
+                settings.get(
+                    ConfigConstants.SECURITY_AUDIT_REQUEST_BODY_MAX_SIZE,
+                    ConfigConstants.SECURITY_AUDIT_REQUEST_BODY_MAX_SIZE_DEFAULT
+                ),
+                ConfigConstants.SECURITY_AUDIT_REQUEST_BODY_MAX_SIZE
+            ).getBytes()
+        );
+    }
+
+    void capture(final AuditMessage msg, final MediaType mediaType, final BytesReference body) {
+        if (body == null) {
+            return;
+        }
+        final MediaType type = mediaType == null ? XContentType.JSON : mediaType;
+        BytesReference retained = body;
+        final boolean truncate = maxBytes >= 0 && body.length() > maxBytes;
+        if (truncate) {
+            retained = type == XContentType.JSON ? body.slice(0, utf8Boundary(body, (int) maxBytes)) : null;
+            truncated.increment();
+        }
+        captured.increment();
+        if (retained != null) {
+            capturedBytes.add(retained.length());
+            retained = new BytesArray(BytesReference.toBytes(retained));
+        }
+        msg.addCapturedRequestBody(type, retained, truncate);
+    }
+
+    /**
+     * @return the largest length of at most {@code maxLength} which does not split a UTF-8 encoded character
+     */
+    private static int utf8Boundary(final BytesReference body, final int maxLength) {
+        int length = maxLength;
+        // continuation bytes have the form 10xxxxxx
+        while (length > 0 && (body.get(length) & 0xC0) == 0x80) {
+            length--;
+        }
+        return length;
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.startObject("request_bodies");
+        builder.field("captured", captured.sum());
+        builder.field("captured_in_bytes", capturedBytes.sum());
+        builder.field("truncated", truncated.sum());
+        builder.endObject();
+        return builder;
+    }
+}
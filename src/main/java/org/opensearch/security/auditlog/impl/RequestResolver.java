@@ -41,7 +41,6 @@ import org.opensearch.action.support.IndicesOptions;
 import org.opensearch.action.update.UpdateRequest;
 import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
 import org.opensearch.cluster.service.ClusterService;
-import org.opensearch.common.collect.Tuple;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.xcontent.XContentFactory;
 import org.opensearch.common.xcontent.XContentType;
@@ -83,7 +82,8 @@ public final class RequestResolver {
         final boolean resolveBulk,
         final String securityIndex,
         final boolean excludeSensitiveHeaders,
-        final Throwable exception
+        final Throwable exception,
+        final RequestBodyCapture requestBodyCapture
     ) {
 
         if (resolveBulk && request instanceof BulkShardRequest) {
@@ -111,7 +111,8 @@ public final class RequestResolver {
                     resolveIndices,
                     securityIndex,
                     excludeSensitiveHeaders,
-                    exception
+                    exception,
+                    requestBodyCapture
                 );
                 msg.addShardId(((BulkShardRequest) request).shardId());
 
@@ -151,7 +152,8 @@ public final class RequestResolver {
                 resolveIndices,
                 securityIndex,
                 excludeSensitiveHeaders,
-                exception
+                exception,
+                requestBodyCapture
             )
         );
     }
@@ -175,7 +177,8 @@ public final class RequestResolver {
         final boolean resolveIndices,
         final String securityIndex,
         final boolean excludeSensitiveHeaders,
-        final Throwable exception
+        final Throwable exception,
+        final RequestBodyCapture requestBodyCapture
     ) {
 
         final AuditMessage msg = new AuditMessage(category, cs, origin, Origin.TRANSPORT);
@@ -246,7 +249,8 @@ public final class RequestResolver {
                 resolveIndices,
                 logRequestBody,
                 true,
-                securityIndex
+                securityIndex,
+                requestBodyCapture
             );
         } else if (request instanceof DeleteRequest) {
             final DeleteRequest dr = (DeleteRequest) request;
@@ -264,7 +268,7 @@ public final class RequestResolver {
             if (logRequestBody) {
 
                 if (ur.doc() != null) {
-                    msg.addTupleToRequestBody(ur.doc() == null ? null : convertSource(ur.doc().getContentType(), ur.doc().source()));
+                    requestBodyCapture.capture(msg, ur.doc().getContentType(), ur.doc().source());
                 }
 
                 if (ur.script() != null) {
@@ -281,7 +285,10 @@ public final class RequestResolver {
             final SearchRequest sr = (SearchRequest) request;
             final String[] indices = arrayOrEmpty(sr.indices());
 
-            Map<String, Object> sourceAsMap = sr.source() == null ? null : Utils.convertJsonToxToStructuredMap(sr.source());
+            // only converted if it is logged
+            Map<String, Object> sourceAsMap = sr.source() == null || !logRequestBody
+                ? null
+                : Utils.convertJsonToxToStructuredMap(sr.source());
             addIndicesSourceSafe(
                 msg,
                 indices,
@@ -340,7 +347,8 @@ public final class RequestResolver {
                 resolveIndices,
                 logRequestBody,
                 true,
-                securityIndex
+                securityIndex,
+                requestBodyCapture
             );
         } else if (request instanceof DeleteByQueryRequest) {
             final DeleteByQueryRequest ir = (DeleteByQueryRequest) request;
@@ -376,7 +384,6 @@ public final class RequestResolver {
         return msg;
     }
 
-    @SuppressWarnings("unchecked")
     private static void addIndicesSourceSafe(
         final AuditMessage msg,
         final String[] indices,
@@ -390,6 +397,37 @@ public final class RequestResolver {
         final boolean sourceIsSensitive,
         final String securityIndex
     ) {
+        addIndicesSourceSafe(
+            msg,
+            indices,
+            resolver,
+            cs,
+            mediaType,
+            source,
+            settings,
+            resolveIndices,
+            addSource,
+            sourceIsSensitive,
+            securityIndex,
+            null
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addIndicesSourceSafe(
+        final AuditMessage msg,
+        final String[] indices,
+        final IndexNameExpressionResolver resolver,
+        final ClusterService cs,
+        final MediaType mediaType,
+        final Object source,
+        final Settings settings,
+        boolean resolveIndices,
+        final boolean addSource,
+        final boolean sourceIsSensitive,
+        final String securityIndex,
+        final RequestBodyCapture requestBodyCapture
+    ) {
 
         if (addSource) {
             resolveIndices = true;
@@ -424,14 +462,14 @@ public final class RequestResolver {
             if (sourceIsSensitive && source != null) {
                 if (!allIndicesMatcher.test(securityIndex)) {
                     if (source instanceof BytesReference) {
-                        msg.addTupleToRequestBody(convertSource(mediaType, (BytesReference) source));
+                        requestBodyCapture.capture(msg, mediaType, (BytesReference) source);
                     } else {
                         msg.addMapToRequestBody((Map<String, ?>) source);
                     }
                 }
             } else if (source != null) {
                 if (source instanceof BytesReference) {
-                    msg.addTupleToRequestBody(convertSource(mediaType, (BytesReference) source));
+                    requestBodyCapture.capture(msg, mediaType, (BytesReference) source);
                 } else {
                     // noinspection unchecked
                     msg.addMapToRequestBody((Map<String, ?>) source);
@@ -440,14 +478,6 @@ public final class RequestResolver {
         }
     }
 
-    private static Tuple<MediaType, BytesReference> convertSource(MediaType type, BytesReference bytes) {
-        if (type == null) {
-            type = XContentType.JSON;
-        }
-
-        return new Tuple<MediaType, BytesReference>(type, bytes);
-    }
-
     private static String[] arrayOrEmpty(String[] array) {
         if (array == null) {
             return new String[0];
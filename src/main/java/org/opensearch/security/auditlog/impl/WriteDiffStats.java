@@ -0,0 +1,66 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.impl;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+/**
+ * Counters of the diffs generated for the compliance write history
+ */
+final class WriteDiffStats implements ToXContentFragment {
+
+    private final LongAdder computed = new LongAdder();
+    private final LongAdder hashed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder computeNanos = new LongAdder();
+    private final LongAccumulator maxComputeNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder delayNanos = new LongAdder();
+
+    /**
+     * @param hashOnly whether only hashes were recorded because the sources exceeded the size limit
+     * @param queuedNanos the time the diff waited for an audit thread
+     * @param tookNanos the time taken to generate the diff
+     */
+    void record(final boolean hashOnly, final long queuedNanos, final long tookNanos) {
+        if (hashOnly) {
+            hashed.increment();
+        } else {
+            computed.increment();
+        }
+        computeNanos.add(tookNanos);
+        maxComputeNanos.accumulate(tookNanos);
+        delayNanos.add(queuedNanos + tookNanos);
+    }
+
+    void failed() {
+        failed.increment();
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.startObject("write_diffs");
+        builder.field("computed", computed.sum());
+        builder.field("hashed", hashed.sum());
+        builder.field("failed", failed.sum());
+        builder.field("time_in_millis", TimeUnit.NANOSECONDS.toMillis(computeNanos.sum()));
+        builder.field("max_time_in_millis", TimeUnit.NANOSECONDS.toMillis(maxComputeNanos.get()));
+        builder.field("delay_in_millis", TimeUnit.NANOSECONDS.toMillis(delayNanos.sum()));
+        builder.endObject();
+        return builder;
+    }
+}
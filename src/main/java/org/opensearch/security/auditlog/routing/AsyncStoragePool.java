@@ -11,10 +11,11 @@
 
 package org.opensearch.security.auditlog.routing;
 
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -25,8 +26,9 @@ import org.opensearch.security.auditlog.sink.AuditLogSink;
 
 public class AsyncStoragePool {
     private static final Logger log = LogManager.getLogger(AsyncStoragePool.class);
-    private final ExecutorService pool;
+    private final ThreadPoolExecutor pool;
     private final ThreadPoolConfig threadPoolConfig;
+    private final LongAdder rejected = new LongAdder();
 
     public AsyncStoragePool(final ThreadPoolConfig threadPoolConfig) {
         this.threadPoolConfig = threadPoolConfig;
@@ -58,6 +60,34 @@ public class AsyncStoragePool {
         }
     }
 
+    /**
+     * Runs the given task on the audit thread pool
+     * @return false if the task was rejected
+     */
+    public boolean execute(Runnable task) {
+        try {
+            pool.execute(task);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            return false;
+        }
+    }
+
+    /**
+     * @return the number of queued tasks
+     */
+    public int queued() {
+        return pool.getQueue().size();
+    }
+
+    /**
+     * @return the number of tasks which were rejected as the pool was full
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
     private static ThreadPoolExecutor createExecutor(final ThreadPoolConfig config) {
         if (log.isDebugEnabled()) {
             log.debug(
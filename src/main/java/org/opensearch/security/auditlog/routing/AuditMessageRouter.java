@@ -11,19 +11,26 @@
 
 package org.opensearch.security.auditlog.routing;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import org.opensearch.client.Client;
+import org.opensearch.common.io.PathUtils;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.unit.ByteSizeValue;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.env.Environment;
 import org.opensearch.security.auditlog.config.ThreadPoolConfig;
 import org.opensearch.security.auditlog.impl.AuditCategory;
 import org.opensearch.security.auditlog.impl.AuditMessage;
@@ -42,18 +49,42 @@ public class AuditMessageRouter {
     volatile Map<AuditCategory, List<AuditLogSink>> categorySinks;
     final SinkProvider sinkProvider;
     final AsyncStoragePool storagePool;
+    final Map<AuditLogSink, SinkExecutor> sinkExecutors;
+    final AuditSpool spool;
 
     public AuditMessageRouter(final Settings settings, final Client clientProvider, ThreadPool threadPool, final Path configPath) {
         this(
             new SinkProvider(settings, clientProvider, threadPool, configPath),
-            new AsyncStoragePool(ThreadPoolConfig.getConfig(settings))
+            new AsyncStoragePool(ThreadPoolConfig.getConfig(settings)),
+            createSpool(settings)
         );
     }
 
     @VisibleForTesting
     public AuditMessageRouter(SinkProvider sinkProvider, AsyncStoragePool storagePool) {
+        this(sinkProvider, storagePool, null);
+    }
+
+    AuditMessageRouter(SinkProvider sinkProvider, AsyncStoragePool storagePool, AuditSpool spool) {
         this.sinkProvider = sinkProvider;
         this.storagePool = storagePool;
+        this.spool = spool;
+
+        // every sink gets its own executor. Routes may name the fallback sink as well, so it gets an executor too
+        final List<AuditLogSink> sinks = new ArrayList<>(sinkProvider.getSinks());
+        if (sinkProvider.getFallbackSink() != null) {
+            sinks.add(sinkProvider.getFallbackSink());
+        }
+        // unless configured otherwise, the sinks with worker threads share the threads and queue size of the storage pool
+        final ThreadPoolConfig sinkDefaults = SinkExecutor.share(
+            storagePool.getConfig(),
+            (int) sinks.stream().filter(sink -> !sink.isHandlingBackpressure()).count()
+        );
+        final ImmutableMap.Builder<AuditLogSink, SinkExecutor> executors = ImmutableMap.builder();
+        for (AuditLogSink sink : sinks) {
+            executors.put(sink, SinkExecutor.create(sink, sinkDefaults));
+        }
+        this.sinkExecutors = executors.build();
 
         // get the default sink
         this.defaultSink = sinkProvider.getDefaultSink();
@@ -73,6 +104,10 @@ public class AuditMessageRouter {
             return;
         }
         checkState(categorySinks != null, "categorySinks is null, prior to route() call enableRoutes().");
+        msg.markRouted();
+        if (spool != null && spool.append(msg)) {
+            return;
+        }
         // if we do not run the compliance features or no extended configuration is present, only log to default.
         List<AuditLogSink> auditLogSinks = categorySinks.get(msg.getCategory());
         if (auditLogSinks == null) {
@@ -82,10 +117,49 @@ public class AuditMessageRouter {
         }
     }
 
+    /**
+     * Hands a message read from the spool to its sinks. Unlike {@link #route(AuditMessage)}, this waits while the
+     * queue of a sink is full, so that bursts are kept in the spool rather than subject to the overflow policy.
+     */
+    private void dispatch(final AuditMessage msg) {
+        // the time spent in the spool is not part of the latency of the sinks
+        msg.markRouted();
+        List<AuditLogSink> auditLogSinks = categorySinks.get(msg.getCategory());
+        if (auditLogSinks == null) {
+            dispatch(defaultSink, msg);
+        } else {
+            auditLogSinks.stream().forEach(sink -> dispatch(sink, msg));
+        }
+    }
+
+    private void dispatch(final AuditLogSink sink, final AuditMessage msg) {
+        final SinkExecutor executor = sinkExecutors.get(sink);
+        try {
+            executor.put(msg);
+        } catch (InterruptedException e) {
+            // the spool is being closed
+            Thread.currentThread().interrupt();
+            executor.submit(msg);
+        }
+    }
+
+    /**
+     * Runs the given task on the audit thread pool
+     * @return false if the task was rejected
+     */
+    public final boolean execute(final Runnable task) {
+        return storagePool.execute(task);
+    }
+
     public final void close() {
         log.info("Closing {}", getClass().getSimpleName());
-        // shutdown storage pool
+        // stop dispatching, messages left in the spool are dispatched after a restart
+        if (spool != null) {
+            spool.close();
+        }
+        // shutdown storage pool and sink executors
         storagePool.close();
+        sinkExecutors.values().forEach(SinkExecutor::close);
         // close default
         sinkProvider.close();
     }
@@ -153,6 +227,56 @@ public class AuditMessageRouter {
 
         // for all non-configured categories we automatically set up the default endpoint
         log.warn("No endpoint configured for categories {}, using default endpoint", EnumSet.complementOf(presentAuditCategory));
+
+        if (spool != null) {
+            spool.start(this::dispatch);
+        }
+    }
+
+    private static AuditSpool createSpool(final Settings settings) {
+        if (!settings.getAsBoolean(ConfigConstants.SECURITY_AUDIT_SPOOL_ENABLED, false)) {
+            return null;
+        }
+        final String configuredPath = settings.get(ConfigConstants.SECURITY_AUDIT_SPOOL_PATH);
+        final Path path;
+        if (configuredPath != null) {
+            path = PathUtils.get(configuredPath);
+        } else {
+            // by default, the spool is placed in the first data path
+            final List<String> dataPaths = Environment.PATH_DATA_SETTING.get(settings);
+            final Path dataPath = dataPaths.isEmpty()
+                ? PathUtils.get(Environment.PATH_HOME_SETTING.get(settings), "data")
+                : PathUtils.get(dataPaths.get(0));
+            path = dataPath.resolve("security_audit_spool");
+        }
+        try {
+            return new AuditSpool(
+                path,
+                settings.getAsBytesSize(
+                    ConfigConstants.SECURITY_AUDIT_SPOOL_SEGMENT_SIZE,
+                    ByteSizeValue.parseBytesSizeValue(
+                        ConfigConstants.SECURITY_AUDIT_SPOOL_SEGMENT_SIZE_DEFAULT,
+                        ConfigConstants.SECURITY_AUDIT_SPOOL_SEGMENT_SIZE
+                    )
+                ).getBytes(),
+                settings.getAsBytesSize(
+                    ConfigConstants.SECURITY_AUDIT_SPOOL_MAX_SIZE,
+                    ByteSizeValue.parseBytesSizeValue(
+                        ConfigConstants.SECURITY_AUDIT_SPOOL_MAX_SIZE_DEFAULT,
+                        ConfigConstants.SECURITY_AUDIT_SPOOL_MAX_SIZE
+                    )
+                ).getBytes()
+            );
+        } catch (IOException e) {
+            LogManager.getLogger(AuditMessageRouter.class)
+                .error("Unable to open audit spool in {}, audit messages are not spooled", path, e);
+            return null;
+        } catch (SecurityException e) {
+            // only the data paths of the node are writable
+            LogManager.getLogger(AuditMessageRouter.class)
+                .error("Audit spool path {} is not within path.data, audit messages are not spooled", path, e);
+            return null;
+        }
     }
 
     private final List<AuditLogSink> createSinksForCategory(AuditCategory category, Map<String, List<String>> configuration) {
@@ -175,17 +299,26 @@ public class AuditMessageRouter {
     }
 
     private final void store(AuditLogSink sink, AuditMessage msg) {
-        final boolean isTraceEnabled = log.isTraceEnabled();
-        if (sink.isHandlingBackpressure()) {
-            sink.store(msg);
-            if (isTraceEnabled) {
-                log.trace("stored on sink {} synchronously", sink.getClass().getSimpleName());
-            }
-        } else {
-            storagePool.submit(msg, sink);
-            if (isTraceEnabled) {
-                log.trace("will store on sink {} asynchronously", sink.getClass().getSimpleName());
-            }
+        sinkExecutors.get(sink).submit(msg);
+        if (log.isTraceEnabled()) {
+            log.trace("submitted to executor of sink {}", sink.getClass().getSimpleName());
         }
     }
+
+    /**
+     * @return the queue depth, message counters and latencies of each sink, and those of the audit thread pool
+     */
+    public ToXContentFragment getStats() {
+        return (builder, params) -> {
+            builder.startObject("async_tasks");
+            builder.field("queued", storagePool.queued());
+            builder.field("rejected", storagePool.rejected());
+            builder.endObject();
+            builder.startObject("sinks");
+            for (SinkExecutor executor : sinkExecutors.values()) {
+                executor.toXContent(builder, params);
+            }
+            return builder.endObject();
+        };
+    }
 }
@@ -0,0 +1,364 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.routing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+
+/**
+ * Durable spool of audit messages between the router and the sinks.
+ * <p>
+ * Messages are appended to memory-mapped segment files of a fixed size; a single dispatcher thread reads them in
+ * order and hands them to the sinks. The position of the dispatcher is recorded in a memory-mapped checkpoint
+ * file after every message, so that after a restart dispatching resumes with the first message not yet handed to
+ * the sinks. Segments are deleted once they are dispatched completely; the number of segments is bounded, and
+ * messages which do not fit anymore are rejected by {@link #append(AuditMessage)}.
+ * <p>
+ * The checkpoint advances once a message is handed to the executors of its sinks, not once the sinks have stored
+ * it. Messages queued by the executors when the node stops are therefore lost, and a spooled message is delivered
+ * at most once.
+ * <p>
+ * A record consists of its length, the CRC32 checksum of its content and the content, which is the message as JSON.
+ * The length is written last, so that records are never read partially. The end of a segment which does not fit
+ * the next record is marked with a length of -1.
+ */
+final class AuditSpool implements Closeable {
+
+    private static final Logger log = LogManager.getLogger(AuditSpool.class);
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.spool");
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int CHECKPOINT_BYTES = 16;
+    private static final int HEADER_BYTES = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final MappedByteBuffer checkpoint;
+
+    private final Object lock = new Object();
+    private final NavigableMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private long writeSegment;
+    private int writePosition;
+    private long readSegment;
+    private int readPosition;
+    private boolean closed;
+    private Thread dispatcher;
+
+    /**
+     * Opens the spool in the given directory, recovering the messages which were not dispatched before
+     */
+    AuditSpool(final Path directory, final long segmentSize, final long maxSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = (int) Math.max(4096, Math.min(segmentSize, Integer.MAX_VALUE));
+        this.maxSegments = (int) Math.max(2, Math.min(maxSize / this.segmentSize, Integer.MAX_VALUE));
+        Files.createDirectories(directory);
+
+        this.checkpoint = map(directory.resolve(CHECKPOINT_FILE), CHECKPOINT_BYTES);
+        final long checkpointSegment = checkpoint.getLong(0);
+        final int checkpointPosition = checkpoint.getInt(8);
+        final boolean checkpointValid = checkpoint.getInt(12) == checksum(checkpointSegment, checkpointPosition);
+
+        final NavigableMap<Long, Path> existing = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                final Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    existing.put(Long.parseLong(matcher.group(1)), file);
+                }
+            });
+        }
+
+        if (checkpointValid) {
+            // segments before the checkpoint were dispatched completely
+            for (final Path consumed : existing.headMap(checkpointSegment, false).values()) {
+                Files.deleteIfExists(consumed);
+            }
+            existing.headMap(checkpointSegment, false).clear();
+        }
+
+        if (existing.isEmpty()) {
+            readSegment = checkpointValid ? checkpointSegment + 1 : 0;
+            readPosition = 0;
+            writeSegment = readSegment;
+            writePosition = 0;
+            segments.put(writeSegment, map(segmentFile(writeSegment), this.segmentSize));
+        } else {
+            for (final Map.Entry<Long, Path> segment : existing.entrySet()) {
+                segments.put(segment.getKey(), map(segment.getValue(), this.segmentSize));
+            }
+            final boolean resume = checkpointValid && existing.firstKey() == checkpointSegment;
+            readSegment = existing.firstKey();
+            readPosition = resume ? checkpointPosition : 0;
+            writeSegment = existing.lastKey();
+            writePosition = endOfRecords(segments.get(writeSegment));
+            if (writeSegment == readSegment && readPosition > writePosition) {
+                readPosition = writePosition;
+            }
+            log.info("Recovered audit spool in {} with {} segments", directory, existing.size());
+        }
+        writeCheckpoint();
+    }
+
+    /**
+     * Starts the thread handing the spooled messages to the given consumer
+     */
+    void start(final Consumer<AuditMessage> consumer) {
+        synchronized (lock) {
+            if (dispatcher != null || closed) {
+                return;
+            }
+            dispatcher = OpenSearchExecutors.daemonThreadFactory("opensearch-security-audit-spool").newThread(() -> dispatch(consumer));
+            dispatcher.start();
+        }
+    }
+
+    /**
+     * Appends the given message to the spool.
+     *
+     * @return false if the spool is full or closed, or the message exceeds the size of a segment
+     */
+    boolean append(final AuditMessage msg) {
+        final byte[] record = BytesReference.toBytes(msg.toJsonBytes());
+        if (record.length > segmentSize - HEADER_BYTES) {
+            return false;
+        }
+
+        final CRC32 crc = new CRC32();
+        crc.update(record);
+
+        synchronized (lock) {
+            if (closed) {
+                return false;
+            }
+            if (writePosition + HEADER_BYTES + record.length > segmentSize) {
+                if (writeSegment - readSegment + 1 >= maxSegments) {
+                    return false;
+                }
+                final MappedByteBuffer next;
+                try {
+                    next = map(segmentFile(writeSegment + 1), segmentSize);
+                } catch (final IOException e) {
+                    log.error("Unable to create audit spool segment in {}", directory, e);
+                    return false;
+                }
+                if (writePosition + Integer.BYTES <= segmentSize) {
+                    segments.get(writeSegment).putInt(writePosition, END_OF_SEGMENT);
+                }
+                segments.put(++writeSegment, next);
+                writePosition = 0;
+            }
+
+            final ByteBuffer buffer = segments.get(writeSegment).duplicate();
+            buffer.position(writePosition + HEADER_BYTES);
+            buffer.put(record);
+            buffer.putInt(writePosition + Integer.BYTES, (int) crc.getValue());
+            buffer.putInt(writePosition, record.length);
+            writePosition += HEADER_BYTES + record.length;
+            lock.notifyAll();
+            return true;
+        }
+    }
+
+    /**
+     * @return the number of bytes of spooled messages, which are not yet dispatched
+     */
+    long pendingBytes() {
+        synchronized (lock) {
+            return (writeSegment - readSegment) * segmentSize + writePosition - readPosition;
+        }
+    }
+
+    private void dispatch(final Consumer<AuditMessage> consumer) {
+        while (true) {
+            final byte[] record;
+            synchronized (lock) {
+                try {
+                    while (!closed && readSegment == writeSegment && readPosition == writePosition) {
+                        lock.wait();
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (closed) {
+                    return;
+                }
+                record = nextRecord();
+            }
+
+            if (record != null) {
+                try {
+                    final Map<String, Object> fields = XContentHelper.convertToMap(new BytesArray(record), false, XContentType.JSON).v2();
+                    consumer.accept(AuditMessage.fromMap(fields));
+                } catch (final Exception e) {
+                    log.error("Unable to dispatch spooled audit message", e);
+                }
+            }
+
+            synchronized (lock) {
+                writeCheckpoint();
+            }
+        }
+    }
+
+    /**
+     * Reads the record at the read position and advances the read position past it, moving to the next segment
+     * if the current one has ended.
+     *
+     * @return null if no record could be read, the read position was advanced anyway
+     */
+    private byte[] nextRecord() {
+        final MappedByteBuffer segment = segments.get(readSegment);
+        final int length = readPosition + HEADER_BYTES <= segmentSize ? segment.getInt(readPosition) : END_OF_SEGMENT;
+
+        if (readSegment < writeSegment && (length <= 0 || readPosition + HEADER_BYTES + length > segmentSize)) {
+            nextSegment();
+            return null;
+        }
+
+        final ByteBuffer buffer = segment.duplicate();
+        buffer.position(readPosition + HEADER_BYTES);
+        final byte[] record = new byte[length];
+        buffer.get(record);
+
+        final CRC32 crc = new CRC32();
+        crc.update(record);
+        if ((int) crc.getValue() != segment.getInt(readPosition + Integer.BYTES)) {
+            log.error("Skipping corrupted audit spool segment {} from position {}", readSegment, readPosition);
+            if (readSegment < writeSegment) {
+                nextSegment();
+            } else {
+                readPosition = writePosition;
+            }
+            return null;
+        }
+
+        readPosition += HEADER_BYTES + length;
+        return record;
+    }
+
+    private void nextSegment() {
+        segments.remove(readSegment);
+        final Path consumed = segmentFile(readSegment);
+        readSegment++;
+        readPosition = 0;
+        writeCheckpoint();
+        try {
+            Files.deleteIfExists(consumed);
+        } catch (final IOException e) {
+            log.warn("Unable to delete audit spool segment {}", consumed, e);
+        }
+    }
+
+    private void writeCheckpoint() {
+        checkpoint.putLong(0, readSegment);
+        checkpoint.putInt(8, readPosition);
+        checkpoint.putInt(12, checksum(readSegment, readPosition));
+    }
+
+    /**
+     * Stops dispatching; spooled messages which are not yet dispatched are dispatched after a restart.
+     */
+    @Override
+    public void close() {
+        final Thread thread;
+        synchronized (lock) {
+            closed = true;
+            thread = dispatcher;
+            lock.notifyAll();
+        }
+        if (thread != null) {
+            // the dispatcher might be waiting for the sinks
+            thread.interrupt();
+            try {
+                thread.join(CLOSE_TIMEOUT_MILLIS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (lock) {
+            writeCheckpoint();
+            checkpoint.force();
+            for (final MappedByteBuffer segment : segments.values()) {
+                segment.force();
+            }
+        }
+    }
+
+    private Path segmentFile(final long segment) {
+        return directory.resolve("segment-" + segment + ".spool");
+    }
+
+    /**
+     * @return the position after the last complete record of the given segment
+     */
+    private int endOfRecords(final MappedByteBuffer segment) {
+        int position = 0;
+        final CRC32 crc = new CRC32();
+        while (position + HEADER_BYTES <= segmentSize) {
+            final int length = segment.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segmentSize) {
+                break;
+            }
+            final ByteBuffer buffer = segment.duplicate();
+            buffer.position(position + HEADER_BYTES).limit(position + HEADER_BYTES + length);
+            crc.reset();
+            crc.update(buffer);
+            if ((int) crc.getValue() != segment.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static int checksum(final long segment, final int position) {
+        final CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(12).putLong(segment).putInt(position).flip());
+        return (int) crc.getValue();
+    }
+
+    private static MappedByteBuffer map(final Path file, final int size) throws IOException {
+        try (
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+        ) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
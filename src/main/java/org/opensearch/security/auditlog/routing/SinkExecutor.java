@@ -0,0 +1,350 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.routing;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.security.auditlog.config.ThreadPoolConfig;
+import org.opensearch.security.auditlog.impl.AuditCategory;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+import org.opensearch.security.auditlog.sink.AuditLogSink;
+import org.opensearch.security.support.ConfigConstants;
+import org.opensearch.security.support.LatencyHistogram;
+import org.opensearch.transport.Transports;
+
+/**
+ * Stores the messages of one sink on its own bounded queue and worker threads, so that a slow sink does not
+ * delay the others.
+ * <p>
+ * The number of threads and the queue size are taken from the {@code executor.threads} and
+ * {@code executor.queue_size} settings of the sink. They default to an equal share of the audit thread pool
+ * settings, so that the executors of all sinks together use no more threads and queue no more messages than the
+ * audit thread pool. When the queue is full, {@code executor.overflow} decides whether the caller waits
+ * ({@code block}), the oldest queued message is dropped ({@code drop_oldest}) or the message is stored on the
+ * fallback sink by the caller ({@code fallback}, the default). Sinks which handle backpressure themselves are
+ * called synchronously.
+ * <p>
+ * Audit messages are also created on transport and network threads, which must never wait: a blocked network
+ * thread may be the one needed to complete the requests the sink is waiting for. On these threads, {@code block}
+ * therefore stores the message on the fallback sink instead of waiting.
+ * <p>
+ * Besides counters of the outcome of messages, the executor records how long messages wait in its queue and how
+ * long it takes from routing them until the sink has stored them, in total and per category. For sinks which store
+ * messages asynchronously, such as batching sinks, messages are stored once their batch is delivered.
+ */
+final class SinkExecutor implements ToXContentFragment {
+
+    private static final Logger log = LogManager.getLogger(SinkExecutor.class);
+
+    enum Overflow {
+        BLOCK,
+        DROP_OLDEST,
+        FALLBACK;
+
+        static Overflow from(final String value) {
+            try {
+                return Overflow.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                    "Incorrect overflow policy: "
+                        + value
+                        + " configured for audit logging. Must be one of: "
+                        + ConfigConstants.SECURITY_AUDIT_EXECUTOR_OVERFLOW_BLOCK
+                        + ", "
+                        + ConfigConstants.SECURITY_AUDIT_EXECUTOR_OVERFLOW_DROP_OLDEST
+                        + ", "
+                        + ConfigConstants.SECURITY_AUDIT_EXECUTOR_OVERFLOW_FALLBACK
+                );
+            }
+        }
+    }
+
+    private final AuditLogSink sink;
+    private final ThreadPoolConfig config;
+    private final Overflow overflow;
+    private final ThreadPoolExecutor pool;
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder fallback = new LongAdder();
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Map<AuditCategory, CategoryStats> categories = new EnumMap<>(AuditCategory.class);
+
+    SinkExecutor(final AuditLogSink sink, final ThreadPoolConfig config, final Overflow overflow) {
+        this.sink = sink;
+        this.config = config;
+        this.overflow = overflow;
+        for (AuditCategory category : AuditCategory.values()) {
+            categories.put(category, new CategoryStats());
+        }
+        if (sink.isHandlingBackpressure()) {
+            this.pool = null;
+        } else {
+            if (log.isDebugEnabled()) {
+                log.debug(
+                    "Create executor for sink {} with threads: {}, queue size: {} and overflow: {}",
+                    sink.getName(),
+                    config.getThreadPoolSize(),
+                    config.getThreadPoolMaxQueueLen(),
+                    overflow
+                );
+            }
+            this.pool = new ThreadPoolExecutor(
+                config.getThreadPoolSize(),
+                config.getThreadPoolSize(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(config.getThreadPoolMaxQueueLen()),
+                OpenSearchExecutors.daemonThreadFactory("opensearch-security-audit-sink-" + sink.getName()),
+                new OverflowHandler()
+            );
+        }
+        if (sink.isStoringAsynchronously()) {
+            sink.setStoreListener(this::completed);
+        }
+    }
+
+    /**
+     * @return the share of each of the given number of sinks of the given thread pool settings, at least one thread
+     * and one queued message
+     */
+    static ThreadPoolConfig share(final ThreadPoolConfig pool, final int sinks) {
+        if (sinks <= 1) {
+            return pool;
+        }
+        return new ThreadPoolConfig(
+            Math.max(1, pool.getThreadPoolSize() / sinks),
+            Math.max(1, pool.getThreadPoolMaxQueueLen() / sinks)
+        );
+    }
+
+    /**
+     * @param defaults the thread pool settings used unless configured for the sink
+     */
+    static SinkExecutor create(final AuditLogSink sink, final ThreadPoolConfig defaults) {
+        final Settings sinkSettings = sink.getSinkSettings();
+        return new SinkExecutor(
+            sink,
+            new ThreadPoolConfig(
+                sinkSettings.getAsInt(ConfigConstants.SECURITY_AUDIT_EXECUTOR_THREADS, defaults.getThreadPoolSize()),
+                sinkSettings.getAsInt(ConfigConstants.SECURITY_AUDIT_EXECUTOR_QUEUE_SIZE, defaults.getThreadPoolMaxQueueLen())
+            ),
+            Overflow.from(
+                sinkSettings.get(
+                    ConfigConstants.SECURITY_AUDIT_EXECUTOR_OVERFLOW,
+                    ConfigConstants.SECURITY_AUDIT_EXECUTOR_OVERFLOW_FALLBACK
+                )
+            )
+        );
+    }
+
+    /**
+     * Stores the given message asynchronously, applying the overflow policy if the queue is full
+     */
+    void submit(final AuditMessage msg) {
+        if (pool == null) {
+            store(msg);
+        } else {
+            pool.execute(new Store(msg));
+        }
+    }
+
+    /**
+     * Stores the given message asynchronously, waiting while the queue is full regardless of the overflow policy
+     *
+     * @throws InterruptedException if interrupted while waiting; the message is not stored then
+     */
+    void put(final AuditMessage msg) throws InterruptedException {
+        if (pool == null) {
+            store(msg);
+            return;
+        }
+        if (pool.isShutdown()) {
+            storeFallback(msg);
+            return;
+        }
+        // the queue is only consumed by started threads
+        pool.prestartAllCoreThreads();
+        pool.getQueue().put(new Store(msg));
+    }
+
+    /**
+     * @return the number of queued messages
+     */
+    int queued() {
+        return pool == null ? 0 : pool.getQueue().size();
+    }
+
+    private void store(final AuditMessage msg) {
+        final boolean success = sink.store(msg);
+        // the outcome of messages accepted by asynchronous sinks is reported to their store listener
+        if (!success || !sink.isStoringAsynchronously()) {
+            completed(msg, success);
+        }
+    }
+
+    /**
+     * Records the outcome of a message once the sink has stored it or handed it to its fallback sink
+     */
+    private void completed(final AuditMessage msg, final boolean success) {
+        final long nanos = System.nanoTime() - msg.getRoutedNanos();
+        latency.record(nanos);
+        final CategoryStats categoryStats = msg.getCategory() == null ? null : categories.get(msg.getCategory());
+        if (categoryStats != null) {
+            categoryStats.latency.record(nanos);
+        }
+        if (success) {
+            stored.increment();
+        } else {
+            failed.increment();
+            if (categoryStats != null) {
+                categoryStats.failed.increment();
+            }
+        }
+    }
+
+    private void storeFallback(final AuditMessage msg) {
+        final AuditLogSink fallbackSink = sink.getFallbackSink();
+        if (fallbackSink == null) {
+            dropped.increment();
+            return;
+        }
+        fallback.increment();
+        fallbackSink.store(msg);
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        builder.startObject(sink.getName());
+        builder.field("type", sink.getClass().getSimpleName());
+        builder.field("threads", pool == null ? 0 : config.getThreadPoolSize());
+        builder.field("queue_size", pool == null ? 0 : config.getThreadPoolMaxQueueLen());
+        builder.field("overflow", overflow.name().toLowerCase(Locale.ROOT));
+        builder.field("queued", queued());
+        builder.field("stored", stored.sum());
+        builder.field("failed", failed.sum());
+        builder.field("dropped", dropped.sum());
+        builder.field("fallback", fallback.sum());
+        builder.field("retries", sink.getRetries());
+        builder.field("delivery_failures", sink.getFallbacks());
+        if (pool != null) {
+            queueLatency.toXContent("queue_latency", builder);
+        }
+        latency.toXContent("latency", builder);
+        builder.startObject("categories");
+        for (Map.Entry<AuditCategory, CategoryStats> category : categories.entrySet()) {
+            final LatencyHistogram categoryLatency = category.getValue().latency;
+            if (categoryLatency.count() > 0) {
+                builder.startObject(category.getKey().name());
+                builder.field("failed", category.getValue().failed.sum());
+                categoryLatency.toXContent("latency", builder);
+                builder.endObject();
+            }
+        }
+        builder.endObject();
+        builder.endObject();
+        return builder;
+    }
+
+    void close() {
+        if (pool == null) {
+            return;
+        }
+        pool.shutdown(); // Disable new tasks from being submitted
+        try {
+            // Wait a while for existing tasks to terminate
+            if (!pool.awaitTermination(60, TimeUnit.SECONDS)) {
+                pool.shutdownNow(); // Cancel currently executing tasks
+                // Wait a while for tasks to respond to being cancelled
+                if (!pool.awaitTermination(60, TimeUnit.SECONDS)) log.error("Executor of sink {} did not terminate", sink.getName());
+            }
+        } catch (InterruptedException ie) {
+            // (Re-)Cancel if current thread also interrupted
+            pool.shutdownNow();
+            // Preserve interrupt status
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class CategoryStats {
+        private final LongAdder failed = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    private final class Store implements Runnable {
+        private final AuditMessage msg;
+        private final long submitted = System.nanoTime();
+
+        private Store(final AuditMessage msg) {
+            this.msg = msg;
+        }
+
+        @Override
+        public void run() {
+            queueLatency.record(System.nanoTime() - submitted);
+            store(msg);
+        }
+    }
+
+    private final class OverflowHandler implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor) {
+            final AuditMessage msg = ((Store) task).msg;
+            if (executor.isShutdown()) {
+                storeFallback(msg);
+                return;
+            }
+            switch (overflow) {
+                case BLOCK:
+                    if (Transports.isTransportThread(Thread.currentThread())) {
+                        log.error("Could not submit audit message {} to executor of sink '{}' on a network thread", msg, sink.getName());
+                        storeFallback(msg);
+                        break;
+                    }
+                    try {
+                        executor.getQueue().put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        // rather slow down the caller than lose the message
+                        store(msg);
+                    }
+                    break;
+                case DROP_OLDEST:
+                    if (executor.getQueue().poll() != null) {
+                        dropped.increment();
+                    }
+                    executor.execute(task);
+                    break;
+                default:
+                    log.error("Could not submit audit message {} to executor of sink '{}' as its queue is full", msg, sink.getName());
+                    storeFallback(msg);
+            }
+        }
+    }
+}
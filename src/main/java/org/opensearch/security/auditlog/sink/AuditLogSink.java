@@ -14,6 +14,7 @@ package org.opensearch.security.auditlog.sink;
 import java.io.IOException;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.google.common.util.concurrent.Uninterruptibles;
 import org.apache.logging.log4j.LogManager;
@@ -29,6 +30,21 @@ import org.joda.time.format.DateTimeFormatter;
 
 public abstract class AuditLogSink {
 
+    /**
+     * Receives the outcome of messages which a sink stores asynchronously
+     *
+     * @see #isStoringAsynchronously()
+     */
+    public interface StoreListener {
+
+        /**
+         * Called once per message on the thread completing its delivery, so it must not block
+         *
+         * @param success false if the message was handed to the fallback sink
+         */
+        void onStored(AuditMessage msg, boolean success);
+    }
+
     protected final Logger log = LogManager.getLogger(this.getClass());
     protected final Settings settings;
     protected final String settingsPrefix;
@@ -36,6 +52,9 @@ public abstract class AuditLogSink {
     protected final AuditLogSink fallbackSink;
     private final int retryCount;
     private final long delayMs;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private volatile StoreListener storeListener = (msg, success) -> {};
 
     protected AuditLogSink(String name, Settings settings, String settingsPrefix, AuditLogSink fallbackSink) {
         this.name = name.toLowerCase();
@@ -48,7 +67,20 @@ public abstract class AuditLogSink {
     }
 
     public boolean isHandlingBackpressure() {
-        return false;
+        // messages are only queued by the batcher, which is bounded
+        return getBatcher() != null;
+    }
+
+    /**
+     * @return true if messages accepted by {@link #store(AuditMessage)} are delivered later, their outcome is then
+     * reported to the {@link StoreListener}
+     */
+    public boolean isStoringAsynchronously() {
+        return getBatcher() != null;
+    }
+
+    public void setStoreListener(StoreListener storeListener) {
+        this.storeListener = Objects.requireNonNull(storeListener);
     }
 
     public String getName() {
@@ -59,12 +91,69 @@ public abstract class AuditLogSink {
         return fallbackSink;
     }
 
-    public final void store(AuditMessage msg) {
-        if (!doStoreWithRetry(msg) && !fallbackSink.doStoreWithRetry(msg)) {
+    /**
+     * Stores the given message, or the fallback sink if this sink fails to store it
+     * @return false if this sink failed to store the message
+     */
+    public final boolean store(AuditMessage msg) {
+        if (doStoreWithRetry(msg)) {
+            return true;
+        }
+        fallbacks.increment();
+        if (!fallbackSink.doStoreWithRetry(msg)) {
+            System.err.println(msg.toPrettyString());
+        }
+        return false;
+    }
+
+    /**
+     * Stores a message which this sink could not store in the fallback sink
+     */
+    protected final void storeFallback(AuditMessage msg) {
+        fallbacks.increment();
+        storeListener.onStored(msg, false);
+        if (fallbackSink == null || !fallbackSink.doStoreWithRetry(msg)) {
             System.err.println(msg.toPrettyString());
         }
     }
 
+    /**
+     * Reports a message which this sink stored asynchronously
+     */
+    protected final void stored(AuditMessage msg) {
+        storeListener.onStored(msg, true);
+    }
+
+    protected int getRetryCount() {
+        return retryCount;
+    }
+
+    protected long getRetryDelayMs() {
+        return delayMs;
+    }
+
+    /**
+     * @return the batcher collecting the messages of this sink, or null if messages are stored one by one
+     */
+    protected MessageBatcher<?> getBatcher() {
+        return null;
+    }
+
+    /**
+     * @return the number of attempts to store a message after the first one failed
+     */
+    public final long getRetries() {
+        final MessageBatcher<?> batcher = getBatcher();
+        return batcher == null ? retries.sum() : retries.sum() + batcher.retried();
+    }
+
+    /**
+     * @return the number of messages this sink failed to store, which were handed to the fallback sink
+     */
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
     private boolean doStoreWithRetry(AuditMessage msg) {
         // retryCount of 0 means no retry (which is: try exactly once) - delayMs is ignored
         // retryCount of 1 means: try and if this fails wait delayMs and try once again
@@ -79,6 +168,7 @@ public abstract class AuditLogSink {
                 log.debug("Retry attempt {}/{} for {} ({})", i + 1, retryCount, this.getName(), this.getClass());
             }
             Uninterruptibles.sleepUninterruptibly(delayMs, TimeUnit.MILLISECONDS);
+            retries.increment();
             if (!doStore(msg)) {
                 continue;
             } else {
@@ -106,6 +196,13 @@ public abstract class AuditLogSink {
         return settings.getAsSettings(prefix);
     }
 
+    /**
+     * @return the settings of this sink, without prefix
+     */
+    public final Settings getSinkSettings() {
+        return settingsPrefix == null ? Settings.EMPTY : getSinkSettings(settingsPrefix);
+    }
+
     @Override
     public String toString() {
         return ("AudtLogSink: Name: " + name + ", type: " + this.getClass().getSimpleName());
@@ -19,8 +19,10 @@ import java.security.cert.X509Certificate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.opensearch.common.settings.Settings;
+import org.opensearch.core.action.ActionListener;
 import org.opensearch.security.auditlog.impl.AuditMessage;
 import org.opensearch.security.httpclient.HttpClient;
 import org.opensearch.security.httpclient.HttpClient.HttpClientBuilder;
@@ -34,6 +36,11 @@ import org.joda.time.format.DateTimeFormatter;
 import static org.opensearch.security.ssl.SecureSSLSettings.SSLSetting.SECURITY_SSL_TRANSPORT_KEYSTORE_PASSWORD;
 import static org.opensearch.security.ssl.SecureSSLSettings.SSLSetting.SECURITY_SSL_TRANSPORT_TRUSTSTORE_PASSWORD;
 
+/**
+ * Indexes audit messages into a remote cluster over HTTP. By default, messages are sent with asynchronous bulk
+ * requests of {@link MessageBatcher} batches, which the client distributes over the configured servers; with
+ * {@code batch.enabled: false}, each message is indexed and refreshed synchronously.
+ */
 public final class ExternalOpenSearchSink extends AuditLogSink {
 
     private static final List<String> DEFAULT_TLS_PROTOCOLS = Arrays.asList(new String[] { "TLSv1.2", "TLSv1.1" });
@@ -43,6 +50,7 @@ public final class ExternalOpenSearchSink extends AuditLogSink {
     private final HttpClient client;
     private List<String> servers;
     private DateTimeFormatter indexPattern;
+    private final MessageBatcher<IndexedAuditMessage> batcher;
 
     static final String PKCS12 = "PKCS12";
 
@@ -232,16 +240,54 @@ public final class ExternalOpenSearchSink extends AuditLogSink {
         }
 
         client = builder.build();
+
+        final MessageBatcher.Config batchConfig = MessageBatcher.Config.from(sinkSettings, true);
+        this.batcher = batchConfig.isEnabled()
+            ? new MessageBatcher<>(
+                getName(),
+                batchConfig,
+                getRetryCount(),
+                getRetryDelayMs(),
+                IndexedAuditMessage::size,
+                this::index,
+                (message) -> stored(message.msg),
+                (message) -> storeFallback(message.msg)
+            )
+            : null;
+    }
+
+    @Override
+    protected MessageBatcher<?> getBatcher() {
+        return batcher;
     }
 
     @Override
     public void close() throws IOException {
+        // pending batches are sent before the client is closed
+        if (batcher != null) {
+            batcher.close();
+        }
         if (client != null) {
             client.close();
         }
     }
 
     public boolean doStore(final AuditMessage msg) {
+        if (batcher != null) {
+            final IndexedAuditMessage message;
+            try {
+                message = new IndexedAuditMessage(msg, getExpandedIndexName(indexPattern, index));
+            } catch (final Exception e) {
+                log.error("Unable to serialize audit log {} due to", msg, e);
+                return false;
+            }
+            if (!batcher.offer(message)) {
+                log.debug("Audit log batch queue of {} is full", getName());
+                storeFallback(msg);
+            }
+            return true;
+        }
+
         try {
             boolean successful = client.index(msg.toString(), getExpandedIndexName(indexPattern, index), type, true);
             if (!successful) {
@@ -253,4 +299,17 @@ public final class ExternalOpenSearchSink extends AuditLogSink {
             return false;
         }
     }
+
+    private void index(final List<IndexedAuditMessage> batch, final Consumer<List<IndexedAuditMessage>> onDone) {
+        client.bulkAsync(IndexedAuditMessage.toBulkRequest(batch), ActionListener.wrap(response -> {
+            final List<IndexedAuditMessage> failed = IndexedAuditMessage.failed(batch, response);
+            if (!failed.isEmpty()) {
+                log.error("Unable to send {} of {} audit log messages: {}", failed.size(), batch.size(), response.buildFailureMessage());
+            }
+            onDone.accept(failed);
+        }, e -> {
+            log.error("Unable to send {} audit log messages to one of these servers: {}", batch.size(), servers, e);
+            onDone.accept(batch);
+        }));
+    }
 }
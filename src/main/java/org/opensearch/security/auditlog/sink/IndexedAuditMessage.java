@@ -0,0 +1,71 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.sink;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+
+/**
+ * An audit message to be indexed by a batching sink. The message is serialized when it is queued, so that
+ * batches are accounted by their size.
+ */
+final class IndexedAuditMessage {
+
+    final AuditMessage msg;
+    private final String index;
+    private final BytesReference source;
+
+    IndexedAuditMessage(final AuditMessage msg, final String index) {
+        this.msg = msg;
+        this.index = index;
+        this.source = msg.toJsonBytes();
+    }
+
+    long size() {
+        return source.length();
+    }
+
+    static BulkRequest toBulkRequest(final List<IndexedAuditMessage> batch) {
+        final BulkRequest bulkRequest = new BulkRequest();
+        bulkRequest.timeout(TimeValue.timeValueMinutes(1));
+        for (final IndexedAuditMessage message : batch) {
+            bulkRequest.add(new IndexRequest(message.index).source(message.source, XContentType.JSON));
+        }
+        return bulkRequest;
+    }
+
+    /**
+     * @return the messages of the given batch whose bulk items failed
+     */
+    static List<IndexedAuditMessage> failed(final List<IndexedAuditMessage> batch, final BulkResponse response) {
+        if (!response.hasFailures()) {
+            return Collections.emptyList();
+        }
+        final List<IndexedAuditMessage> failed = new ArrayList<>();
+        for (final BulkItemResponse item : response.getItems()) {
+            if (item.isFailed()) {
+                failed.add(batch.get(item.getItemId()));
+            }
+        }
+        return failed;
+    }
+}
@@ -13,6 +13,8 @@ package org.opensearch.security.auditlog.sink;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.opensearch.action.index.IndexRequestBuilder;
 import org.opensearch.action.support.WriteRequest.RefreshPolicy;
@@ -20,6 +22,8 @@ import org.opensearch.client.Client;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.util.concurrent.ThreadContext.StoredContext;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.action.ActionListener;
 import org.opensearch.security.auditlog.impl.AuditMessage;
 import org.opensearch.security.support.ConfigConstants;
 import org.opensearch.security.support.HeaderHelper;
@@ -28,6 +32,11 @@ import org.opensearch.threadpool.ThreadPool;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+/**
+ * Indexes audit messages into an index of this cluster. By default, messages are indexed with bulk requests
+ * of {@link MessageBatcher} batches and without refreshing the index; with {@code batch.enabled: false}, each
+ * message is indexed and refreshed synchronously.
+ */
 public final class InternalOpenSearchSink extends AuditLogSink {
 
     private final Client clientProvider;
@@ -35,6 +44,7 @@ public final class InternalOpenSearchSink extends AuditLogSink {
     final String type;
     private DateTimeFormatter indexPattern;
     private final ThreadPool threadPool;
+    private final MessageBatcher<IndexedAuditMessage> batcher;
 
     public InternalOpenSearchSink(
         final String name,
@@ -61,11 +71,32 @@ public final class InternalOpenSearchSink extends AuditLogSink {
                 e.getMessage()
             );
         }
+
+        final MessageBatcher.Config batchConfig = MessageBatcher.Config.from(sinkSettings, true);
+        this.batcher = batchConfig.isEnabled()
+            ? new MessageBatcher<>(
+                getName(),
+                batchConfig,
+                getRetryCount(),
+                getRetryDelayMs(),
+                IndexedAuditMessage::size,
+                this::index,
+                (message) -> stored(message.msg),
+                (message) -> storeFallback(message.msg)
+            )
+            : null;
     }
 
     @Override
-    public void close() throws IOException {
+    protected MessageBatcher<?> getBatcher() {
+        return batcher;
+    }
 
+    @Override
+    public void close() throws IOException {
+        if (batcher != null) {
+            batcher.close();
+        }
     }
 
     public boolean doStore(final AuditMessage msg) {
@@ -79,11 +110,26 @@ public final class InternalOpenSearchSink extends AuditLogSink {
             return true;
         }
 
+        if (batcher != null) {
+            final IndexedAuditMessage message;
+            try {
+                message = new IndexedAuditMessage(msg, getExpandedIndexName(indexPattern, index));
+            } catch (final Exception e) {
+                log.error("Unable to serialize audit log {} due to", msg, e);
+                return false;
+            }
+            if (!batcher.offer(message)) {
+                log.debug("Audit log batch queue of {} is full", getName());
+                storeFallback(msg);
+            }
+            return true;
+        }
+
         try (StoredContext ctx = threadPool.getThreadContext().stashContext()) {
             try {
                 final IndexRequestBuilder irb = clientProvider.prepareIndex(getExpandedIndexName(indexPattern, index))
                     .setRefreshPolicy(RefreshPolicy.IMMEDIATE)
-                    .setSource(msg.getAsMap());
+                    .setSource(msg.toJsonBytes(), XContentType.JSON);
                 threadPool.getThreadContext().putHeader(ConfigConstants.OPENDISTRO_SECURITY_CONF_REQUEST_HEADER, "true");
                 irb.setTimeout(TimeValue.timeValueMinutes(1));
                 irb.execute().actionGet();
@@ -94,4 +140,25 @@ public final class InternalOpenSearchSink extends AuditLogSink {
             }
         }
     }
+
+    private void index(final List<IndexedAuditMessage> batch, final Consumer<List<IndexedAuditMessage>> onDone) {
+        try (StoredContext ctx = threadPool.getThreadContext().stashContext()) {
+            threadPool.getThreadContext().putHeader(ConfigConstants.OPENDISTRO_SECURITY_CONF_REQUEST_HEADER, "true");
+            clientProvider.bulk(IndexedAuditMessage.toBulkRequest(batch), ActionListener.wrap(response -> {
+                final List<IndexedAuditMessage> failed = IndexedAuditMessage.failed(batch, response);
+                if (!failed.isEmpty()) {
+                    log.error(
+                        "Unable to index {} of {} audit log messages: {}",
+                        failed.size(),
+                        batch.size(),
+                        response.buildFailureMessage()
+                    );
+                }
+                onDone.accept(failed);
+            }, e -> {
+                log.error("Unable to index {} audit log messages due to", batch.size(), e);
+                onDone.accept(batch);
+            }));
+        }
+    }
 }
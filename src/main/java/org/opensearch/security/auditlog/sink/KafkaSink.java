@@ -15,27 +15,54 @@ import java.io.IOException;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.Locale;
 import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
-import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
-import org.apache.kafka.clients.producer.RecordMetadata;
-import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 
 import org.opensearch.SpecialPermission;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.common.bytes.BytesReference;
 import org.opensearch.security.auditlog.impl.AuditMessage;
-
+import org.opensearch.security.support.ConfigConstants;
+
+/**
+ * Sends audit messages to a Kafka topic.
+ * <p>
+ * Messages are encoded as JSON, or as SMILE or CBOR if configured by {@code kafka.format}, and keyed by the
+ * effective user or the first requested index if configured by {@code kafka.key}, so that the messages of a user or
+ * an index end up in the same partition. Unless configured otherwise, the producer batches and compresses messages.
+ * At most {@code kafka.max_in_flight_messages} messages are sent and not yet acknowledged; further messages wait
+ * for acknowledgements, so that the executor of the sink fills up and applies its overflow policy.
+ */
 public class KafkaSink extends AuditLogSink {
 
+    private static final String KAFKA_SETTINGS_PREFIX = "kafka.";
+    private static final String EXECUTOR_SETTINGS_PREFIX = "executor.";
+
+    private enum Key {
+        NONE,
+        USER,
+        INDEX
+    }
+
     private final String[] mandatoryProperties = new String[] { "bootstrap_servers", "topic_name" };
     private boolean valid = true;
-    private Producer<Long, String> producer;
+    private Producer<String, byte[]> producer;
     private String topicName;
+    private XContentType format;
+    private Key key;
+    private int maxInFlight;
+    private Semaphore inFlight;
+    private long maxBlockMs;
 
     @SuppressWarnings("removal")
     public KafkaSink(final String name, final Settings settings, final String settingsPrefix, AuditLogSink fallbackSink) {
@@ -43,6 +70,7 @@ public class KafkaSink extends AuditLogSink {
 
         Settings sinkSettings = settings.getAsSettings(settingsPrefix);
         checkMandatorySinkSettings(sinkSettings);
+        checkAuditSinkSettings(sinkSettings);
 
         if (!valid) {
             log.error("Failed to configure Kafka producer, please check the logfile.");
@@ -52,14 +80,26 @@ public class KafkaSink extends AuditLogSink {
         final Properties producerProps = new Properties();
 
         for (String key : sinkSettings.names()) {
-            if (!key.equals("topic_name")) {
+            if (!key.equals("topic_name") && !key.startsWith(KAFKA_SETTINGS_PREFIX) && !key.startsWith(EXECUTOR_SETTINGS_PREFIX)) {
                 producerProps.put(key.replace('_', '.'), sinkSettings.get(key));
             }
         }
 
-        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, LongSerializer.class.getName());
-        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        // audit messages are small and frequent, batch and compress them unless configured otherwise
+        producerProps.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG, "50");
+        producerProps.putIfAbsent(ProducerConfig.BATCH_SIZE_CONFIG, "131072");
+        producerProps.putIfAbsent(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
         topicName = sinkSettings.get("topic_name");
+        maxInFlight = sinkSettings.getAsInt(
+            ConfigConstants.SECURITY_AUDIT_KAFKA_MAX_IN_FLIGHT_MESSAGES,
+            ConfigConstants.SECURITY_AUDIT_KAFKA_MAX_IN_FLIGHT_MESSAGES_DEFAULT
+        );
+        inFlight = new Semaphore(maxInFlight);
+        // wait for acknowledgements as long as the producer waits for buffer space
+        maxBlockMs = Long.parseLong(producerProps.getProperty(ProducerConfig.MAX_BLOCK_MS_CONFIG, "60000"));
 
         // map path of
         // ssl.keystore.location
@@ -73,10 +113,10 @@ public class KafkaSink extends AuditLogSink {
         }
 
         try {
-            this.producer = AccessController.doPrivileged(new PrivilegedExceptionAction<KafkaProducer<Long, String>>() {
+            this.producer = AccessController.doPrivileged(new PrivilegedExceptionAction<KafkaProducer<String, byte[]>>() {
                 @Override
-                public KafkaProducer<Long, String> run() throws Exception {
-                    return new KafkaProducer<Long, String>(producerProps);
+                public KafkaProducer<String, byte[]> run() throws Exception {
+                    return new KafkaProducer<String, byte[]>(producerProps);
                 }
             });
         } catch (PrivilegedActionException e) {
@@ -92,26 +132,53 @@ public class KafkaSink extends AuditLogSink {
             return false;
         }
 
-        ProducerRecord<Long, String> data = new ProducerRecord<Long, String>(topicName, msg.toJson());
-        producer.send(data, new Callback() {
+        try {
+            if (!inFlight.tryAcquire(maxBlockMs, TimeUnit.MILLISECONDS)) {
+                log.error("Could not store message on Kafka topic {}, too many messages are not yet acknowledged", topicName);
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
 
-            @Override
-            public void onCompletion(RecordMetadata metadata, Exception exception) {
-                if (exception == null) {
-                    // log trace?
-                } else {
+        try {
+            ProducerRecord<String, byte[]> data = new ProducerRecord<>(topicName, keyOf(msg), BytesReference.toBytes(encode(msg)));
+            producer.send(data, (metadata, exception) -> {
+                inFlight.release();
+                if (exception != null) {
                     log.error("Could not store message on Kafka topic {}", topicName, exception);
-                    fallbackSink.store(msg);
+                    storeFallback(msg);
                 }
-
-            }
-        });
+            });
+        } catch (Exception e) {
+            inFlight.release();
+            log.error("Could not send message to Kafka topic {}", topicName, e);
+            return false;
+        }
         return true;
     }
 
+    private BytesReference encode(AuditMessage msg) {
+        // the JSON encoding is shared with other sinks
+        return format == XContentType.JSON ? msg.toJsonBytes() : msg.toBytes(format);
+    }
+
+    private String keyOf(AuditMessage msg) {
+        switch (key) {
+            case USER:
+                return msg.getEffectiveUser();
+            case INDEX:
+                return msg.getFirstIndex();
+            default:
+                return null;
+        }
+    }
+
     @Override
     public boolean isHandlingBackpressure() {
-        return true;
+        // sending waits while too many messages are not yet acknowledged
+        return false;
     }
 
     private void checkMandatorySinkSettings(Settings sinkSettings) {
@@ -124,6 +191,45 @@ public class KafkaSink extends AuditLogSink {
         }
     }
 
+    private void checkAuditSinkSettings(Settings sinkSettings) {
+        final String formatName = sinkSettings.get(ConfigConstants.SECURITY_AUDIT_KAFKA_FORMAT, XContentType.JSON.name());
+        try {
+            format = XContentType.valueOf(formatName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            format = null;
+        }
+        if (format != XContentType.JSON && format != XContentType.SMILE && format != XContentType.CBOR) {
+            log.error(
+                "Invalid value {} for {}, must be one of json, smile or cbor.",
+                formatName,
+                ConfigConstants.SECURITY_AUDIT_KAFKA_FORMAT
+            );
+            this.valid = false;
+        }
+
+        final String keyName = sinkSettings.get(ConfigConstants.SECURITY_AUDIT_KAFKA_KEY, ConfigConstants.SECURITY_AUDIT_KAFKA_KEY_NONE);
+        try {
+            key = Key.valueOf(keyName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.error(
+                "Invalid value {} for {}, must be one of {}, {} or {}.",
+                keyName,
+                ConfigConstants.SECURITY_AUDIT_KAFKA_KEY,
+                ConfigConstants.SECURITY_AUDIT_KAFKA_KEY_NONE,
+                ConfigConstants.SECURITY_AUDIT_KAFKA_KEY_USER,
+                ConfigConstants.SECURITY_AUDIT_KAFKA_KEY_INDEX
+            );
+            this.valid = false;
+        }
+    }
+
+    /**
+     * @return the number of messages sent and not yet acknowledged
+     */
+    int inFlight() {
+        return inFlight == null ? 0 : maxInFlight - inFlight.availablePermits();
+    }
+
     @Override
     public void close() throws IOException {
         if (producer != null) {
@@ -0,0 +1,402 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.sink;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.core.common.unit.ByteSizeValue;
+import org.opensearch.security.support.ConfigConstants;
+
+/**
+ * Collects the messages of a sink into batches, which are delivered when they reach a maximum number of messages
+ * or bytes, or when the linger interval has passed.
+ * <p>
+ * At most {@code max_in_flight} batches are delivered concurrently; failed messages of a batch are retried as
+ * configured for the sink, with an exponential and jittered backoff based on the retry delay of the sink, and then
+ * handed to the failure handler, typically the fallback sink, on the thread of the batcher. The number of
+ * messages held by the batcher is bounded by {@code max_queued_messages}; further messages are rejected by
+ * {@link #offer(Object)}, so that callers never block.
+ */
+final class MessageBatcher<T> implements Closeable {
+
+    private static final Logger log = LogManager.getLogger(MessageBatcher.class);
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Delivers batches to the destination of a sink
+     */
+    interface Delivery<T> {
+
+        /**
+         * Delivers the given batch, possibly asynchronously.
+         *
+         * @param onDone must be called exactly once with the messages which could not be delivered
+         */
+        void deliver(List<T> batch, Consumer<List<T>> onDone);
+    }
+
+    static final class Config {
+        private final boolean enabled;
+        private final int maxMessages;
+        private final long maxBytes;
+        private final TimeValue linger;
+        private final int maxInFlight;
+        private final int maxQueuedMessages;
+
+        Config(
+            final boolean enabled,
+            final int maxMessages,
+            final long maxBytes,
+            final TimeValue linger,
+            final int maxInFlight,
+            final int maxQueuedMessages
+        ) {
+            this.enabled = enabled;
+            this.maxMessages = Math.max(1, maxMessages);
+            this.maxBytes = Math.max(1, maxBytes);
+            this.linger = linger;
+            this.maxInFlight = Math.max(1, maxInFlight);
+            this.maxQueuedMessages = Math.max(this.maxMessages, maxQueuedMessages);
+        }
+
+        /**
+         * @param sinkSettings the settings of the sink, without prefix
+         */
+        static Config from(final Settings sinkSettings, final boolean enabledByDefault) {
+            return new Config(
+                sinkSettings.getAsBoolean(ConfigConstants.SECURITY_AUDIT_BATCH_ENABLED, enabledByDefault),
+                sinkSettings.getAsInt(
+                    ConfigConstants.SECURITY_AUDIT_BATCH_MAX_MESSAGES,
+                    ConfigConstants.SECURITY_AUDIT_BATCH_MAX_MESSAGES_DEFAULT
+                ),
+                ByteSizeValue.parseBytesSizeValue(
+                    sinkSettings.get(ConfigConstants.SECURITY_AUDIT_BATCH_MAX_SIZE, ConfigConstants.SECURITY_AUDIT_BATCH_MAX_SIZE_DEFAULT),
+                    ConfigConstants.SECURITY_AUDIT_BATCH_MAX_SIZE
+                ).getBytes(),
+                sinkSettings.getAsTime(ConfigConstants.SECURITY_AUDIT_BATCH_LINGER, ConfigConstants.SECURITY_AUDIT_BATCH_LINGER_DEFAULT),
+                sinkSettings.getAsInt(
+                    ConfigConstants.SECURITY_AUDIT_BATCH_MAX_IN_FLIGHT,
+                    ConfigConstants.SECURITY_AUDIT_BATCH_MAX_IN_FLIGHT_DEFAULT
+                ),
+                sinkSettings.getAsInt(
+                    ConfigConstants.SECURITY_AUDIT_BATCH_MAX_QUEUED_MESSAGES,
+                    ConfigConstants.SECURITY_AUDIT_BATCH_MAX_QUEUED_MESSAGES_DEFAULT
+                )
+            );
+        }
+
+        boolean isEnabled() {
+            return enabled;
+        }
+
+        int getMaxInFlight() {
+            return maxInFlight;
+        }
+    }
+
+    private final String name;
+    private final Config config;
+    private final int retryCount;
+    private final long retryDelayMs;
+    private final ToLongFunction<T> weigher;
+    private final Delivery<T> delivery;
+    private final Consumer<T> onDelivered;
+    private final Consumer<T> onFailure;
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder retried = new LongAdder();
+
+    private final Object lock = new Object();
+    private final ArrayDeque<T> pending = new ArrayDeque<>();
+    private long pendingBytes;
+    private int queued;
+    private int inFlight;
+    private boolean closed;
+
+    /**
+     * @param weigher the serialized size of a message
+     * @param onFailure receives messages which could not be delivered
+     */
+    MessageBatcher(
+        final String name,
+        final Config config,
+        final int retryCount,
+        final long retryDelayMs,
+        final ToLongFunction<T> weigher,
+        final Delivery<T> delivery,
+        final Consumer<T> onFailure
+    ) {
+        this(name, config, retryCount, retryDelayMs, weigher, delivery, (message) -> {}, onFailure);
+    }
+
+    /**
+     * @param weigher the serialized size of a message
+     * @param onDelivered receives messages once they are delivered, on the thread completing the delivery; must not block
+     * @param onFailure receives messages which could not be delivered
+     */
+    MessageBatcher(
+        final String name,
+        final Config config,
+        final int retryCount,
+        final long retryDelayMs,
+        final ToLongFunction<T> weigher,
+        final Delivery<T> delivery,
+        final Consumer<T> onDelivered,
+        final Consumer<T> onFailure
+    ) {
+        this.name = name;
+        this.config = config;
+        this.retryCount = retryCount;
+        this.retryDelayMs = retryDelayMs;
+        this.weigher = weigher;
+        this.delivery = delivery;
+        this.onDelivered = onDelivered;
+        this.onFailure = onFailure;
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+            1,
+            OpenSearchExecutors.daemonThreadFactory("opensearch-security-audit-" + name)
+        );
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.scheduler = executor;
+        final long lingerMillis = Math.max(1, config.linger.millis());
+        scheduler.scheduleWithFixedDelay(this::flush, lingerMillis, lingerMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues the given message for delivery.
+     *
+     * @return false if the batcher is full or closed; the message was not accepted then
+     */
+    boolean offer(final T message) {
+        final List<T> batch;
+        synchronized (lock) {
+            if (closed || queued >= config.maxQueuedMessages) {
+                return false;
+            }
+            pending.add(message);
+            pendingBytes += weigher.applyAsLong(message);
+            queued++;
+            batch = takeBatch(false);
+        }
+        if (batch != null) {
+            send(batch, 0);
+        }
+        return true;
+    }
+
+    /**
+     * Sends all pending messages regardless of the size of the batches
+     */
+    void flush() {
+        List<T> batch;
+        do {
+            synchronized (lock) {
+                batch = takeBatch(true);
+            }
+            if (batch != null) {
+                send(batch, 0);
+            }
+        } while (batch != null);
+    }
+
+    /**
+     * @return the number of accepted messages which are not yet delivered
+     */
+    int queued() {
+        synchronized (lock) {
+            return queued;
+        }
+    }
+
+    /**
+     * @return the number of delivery attempts of messages after the first one failed
+     */
+    long retried() {
+        return retried.sum();
+    }
+
+    private List<T> takeBatch(final boolean force) {
+        if (pending.isEmpty() || inFlight >= config.maxInFlight) {
+            return null;
+        }
+        if (!force && !closed && pending.size() < config.maxMessages && pendingBytes < config.maxBytes) {
+            return null;
+        }
+
+        final List<T> batch = new ArrayList<>(Math.min(pending.size(), config.maxMessages));
+        long batchBytes = 0;
+        while (!pending.isEmpty() && batch.size() < config.maxMessages && (batch.isEmpty() || batchBytes < config.maxBytes)) {
+            final T message = pending.poll();
+            final long weight = weigher.applyAsLong(message);
+            batchBytes += weight;
+            pendingBytes -= weight;
+            batch.add(message);
+        }
+        inFlight++;
+        return batch;
+    }
+
+    private void send(final List<T> batch, final int attempt) {
+        try {
+            scheduler.execute(() -> deliver(batch, attempt));
+        } catch (RejectedExecutionException e) {
+            // only happens after close
+            completed(batch.size(), batch, attempt, false);
+        }
+    }
+
+    private void deliver(final List<T> batch, final int attempt) {
+        final AtomicBoolean done = new AtomicBoolean();
+        try {
+            delivery.deliver(batch, failed -> {
+                if (done.compareAndSet(false, true)) {
+                    delivered(batch, failed);
+                    completed(batch.size(), failed, attempt, true);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Unable to deliver batch of {} audit messages for {}", batch.size(), name, e);
+            if (done.compareAndSet(false, true)) {
+                completed(batch.size(), batch, attempt, true);
+            }
+        }
+    }
+
+    private void delivered(final List<T> batch, final List<T> failed) {
+        final Set<T> undelivered = Collections.newSetFromMap(new IdentityHashMap<>());
+        undelivered.addAll(failed);
+        for (final T message : batch) {
+            if (!undelivered.contains(message)) {
+                onDelivered.accept(message);
+            }
+        }
+    }
+
+    private void completed(final int batchSize, final List<T> failed, final int attempt, final boolean mayRetry) {
+        if (!failed.isEmpty() && mayRetry && attempt < retryCount) {
+            if (log.isDebugEnabled()) {
+                log.debug("Retry attempt {}/{} of {} audit messages for {}", attempt + 1, retryCount, failed.size(), name);
+            }
+            synchronized (lock) {
+                // the batch keeps its in flight slot while it is retried
+                queued -= batchSize - failed.size();
+            }
+            try {
+                scheduler.schedule(() -> deliver(failed, attempt + 1), retryDelayMillis(attempt), TimeUnit.MILLISECONDS);
+                retried.add(failed.size());
+                return;
+            } catch (RejectedExecutionException e) {
+                completed(failed.size(), failed, attempt, false);
+                return;
+            }
+        }
+
+        if (failed.isEmpty()) {
+            finished(batchSize);
+            return;
+        }
+        // completions may run on transport or IO reactor threads, which must not wait for a slow failure handler
+        try {
+            scheduler.execute(() -> failed(batchSize, failed));
+        } catch (RejectedExecutionException e) {
+            // only happens after close
+            failed(batchSize, failed);
+        }
+    }
+
+    private void failed(final int batchSize, final List<T> failed) {
+        try {
+            for (final T message : failed) {
+                onFailure.accept(message);
+            }
+        } finally {
+            finished(batchSize);
+        }
+    }
+
+    private void finished(final int batchSize) {
+        final List<T> next;
+        synchronized (lock) {
+            queued -= batchSize;
+            inFlight--;
+            next = takeBatch(false);
+            lock.notifyAll();
+        }
+        if (next != null) {
+            send(next, 0);
+        }
+    }
+
+    /**
+     * @return a random delay between half and all of the retry delay doubled for every previous attempt, so that
+     * the retries of several nodes do not hit the destination at the same time
+     */
+    private long retryDelayMillis(final int attempt) {
+        final long backoff = Math.max(1, retryDelayMs) << Math.min(attempt, 10);
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    /**
+     * Delivers the pending messages, waiting a bounded time for these to complete.
+     * Messages which are still not delivered then are handed to the failure handler.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        flush();
+
+        final List<T> remaining = new ArrayList<>();
+        synchronized (lock) {
+            final long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MILLIS;
+            try {
+                long wait;
+                while (queued > 0 && (wait = deadline - System.currentTimeMillis()) > 0) {
+                    lock.wait(wait);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            remaining.addAll(pending);
+            pending.clear();
+            if (queued > remaining.size()) {
+                log.warn("{} audit messages of {} are still being delivered on close", queued - remaining.size(), name);
+            }
+        }
+
+        scheduler.shutdownNow();
+        for (final T message : remaining) {
+            onFailure.accept(message);
+        }
+    }
+}
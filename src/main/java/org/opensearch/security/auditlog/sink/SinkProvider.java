@@ -12,9 +12,11 @@
 package org.opensearch.security.auditlog.sink;
 
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -113,6 +115,17 @@ public class SinkProvider {
         return defaultSink;
     }
 
+    public AuditLogSink getFallbackSink() {
+        return fallbackSink;
+    }
+
+    /**
+     * @return all sinks except the fallback sink
+     */
+    public Collection<AuditLogSink> getSinks() {
+        return allSinks.values().stream().filter(sink -> sink != fallbackSink).collect(Collectors.toList());
+    }
+
     public void close() {
         for (AuditLogSink sink : allSinks.values()) {
             close(sink);
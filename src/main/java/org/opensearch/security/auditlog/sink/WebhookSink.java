@@ -20,25 +20,39 @@ import java.security.AccessController;
 import java.security.KeyStore;
 import java.security.PrivilegedAction;
 import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
 
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
 import org.apache.hc.client5.http.ssl.DefaultHostnameVerifier;
 import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.io.SocketConfig;
 import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.reactor.ssl.TlsDetails;
 import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.apache.hc.core5.ssl.SSLContexts;
 import org.apache.hc.core5.ssl.TrustStrategy;
 import org.apache.http.HttpStatus;
 
@@ -53,6 +67,8 @@ import static org.opensearch.security.ssl.SecureSSLSettings.SSLSetting.SECURITY_
 
 public class WebhookSink extends AuditLogSink {
 
+    private static final ContentType NDJSON = ContentType.create("application/x-ndjson", StandardCharsets.UTF_8);
+
     /* HttpClient is thread safe */
     private final CloseableHttpClient httpClient;
 
@@ -61,6 +77,11 @@ public class WebhookSink extends AuditLogSink {
     final boolean verifySSL;
     final KeyStore effectiveTruststore;
 
+    /* only set if batching is enabled */
+    private MessageBatcher<FormattedMessage> batcher = null;
+    private CloseableHttpAsyncClient asyncHttpClient = null;
+    private boolean jsonArrayPayload = false;
+
     public WebhookSink(
         final String name,
         final Settings settings,
@@ -109,6 +130,41 @@ public class WebhookSink extends AuditLogSink {
                 webhookFormat = WebhookFormat.TEXT;
             }
         }
+
+        final MessageBatcher.Config batchConfig = MessageBatcher.Config.from(sinkSettings, false);
+        if (batchConfig.isEnabled()) {
+            // text messages span several lines, so these could not be told apart within a batch
+            if (webhookFormat != WebhookFormat.JSON) {
+                log.warn("Batching is only supported for webhook format 'json', messages are sent one by one");
+                return;
+            }
+            jsonArrayPayload = ConfigConstants.SECURITY_AUDIT_WEBHOOK_BATCH_PAYLOAD_JSON_ARRAY.equalsIgnoreCase(
+                sinkSettings.get(
+                    ConfigConstants.SECURITY_AUDIT_WEBHOOK_BATCH_PAYLOAD,
+                    ConfigConstants.SECURITY_AUDIT_WEBHOOK_BATCH_PAYLOAD_NDJSON
+                )
+            );
+            asyncHttpClient = getAsyncHttpClient(batchConfig.getMaxInFlight());
+            if (asyncHttpClient == null) {
+                log.error("Could not create async HttpClient, messages are sent one by one");
+                return;
+            }
+            batcher = new MessageBatcher<>(
+                getName(),
+                batchConfig,
+                getRetryCount(),
+                getRetryDelayMs(),
+                (message) -> message.payload.length(),
+                this::postBatch,
+                (message) -> stored(message.msg),
+                (message) -> storeFallback(message.msg)
+            );
+        }
+    }
+
+    @Override
+    protected MessageBatcher<?> getBatcher() {
+        return batcher;
     }
 
     @Override
@@ -123,6 +179,15 @@ public class WebhookSink extends AuditLogSink {
             return true;
         }
 
+        if (batcher != null) {
+            final FormattedMessage message = new FormattedMessage(msg, formatJson(msg));
+            if (!batcher.offer(message)) {
+                log.debug("Audit log batch queue of {} is full", getName());
+                storeFallback(msg);
+            }
+            return true;
+        }
+
         return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
 
             @Override
@@ -159,6 +224,13 @@ public class WebhookSink extends AuditLogSink {
 
     @Override
     public void close() throws IOException {
+        // pending batches are sent before the clients are closed
+        if (batcher != null) {
+            batcher.close();
+        }
+        if (asyncHttpClient != null) {
+            asyncHttpClient.close();
+        }
         if (httpClient != null) {
             httpClient.close();
         }
@@ -311,6 +383,61 @@ public class WebhookSink extends AuditLogSink {
         }
     }
 
+    /**
+     * Sends the given batch of JSON messages as one request, either as newline delimited JSON or as a JSON array.
+     */
+    @SuppressWarnings("removal")
+    private void postBatch(final List<FormattedMessage> batch, final Consumer<List<FormattedMessage>> onDone) {
+        final StringBuilder payload = new StringBuilder();
+        final ContentType contentType;
+        if (webhookFormat == WebhookFormat.JSON && jsonArrayPayload) {
+            contentType = ContentType.APPLICATION_JSON;
+            payload.append('[');
+            for (int i = 0; i < batch.size(); i++) {
+                payload.append(i == 0 ? "" : ",").append(batch.get(i).payload);
+            }
+            payload.append(']');
+        } else {
+            contentType = NDJSON;
+            for (final FormattedMessage message : batch) {
+                payload.append(message.payload).append('\n');
+            }
+        }
+
+        final SimpleHttpRequest request = SimpleRequestBuilder.post(webhookUrl).setBody(payload.toString(), contentType).build();
+
+        AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+            asyncHttpClient.execute(request, new FutureCallback<SimpleHttpResponse>() {
+                @Override
+                public void completed(final SimpleHttpResponse response) {
+                    if (response.getCode() != HttpStatus.SC_OK) {
+                        log.error(
+                            "Cannot POST {} audit messages to webhook URL '{}', server returned status {}",
+                            batch.size(),
+                            webhookUrl,
+                            response.getCode()
+                        );
+                        onDone.accept(batch);
+                    } else {
+                        onDone.accept(Collections.emptyList());
+                    }
+                }
+
+                @Override
+                public void failed(final Exception e) {
+                    log.error("Cannot POST {} audit messages to webhook URL '{}' due to '{}'", batch.size(), webhookUrl, e.getMessage(), e);
+                    onDone.accept(batch);
+                }
+
+                @Override
+                public void cancelled() {
+                    onDone.accept(batch);
+                }
+            });
+            return null;
+        });
+    }
+
     @SuppressWarnings("removal")
     private KeyStore getEffectiveKeyStore(final Path configPath) {
 
@@ -415,6 +542,77 @@ public class WebhookSink extends AuditLogSink {
         }
     }
 
+    /**
+     * Creates the client for batches. HTTP/2 is used if the webhook supports it via TLS; otherwise, requests are sent
+     * over at most {@code maxConnections} HTTP/1.1 connections.
+     */
+    @SuppressWarnings("removal")
+    private CloseableHttpAsyncClient getAsyncHttpClient(final int maxConnections) {
+
+        int timeout = 5;
+
+        RequestConfig config = RequestConfig.custom()
+            .setConnectTimeout(timeout, TimeUnit.SECONDS)
+            .setConnectionRequestTimeout(timeout, TimeUnit.SECONDS)
+            .setResponseTimeout(timeout, TimeUnit.SECONDS)
+            .build();
+
+        final TrustStrategy trustAllStrategy = new TrustStrategy() {
+            @Override
+            public boolean isTrusted(X509Certificate[] chain, String authType) {
+                return true;
+            }
+        };
+
+        return AccessController.doPrivileged((PrivilegedAction<CloseableHttpAsyncClient>) () -> {
+            try {
+                final SSLContext sslContext;
+                if (!verifySSL) {
+                    sslContext = SSLContextBuilder.create().loadTrustMaterial(trustAllStrategy).build();
+                } else if (effectiveTruststore != null) {
+                    sslContext = SSLContextBuilder.create().loadTrustMaterial(effectiveTruststore, null).build();
+                } else {
+                    sslContext = SSLContexts.createSystemDefault();
+                }
+
+                final CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                    .setDefaultRequestConfig(config)
+                    .setConnectionManager(
+                        PoolingAsyncClientConnectionManagerBuilder.create()
+                            .setMaxConnPerRoute(maxConnections)
+                            .setMaxConnTotal(maxConnections)
+                            .setTlsStrategy(
+                                ClientTlsStrategyBuilder.create()
+                                    .setSslContext(sslContext)
+                                    .setHostnameVerifier(verifySSL ? new DefaultHostnameVerifier() : NoopHostnameVerifier.INSTANCE)
+                                    // See please https://issues.apache.org/jira/browse/HTTPCLIENT-2219
+                                    .setTlsDetailsFactory(
+                                        (SSLEngine sslEngine) -> new TlsDetails(sslEngine.getSession(), sslEngine.getApplicationProtocol())
+                                    )
+                                    .build()
+                            )
+                            .build()
+                    )
+                    .build();
+                client.start();
+                return client;
+            } catch (Exception ex) {
+                log.error("Could not create async HTTPClient due to {}", ex.getMessage(), ex);
+                return null;
+            }
+        });
+    }
+
+    private static final class FormattedMessage {
+        private final AuditMessage msg;
+        private final String payload;
+
+        private FormattedMessage(final AuditMessage msg, final String payload) {
+            this.msg = msg;
+            this.payload = payload;
+        }
+    }
+
     public static enum WebhookFormat {
         URL_PARAMETER_GET(HttpMethod.GET, ContentType.TEXT_PLAIN),
         URL_PARAMETER_POST(HttpMethod.POST, ContentType.TEXT_PLAIN),
@@ -0,0 +1,65 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.compliance;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.opensearch.security.support.WildcardMatcher;
+
+/**
+ * Matcher of watched fields which remembers its verdict per field name, so that testing a field which was seen
+ * before costs a map lookup rather than the evaluation of the field patterns. Field names are bounded by the
+ * mappings of the indices, but at most {@code maxFields} verdicts are kept; further field names are evaluated
+ * each time.
+ */
+final class CachedFieldMatcher extends WildcardMatcher {
+
+    private final WildcardMatcher inner;
+    private final int maxFields;
+    private final Map<String, Boolean> verdicts = new ConcurrentHashMap<>();
+
+    CachedFieldMatcher(final WildcardMatcher inner, final int maxFields) {
+        this.inner = inner;
+        this.maxFields = maxFields;
+    }
+
+    @Override
+    public boolean test(final String field) {
+        final Boolean verdict = verdicts.get(field);
+        if (verdict != null) {
+            return verdict;
+        }
+        final boolean matches = inner.test(field);
+        if (verdicts.size() < maxFields) {
+            verdicts.put(field, matches);
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return inner.equals(((CachedFieldMatcher) o).inner);
+    }
+
+    @Override
+    public int hashCode() {
+        return inner.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return inner.toString();
+    }
+}
@@ -31,6 +31,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -76,6 +78,7 @@ public class ComplianceConfig {
     private static final Logger log = LogManager.getLogger(ComplianceConfig.class);
     public static final ComplianceConfig DEFAULT = ComplianceConfig.from(Settings.EMPTY);
     private static final int CACHE_SIZE = 1000;
+    private static final int FIELD_VERDICTS_CACHE_SIZE = 10000;
     private static final String INTERNAL_OPENSEARCH = "internal_opensearch";
     public static Set<String> FIELDS = DefaultObjectMapper.getFields(ComplianceConfig.class);
 
@@ -101,6 +104,8 @@ public class ComplianceConfig {
 
     private final Map<WildcardMatcher, Set<String>> readEnabledFields;
     private final LoadingCache<String, WildcardMatcher> readEnabledFieldsCache;
+    // indices matching the same patterns, e.g. daily indices, share one matcher of the watched fields
+    private final ConcurrentMap<Set<WildcardMatcher>, WildcardMatcher> readEnabledFieldsMatchers = new ConcurrentHashMap<>();
     private final DateTimeFormatter auditLogPattern;
     private final String auditLogIndex;
     private final boolean enabled;
@@ -160,7 +165,7 @@ public class ComplianceConfig {
         this.readEnabledFieldsCache = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build(new CacheLoader<String, WildcardMatcher>() {
             @Override
             public WildcardMatcher load(String index) throws Exception {
-                return WildcardMatcher.from(getFieldsForIndex(index));
+                return getFieldsMatcher(getPatternsForIndex(index));
             }
         });
     }
@@ -435,9 +440,9 @@ public class ComplianceConfig {
     /**
      * This function is used for caching the fields
      * @param index index to check for fields
-     * @return set of fields which is used by cache
+     * @return set of the index patterns with watched fields matching the index
      */
-    private Set<String> getFieldsForIndex(String index) {
+    private Set<WildcardMatcher> getPatternsForIndex(String index) {
         if (index == null) {
             return Collections.emptySet();
         }
@@ -452,11 +457,37 @@ public class ComplianceConfig {
             }
         }
 
-        return readEnabledFields.entrySet()
-            .stream()
-            .filter(entry -> entry.getKey().test(index))
-            .flatMap(entry -> entry.getValue().stream())
-            .collect(ImmutableSet.toImmutableSet());
+        return readEnabledFields.keySet().stream().filter(pattern -> pattern.test(index)).collect(ImmutableSet.toImmutableSet());
+    }
+
+    /**
+     * Get the matcher of the watched fields of the given index patterns, shared by all indices matching the same patterns
+     * @param patterns index patterns matching an index
+     * @return matcher of the watched fields, remembering its verdict per field
+     */
+    private WildcardMatcher getFieldsMatcher(Set<WildcardMatcher> patterns) {
+        if (patterns.isEmpty()) {
+            return WildcardMatcher.NONE;
+        }
+        final WildcardMatcher matcher = readEnabledFieldsMatchers.get(patterns);
+        if (matcher != null) {
+            return matcher;
+        }
+        // the number of distinct combinations of patterns is small in practice, but not bounded
+        if (readEnabledFieldsMatchers.size() >= CACHE_SIZE) {
+            return compileFieldsMatcher(patterns);
+        }
+        return readEnabledFieldsMatchers.computeIfAbsent(patterns, this::compileFieldsMatcher);
+    }
+
+    private WildcardMatcher compileFieldsMatcher(Set<WildcardMatcher> patterns) {
+        final WildcardMatcher fields = WildcardMatcher.from(
+            patterns.stream().flatMap(pattern -> readEnabledFields.get(pattern).stream()).collect(ImmutableSet.toImmutableSet())
+        );
+        if (fields == WildcardMatcher.NONE || fields == WildcardMatcher.ANY) {
+            return fields;
+        }
+        return new CachedFieldMatcher(fields, FIELD_VERDICTS_CACHE_SIZE);
     }
 
     /**
@@ -518,7 +549,7 @@ public class ComplianceConfig {
             return readEnabledFieldsCache.get(index) != WildcardMatcher.NONE;
         } catch (ExecutionException e) {
             log.warn("Failed to get index {} fields enabled for read from cache. Bypassing cache.", index, e);
-            return getFieldsForIndex(index).isEmpty();
+            return getFieldsMatcher(getPatternsForIndex(index)) != WildcardMatcher.NONE;
         }
     }
 
@@ -529,20 +560,28 @@ public class ComplianceConfig {
      * @return true/false
      */
     public boolean readHistoryEnabledForField(String index, String field) {
+        return readHistoryEnabledFieldsMatcher(index).test(field);
+    }
+
+    /**
+     * Get the matcher of the fields of given index for which read compliance history is enabled
+     * Checks if compliance is enabled
+     * @param index index
+     * @return matcher of the watched fields
+     */
+    public WildcardMatcher readHistoryEnabledFieldsMatcher(String index) {
         if (!this.isEnabled()) {
-            return false;
+            return WildcardMatcher.NONE;
         }
         // if security index (internal index) check if internal config logging is enabled
         if (securityIndex.equals(index)) {
-            return logInternalConfig;
+            return logInternalConfig ? WildcardMatcher.ANY : WildcardMatcher.NONE;
         }
-        WildcardMatcher matcher;
         try {
-            matcher = readEnabledFieldsCache.get(index);
+            return readEnabledFieldsCache.get(index);
         } catch (ExecutionException e) {
             log.warn("Failed to get index {} fields enabled for read from cache. Bypassing cache.", index, e);
-            matcher = WildcardMatcher.from(getFieldsForIndex(index));
+            return getFieldsMatcher(getPatternsForIndex(index));
         }
-        return matcher.test(field);
     }
 }
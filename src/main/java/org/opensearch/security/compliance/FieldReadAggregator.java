@@ -0,0 +1,101 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.compliance;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.common.util.concurrent.ThreadContext.StoredContext;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.security.auditlog.AuditLog;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+import org.opensearch.security.support.ConfigConstants;
+
+/**
+ * Aggregates the compliance read history of all documents read through one shard level reader. Instead of one
+ * audit event per document, a single event with the number of read documents per watched field is logged
+ * when the reader is closed. The event is marked with {@link AuditMessage#COMPLIANCE_READ_AGGREGATED}.
+ *
+ * @see ConfigConstants#SECURITY_COMPLIANCE_HISTORY_READ_AGGREGATED
+ */
+public final class FieldReadAggregator {
+
+    private static final Logger log = LogManager.getLogger(FieldReadAggregator.class);
+
+    private final ThreadContext threadContext;
+    private final AuditLog auditLog;
+    private final String index;
+    private final ShardId shardId;
+    private final Map<String, LongAdder> fieldCounts = new ConcurrentHashMap<>();
+    private final AtomicReference<Supplier<StoredContext>> requestContext = new AtomicReference<>();
+
+    public FieldReadAggregator(final ThreadContext threadContext, final AuditLog auditLog, final String index, final ShardId shardId) {
+        this.threadContext = threadContext;
+        this.auditLog = auditLog;
+        this.index = index;
+        this.shardId = shardId;
+    }
+
+    /**
+     * Records the watched fields read from one document
+     */
+    void documentRead(final Collection<String> fieldNames) {
+        if (fieldNames.isEmpty()) {
+            return;
+        }
+        // The reader might be closed on another thread, so the context of the reading request is kept for the audit event
+        if (requestContext.get() == null) {
+            requestContext.compareAndSet(null, threadContext.newRestorableContext(false));
+        }
+        for (final String fieldName : fieldNames) {
+            fieldCounts.computeIfAbsent(fieldName, (k) -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Logs the aggregated read history recorded so far
+     */
+    public void flush() {
+        final Supplier<StoredContext> context = requestContext.getAndSet(null);
+
+        if (context == null) {
+            return;
+        }
+
+        final Map<String, String> fieldNameCounts = new HashMap<>();
+        for (final Iterator<Map.Entry<String, LongAdder>> it = fieldCounts.entrySet().iterator(); it.hasNext();) {
+            final Map.Entry<String, LongAdder> entry = it.next();
+            it.remove();
+            fieldNameCounts.put(entry.getKey(), String.valueOf(entry.getValue().sum()));
+        }
+
+        if (fieldNameCounts.isEmpty()) {
+            return;
+        }
+
+        try (StoredContext ignored = context.get()) {
+            auditLog.logDocumentsRead(index, shardId, fieldNameCounts);
+        } catch (Exception e) {
+            log.error("Unexpected error logging aggregated compliance read entry in index '{}': {}", index, e.toString(), e);
+        }
+    }
+}
@@ -12,9 +12,7 @@
 package org.opensearch.security.compliance;
 
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
@@ -50,10 +48,32 @@ public final class FieldReadCallback {
     // private final ClusterService clusterService;
     private final Index index;
     private final WildcardMatcher maskedFieldsMatcher;
+    private final WildcardMatcher readEnabledFieldsMatcher;
     private final AuditLog auditLog;
+    private final FieldReadAggregator aggregator;
+    private final boolean fieldNamesOnly;
+    private final JsonFlattener.FieldVisitor sourceFieldVisitor = new JsonFlattener.FieldVisitor() {
+        @Override
+        public boolean needsValue(String path, boolean isString) {
+            if (!recordField(path, isString)) {
+                return false;
+            }
+            if (fieldNamesOnly) {
+                fieldRead0(path, "");
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void value(String path, Object value) {
+            fieldRead0(path, value);
+        }
+    };
     private Function<Map<String, ?>, Map<String, Object>> filterFunction;
     private SourceFieldsContext sfc;
-    private Doc doc;
+    private String id;
+    private Map<String, String> fields;
     private final ShardId shardId;
 
     public FieldReadCallback(
@@ -62,7 +82,8 @@ public final class FieldReadCallback {
         final ClusterService clusterService,
         final AuditLog auditLog,
         final WildcardMatcher maskedFieldsMatcher,
-        ShardId shardId
+        ShardId shardId,
+        final FieldReadAggregator aggregator
     ) {
         super();
         // this.threadContext = Objects.requireNonNull(threadContext);
@@ -71,6 +92,16 @@ public final class FieldReadCallback {
         this.auditLog = auditLog;
         this.maskedFieldsMatcher = maskedFieldsMatcher;
         this.shardId = shardId;
+        this.aggregator = aggregator;
+        final ComplianceConfig complianceConfig = auditLog.getComplianceConfig();
+        if (complianceConfig != null) {
+            this.readEnabledFieldsMatcher = complianceConfig.readHistoryEnabledFieldsMatcher(index.getName());
+            // values are not logged, so these need not be materialized
+            this.fieldNamesOnly = aggregator != null || complianceConfig.shouldLogReadMetadataOnly();
+        } else {
+            this.readEnabledFieldsMatcher = WildcardMatcher.NONE;
+            this.fieldNamesOnly = aggregator != null;
+        }
         try {
             sfc = (SourceFieldsContext) HeaderHelper.deserializeSafeFromHeader(threadContext, "_opendistro_security_source_field_context");
             if (sfc != null && sfc.hasIncludesOrExcludes()) {
@@ -88,34 +119,22 @@ public final class FieldReadCallback {
     }
 
     private boolean recordField(final String fieldName, boolean isStringField) {
-        return !(isStringField && maskedFieldsMatcher.test(fieldName))
-            && auditLog.getComplianceConfig().readHistoryEnabledForField(index.getName(), fieldName);
+        return !(isStringField && maskedFieldsMatcher.test(fieldName)) && readEnabledFieldsMatcher.test(fieldName);
     }
 
     public void binaryFieldRead(final FieldInfo fieldInfo, byte[] fieldValue) {
         try {
-            if (!recordField(fieldInfo.name, false) && !fieldInfo.name.equals("_source") && !fieldInfo.name.equals("_id")) {
-                return;
-            }
-
             if (fieldInfo.name.equals("_source")) {
-
+                // the source is only flattened once, and only watched fields are materialized
                 if (filterFunction != null) {
-                    final Map<String, Object> filteredSource = filterFunction.apply(Utils.byteArrayToMutableJsonMap(fieldValue));
-                    fieldValue = Utils.jsonMapToByteArray(filteredSource);
-                }
-
-                final Map<String, Object> filteredSource = JsonFlattener.flattenAsMap(new String(fieldValue, StandardCharsets.UTF_8));
-                for (String k : filteredSource.keySet()) {
-                    if (!recordField(k, filteredSource.get(k) instanceof String)) {
-                        continue;
-                    }
-                    fieldRead0(k, filteredSource.get(k));
+                    JsonFlattener.flatten(filterFunction.apply(Utils.byteArrayToMutableJsonMap(fieldValue)), sourceFieldVisitor);
+                } else {
+                    JsonFlattener.flatten(fieldValue, sourceFieldVisitor);
                 }
             } else if (fieldInfo.name.equals("_id")) {
-                fieldRead0(fieldInfo.name, Uid.decodeId(fieldValue));
-            } else {
-                fieldRead0(fieldInfo.name, new String(fieldValue, StandardCharsets.UTF_8));
+                id = Uid.decodeId(fieldValue);
+            } else if (recordField(fieldInfo.name, false)) {
+                fieldRead0(fieldInfo.name, fieldNamesOnly ? "" : new String(fieldValue, StandardCharsets.UTF_8));
             }
         } catch (Exception e) {
             log.error("Unexpected error reading binary field '{}' in index '{}'", fieldInfo.name, index.getName());
@@ -145,79 +164,28 @@ public final class FieldReadCallback {
     }
 
     private void fieldRead0(final String fieldName, final Object fieldValue) {
-        if (doc != null) {
-            if (fieldName.equals("_id")) {
-                doc.setId(fieldValue.toString());
-            } else {
-                doc.addField(new Field(fieldName, fieldValue));
-            }
-        } else {
-            final String indexName = index.getName();
-            if (fieldName.equals("_id")) {
-                doc = new Doc(indexName, fieldValue.toString());
-            } else {
-                doc = new Doc(indexName, null);
-                doc.addField(new Field(fieldName, fieldValue));
-            }
+        if (fields == null) {
+            fields = new HashMap<>();
         }
+        fields.put(fieldName, String.valueOf(fieldValue));
     }
 
     public void finished() {
-        if (doc == null) {
+        if (fields == null) {
             return;
         }
         try {
-            Map<String, String> f = new HashMap<String, String>();
-            for (Field fi : doc.fields) {
-                f.put(fi.fieldName, String.valueOf(fi.fieldValue));
+            if (aggregator != null) {
+                aggregator.documentRead(fields.keySet());
+            } else {
+                auditLog.logDocumentRead(index.getName(), id, shardId, fields);
             }
-            auditLog.logDocumentRead(doc.indexName, doc.id, shardId, f);
         } catch (Exception e) {
-            log.error("Unexpected error finished compliance read entry {} in index '{}': {}", doc.id, index.getName(), e.toString(), e);
+            log.error("Unexpected error finished compliance read entry {} in index '{}': {}", id, index.getName(), e.toString(), e);
         } finally {
-            doc = null;
+            id = null;
+            fields = null;
             sfc = null;
         }
     }
-
-    private class Doc {
-        final String indexName;
-        String id;
-        final List<Field> fields = new ArrayList<Field>();
-
-        public Doc(String indexName, String id) {
-            super();
-            this.indexName = indexName;
-            this.id = id;
-        }
-
-        public void addField(Field f) {
-            fields.add(f);
-        }
-
-        public void setId(String id) {
-            this.id = id;
-        }
-
-        @Override
-        public String toString() {
-            return "Doc [indexName=" + indexName + ", id=" + id + ", fields=" + fields + "]";
-        }
-    }
-
-    private class Field {
-        final String fieldName;
-        final Object fieldValue;
-
-        public Field(String fieldName, Object fieldValue) {
-            super();
-            this.fieldName = fieldName;
-            this.fieldValue = fieldValue;
-        }
-
-        @Override
-        public String toString() {
-            return "Field [fieldName=" + fieldName + ", fieldValue=" + fieldValue + "]";
-        }
-    }
 }
@@ -0,0 +1,190 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.FixedBitSet;
+
+import org.opensearch.common.CheckedSupplier;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.breaker.CircuitBreaker;
+import org.opensearch.core.common.breaker.CircuitBreakingException;
+import org.opensearch.security.support.ConfigConstants;
+
+/**
+ * Node wide cache of the documents matched by a DLS query within a single segment.
+ * <p>
+ * Entries are keyed by the segment core and the effective DLS/FLS/masking restrictions, so they stay valid
+ * across readers of the same segment. Deletions are not part of the cached bitset, callers need to apply the
+ * current live docs on top of it. Entries are dropped as soon as the segment core is closed.
+ */
+public class DlsBitsetCache {
+
+    private static final Logger log = LogManager.getLogger(DlsBitsetCache.class);
+
+    public static final String CIRCUIT_BREAKER_NAME = "security_dls_bitset_cache";
+
+    private final long maxWeightInBytes;
+    private final Supplier<CircuitBreaker> circuitBreaker;
+    private final Cache<Key, FixedBitSet> cache;
+    private final Set<IndexReader.CacheKey> registeredCores = ConcurrentHashMap.newKeySet();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public DlsBitsetCache(final Settings settings, final Supplier<CircuitBreaker> circuitBreaker) {
+        this.maxWeightInBytes = maxSizeInBytes(settings);
+        this.circuitBreaker = circuitBreaker;
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(Math.max(maxWeightInBytes, 0))
+            .weigher((Key key, FixedBitSet bits) -> (int) Math.min(Integer.MAX_VALUE, bits.ramBytesUsed()))
+            .removalListener(this::onRemoval)
+            .build();
+    }
+
+    public static long maxSizeInBytes(final Settings settings) {
+        return settings.getAsMemory(ConfigConstants.SECURITY_DLS_BITSET_CACHE_SIZE, ConfigConstants.SECURITY_DLS_BITSET_CACHE_SIZE_DEFAULT)
+            .getBytes();
+    }
+
+    public boolean isEnabled() {
+        return maxWeightInBytes > 0;
+    }
+
+    /**
+     * Returns the documents of the given segment matched by the DLS query, loading and caching them if needed.
+     * The returned bitset must not be modified and does not reflect deleted documents.
+     */
+    public FixedBitSet getOrLoad(
+        final LeafReader reader,
+        final Query dlsQuery,
+        final Set<String> flsFields,
+        final Set<String> maskedFields,
+        final CheckedSupplier<FixedBitSet, IOException> loader
+    ) throws IOException {
+        final IndexReader.CacheHelper coreCacheHelper = reader.getCoreCacheHelper();
+
+        if (!isEnabled() || coreCacheHelper == null) {
+            return loader.get();
+        }
+
+        final Key key = new Key(coreCacheHelper.getKey(), dlsQuery, flsFields, maskedFields);
+        final FixedBitSet cached = cache.getIfPresent(key);
+
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        final FixedBitSet bits = loader.get();
+
+        if (reserve(bits.ramBytesUsed())) {
+            if (registeredCores.add(key.coreKey)) {
+                coreCacheHelper.addClosedListener(this::onCoreClosed);
+            }
+            cache.put(key, bits);
+        }
+
+        return bits;
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private boolean reserve(final long bytes) {
+        final CircuitBreaker breaker = circuitBreaker.get();
+
+        if (breaker == null) {
+            return true;
+        }
+
+        try {
+            breaker.addEstimateBytesAndMaybeBreak(bytes, CIRCUIT_BREAKER_NAME);
+            return true;
+        } catch (CircuitBreakingException e) {
+            log.debug("Not caching DLS bitset of {} bytes because the circuit breaker tripped", bytes, e);
+            return false;
+        }
+    }
+
+    private void onRemoval(final RemovalNotification<Key, FixedBitSet> notification) {
+        final CircuitBreaker breaker = circuitBreaker.get();
+
+        if (breaker != null && notification.getValue() != null) {
+            breaker.addWithoutBreaking(-notification.getValue().ramBytesUsed());
+        }
+    }
+
+    private void onCoreClosed(final IndexReader.CacheKey coreKey) {
+        registeredCores.remove(coreKey);
+        cache.asMap().keySet().removeIf(key -> key.coreKey == coreKey);
+    }
+
+    private static final class Key {
+        private final IndexReader.CacheKey coreKey;
+        private final Query dlsQuery;
+        private final Set<String> flsFields;
+        private final Set<String> maskedFields;
+        private final int hashCode;
+
+        private Key(final IndexReader.CacheKey coreKey, final Query dlsQuery, final Set<String> flsFields, final Set<String> maskedFields) {
+            this.coreKey = coreKey;
+            this.dlsQuery = dlsQuery;
+            this.flsFields = flsFields;
+            this.maskedFields = maskedFields;
+            this.hashCode = Objects.hash(coreKey, dlsQuery, flsFields, maskedFields);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            final Key other = (Key) obj;
+            return coreKey == other.coreKey
+                && dlsQuery.equals(other.dlsQuery)
+                && Objects.equals(flsFields, other.flsFields)
+                && Objects.equals(maskedFields, other.maskedFields);
+        }
+    }
+}
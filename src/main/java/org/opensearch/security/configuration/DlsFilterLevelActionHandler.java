@@ -40,6 +40,7 @@ import org.opensearch.client.Client;
 import org.opensearch.cluster.metadata.IndexMetadata;
 import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
 import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.CheckedRunnable;
 import org.opensearch.common.document.DocumentField;
 import org.opensearch.common.util.concurrent.ThreadContext;
 import org.opensearch.common.util.concurrent.ThreadContext.StoredContext;
@@ -50,6 +51,7 @@ import org.opensearch.index.mapper.MapperService;
 import org.opensearch.index.query.BoolQueryBuilder;
 import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.query.Rewriteable;
 import org.opensearch.index.query.TermsQueryBuilder;
 import org.opensearch.index.seqno.SequenceNumbers;
 import org.opensearch.indices.IndicesService;
@@ -57,6 +59,7 @@ import org.opensearch.script.mustache.MultiSearchTemplateAction;
 import org.opensearch.script.mustache.SearchTemplateAction;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.fetch.subphase.FetchSourceContext;
 import org.opensearch.security.privileges.DocumentAllowList;
 import org.opensearch.security.queries.QueryBuilderTraverser;
 import org.opensearch.security.resolver.IndexResolverReplacer.Resolved;
@@ -84,7 +87,9 @@ public class DlsFilterLevelActionHandler {
         IndicesService indicesService,
         IndexNameExpressionResolver resolver,
         DlsQueryParser dlsQueryParser,
-        ThreadContext threadContext
+        ThreadContext threadContext,
+        boolean realtimeGet,
+        TermsLookupCache termsLookupCache
     ) {
 
         if (threadContext.getHeader(ConfigConstants.OPENDISTRO_SECURITY_FILTER_LEVEL_DLS_DONE) != null) {
@@ -122,7 +127,9 @@ public class DlsFilterLevelActionHandler {
             indicesService,
             resolver,
             dlsQueryParser,
-            threadContext
+            threadContext,
+            realtimeGet,
+            termsLookupCache
         ).handle();
     }
 
@@ -138,6 +145,8 @@ public class DlsFilterLevelActionHandler {
     private final IndicesService indicesService;
     private final ThreadContext threadContext;
     private final IndexNameExpressionResolver resolver;
+    private final boolean realtimeGet;
+    private final TermsLookupCache termsLookupCache;
     private BoolQueryBuilder filterLevelQueryBuilder;
     private DocumentAllowList documentAllowlist;
 
@@ -152,7 +161,9 @@ public class DlsFilterLevelActionHandler {
         IndicesService indicesService,
         IndexNameExpressionResolver resolver,
         DlsQueryParser dlsQueryParser,
-        ThreadContext threadContext
+        ThreadContext threadContext,
+        boolean realtimeGet,
+        TermsLookupCache termsLookupCache
     ) {
         this.action = action;
         this.request = request;
@@ -165,6 +176,8 @@ public class DlsFilterLevelActionHandler {
         this.dlsQueryParser = dlsQueryParser;
         this.threadContext = threadContext;
         this.resolver = resolver;
+        this.realtimeGet = realtimeGet;
+        this.termsLookupCache = termsLookupCache;
 
         this.requiresIndexScoping = resolved.isLocalAll() || resolved.getAllIndicesResolved(clusterService, resolver).size() != 1;
     }
@@ -231,6 +244,11 @@ public class DlsFilterLevelActionHandler {
             }
         }
 
+        resolveTermsLookups(() -> search(searchRequest, ctx));
+        return false;
+    }
+
+    private void search(SearchRequest searchRequest, StoredContext ctx) {
         if (searchRequest.source().query() != null) {
             filterLevelQueryBuilder.must(searchRequest.source().query());
         }
@@ -257,8 +275,6 @@ public class DlsFilterLevelActionHandler {
                 listener.onFailure(e);
             }
         });
-
-        return false;
     }
 
     private boolean handle(GetRequest getRequest, StoredContext ctx) {
@@ -266,6 +282,50 @@ public class DlsFilterLevelActionHandler {
             documentAllowlist.applyTo(threadContext);
         }
 
+        Map<String, IndexService> indexServices = isDefaultFetch(getRequest.storedFields(), getRequest.fetchSourceContext())
+            ? getLocalIndexServices(Collections.singleton(getRequest.index()))
+            : null;
+
+        resolveTermsLookups(() -> {
+            if (indexServices != null) {
+                realtimeGet(getRequest, indexServices, ctx);
+            } else {
+                searchGet(getRequest, ctx);
+            }
+        });
+
+        return false;
+    }
+
+    /**
+     * Executes the get on the shard owning the document and checks the fetched document against the DLS query
+     */
+    private void realtimeGet(GetRequest getRequest, Map<String, IndexService> indexServices, StoredContext ctx) throws IOException {
+        Map<String, DlsFilterLevelDocumentMatcher> matchers = createMatchers(indexServices);
+
+        nodeClient.get(getRequest, ActionListener.wrap(response -> {
+            DlsFilterLevelDocumentMatcher matcher = matchers.get(response.getIndex());
+
+            if (response.isExists() && (response.isSourceEmpty() || matcher == null)) {
+                // Without source, the document cannot be checked
+                searchGet(getRequest, ctx);
+                return;
+            }
+
+            ctx.restore();
+
+            @SuppressWarnings("unchecked")
+            ActionListener<GetResponse> getListener = (ActionListener<GetResponse>) listener;
+
+            if (response.isExists() && !matcher.matches(response)) {
+                getListener.onResponse(notFound(response.getIndex(), response.getId()));
+            } else {
+                getListener.onResponse(response);
+            }
+        }, listener::onFailure));
+    }
+
+    private void searchGet(GetRequest getRequest, StoredContext ctx) {
         SearchRequest searchRequest = new SearchRequest(getRequest.indices());
         BoolQueryBuilder query = QueryBuilders.boolQuery()
             .must(QueryBuilders.idsQuery().addIds(getRequest.id()))
@@ -286,21 +346,7 @@ public class DlsFilterLevelActionHandler {
                     if (hits == 1) {
                         getListener.onResponse(new GetResponse(searchHitToGetResult(response.getHits().getAt(0))));
                     } else if (hits == 0) {
-                        getListener.onResponse(
-                            new GetResponse(
-                                new GetResult(
-                                    searchRequest.indices()[0],
-                                    getRequest.id(),
-                                    SequenceNumbers.UNASSIGNED_SEQ_NO,
-                                    SequenceNumbers.UNASSIGNED_PRIMARY_TERM,
-                                    -1,
-                                    false,
-                                    null,
-                                    null,
-                                    null
-                                )
-                            )
-                        );
+                        getListener.onResponse(notFound(searchRequest.indices()[0], getRequest.id()));
                     } else {
                         log.error("Unexpected hit count " + hits + " in " + response);
                         listener.onFailure(new OpenSearchSecurityException("Internal error when performing DLS"));
@@ -316,9 +362,6 @@ public class DlsFilterLevelActionHandler {
                 listener.onFailure(e);
             }
         });
-
-        return false;
-
     }
 
     private boolean handle(MultiGetRequest multiGetRequest, StoredContext ctx) {
@@ -326,6 +369,73 @@ public class DlsFilterLevelActionHandler {
             documentAllowlist.applyTo(threadContext);
         }
 
+        Map<String, IndexService> indexServices = null;
+
+        if (multiGetRequest.getItems()
+            .stream()
+            .allMatch((item) -> isDefaultFetch(item.storedFields(), item.fetchSourceContext()))) {
+            indexServices = getLocalIndexServices(
+                multiGetRequest.getItems().stream().map((item) -> item.index()).collect(Collectors.toSet())
+            );
+        }
+
+        final Map<String, IndexService> localIndexServices = indexServices;
+
+        resolveTermsLookups(() -> {
+            if (localIndexServices != null) {
+                realtimeMultiGet(multiGetRequest, localIndexServices, ctx);
+            } else {
+                searchMultiGet(multiGetRequest, ctx);
+            }
+        });
+
+        return false;
+    }
+
+    /**
+     * Executes the mget as usual, i.e., items are fetched in batches per shard, and checks the fetched documents
+     * against the DLS query. Documents not matching the query are reported as missing.
+     */
+    private void realtimeMultiGet(MultiGetRequest multiGetRequest, Map<String, IndexService> indexServices, StoredContext ctx)
+        throws IOException {
+        Map<String, DlsFilterLevelDocumentMatcher> matchers = createMatchers(indexServices);
+
+        nodeClient.multiGet(multiGetRequest, ActionListener.wrap(response -> {
+            MultiGetItemResponse[] itemResponses = response.getResponses();
+            MultiGetItemResponse[] filteredItemResponses = new MultiGetItemResponse[itemResponses.length];
+
+            for (int i = 0; i < itemResponses.length; i++) {
+                GetResponse getResponse = itemResponses[i].getResponse();
+
+                if (itemResponses[i].isFailed() || !getResponse.isExists()) {
+                    filteredItemResponses[i] = itemResponses[i];
+                    continue;
+                }
+
+                DlsFilterLevelDocumentMatcher matcher = matchers.get(getResponse.getIndex());
+
+                if (getResponse.isSourceEmpty() || matcher == null) {
+                    // Without source, the documents cannot be checked
+                    searchMultiGet(multiGetRequest, ctx);
+                    return;
+                }
+
+                if (matcher.matches(getResponse)) {
+                    filteredItemResponses[i] = itemResponses[i];
+                } else {
+                    filteredItemResponses[i] = new MultiGetItemResponse(notFound(getResponse.getIndex(), getResponse.getId()), null);
+                }
+            }
+
+            ctx.restore();
+
+            @SuppressWarnings("unchecked")
+            ActionListener<MultiGetResponse> multiGetListener = (ActionListener<MultiGetResponse>) listener;
+            multiGetListener.onResponse(new MultiGetResponse(filteredItemResponses));
+        }, listener::onFailure));
+    }
+
+    private void searchMultiGet(MultiGetRequest multiGetRequest, StoredContext ctx) {
         Map<String, Set<String>> idsGroupedByIndex = multiGetRequest.getItems()
             .stream()
             .collect(Collectors.groupingBy((item) -> item.index(), Collectors.mapping((item) -> item.id(), Collectors.toSet())));
@@ -383,9 +493,98 @@ public class DlsFilterLevelActionHandler {
                 listener.onFailure(e);
             }
         });
+    }
 
-        return false;
+    /**
+     * Returns the index services of the given concrete indices if documents of all of them can be checked on this node.
+     * Returns null if the search based approach must be used.
+     */
+    private Map<String, IndexService> getLocalIndexServices(Set<String> indices) {
+        if (!realtimeGet) {
+            return null;
+        }
+
+        Map<String, IndexService> result = new HashMap<>(indices.size());
+
+        for (String index : indices) {
+            IndexMetadata indexMetadata = clusterService.state().getMetadata().index(index);
+            IndexService indexService = indexMetadata != null ? indicesService.indexService(indexMetadata.getIndex()) : null;
 
+            if (indexService == null || !DlsFilterLevelDocumentMatcher.supports(indexService)) {
+                return null;
+            }
+
+            // The fetched source is subject to FLS and field masking; matching DLS queries against it would yield different results
+            if (SecurityUtils.evalMap(evaluatedDlsFlsConfig.getFlsByIndex(), index) != null
+                || SecurityUtils.evalMap(evaluatedDlsFlsConfig.getFieldMaskingByIndex(), index) != null) {
+                return null;
+            }
+
+            result.put(index, indexService);
+        }
+
+        return result;
+    }
+
+    /**
+     * Compiles the filter level query for each index; terms lookups must have been resolved before
+     */
+    private Map<String, DlsFilterLevelDocumentMatcher> createMatchers(Map<String, IndexService> indexServices) throws IOException {
+        Map<String, DlsFilterLevelDocumentMatcher> matchers = new HashMap<>(indexServices.size());
+
+        for (Map.Entry<String, IndexService> entry : indexServices.entrySet()) {
+            matchers.put(entry.getKey(), new DlsFilterLevelDocumentMatcher(entry.getValue(), filterLevelQueryBuilder));
+        }
+
+        return matchers;
+    }
+
+    /**
+     * Replaces the terms lookup queries in the filter level query by the looked up terms before continuing. The lookup
+     * documents are taken from the TermsLookupCache if possible; otherwise, each request would fetch these again.
+     */
+    private void resolveTermsLookups(CheckedRunnable<Exception> next) {
+        if (documentAllowlist == null || documentAllowlist.isEmpty()) {
+            try {
+                next.run();
+            } catch (Exception e) {
+                listener.onFailure(e);
+            }
+            return;
+        }
+
+        Rewriteable.rewriteAndFetch(
+            (QueryBuilder) filterLevelQueryBuilder,
+            termsLookupCache.rewriteContext(nodeClient),
+            ActionListener.wrap(rewrittenQuery -> {
+                filterLevelQueryBuilder = QueryBuilders.boolQuery().must(rewrittenQuery);
+                next.run();
+            }, listener::onFailure)
+        );
+    }
+
+    private static boolean isDefaultFetch(String[] storedFields, FetchSourceContext fetchSourceContext) {
+        return storedFields == null
+            && (fetchSourceContext == null
+                || (fetchSourceContext.fetchSource()
+                    && (fetchSourceContext.includes() == null || fetchSourceContext.includes().length == 0)
+                    && (fetchSourceContext.excludes() == null || fetchSourceContext.excludes().length == 0)));
+    }
+
+    private static GetResponse notFound(String index, String id) {
+        return new GetResponse(
+            new GetResult(
+                index,
+                id,
+                SequenceNumbers.UNASSIGNED_SEQ_NO,
+                SequenceNumbers.UNASSIGNED_PRIMARY_TERM,
+                -1,
+                false,
+                null,
+                null,
+                null
+            )
+        );
     }
 
     private boolean handle(ClusterSearchShardsRequest request, StoredContext ctx) {
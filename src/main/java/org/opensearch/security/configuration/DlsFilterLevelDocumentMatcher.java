@@ -0,0 +1,77 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+
+import org.apache.lucene.index.memory.MemoryIndex;
+import org.apache.lucene.search.Query;
+
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.common.document.DocumentField;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.MediaTypeRegistry;
+import org.opensearch.index.IndexService;
+import org.opensearch.index.mapper.DocumentMapper;
+import org.opensearch.index.mapper.MapperService;
+import org.opensearch.index.mapper.ParsedDocument;
+import org.opensearch.index.mapper.RoutingFieldMapper;
+import org.opensearch.index.mapper.SourceToParse;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryShardContext;
+import org.opensearch.index.query.Rewriteable;
+
+/**
+ * Evaluates a filter level DLS query against single documents which were fetched by a get request.
+ * Like the percolator does, the document is parsed with the mapping of its index into a {@link MemoryIndex}
+ * which is then searched with the DLS query. Thus, get requests keep their realtime semantics and do not
+ * need to be converted into searches.
+ */
+final class DlsFilterLevelDocumentMatcher {
+
+    private final MapperService mapperService;
+    private final Query query;
+
+    /**
+     * @param filter the DLS query; terms lookups must already have been fetched
+     */
+    DlsFilterLevelDocumentMatcher(IndexService indexService, QueryBuilder filter) throws IOException {
+        this.mapperService = indexService.mapperService();
+        QueryShardContext queryShardContext = indexService.newQueryShardContext(0, null, System::currentTimeMillis, null);
+        this.query = Rewriteable.rewrite(filter, queryShardContext, true).toQuery(queryShardContext);
+    }
+
+    /**
+     * Nested documents cannot be matched by a single document index; these must use the search based approach.
+     */
+    static boolean supports(IndexService indexService) {
+        MapperService mapperService = indexService.mapperService();
+        return mapperService.documentMapper() != null && !mapperService.hasNested();
+    }
+
+    /**
+     * @param response an existing document with source
+     */
+    boolean matches(GetResponse response) throws IOException {
+        BytesReference source = response.getSourceAsBytesRef();
+        DocumentField routingField = response.getField(RoutingFieldMapper.NAME);
+        String routing = routingField != null ? String.valueOf(routingField.getValue()) : null;
+        DocumentMapper documentMapper = mapperService.documentMapper();
+
+        ParsedDocument document = documentMapper.parse(
+            new SourceToParse(response.getIndex(), response.getId(), source, MediaTypeRegistry.xContentType(source), routing)
+        );
+
+        MemoryIndex memoryIndex = MemoryIndex.fromDocument(document.rootDoc(), mapperService.indexAnalyzer(), true, false);
+        return memoryIndex.createSearcher().count(query) > 0;
+    }
+}
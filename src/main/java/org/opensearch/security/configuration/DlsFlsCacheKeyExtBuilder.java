@@ -0,0 +1,124 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import org.bouncycastle.util.encoders.Hex;
+
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.search.SearchExtBuilder;
+
+/**
+ * Search extension which carries a canonical hash of the DLS, FLS and field masking restrictions
+ * applied to a shard search. It is attached to the shard request right before the query phase, so that
+ * the shard request cache key differs between users with different restrictions while users with identical
+ * restrictions share cache entries. It does not influence how the search is executed.
+ */
+public class DlsFlsCacheKeyExtBuilder extends SearchExtBuilder {
+
+    public static final String NAME = "_plugins_security_dls_fls";
+
+    private final String restrictionsHash;
+
+    DlsFlsCacheKeyExtBuilder(final String restrictionsHash) {
+        this.restrictionsHash = Objects.requireNonNull(restrictionsHash);
+    }
+
+    public DlsFlsCacheKeyExtBuilder(final StreamInput in) throws IOException {
+        this.restrictionsHash = in.readString();
+    }
+
+    public static DlsFlsCacheKeyExtBuilder fromXContent(final XContentParser parser) throws IOException {
+        return new DlsFlsCacheKeyExtBuilder(parser.text());
+    }
+
+    /**
+     * @return the extension for the given restrictions, or null if nothing is restricted
+     */
+    static DlsFlsCacheKeyExtBuilder of(
+        final Collection<String> dlsQueries,
+        final Collection<String> flsFields,
+        final Collection<String> maskedFields
+    ) {
+        if (isEmpty(dlsQueries) && isEmpty(flsFields) && isEmpty(maskedFields)) {
+            return null;
+        }
+
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, "dls", dlsQueries);
+            update(digest, "fls", flsFields);
+            update(digest, "masked", maskedFields);
+            return new DlsFlsCacheKeyExtBuilder(Hex.toHexString(digest.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    String getRestrictionsHash() {
+        return restrictionsHash;
+    }
+
+    @Override
+    public String getWriteableName() {
+        return NAME;
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        out.writeString(restrictionsHash);
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        return builder.field(NAME, restrictionsHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return restrictionsHash.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof DlsFlsCacheKeyExtBuilder && restrictionsHash.equals(((DlsFlsCacheKeyExtBuilder) obj).restrictionsHash);
+    }
+
+    private static boolean isEmpty(final Collection<String> values) {
+        return values == null || values.isEmpty();
+    }
+
+    private static void update(final MessageDigest digest, final String section, final Collection<String> values) {
+        final Collection<String> sorted = values == null ? new TreeSet<>() : new TreeSet<>(values);
+        digest.update(section.getBytes(StandardCharsets.UTF_8));
+        digest.update(intToBytes(sorted.size()));
+        for (final String value : sorted) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            digest.update(intToBytes(bytes.length));
+            digest.update(bytes);
+        }
+    }
+
+    private static byte[] intToBytes(final int value) {
+        return new byte[] { (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value };
+    }
+}
@@ -18,7 +18,6 @@ package org.opensearch.security.configuration;
 
 import java.io.IOException;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -50,14 +49,12 @@ import org.apache.lucene.index.StoredFields;
 import org.apache.lucene.index.TermState;
 import org.apache.lucene.index.Terms;
 import org.apache.lucene.index.TermsEnum;
-import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.AttributeSource;
-import org.apache.lucene.util.BitSetIterator;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.FixedBitSet;
@@ -70,7 +67,6 @@ import org.opensearch.common.lucene.index.SequentialStoredFieldsLeafReader;
 import org.opensearch.common.util.concurrent.ThreadContext;
 import org.opensearch.common.xcontent.XContentHelper;
 import org.opensearch.common.xcontent.XContentType;
-import org.opensearch.common.xcontent.support.XContentMapValues;
 import org.opensearch.core.common.bytes.BytesArray;
 import org.opensearch.core.common.bytes.BytesReference;
 import org.opensearch.core.index.shard.ShardId;
@@ -78,8 +74,8 @@ import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.index.IndexService;
 import org.opensearch.security.auditlog.AuditLog;
 import org.opensearch.security.compliance.ComplianceConfig;
+import org.opensearch.security.compliance.FieldReadAggregator;
 import org.opensearch.security.compliance.FieldReadCallback;
-import org.opensearch.security.dlic.rest.support.Utils;
 import org.opensearch.security.support.ConfigConstants;
 import org.opensearch.security.support.HeaderHelper;
 import org.opensearch.security.support.MapUtils;
@@ -89,15 +85,9 @@ import org.opensearch.security.support.WildcardMatcher;
 class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
 
     private static final String KEYWORD = ".keyword";
-    private static final String[] EMPTY_STRING_ARRAY = new String[0];
-    private final Set<String> includesSet;
-    private final Set<String> excludesSet;
     private final FieldInfos flsFieldInfos;
     private final boolean flsEnabled;
-    private String[] includes;
-    private String[] excludes;
-    private boolean canOptimize = true;
-    private Function<Map<String, ?>, Map<String, Object>> filterFunction;
+    private final FlsSourceFilter sourceFilter;
     private final IndexService indexService;
     private final ThreadContext threadContext;
     private final ClusterService clusterService;
@@ -106,23 +96,31 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
     private final ShardId shardId;
     private final boolean maskFields;
     private final Salt salt;
+    private final DlsBitsetCache dlsBitsetCache;
+    private final MaskedValueCache maskedValueCache;
+    private final MaskedOrdinalsCache maskedOrdinalsCache;
+    private final FieldReadAggregator fieldReadAggregator;
 
     private DlsGetEvaluator dge = null;
 
     DlsFlsFilterLeafReader(
         final LeafReader delegate,
-        final Set<String> includesExcludes,
-        final Query dlsQuery,
+        final ReaderConfig config,
         final IndexService indexService,
         final ThreadContext threadContext,
         final ClusterService clusterService,
         final AuditLog auditlog,
-        final Set<String> maskedFields,
         final ShardId shardId,
-        final Salt salt
+        final Salt salt,
+        final DlsBitsetCache dlsBitsetCache,
+        final MaskedValueCache maskedValueCache,
+        final MaskedOrdinalsCache maskedOrdinalsCache,
+        final FieldReadAggregator fieldReadAggregator
     ) {
         super(delegate);
 
+        final Set<String> includesExcludes = config.flsFields;
+        final Set<String> maskedFields = config.maskedFields;
         maskFields = (maskedFields != null && maskedFields.size() > 0);
 
         this.indexService = indexService;
@@ -130,91 +128,25 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         this.clusterService = clusterService;
         this.auditlog = auditlog;
         this.salt = salt;
-        this.maskedFieldsMap = MaskedFieldsMap.extractMaskedFields(maskFields, maskedFields, salt);
+        this.dlsBitsetCache = dlsBitsetCache;
+        this.maskedValueCache = maskedValueCache;
+        this.maskedOrdinalsCache = maskedOrdinalsCache;
+        this.fieldReadAggregator = fieldReadAggregator;
+        this.maskedFieldsMap = config.maskedFieldsMap;
 
         this.shardId = shardId;
-        flsEnabled = includesExcludes != null && !includesExcludes.isEmpty();
+        flsEnabled = config.flsRules != null;
 
         if (flsEnabled) {
-
-            final FieldInfos infos = delegate.getFieldInfos();
-            this.includesSet = new HashSet<>(includesExcludes.size());
-            this.excludesSet = new HashSet<>(includesExcludes.size());
-
-            for (final String incExc : includesExcludes) {
-                if (canOptimize && (incExc.indexOf('.') > -1 || incExc.indexOf('*') > -1)) {
-                    canOptimize = false;
-                }
-
-                final char firstChar = incExc.charAt(0);
-
-                if (firstChar == '!' || firstChar == '~') {
-                    excludesSet.add(incExc.substring(1));
-                    excludesSet.add(incExc.substring(1) + KEYWORD);
-                } else {
-                    includesSet.add(incExc);
-                }
-            }
-
-            int i = 0;
-            final FieldInfo[] fa = new FieldInfo[infos.size()];
-
-            if (canOptimize) {
-                if (!excludesSet.isEmpty()) {
-                    for (final FieldInfo info : infos) {
-                        if (!excludesSet.contains(info.name)) {
-                            fa[i++] = info;
-                        }
-                    }
-                } else {
-                    for (final String inc : includesSet) {
-                        FieldInfo f;
-                        if ((f = infos.fieldInfo(inc)) != null) {
-                            fa[i++] = f;
-                        }
-                    }
-                }
-            } else {
-                if (!excludesSet.isEmpty()) {
-                    WildcardMatcher matcher = WildcardMatcher.from(excludesSet);
-                    for (final FieldInfo info : infos) {
-                        if (!matcher.test(info.name)) {
-                            fa[i++] = info;
-                        }
-                    }
-
-                    this.excludes = excludesSet.toArray(EMPTY_STRING_ARRAY);
-
-                } else {
-                    WildcardMatcher matcher = WildcardMatcher.from(includesSet);
-                    for (final FieldInfo info : infos) {
-                        if (matcher.test(info.name)) {
-                            fa[i++] = info;
-                        }
-                    }
-
-                    this.includes = includesSet.toArray(EMPTY_STRING_ARRAY);
-                }
-
-                if (!excludesSet.isEmpty()) {
-                    filterFunction = XContentMapValues.filter(null, excludes);
-                } else {
-                    filterFunction = XContentMapValues.filter(includes, null);
-                }
-            }
-
-            final FieldInfo[] tmp = new FieldInfo[i];
-            System.arraycopy(fa, 0, tmp, 0, i);
-            this.flsFieldInfos = new FieldInfos(tmp);
-
+            this.flsFieldInfos = config.flsRules.fieldInfos(delegate);
+            this.sourceFilter = config.flsRules.sourceFilter();
         } else {
-            this.includesSet = null;
-            this.excludesSet = null;
             this.flsFieldInfos = null;
+            this.sourceFilter = null;
         }
 
         try {
-            dge = new DlsGetEvaluator(dlsQuery, in, applyDlsHere());
+            dge = new DlsGetEvaluator(config.dlsQuery, in, applyDlsHere(), includesExcludes, maskedFields);
         } catch (IOException e) {
             throw ExceptionsHelper.convertToOpenSearchException(e);
         }
@@ -226,34 +158,27 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         private final CacheHelper readerCacheHelper;
         private final boolean hasDeletions;
 
-        public DlsGetEvaluator(final Query dlsQuery, final LeafReader in, boolean applyDlsHere) throws IOException {
+        public DlsGetEvaluator(
+            final Query dlsQuery,
+            final LeafReader in,
+            boolean applyDlsHere,
+            final Set<String> flsFields,
+            final Set<String> maskedFields
+        ) throws IOException {
             if (dlsQuery != null && applyDlsHere) {
-                // borrowed from Apache Lucene (Copyright Apache Software Foundation (ASF))
-                // https://github.com/apache/lucene-solr/blob/branch_6_3/lucene/misc/src/java/org/apache/lucene/index/PKIndexSplitter.java
-                final IndexSearcher searcher = new IndexSearcher(DlsFlsFilterLeafReader.this);
-                searcher.setQueryCache(null);
-                final Weight preserveWeight = searcher.rewrite(dlsQuery).createWeight(searcher, ScoreMode.COMPLETE_NO_SCORES, 1f);
-
-                final int maxDoc = in.maxDoc();
-                final FixedBitSet bits = new FixedBitSet(maxDoc);
-                final Scorer preserveScorer = preserveWeight.scorer(DlsFlsFilterLeafReader.this.getContext());
-
-                if (preserveScorer != null) {
-                    bits.or(preserveScorer.iterator());
-                }
+                // the matching docs only depend on the segment and the dls/fls/masking restrictions,
+                // so they can be shared across readers; deletions are applied on top of them
+                final FixedBitSet bits = dlsBitsetCache != null
+                    ? dlsBitsetCache.getOrLoad(in, dlsQuery, flsFields, maskedFields, () -> matchingDocs(dlsQuery, in))
+                    : matchingDocs(dlsQuery, in);
 
                 if (in.hasDeletions()) {
                     final Bits oldLiveDocs = in.getLiveDocs();
                     assert oldLiveDocs != null;
-                    final DocIdSetIterator it = new BitSetIterator(bits, 0L);
-                    for (int i = it.nextDoc(); i != DocIdSetIterator.NO_MORE_DOCS; i = it.nextDoc()) {
-                        if (!oldLiveDocs.get(i)) {
-                            bits.clear(i);
-                        }
-                    }
+                    liveBits = new LiveDlsBits(bits, oldLiveDocs);
+                } else {
+                    liveBits = bits;
                 }
-
-                liveBits = bits;
                 numDocs = in.numDocs();
                 readerCacheHelper = null;
                 hasDeletions = true;
@@ -267,6 +192,24 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             }
         }
 
+        private FixedBitSet matchingDocs(final Query dlsQuery, final LeafReader in) throws IOException {
+            // borrowed from Apache Lucene (Copyright Apache Software Foundation (ASF))
+            // https://github.com/apache/lucene-solr/blob/branch_6_3/lucene/misc/src/java/org/apache/lucene/index/PKIndexSplitter.java
+            final IndexSearcher searcher = new IndexSearcher(DlsFlsFilterLeafReader.this);
+            searcher.setQueryCache(null);
+            final Weight preserveWeight = searcher.rewrite(dlsQuery).createWeight(searcher, ScoreMode.COMPLETE_NO_SCORES, 1f);
+
+            final int maxDoc = in.maxDoc();
+            final FixedBitSet bits = new FixedBitSet(maxDoc);
+            final Scorer preserveScorer = preserveWeight.scorer(DlsFlsFilterLeafReader.this.getContext());
+
+            if (preserveScorer != null) {
+                bits.or(preserveScorer.iterator());
+            }
+
+            return bits;
+        }
+
         // return null means no hidden docs
         public Bits getLiveDocs() {
             return liveBits;
@@ -285,6 +228,26 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         }
     }
 
+    private static final class LiveDlsBits implements Bits {
+        private final Bits dlsBits;
+        private final Bits liveDocs;
+
+        private LiveDlsBits(final Bits dlsBits, final Bits liveDocs) {
+            this.dlsBits = dlsBits;
+            this.liveDocs = liveDocs;
+        }
+
+        @Override
+        public boolean get(final int index) {
+            return dlsBits.get(index) && liveDocs.get(index);
+        }
+
+        @Override
+        public int length() {
+            return dlsBits.length();
+        }
+    }
+
     private static class MaskedFieldsMap {
         private final Map<WildcardMatcher, MaskedField> maskedFieldsMap;
 
@@ -292,11 +255,16 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             this.maskedFieldsMap = maskedFieldsMap;
         }
 
-        public static MaskedFieldsMap extractMaskedFields(boolean maskFields, Set<String> maskedFields, final Salt salt) {
+        public static MaskedFieldsMap extractMaskedFields(
+            boolean maskFields,
+            Set<String> maskedFields,
+            final Salt salt,
+            final MaskedValueCache maskedValueCache
+        ) {
             if (maskFields) {
                 return new MaskedFieldsMap(
                     maskedFields.stream()
-                        .map(mf -> new MaskedField(mf, salt))
+                        .map(mf -> new MaskedField(mf, salt, maskedValueCache))
                         .collect(ImmutableMap.toImmutableMap(mf -> WildcardMatcher.from(mf.getName()), Function.identity()))
                 );
             } else {
@@ -318,53 +286,105 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
 
     }
 
-    private static class DlsFlsSubReaderWrapper extends FilterDirectoryReader.SubReaderWrapper {
+    /**
+     * The prepared DLS, FLS and field masking restrictions of a reader. Instances are immutable and
+     * shared by all readers created for the same restrictions, unless the DLS query depends on the current time.
+     */
+    static final class ReaderConfig {
+        static final ReaderConfig UNRESTRICTED = new ReaderConfig(null, null, null, false, null, null, null);
 
-        private final Set<String> includes;
+        private final Set<String> flsFields;
+        private final FlsRules flsRules;
         private final Query dlsQuery;
+        private final Set<String> maskedFields;
+        private final MaskedFieldsMap maskedFieldsMap;
+        private final boolean timeDependent;
+
+        ReaderConfig(
+            final Set<String> flsFields,
+            final Query dlsQuery,
+            final Set<String> maskedFields,
+            final boolean timeDependent,
+            final Salt salt,
+            final MaskedValueCache maskedValueCache,
+            final FlsFieldInfosCache flsFieldInfosCache
+        ) {
+            this.flsFields = flsFields;
+            this.flsRules = flsFields != null && !flsFields.isEmpty() ? new FlsRules(flsFields, flsFieldInfosCache) : null;
+            this.dlsQuery = dlsQuery;
+            this.maskedFields = maskedFields;
+            this.maskedFieldsMap = MaskedFieldsMap.extractMaskedFields(
+                maskedFields != null && !maskedFields.isEmpty(),
+                maskedFields,
+                salt,
+                maskedValueCache
+            );
+            this.timeDependent = timeDependent;
+        }
+
+        /**
+         * @return true if the DLS query uses "now", so that neither this config nor results computed with it may be cached
+         */
+        boolean isTimeDependent() {
+            return timeDependent;
+        }
+    }
+
+    private static class DlsFlsSubReaderWrapper extends FilterDirectoryReader.SubReaderWrapper {
+
+        private final ReaderConfig config;
         private final IndexService indexService;
         private final ThreadContext threadContext;
         private final ClusterService clusterService;
         private final AuditLog auditlog;
-        private final Set<String> maskedFields;
         private final ShardId shardId;
         private final Salt salt;
+        private final DlsBitsetCache dlsBitsetCache;
+        private final MaskedValueCache maskedValueCache;
+        private final MaskedOrdinalsCache maskedOrdinalsCache;
+        private final FieldReadAggregator fieldReadAggregator;
 
         public DlsFlsSubReaderWrapper(
-            final Set<String> includes,
-            final Query dlsQuery,
+            final ReaderConfig config,
             final IndexService indexService,
             final ThreadContext threadContext,
             final ClusterService clusterService,
             final AuditLog auditlog,
-            final Set<String> maskedFields,
             ShardId shardId,
-            final Salt salt
+            final Salt salt,
+            final DlsBitsetCache dlsBitsetCache,
+            final MaskedValueCache maskedValueCache,
+            final MaskedOrdinalsCache maskedOrdinalsCache,
+            final FieldReadAggregator fieldReadAggregator
         ) {
-            this.includes = includes;
-            this.dlsQuery = dlsQuery;
+            this.config = config;
             this.indexService = indexService;
             this.threadContext = threadContext;
             this.clusterService = clusterService;
             this.auditlog = auditlog;
-            this.maskedFields = maskedFields;
             this.shardId = shardId;
             this.salt = salt;
+            this.dlsBitsetCache = dlsBitsetCache;
+            this.maskedValueCache = maskedValueCache;
+            this.maskedOrdinalsCache = maskedOrdinalsCache;
+            this.fieldReadAggregator = fieldReadAggregator;
         }
 
         @Override
         public LeafReader wrap(final LeafReader reader) {
             return new DlsFlsFilterLeafReader(
                 reader,
-                includes,
-                dlsQuery,
+                config,
                 indexService,
                 threadContext,
                 clusterService,
                 auditlog,
-                maskedFields,
                 shardId,
-                salt
+                salt,
+                dlsBitsetCache,
+                maskedValueCache,
+                maskedOrdinalsCache,
+                fieldReadAggregator
             );
         }
 
@@ -372,66 +392,76 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
 
     static class DlsFlsDirectoryReader extends FilterDirectoryReader {
 
-        private final Set<String> includes;
-        private final Query dlsQuery;
+        private final ReaderConfig config;
         private final IndexService indexService;
         private final ThreadContext threadContext;
         private final ClusterService clusterService;
         private final AuditLog auditlog;
-        private final Set<String> maskedFields;
         private final ShardId shardId;
         private final Salt salt;
+        private final DlsBitsetCache dlsBitsetCache;
+        private final MaskedValueCache maskedValueCache;
+        private final MaskedOrdinalsCache maskedOrdinalsCache;
+        private final FieldReadAggregator fieldReadAggregator;
 
         public DlsFlsDirectoryReader(
             final DirectoryReader in,
-            final Set<String> includes,
-            final Query dlsQuery,
+            final ReaderConfig config,
             final IndexService indexService,
             final ThreadContext threadContext,
             final ClusterService clusterService,
             final AuditLog auditlog,
-            final Set<String> maskedFields,
             ShardId shardId,
-            final Salt salt
+            final Salt salt,
+            final DlsBitsetCache dlsBitsetCache,
+            final MaskedValueCache maskedValueCache,
+            final MaskedOrdinalsCache maskedOrdinalsCache,
+            final FieldReadAggregator fieldReadAggregator
         ) throws IOException {
             super(
                 in,
                 new DlsFlsSubReaderWrapper(
-                    includes,
-                    dlsQuery,
+                    config,
                     indexService,
                     threadContext,
                     clusterService,
                     auditlog,
-                    maskedFields,
                     shardId,
-                    salt
+                    salt,
+                    dlsBitsetCache,
+                    maskedValueCache,
+                    maskedOrdinalsCache,
+                    fieldReadAggregator
                 )
             );
-            this.includes = includes;
-            this.dlsQuery = dlsQuery;
+            this.config = config;
             this.indexService = indexService;
             this.threadContext = threadContext;
             this.clusterService = clusterService;
             this.auditlog = auditlog;
-            this.maskedFields = maskedFields;
             this.shardId = shardId;
             this.salt = salt;
+            this.dlsBitsetCache = dlsBitsetCache;
+            this.maskedValueCache = maskedValueCache;
+            this.maskedOrdinalsCache = maskedOrdinalsCache;
+            this.fieldReadAggregator = fieldReadAggregator;
         }
 
         @Override
         protected DirectoryReader doWrapDirectoryReader(final DirectoryReader in) throws IOException {
             return new DlsFlsDirectoryReader(
                 in,
-                includes,
-                dlsQuery,
+                config,
                 indexService,
                 threadContext,
                 clusterService,
                 auditlog,
-                maskedFields,
                 shardId,
-                salt
+                salt,
+                dlsBitsetCache,
+                maskedValueCache,
+                maskedOrdinalsCache,
+                fieldReadAggregator
             );
         }
 
@@ -439,6 +469,29 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         public CacheHelper getReaderCacheHelper() {
             return in.getReaderCacheHelper();
         }
+
+        @Override
+        protected void doClose() throws IOException {
+            try {
+                if (fieldReadAggregator != null) {
+                    fieldReadAggregator.flush();
+                }
+            } finally {
+                super.doClose();
+            }
+        }
+
+        Set<String> getFlsFields() {
+            return config.flsFields;
+        }
+
+        Set<String> getMaskedFields() {
+            return config.maskedFields;
+        }
+
+        boolean isTimeDependent() {
+            return config.isTimeDependent();
+        }
     }
 
     private class DlsFlsStoredFieldsReader extends StoredFieldsReader {
@@ -565,7 +618,8 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             clusterService,
             auditlog,
             maskedFieldsMap.getMatcher(),
-            shardId
+            shardId,
+            fieldReadAggregator
         );
 
         public ComplianceAwareStoredFieldVisitor(final StoredFieldVisitor delegate) {
@@ -643,19 +697,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         public void binaryField(final FieldInfo fieldInfo, final byte[] value) throws IOException {
 
             if (fieldInfo.name.equals("_source")) {
-                Map<String, Object> filteredSource = Utils.byteArrayToMutableJsonMap(value);
-
-                if (!canOptimize) {
-                    filteredSource = filterFunction.apply(filteredSource);
-                } else {
-                    if (!excludesSet.isEmpty()) {
-                        filteredSource.keySet().removeAll(excludesSet);
-                    } else {
-                        filteredSource.keySet().retainAll(includesSet);
-                    }
-                }
-
-                delegate.binaryField(fieldInfo, Utils.jsonMapToByteArray(filteredSource));
+                delegate.binaryField(fieldInfo, sourceFilter.filter(value));
             } else {
                 delegate.binaryField(fieldInfo, value);
             }
@@ -906,7 +948,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         return isFls(field) ? wrapSortedDocValues(field, in.getSortedDocValues(field)) : null;
     }
 
-    private SortedDocValues wrapSortedDocValues(final String field, final SortedDocValues sortedDocValues) {
+    private SortedDocValues wrapSortedDocValues(final String field, final SortedDocValues sortedDocValues) throws IOException {
 
         final MaskedFieldsMap maskedFieldsMap;
 
@@ -914,6 +956,13 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             final MaskedField mf = maskedFieldsMap.getMaskedField(handleKeyword(field)).orElse(null);
 
             if (mf != null) {
+                final SortedDocValues maskedOrdinals = maskedOrdinalsCache != null
+                    ? maskedOrdinalsCache.wrap(in, field, mf, sortedDocValues)
+                    : null;
+                if (maskedOrdinals != null) {
+                    return maskedOrdinals;
+                }
+
                 return new SortedDocValues() {
 
                     @Override
@@ -986,7 +1035,8 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         return isFls(field) ? wrapSortedSetDocValues(field, in.getSortedSetDocValues(field)) : null;
     }
 
-    private SortedSetDocValues wrapSortedSetDocValues(final String field, final SortedSetDocValues sortedSetDocValues) {
+    private SortedSetDocValues wrapSortedSetDocValues(final String field, final SortedSetDocValues sortedSetDocValues)
+        throws IOException {
 
         final MaskedFieldsMap maskedFieldsMap;
 
@@ -994,6 +1044,13 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             MaskedField mf = maskedFieldsMap.getMaskedField(handleKeyword(field)).orElse(null);
 
             if (mf != null) {
+                final SortedSetDocValues maskedOrdinals = maskedOrdinalsCache != null
+                    ? maskedOrdinalsCache.wrap(in, field, mf, sortedSetDocValues)
+                    : null;
+                if (maskedOrdinals != null) {
+                    return maskedOrdinals;
+                }
+
                 return new SortedSetDocValues() {
 
                     @Override
@@ -1210,7 +1267,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         if (maskedEval != null) {
             final Set<String> mf = maskedFieldsMap.get(maskedEval);
             if (mf != null && !mf.isEmpty()) {
-                return MaskedFieldsMap.extractMaskedFields(true, mf, salt);
+                return MaskedFieldsMap.extractMaskedFields(true, mf, salt, maskedValueCache);
             }
 
         }
@@ -28,6 +28,7 @@ package org.opensearch.security.configuration;
 
 import org.opensearch.action.ActionRequest;
 import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.action.ActionResponse;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
 import org.opensearch.search.internal.SearchContext;
 import org.opensearch.search.query.QuerySearchResult;
@@ -49,6 +50,13 @@ public interface DlsFlsRequestValve {
 
     void onQueryPhase(QuerySearchResult queryResult);
 
+    /**
+     * Allows the valve to observe the completion of requests passed to {@link #invoke}
+     */
+    default <Response extends ActionResponse> ActionListener<Response> wrapListener(ActionListener<Response> listener) {
+        return listener;
+    }
+
     public static class NoopDlsFlsRequestValve implements DlsFlsRequestValve {
 
         @Override
@@ -15,20 +15,23 @@ import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import com.google.common.collect.ImmutableList;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FilterDirectoryReader;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
-import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.util.BytesRef;
 
 import org.opensearch.OpenSearchException;
@@ -45,17 +48,19 @@ import org.opensearch.action.bulk.BulkShardRequest;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.update.UpdateRequest;
 import org.opensearch.client.Client;
+import org.opensearch.cluster.metadata.IndexMetadata;
 import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
+import org.opensearch.cluster.metadata.Metadata;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.util.concurrent.ThreadContext;
 import org.opensearch.core.action.ActionListener;
-import org.opensearch.core.common.Strings;
+import org.opensearch.core.action.ActionResponse;
 import org.opensearch.core.rest.RestStatus;
-import org.opensearch.core.xcontent.MediaTypeRegistry;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
 import org.opensearch.index.query.ParsedQuery;
 import org.opensearch.search.DocValueFormat;
+import org.opensearch.search.SearchExtBuilder;
 import org.opensearch.search.aggregations.AggregationBuilder;
 import org.opensearch.search.aggregations.AggregatorFactories;
 import org.opensearch.search.aggregations.BucketOrder;
@@ -91,6 +96,10 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
     private final Mode mode;
     private final DlsQueryParser dlsQueryParser;
     private final IndexNameExpressionResolver resolver;
+    private final boolean requestCacheEnabled;
+    private final boolean filterLevelRealtimeGet;
+    private final DlsModeSelector modeSelector;
+    private final TermsLookupCache termsLookupCache;
 
     public DlsFlsValveImpl(
         Settings settings,
@@ -98,15 +107,27 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
         ClusterService clusterService,
         IndexNameExpressionResolver resolver,
         NamedXContentRegistry namedXContentRegistry,
-        ThreadContext threadContext
+        ThreadContext threadContext,
+        TermsLookupCache termsLookupCache,
+        DlsQueryCache dlsQueryCache
     ) {
         super();
         this.nodeClient = nodeClient;
         this.clusterService = clusterService;
         this.resolver = resolver;
         this.threadContext = threadContext;
+        this.termsLookupCache = termsLookupCache;
         this.mode = Mode.get(settings);
-        this.dlsQueryParser = new DlsQueryParser(namedXContentRegistry);
+        this.dlsQueryParser = new DlsQueryParser(namedXContentRegistry, dlsQueryCache);
+        this.modeSelector = new DlsModeSelector(dlsQueryParser);
+        this.requestCacheEnabled = settings.getAsBoolean(
+            ConfigConstants.SECURITY_DLS_FLS_REQUEST_CACHE_ENABLED,
+            ConfigConstants.SECURITY_DLS_FLS_REQUEST_CACHE_ENABLED_DEFAULT
+        );
+        this.filterLevelRealtimeGet = settings.getAsBoolean(
+            ConfigConstants.SECURITY_DLS_FILTER_LEVEL_REALTIME_GET_ENABLED,
+            ConfigConstants.SECURITY_DLS_FILTER_LEVEL_REALTIME_GET_ENABLED_DEFAULT
+        );
     }
 
     /**
@@ -156,12 +177,31 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
             doFilterLevelDls = true;
         } else if (mode == Mode.LUCENE_LEVEL) {
             doFilterLevelDls = false;
-        } else { // mode == Mode.ADAPTIVE
+        } else { // mode == Mode.ADAPTIVE || mode == Mode.COST_BASED
             Mode modeByHeader = getDlsModeHeader();
 
             if (modeByHeader == Mode.FILTER_LEVEL) {
                 doFilterLevelDls = true;
                 log.debug("Doing filter-level DLS due to header");
+            } else if (mode == Mode.COST_BASED && filteredDlsFlsConfig.hasDls()) {
+                DlsModeSelector.Selection selection = modeSelector.select(
+                    request,
+                    filteredDlsFlsConfig.getAllQueries(),
+                    () -> targetShards(resolved)
+                );
+                doFilterLevelDls = selection.mode() == Mode.FILTER_LEVEL;
+
+                if (listener instanceof DlsModeSelector.TrackedListener) {
+                    ((DlsModeSelector.TrackedListener<?>) listener).selected(selection);
+                }
+
+                if (doFilterLevelDls) {
+                    setDlsModeHeader(Mode.FILTER_LEVEL);
+                }
+
+                if (log.isDebugEnabled()) {
+                    log.debug("Doing {} DLS based on the estimated cost", selection.mode());
+                }
             } else {
                 doFilterLevelDls = dlsQueryParser.containsTermLookupQuery(filteredDlsFlsConfig.getAllQueries());
 
@@ -184,7 +224,14 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
             return true;
         }
 
-        if (request instanceof RealtimeRequest) {
+        // Filter level DLS checks documents fetched by realtime gets itself, unless FLS or field masking applies
+        boolean filterLevelRealtimeGet = this.filterLevelRealtimeGet
+            && doFilterLevelDls
+            && filteredDlsFlsConfig.hasDls()
+            && !filteredDlsFlsConfig.hasFls()
+            && !filteredDlsFlsConfig.hasFieldMasking();
+
+        if (request instanceof RealtimeRequest && !filterLevelRealtimeGet) {
             ((RealtimeRequest) request).realtime(Boolean.FALSE);
         }
 
@@ -216,42 +263,9 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
                 }
             }
 
-            if (!evaluatedDlsFlsConfig.hasFls() && !evaluatedDlsFlsConfig.hasDls() && searchRequest.source().aggregations() != null) {
-
-                boolean cacheable = true;
-
-                for (AggregationBuilder af : searchRequest.source().aggregations().getAggregatorFactories()) {
-
-                    if (!af.getType().equals("cardinality") && !af.getType().equals("count")) {
-                        cacheable = false;
-                        continue;
-                    }
-
-                    StringBuilder sb = new StringBuilder();
-
-                    if (searchRequest.source() != null) {
-                        sb.append(Strings.toString(MediaTypeRegistry.JSON, searchRequest.source()) + System.lineSeparator());
-                    }
-
-                    sb.append(Strings.toString(MediaTypeRegistry.JSON, af) + System.lineSeparator());
-
-                    LogManager.getLogger("debuglogger").error(sb.toString());
-
-                }
-
-                if (!cacheable) {
-                    searchRequest.requestCache(Boolean.FALSE);
-                } else {
-                    LogManager.getLogger("debuglogger")
-                        .error(
-                            "Shard requestcache enabled for "
-                                + (searchRequest.source() == null
-                                    ? "<NULL>"
-                                    : Strings.toString(MediaTypeRegistry.JSON, searchRequest.source()))
-                        );
-                }
-
-            } else {
+            // results cached in the shard request cache are keyed by the restrictions applied on the shard,
+            // see addRequestCacheKey()
+            if (!requestCacheEnabled) {
                 searchRequest.requestCache(Boolean.FALSE);
             }
         }
@@ -334,13 +348,43 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
                 OpenSearchSecurityPlugin.GuiceHolder.getIndicesService(),
                 resolver,
                 dlsQueryParser,
-                threadContext
+                threadContext,
+                this.filterLevelRealtimeGet,
+                termsLookupCache
             );
         } else {
             return true;
         }
     }
 
+    @Override
+    public <Response extends ActionResponse> ActionListener<Response> wrapListener(ActionListener<Response> listener) {
+        if (mode == Mode.COST_BASED) {
+            return modeSelector.track(listener);
+        } else {
+            return listener;
+        }
+    }
+
+    public DlsModeSelector getModeSelector() {
+        return modeSelector;
+    }
+
+    private int targetShards(Resolved resolved) {
+        Metadata metadata = clusterService.state().metadata();
+        int shards = 0;
+
+        for (String index : resolved.getAllIndicesResolved(clusterService, resolver)) {
+            IndexMetadata indexMetadata = metadata.index(index);
+
+            if (indexMetadata != null) {
+                shards += indexMetadata.getNumberOfShards();
+            }
+        }
+
+        return shards;
+    }
+
     @Override
     public void handleSearchContext(SearchContext context, ThreadPool threadPool, NamedXContentRegistry namedXContentRegistry) {
         try {
@@ -352,6 +396,8 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
 
             final String dlsEval = SecurityUtils.evalMap(queries, context.indexShard().indexSettings().getIndex().getName());
 
+            addRequestCacheKey(context, dlsEval != null ? queries.get(dlsEval) : null);
+
             if (dlsEval != null) {
 
                 if (context.suggest() != null) {
@@ -363,12 +409,8 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
                 final Set<String> unparsedDlsQueries = queries.get(dlsEval);
 
                 if (unparsedDlsQueries != null && !unparsedDlsQueries.isEmpty()) {
-                    BooleanQuery.Builder queryBuilder = dlsQueryParser.parse(
-                        unparsedDlsQueries,
-                        context.getQueryShardContext(),
-                        (q) -> new ConstantScoreQuery(q)
-                    );
-
+                    BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
+                    queryBuilder.add(dlsQueryParser.toQuery(unparsedDlsQueries, context.getQueryShardContext(), true), Occur.MUST);
                     queryBuilder.add(context.parsedQuery().query(), Occur.MUST);
 
                     ParsedQuery dlsQuery = new ParsedQuery(queryBuilder.build());
@@ -384,6 +426,51 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
         }
     }
 
+    /**
+     * Adds the hash of the restrictions applied to this shard search to the request, so that it becomes part of
+     * the shard request cache key. Any such extension sent by the client is replaced. Searches restricted by a
+     * DLS query using "now" are not cached at all.
+     */
+    private static void addRequestCacheKey(final SearchContext context, final Set<String> dlsQueries) {
+        DirectoryReader reader = context.searcher().getDirectoryReader();
+        while (!(reader instanceof DlsFlsFilterLeafReader.DlsFlsDirectoryReader) && reader instanceof FilterDirectoryReader) {
+            reader = ((FilterDirectoryReader) reader).getDelegate();
+        }
+
+        final DlsFlsCacheKeyExtBuilder cacheKey;
+
+        if (reader instanceof DlsFlsFilterLeafReader.DlsFlsDirectoryReader) {
+            final DlsFlsFilterLeafReader.DlsFlsDirectoryReader dlsFlsReader = (DlsFlsFilterLeafReader.DlsFlsDirectoryReader) reader;
+
+            if (dlsFlsReader.isTimeDependent()) {
+                // The DLS query of the reader was built with its own query shard context; using "now" on the
+                // context of the search marks it as not cacheable as well
+                context.getQueryShardContext().nowInMillis();
+            }
+
+            cacheKey = DlsFlsCacheKeyExtBuilder.of(dlsQueries, dlsFlsReader.getFlsFields(), dlsFlsReader.getMaskedFields());
+        } else {
+            cacheKey = DlsFlsCacheKeyExtBuilder.of(dlsQueries, null, null);
+        }
+
+        final SearchSourceBuilder source = context.request().source();
+        final List<SearchExtBuilder> ext = source == null
+            ? new ArrayList<>()
+            : source.ext().stream().filter(e -> !DlsFlsCacheKeyExtBuilder.NAME.equals(e.getWriteableName())).collect(Collectors.toList());
+
+        if (cacheKey == null && (source == null || ext.size() == source.ext().size())) {
+            return;
+        }
+
+        if (cacheKey != null) {
+            ext.add(cacheKey);
+        }
+
+        // the source may be shared with other shard requests, so it must not be modified in place; requests
+        // without source get an empty one, as they may be cached as well
+        context.request().source(source == null ? new SearchSourceBuilder().ext(ext) : source.copyWithNewSlice(source.slice()).ext(ext));
+    }
+
     @Override
     public void onQueryPhase(QuerySearchResult queryResult) {
         InternalAggregations aggregations = queryResult.aggregations().expand();
@@ -701,7 +788,8 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
     public static enum Mode {
         ADAPTIVE,
         LUCENE_LEVEL,
-        FILTER_LEVEL;
+        FILTER_LEVEL,
+        COST_BASED;
 
         static Mode get(Settings settings) {
             String modeString = settings.get(ConfigConstants.SECURITY_DLS_MODE);
@@ -712,6 +800,8 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
                 return Mode.LUCENE_LEVEL;
             } else if ("filter_level".equalsIgnoreCase(modeString)) {
                 return Mode.FILTER_LEVEL;
+            } else if ("cost_based".equalsIgnoreCase(modeString)) {
+                return Mode.COST_BASED;
             } else {
                 return Mode.ADAPTIVE;
             }
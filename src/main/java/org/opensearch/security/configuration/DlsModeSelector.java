@@ -0,0 +1,310 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.MultiGetRequest;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.index.query.FuzzyQueryBuilder;
+import org.opensearch.index.query.NestedQueryBuilder;
+import org.opensearch.index.query.PrefixQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryStringQueryBuilder;
+import org.opensearch.index.query.RegexpQueryBuilder;
+import org.opensearch.index.query.ScriptQueryBuilder;
+import org.opensearch.index.query.SimpleQueryStringBuilder;
+import org.opensearch.index.query.WildcardQueryBuilder;
+import org.opensearch.security.configuration.DlsFlsValveImpl.Mode;
+import org.opensearch.security.queries.QueryBuilderTraverser;
+import org.opensearch.security.support.LatencyHistogram;
+
+/**
+ * Chooses between filter level and Lucene level DLS per request for the <code>cost_based</code> DLS mode.
+ * <p>
+ * Queries with terms lookups always use filter level DLS. For other searches and gets, the choice is based on an estimate
+ * at first: Lucene level DLS evaluates the DLS query eagerly on every segment of every target shard, which is cheap for
+ * simple queries (and cached afterwards), but expensive for costly query types on many shards. Once enough requests
+ * with the same DLS queries have completed in both modes, the mode with the lower measured latency is used. Every
+ * {@link #EXPLORATION_INTERVAL}th request uses the other mode in order to keep the measurements up to date.
+ * <p>
+ * The selections and the latencies per mode are recorded as node level stats.
+ */
+public final class DlsModeSelector implements ToXContentFragment {
+
+    static final int MIN_SAMPLES = 20;
+    static final int EXPLORATION_INTERVAL = 20;
+    static final int FILTER_LEVEL_COST_THRESHOLD = 64;
+    static final int EXPENSIVE_QUERY_COST = 16;
+    private static final double EWMA_ALPHA = 0.2;
+    private static final int MAX_TRACKED_QUERY_SETS = 1000;
+
+    private final DlsQueryParser dlsQueryParser;
+    private final Cache<QueryStatsKey, QueryStats> queryStats = CacheBuilder.newBuilder().maximumSize(MAX_TRACKED_QUERY_SETS).build();
+    private final Cache<String, Integer> queryCosts = CacheBuilder.newBuilder().maximumSize(MAX_TRACKED_QUERY_SETS).build();
+
+    private final LatencyHistogram luceneLevelLatency = new LatencyHistogram();
+    private final LatencyHistogram filterLevelLatency = new LatencyHistogram();
+    private final LongAdder termsLookupSelections = new LongAdder();
+    private final LongAdder estimatedSelections = new LongAdder();
+    private final LongAdder measuredSelections = new LongAdder();
+    private final LongAdder explorationSelections = new LongAdder();
+
+    DlsModeSelector(DlsQueryParser dlsQueryParser) {
+        this.dlsQueryParser = dlsQueryParser;
+    }
+
+    /**
+     * @param targetShards supplies the number of shards targeted by the request; only called if needed
+     */
+    Selection select(ActionRequest request, Set<String> dlsQueries, IntSupplier targetShards) {
+        if (dlsQueryParser.containsTermLookupQuery(dlsQueries)) {
+            termsLookupSelections.increment();
+            return new Selection(null, Mode.FILTER_LEVEL);
+        }
+
+        RequestKind requestKind = RequestKind.of(request);
+
+        if (requestKind == null) {
+            // Filter level DLS is not available for these; see DlsFilterLevelActionHandler
+            return new Selection(null, Mode.LUCENE_LEVEL);
+        }
+
+        QueryStats stats;
+
+        try {
+            stats = queryStats.get(new QueryStatsKey(requestKind, dlsQueries), QueryStats::new);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+
+        Mode mode;
+
+        if (stats.luceneLevel.samples() >= MIN_SAMPLES && stats.filterLevel.samples() >= MIN_SAMPLES) {
+            mode = stats.filterLevel.average() < stats.luceneLevel.average() ? Mode.FILTER_LEVEL : Mode.LUCENE_LEVEL;
+            measuredSelections.increment();
+        } else {
+            mode = estimate(requestKind, dlsQueries, targetShards);
+            estimatedSelections.increment();
+        }
+
+        if (stats.requests.incrementAndGet() % EXPLORATION_INTERVAL == 0) {
+            mode = mode == Mode.FILTER_LEVEL ? Mode.LUCENE_LEVEL : Mode.FILTER_LEVEL;
+            explorationSelections.increment();
+        }
+
+        return new Selection(stats, mode);
+    }
+
+    /**
+     * Wraps the listener of a request in order to measure its latency in the selected mode
+     */
+    <Response> TrackedListener<Response> track(ActionListener<Response> listener) {
+        return new TrackedListener<>(listener, System.nanoTime());
+    }
+
+    private Mode estimate(RequestKind requestKind, Set<String> dlsQueries, IntSupplier targetShards) {
+        if (requestKind == RequestKind.GET) {
+            // Lucene level DLS on gets only needs the cached DLS bitset of a single segment
+            return Mode.LUCENE_LEVEL;
+        }
+
+        long cost = 0;
+
+        for (String dlsQuery : dlsQueries) {
+            cost += queryCost(dlsQuery);
+        }
+
+        return cost * Math.max(1, targetShards.getAsInt()) >= FILTER_LEVEL_COST_THRESHOLD ? Mode.FILTER_LEVEL : Mode.LUCENE_LEVEL;
+    }
+
+    int queryCost(String dlsQuery) {
+        try {
+            return queryCosts.get(dlsQuery, () -> {
+                int cost = 0;
+
+                for (QueryBuilder queryBuilder : QueryBuilderTraverser.findAll(dlsQueryParser.parse(dlsQuery), (q) -> true)) {
+                    cost += isExpensive(queryBuilder) ? EXPENSIVE_QUERY_COST : 1;
+                }
+
+                return cost;
+            });
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error handling parsing " + dlsQuery, e.getCause());
+        }
+    }
+
+    private static boolean isExpensive(QueryBuilder queryBuilder) {
+        return queryBuilder instanceof WildcardQueryBuilder
+            || queryBuilder instanceof RegexpQueryBuilder
+            || queryBuilder instanceof PrefixQueryBuilder
+            || queryBuilder instanceof FuzzyQueryBuilder
+            || queryBuilder instanceof ScriptQueryBuilder
+            || queryBuilder instanceof QueryStringQueryBuilder
+            || queryBuilder instanceof SimpleQueryStringBuilder
+            || queryBuilder instanceof NestedQueryBuilder;
+    }
+
+    void record(Selection selection, long nanos) {
+        if (selection.mode == Mode.FILTER_LEVEL) {
+            filterLevelLatency.record(nanos);
+        } else {
+            luceneLevelLatency.record(nanos);
+        }
+
+        if (selection.stats != null) {
+            (selection.mode == Mode.FILTER_LEVEL ? selection.stats.filterLevel : selection.stats.luceneLevel).record(nanos);
+        }
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject("dls_mode");
+        builder.startObject("selections");
+        builder.field("terms_lookup", termsLookupSelections.sum());
+        builder.field("estimated", estimatedSelections.sum());
+        builder.field("measured", measuredSelections.sum());
+        builder.field("exploration", explorationSelections.sum());
+        builder.endObject();
+        builder.field("tracked_query_sets", queryStats.size());
+        luceneLevelLatency.toXContent("lucene_level", builder);
+        filterLevelLatency.toXContent("filter_level", builder);
+        builder.endObject();
+        return builder;
+    }
+
+    enum RequestKind {
+        SEARCH,
+        GET;
+
+        static RequestKind of(ActionRequest request) {
+            if (request instanceof SearchRequest) {
+                SearchRequest searchRequest = (SearchRequest) request;
+                return searchRequest.source() != null && searchRequest.scroll() == null ? SEARCH : null;
+            } else if (request instanceof GetRequest || request instanceof MultiGetRequest) {
+                return GET;
+            } else {
+                return null;
+            }
+        }
+    }
+
+    static final class Selection {
+        private final QueryStats stats;
+        private final Mode mode;
+
+        Selection(QueryStats stats, Mode mode) {
+            this.stats = stats;
+            this.mode = mode;
+        }
+
+        Mode mode() {
+            return mode;
+        }
+    }
+
+    final class TrackedListener<Response> implements ActionListener<Response> {
+        private final ActionListener<Response> delegate;
+        private final long startNanos;
+        private volatile Selection selection;
+
+        private TrackedListener(ActionListener<Response> delegate, long startNanos) {
+            this.delegate = delegate;
+            this.startNanos = startNanos;
+        }
+
+        void selected(Selection selection) {
+            this.selection = selection;
+        }
+
+        @Override
+        public void onResponse(Response response) {
+            Selection selection = this.selection;
+
+            if (selection != null) {
+                record(selection, System.nanoTime() - startNanos);
+            }
+
+            delegate.onResponse(response);
+        }
+
+        @Override
+        public void onFailure(Exception e) {
+            delegate.onFailure(e);
+        }
+    }
+
+    private static final class QueryStatsKey {
+        private final RequestKind requestKind;
+        private final Set<String> dlsQueries;
+
+        private QueryStatsKey(RequestKind requestKind, Set<String> dlsQueries) {
+            this.requestKind = requestKind;
+            this.dlsQueries = new TreeSet<>(dlsQueries);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueryStatsKey)) {
+                return false;
+            }
+            QueryStatsKey that = (QueryStatsKey) o;
+            return requestKind == that.requestKind && dlsQueries.equals(that.dlsQueries);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * requestKind.hashCode() + dlsQueries.hashCode();
+        }
+    }
+
+    static final class QueryStats {
+        private final AtomicLong requests = new AtomicLong();
+        private final MovingAverage luceneLevel = new MovingAverage();
+        private final MovingAverage filterLevel = new MovingAverage();
+    }
+
+    private static final class MovingAverage {
+        private long samples;
+        private double average;
+
+        synchronized void record(long nanos) {
+            average = samples == 0 ? nanos : average + EWMA_ALPHA * (nanos - average);
+            samples++;
+        }
+
+        synchronized long samples() {
+            return samples;
+        }
+
+        synchronized double average() {
+            return average;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableSet;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.RamUsageEstimator;
+
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryShardContext;
+import org.opensearch.index.query.TermsQueryBuilder;
+import org.opensearch.security.queries.QueryBuilderTraverser;
+import org.opensearch.security.support.ConfigConstants;
+
+/**
+ * Node wide cache of the Lucene queries built from DLS queries, so that field types and analyzers are not resolved
+ * again for every shard of every request.
+ * <p>
+ * Entries are keyed by the DLS queries, the index UUID and the mapping version of the index; thus, mapping
+ * changes make the entries of an index unreachable. Queries depending on the current time are not cached.
+ * <p>
+ * Only queries consisting of the types in {@link #CACHEABLE_QUERY_TYPES} are cached. The Lucene queries built
+ * from these only depend on the mapping of the index; other types, like script queries, may capture the shard
+ * or the search context and must not be shared.
+ */
+public final class DlsQueryCache implements ToXContentFragment {
+
+    static final Set<String> CACHEABLE_QUERY_TYPES = ImmutableSet.of(
+        "bool",
+        "boosting",
+        "constant_score",
+        "dis_max",
+        "exists",
+        "fuzzy",
+        "ids",
+        "match",
+        "match_all",
+        "match_bool_prefix",
+        "match_none",
+        "match_phrase",
+        "match_phrase_prefix",
+        "multi_match",
+        "nested",
+        "prefix",
+        "query_string",
+        "range",
+        "regexp",
+        "simple_query_string",
+        "term",
+        "terms",
+        "wildcard"
+    );
+
+    private final long maxWeightInBytes;
+    private final Cache<Key, CachedQuery> cache;
+    private final LongAdder weightInBytes = new LongAdder();
+
+    public DlsQueryCache(final Settings settings) {
+        this.maxWeightInBytes = settings.getAsMemory(
+            ConfigConstants.SECURITY_DLS_QUERY_CACHE_SIZE,
+            ConfigConstants.SECURITY_DLS_QUERY_CACHE_SIZE_DEFAULT
+        ).getBytes();
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(Math.max(maxWeightInBytes, 0))
+            .weigher((Key key, CachedQuery value) -> value.weight)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .removalListener(this::onRemoval)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Returns the query built by the given function for the DLS queries and the index of the given context. The
+     * function is called with a copy of the context; if it marks the copy as not cacheable, the given context is
+     * marked as not cacheable as well.
+     */
+    Query getOrBuild(
+        final Set<String> unparsedDlsQueries,
+        final boolean constantScoreClauses,
+        final QueryShardContext queryShardContext,
+        final Function<QueryShardContext, Query> builder
+    ) {
+        if (maxWeightInBytes <= 0) {
+            return builder.apply(queryShardContext);
+        }
+
+        return getOrBuild(
+            unparsedDlsQueries,
+            constantScoreClauses,
+            queryShardContext.getIndexSettings().getUUID(),
+            queryShardContext.getIndexSettings().getIndexMetadata().getMappingVersion(),
+            () -> {
+                final QueryShardContext isolatedContext = new QueryShardContext(queryShardContext);
+                final Query query = builder.apply(isolatedContext);
+
+                if (!isolatedContext.isCacheable()) {
+                    // Propagates the use of "now" to the original context, so that the request cache is not used
+                    queryShardContext.nowInMillis();
+                }
+
+                return new Tuple<>(query, isolatedContext.isCacheable());
+            }
+        );
+    }
+
+    /**
+     * @param builder builds the query and tells whether it may be cached
+     */
+    Query getOrBuild(
+        final Set<String> unparsedDlsQueries,
+        final boolean constantScoreClauses,
+        final String indexUUID,
+        final long mappingVersion,
+        final Supplier<Tuple<Query, Boolean>> builder
+    ) {
+        final Key key = new Key(unparsedDlsQueries, constantScoreClauses, indexUUID, mappingVersion);
+        final CachedQuery cached = cache.getIfPresent(key);
+
+        if (cached != null) {
+            return cached.query;
+        }
+
+        final Tuple<Query, Boolean> built = builder.get();
+
+        if (built.v2()) {
+            cache.put(key, new CachedQuery(built.v1(), weigh(unparsedDlsQueries)));
+        }
+
+        return built.v1();
+    }
+
+    /**
+     * @return whether the Lucene query built from the given DLS query may be shared by all shards of an index
+     */
+    static boolean isCacheable(final QueryBuilder dlsQuery) {
+        return !QueryBuilderTraverser.exists(
+            dlsQuery,
+            (q) -> !CACHEABLE_QUERY_TYPES.contains(q.getWriteableName())
+                || (q instanceof TermsQueryBuilder && ((TermsQueryBuilder) q).termsLookup() != null)
+        );
+    }
+
+    long size() {
+        return cache.size();
+    }
+
+    long weightInBytes() {
+        return weightInBytes.sum();
+    }
+
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        final CacheStats stats = cache.stats();
+
+        builder.startObject("dls_query_cache");
+        builder.field("entries", cache.size());
+        builder.field("memory_size_in_bytes", weightInBytes.sum());
+        builder.field("max_memory_size_in_bytes", Math.max(maxWeightInBytes, 0));
+        builder.field("hits", stats.hitCount());
+        builder.field("misses", stats.missCount());
+        builder.field("evictions", stats.evictionCount());
+        builder.endObject();
+        return builder;
+    }
+
+    /**
+     * Lucene queries do not generally report their size; the size of the source queries is used as an estimate
+     */
+    private static int weigh(final Set<String> unparsedDlsQueries) {
+        long weight = RamUsageEstimator.QUERY_DEFAULT_RAM_BYTES_USED;
+
+        for (final String unparsedDlsQuery : unparsedDlsQueries) {
+            weight += RamUsageEstimator.sizeOf(unparsedDlsQuery) * 2;
+        }
+
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    private void onRemoval(final RemovalNotification<Key, CachedQuery> notification) {
+        if (notification.getValue() != null) {
+            weightInBytes.add(-notification.getValue().weight);
+        }
+    }
+
+    private final class CachedQuery {
+        private final Query query;
+        private final int weight;
+
+        private CachedQuery(final Query query, final int weight) {
+            this.query = query;
+            this.weight = weight;
+            weightInBytes.add(weight);
+        }
+    }
+
+    private static final class Key {
+        private final List<String> unparsedDlsQueries;
+        private final boolean constantScoreClauses;
+        private final String indexUUID;
+        private final long mappingVersion;
+        private final int hashCode;
+
+        private Key(
+            final Set<String> unparsedDlsQueries,
+            final boolean constantScoreClauses,
+            final String indexUUID,
+            final long mappingVersion
+        ) {
+            final List<String> sorted = new ArrayList<>(unparsedDlsQueries);
+            Collections.sort(sorted);
+            this.unparsedDlsQueries = sorted;
+            this.constantScoreClauses = constantScoreClauses;
+            this.indexUUID = indexUUID;
+            this.mappingVersion = mappingVersion;
+            this.hashCode = Objects.hash(sorted, constantScoreClauses, indexUUID, mappingVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            final Key other = (Key) obj;
+            return constantScoreClauses == other.constantScoreClauses
+                && mappingVersion == other.mappingVersion
+                && indexUUID.equals(other.indexUUID)
+                && unparsedDlsQueries.equals(other.unparsedDlsQueries);
+        }
+    }
+}
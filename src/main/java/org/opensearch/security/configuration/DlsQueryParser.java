@@ -24,6 +24,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
@@ -63,11 +64,46 @@ public final class DlsQueryParser {
         .maximumSize(10000)
         .expireAfterWrite(4, TimeUnit.HOURS)
         .build();
+    private static Cache<String, Boolean> queryCacheableCache = CacheBuilder.newBuilder()
+        .maximumSize(10000)
+        .expireAfterWrite(4, TimeUnit.HOURS)
+        .build();
 
     private final NamedXContentRegistry namedXContentRegistry;
+    private final DlsQueryCache dlsQueryCache;
 
     public DlsQueryParser(NamedXContentRegistry namedXContentRegistry) {
+        this(namedXContentRegistry, null);
+    }
+
+    public DlsQueryParser(NamedXContentRegistry namedXContentRegistry, DlsQueryCache dlsQueryCache) {
         this.namedXContentRegistry = namedXContentRegistry;
+        this.dlsQueryCache = dlsQueryCache;
+    }
+
+    /**
+     * Returns the DLS query for the index of the given context; it matches documents matched by any of the given queries.
+     * The query is taken from the DlsQueryCache if available.
+     *
+     * @param constantScoreClauses whether each DLS query shall be wrapped in a ConstantScoreQuery
+     * @return the query or null if there are no DLS queries
+     */
+    public Query toQuery(Set<String> unparsedDlsQueries, QueryShardContext queryShardContext, boolean constantScoreClauses) {
+        if (unparsedDlsQueries == null || unparsedDlsQueries.isEmpty()) {
+            return null;
+        }
+
+        final Function<QueryShardContext, Query> builder = (context) -> parse(
+            unparsedDlsQueries,
+            context,
+            constantScoreClauses ? ConstantScoreQuery::new : null
+        ).build();
+
+        if (dlsQueryCache == null || !isCacheable(unparsedDlsQueries)) {
+            return builder.apply(queryShardContext);
+        }
+
+        return dlsQueryCache.getOrBuild(unparsedDlsQueries, constantScoreClauses, queryShardContext, builder);
     }
 
     public BooleanQuery.Builder parse(Set<String> unparsedDlsQueries, QueryShardContext queryShardContext) {
@@ -138,6 +174,23 @@ public final class DlsQueryParser {
         }
     }
 
+    /**
+     * @return whether the queries built from the given DLS queries may be kept in the DlsQueryCache
+     */
+    boolean isCacheable(Set<String> unparsedQueries) {
+        for (String query : unparsedQueries) {
+            try {
+                if (!queryCacheableCache.get(query, () -> DlsQueryCache.isCacheable(parse(query)))) {
+                    return false;
+                }
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Error while parsing " + query, e.getCause());
+            }
+        }
+
+        return true;
+    }
+
     boolean containsTermLookupQuery(Set<String> unparsedQueries) {
         for (String query : unparsedQueries) {
             if (containsTermLookupQuery(query)) {
@@ -0,0 +1,117 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+
+/**
+ * Node wide cache of the field infos of a segment filtered by a set of FLS rules.
+ * <p>
+ * Entries are keyed by the segment core and the FLS rules, so they are shared by all readers and all
+ * {@link FlsRules} instances built for the same rules. A single closed listener is registered per segment
+ * core, which drops all entries of the core when it is closed.
+ */
+public class FlsFieldInfosCache {
+
+    private static final int MAX_ENTRIES = 10000;
+
+    private final Cache<Key, FilteredFieldInfos> cache;
+    private final Set<IndexReader.CacheKey> registeredCores = ConcurrentHashMap.newKeySet();
+
+    public FlsFieldInfosCache() {
+        this(MAX_ENTRIES);
+    }
+
+    FlsFieldInfosCache(final int maxEntries) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    /**
+     * Returns the field infos of the given segment filtered by the given FLS rules, filtering and caching them if needed.
+     */
+    FieldInfos get(final LeafReader reader, final Set<String> flsFields, final UnaryOperator<FieldInfos> filter) {
+        final FieldInfos infos = reader.getFieldInfos();
+        final IndexReader.CacheHelper coreCacheHelper = reader.getCoreCacheHelper();
+
+        if (coreCacheHelper == null) {
+            return filter.apply(infos);
+        }
+
+        final Key key = new Key(coreCacheHelper.getKey(), flsFields);
+        final FilteredFieldInfos cached = cache.getIfPresent(key);
+
+        // doc values updates produce new field infos for the same core
+        if (cached != null && cached.source == infos) {
+            return cached.filtered;
+        }
+
+        final FieldInfos filtered = filter.apply(infos);
+        if (registeredCores.add(key.coreKey)) {
+            coreCacheHelper.addClosedListener(this::onCoreClosed);
+        }
+        cache.put(key, new FilteredFieldInfos(infos, filtered));
+        return filtered;
+    }
+
+    long size() {
+        return cache.size();
+    }
+
+    private void onCoreClosed(final IndexReader.CacheKey coreKey) {
+        registeredCores.remove(coreKey);
+        cache.asMap().keySet().removeIf(key -> key.coreKey == coreKey);
+    }
+
+    private static final class FilteredFieldInfos {
+        private final FieldInfos source;
+        private final FieldInfos filtered;
+
+        private FilteredFieldInfos(final FieldInfos source, final FieldInfos filtered) {
+            this.source = source;
+            this.filtered = filtered;
+        }
+    }
+
+    private static final class Key {
+        private final IndexReader.CacheKey coreKey;
+        private final Set<String> flsFields;
+        private final int hashCode;
+
+        private Key(final IndexReader.CacheKey coreKey, final Set<String> flsFields) {
+            this.coreKey = coreKey;
+            this.flsFields = flsFields;
+            this.hashCode = Objects.hash(coreKey, flsFields);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            final Key other = (Key) obj;
+            return coreKey == other.coreKey && flsFields.equals(other.flsFields);
+        }
+    }
+}
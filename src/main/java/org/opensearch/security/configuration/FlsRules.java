@@ -0,0 +1,122 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.LeafReader;
+
+import org.opensearch.security.support.WildcardMatcher;
+
+/**
+ * Compiled FLS rules of a role set. Besides the <code>_source</code> filter, this provides the filtered
+ * {@link FieldInfos} of a segment, which are kept in the node wide {@link FlsFieldInfosCache} so that they
+ * are computed once per segment and rule set instead of once per reader.
+ */
+final class FlsRules {
+
+    private static final String KEYWORD = ".keyword";
+    private static final String[] EMPTY_STRING_ARRAY = new String[0];
+
+    private final Set<String> includesExcludes;
+    private final Set<String> includesSet;
+    private final Set<String> excludesSet;
+    private final boolean canOptimize;
+    private final WildcardMatcher matcher;
+    private final FlsSourceFilter sourceFilter;
+    private final FlsFieldInfosCache fieldInfosCache;
+
+    FlsRules(final Set<String> includesExcludes, final FlsFieldInfosCache fieldInfosCache) {
+        this.includesExcludes = includesExcludes;
+        this.fieldInfosCache = fieldInfosCache;
+        this.includesSet = new HashSet<>(includesExcludes.size());
+        this.excludesSet = new HashSet<>(includesExcludes.size());
+        boolean canOptimize = true;
+
+        for (final String incExc : includesExcludes) {
+            if (canOptimize && (incExc.indexOf('.') > -1 || incExc.indexOf('*') > -1)) {
+                canOptimize = false;
+            }
+
+            final char firstChar = incExc.charAt(0);
+
+            if (firstChar == '!' || firstChar == '~') {
+                excludesSet.add(incExc.substring(1));
+                excludesSet.add(incExc.substring(1) + KEYWORD);
+            } else {
+                includesSet.add(incExc);
+            }
+        }
+
+        this.canOptimize = canOptimize;
+
+        if (canOptimize) {
+            this.matcher = null;
+            this.sourceFilter = FlsSourceFilter.forTopLevelFields(includesSet, excludesSet);
+        } else if (!excludesSet.isEmpty()) {
+            this.matcher = WildcardMatcher.from(excludesSet);
+            this.sourceFilter = FlsSourceFilter.forPatterns(null, excludesSet.toArray(EMPTY_STRING_ARRAY));
+        } else {
+            this.matcher = WildcardMatcher.from(includesSet);
+            this.sourceFilter = FlsSourceFilter.forPatterns(includesSet.toArray(EMPTY_STRING_ARRAY), null);
+        }
+    }
+
+    FlsSourceFilter sourceFilter() {
+        return sourceFilter;
+    }
+
+    /**
+     * @return the field infos of the given segment which are visible according to these rules
+     */
+    FieldInfos fieldInfos(final LeafReader reader) {
+        if (fieldInfosCache == null) {
+            return filter(reader.getFieldInfos());
+        }
+        return fieldInfosCache.get(reader, includesExcludes, this::filter);
+    }
+
+    private FieldInfos filter(final FieldInfos infos) {
+        int i = 0;
+        final FieldInfo[] fa = new FieldInfo[infos.size()];
+
+        if (canOptimize) {
+            if (!excludesSet.isEmpty()) {
+                for (final FieldInfo info : infos) {
+                    if (!excludesSet.contains(info.name)) {
+                        fa[i++] = info;
+                    }
+                }
+            } else {
+                for (final String inc : includesSet) {
+                    FieldInfo f;
+                    if ((f = infos.fieldInfo(inc)) != null) {
+                        fa[i++] = f;
+                    }
+                }
+            }
+        } else {
+            final boolean exclude = !excludesSet.isEmpty();
+            for (final FieldInfo info : infos) {
+                if (matcher.test(info.name) != exclude) {
+                    fa[i++] = info;
+                }
+            }
+        }
+
+        return new FieldInfos(Arrays.copyOf(fa, i));
+    }
+}
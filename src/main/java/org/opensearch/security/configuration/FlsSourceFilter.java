@@ -0,0 +1,331 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.lucene.util.automaton.Automata;
+import org.apache.lucene.util.automaton.Automaton;
+import org.apache.lucene.util.automaton.CharacterRunAutomaton;
+import org.apache.lucene.util.automaton.Operations;
+
+import org.opensearch.OpenSearchParseException;
+import org.opensearch.common.regex.Regex;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.DeprecationHandler;
+import org.opensearch.core.xcontent.MediaType;
+import org.opensearch.core.xcontent.MediaTypeRegistry;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.core.xcontent.XContentParser.Token;
+
+/**
+ * Filters a <code>_source</code> document according to FLS rules by copying the tokens of the parsed document
+ * straight into the output, without materializing the document as a map.
+ * <p>
+ * The matching semantics are the ones of {@link org.opensearch.common.xcontent.support.XContentMapValues#filter(String[], String[])}:
+ * patterns are matched against the full dotted path of a field, a pattern matching an object also matches all of its
+ * children, and objects or arrays which become empty by filtering are dropped. The content type (JSON, SMILE, CBOR,
+ * YAML) of the source is preserved.
+ */
+final class FlsSourceFilter {
+
+    private static final CharacterRunAutomaton MATCH_ALL = new CharacterRunAutomaton(Automata.makeAnyString());
+
+    private final CharacterRunAutomaton include;
+    private final CharacterRunAutomaton exclude;
+    private final Set<String> topLevelIncludes;
+    private final Set<String> topLevelExcludes;
+
+    private FlsSourceFilter(
+        final CharacterRunAutomaton include,
+        final CharacterRunAutomaton exclude,
+        final Set<String> topLevelIncludes,
+        final Set<String> topLevelExcludes
+    ) {
+        this.include = include;
+        this.exclude = exclude;
+        this.topLevelIncludes = topLevelIncludes;
+        this.topLevelExcludes = topLevelExcludes;
+    }
+
+    /**
+     * Creates a filter which matches full field paths, supporting wildcards and dots in the patterns.
+     * Either includes or excludes may be null.
+     */
+    static FlsSourceFilter forPatterns(final String[] includes, final String[] excludes) {
+        final CharacterRunAutomaton include = includes == null || includes.length == 0
+            ? MATCH_ALL
+            : new CharacterRunAutomaton(matchDotsInFieldNames(Regex.simpleMatchToAutomaton(includes)));
+        final CharacterRunAutomaton exclude = excludes == null || excludes.length == 0
+            ? new CharacterRunAutomaton(Automata.makeEmpty())
+            : new CharacterRunAutomaton(matchDotsInFieldNames(Regex.simpleMatchToAutomaton(excludes)));
+        return new FlsSourceFilter(include, exclude, null, null);
+    }
+
+    /**
+     * Creates a filter which only looks at the top level field names. This can be used if the rules
+     * contain neither dots nor wildcards. If excludes are not empty, includes are ignored.
+     */
+    static FlsSourceFilter forTopLevelFields(final Set<String> includes, final Set<String> excludes) {
+        if (!excludes.isEmpty()) {
+            return new FlsSourceFilter(null, null, null, excludes);
+        }
+        return new FlsSourceFilter(null, null, includes, null);
+    }
+
+    byte[] filter(final byte[] source) throws IOException {
+        final BytesReference bytes = new BytesArray(source);
+        MediaType mediaType = MediaTypeRegistry.xContentType(bytes);
+        if (mediaType == null) {
+            mediaType = XContentType.JSON;
+        }
+
+        try (
+            XContentParser parser = XContentHelper.createParser(
+                NamedXContentRegistry.EMPTY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION,
+                bytes,
+                mediaType
+            );
+            XContentBuilder builder = XContentBuilder.builder(mediaType.xContent())
+        ) {
+            if (parser.nextToken() != Token.START_OBJECT) {
+                throw new OpenSearchParseException("Expected _source to be an object but got {}", parser.currentToken());
+            }
+
+            builder.startObject();
+            if (include == null) {
+                filterTopLevel(parser, builder);
+            } else {
+                filterObject(parser, new DeferredWriter(builder), include, 0, exclude, 0);
+            }
+            builder.endObject();
+
+            return BytesReference.toBytes(BytesReference.bytes(builder));
+        }
+    }
+
+    private void filterTopLevel(final XContentParser parser, final XContentBuilder builder) throws IOException {
+        for (Token token = parser.nextToken(); token != Token.END_OBJECT; token = parser.nextToken()) {
+            final String name = parser.currentName();
+            parser.nextToken();
+
+            final boolean keep = topLevelExcludes != null ? !topLevelExcludes.contains(name) : topLevelIncludes.contains(name);
+
+            if (keep) {
+                builder.field(name);
+                builder.copyCurrentStructure(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void filterObject(
+        final XContentParser parser,
+        final DeferredWriter writer,
+        final CharacterRunAutomaton includeAutomaton,
+        final int initialIncludeState,
+        final CharacterRunAutomaton excludeAutomaton,
+        final int initialExcludeState
+    ) throws IOException {
+        for (Token token = parser.nextToken(); token != Token.END_OBJECT; token = parser.nextToken()) {
+            final String name = parser.currentName();
+            final Token valueToken = parser.nextToken();
+
+            final int includeState = step(includeAutomaton, name, initialIncludeState);
+            if (includeState == -1) {
+                parser.skipChildren();
+                continue;
+            }
+
+            int excludeState = step(excludeAutomaton, name, initialExcludeState);
+            if (excludeState != -1 && excludeAutomaton.isAccept(excludeState)) {
+                parser.skipChildren();
+                continue;
+            }
+
+            CharacterRunAutomaton subIncludeAutomaton = includeAutomaton;
+            int subIncludeState = includeState;
+
+            if (includeAutomaton.isAccept(includeState)) {
+                if (excludeState == -1 || excludeAutomaton.step(excludeState, '.') == -1) {
+                    // the exclude has no chance to match inner properties
+                    writer.copyField(name, parser);
+                    continue;
+                } else {
+                    // the object matched, so consider that the include matches every inner property
+                    // we only care about excludes now
+                    subIncludeAutomaton = MATCH_ALL;
+                    subIncludeState = 0;
+                }
+            }
+
+            if (valueToken == Token.START_OBJECT) {
+                subIncludeState = subIncludeAutomaton.step(subIncludeState, '.');
+                if (subIncludeState == -1) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (excludeState != -1) {
+                    excludeState = excludeAutomaton.step(excludeState, '.');
+                }
+
+                writer.startObject(name, includeAutomaton.isAccept(includeState));
+                filterObject(parser, writer, subIncludeAutomaton, subIncludeState, excludeAutomaton, excludeState);
+                writer.end();
+            } else if (valueToken == Token.START_ARRAY) {
+                writer.startArray(name);
+                filterArray(parser, writer, subIncludeAutomaton, subIncludeState, excludeAutomaton, excludeState);
+                writer.end();
+            } else if (includeAutomaton.isAccept(includeState) && (excludeState == -1 || !excludeAutomaton.isAccept(excludeState))) {
+                writer.copyField(name, parser);
+            }
+        }
+    }
+
+    private static void filterArray(
+        final XContentParser parser,
+        final DeferredWriter writer,
+        final CharacterRunAutomaton includeAutomaton,
+        final int initialIncludeState,
+        final CharacterRunAutomaton excludeAutomaton,
+        final int initialExcludeState
+    ) throws IOException {
+        final boolean isInclude = includeAutomaton.isAccept(initialIncludeState);
+
+        for (Token token = parser.nextToken(); token != Token.END_ARRAY; token = parser.nextToken()) {
+            if (token == Token.START_OBJECT) {
+                final int includeState = includeAutomaton.step(initialIncludeState, '.');
+                int excludeState = initialExcludeState;
+                if (excludeState != -1) {
+                    excludeState = excludeAutomaton.step(excludeState, '.');
+                }
+
+                writer.startObject(null, false);
+                filterObject(parser, writer, includeAutomaton, includeState, excludeAutomaton, excludeState);
+                writer.end();
+            } else if (token == Token.START_ARRAY) {
+                writer.startArray(null);
+                filterArray(parser, writer, includeAutomaton, initialIncludeState, excludeAutomaton, initialExcludeState);
+                writer.end();
+            } else if (isInclude) {
+                // only accept this array value if the key we are on is accepted
+                writer.copyValue(parser);
+            }
+        }
+    }
+
+    private static int step(final CharacterRunAutomaton automaton, final String key, int state) {
+        for (int i = 0; state != -1 && i < key.length(); ++i) {
+            state = automaton.step(state, key.charAt(i));
+        }
+        return state;
+    }
+
+    /**
+     * Make matches on objects also match dots in field names: <code>foo</code> also matches <code>foo.*</code>
+     */
+    private static Automaton matchDotsInFieldNames(final Automaton automaton) {
+        final Automaton children = Operations.concatenate(
+            Operations.concatenate(automaton, Automata.makeChar('.')),
+            Automata.makeAnyString()
+        );
+        return Operations.determinize(Operations.union(automaton, children), Operations.DEFAULT_DETERMINIZE_WORK_LIMIT);
+    }
+
+    /**
+     * Writes objects and arrays only once they get their first child, so that containers which end up
+     * empty after filtering never make it into the output.
+     */
+    private static final class DeferredWriter {
+        private final XContentBuilder builder;
+        private final List<PendingContainer> open = new ArrayList<>();
+        private int written = 0;
+
+        private DeferredWriter(final XContentBuilder builder) {
+            this.builder = builder;
+        }
+
+        void startObject(final String name, final boolean force) {
+            open.add(new PendingContainer(name, true, force));
+        }
+
+        void startArray(final String name) {
+            open.add(new PendingContainer(name, false, false));
+        }
+
+        void end() throws IOException {
+            final PendingContainer container = open.get(open.size() - 1);
+
+            if (open.size() > written && container.force) {
+                flush();
+            }
+
+            open.remove(open.size() - 1);
+
+            if (written > open.size()) {
+                written--;
+                if (container.object) {
+                    builder.endObject();
+                } else {
+                    builder.endArray();
+                }
+            }
+        }
+
+        void copyField(final String name, final XContentParser parser) throws IOException {
+            flush();
+            builder.field(name);
+            builder.copyCurrentStructure(parser);
+        }
+
+        void copyValue(final XContentParser parser) throws IOException {
+            flush();
+            builder.copyCurrentStructure(parser);
+        }
+
+        private void flush() throws IOException {
+            for (; written < open.size(); written++) {
+                final PendingContainer container = open.get(written);
+                if (container.name != null) {
+                    builder.field(container.name);
+                }
+                if (container.object) {
+                    builder.startObject();
+                } else {
+                    builder.startArray();
+                }
+            }
+        }
+    }
+
+    private static final class PendingContainer {
+        private final String name;
+        private final boolean object;
+        private final boolean force;
+
+        private PendingContainer(final String name, final boolean object, final boolean force) {
+            this.name = name;
+            this.object = object;
+            this.force = force;
+        }
+    }
+}
@@ -16,8 +16,11 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.regex.Pattern;
 
 import com.google.common.base.Splitter;
 import org.apache.lucene.util.BytesRef;
@@ -26,13 +29,22 @@ import org.bouncycastle.util.encoders.Hex;
 
 public class MaskedField {
 
+    private static final ThreadLocal<Blake2bState> BLAKE2B = ThreadLocal.withInitial(Blake2bState::new);
+    private static final ThreadLocal<Map<String, MessageDigest>> DIGESTS = ThreadLocal.withInitial(HashMap::new);
+
     private final String name;
     private String algo = null;
     private List<RegexReplacement> regexReplacements;
     private final byte[] defaultSalt;
+    private final MaskedValueCache maskedValueCache;
 
     public MaskedField(final String value, final Salt salt) {
+        this(value, salt, null);
+    }
+
+    public MaskedField(final String value, final Salt salt, final MaskedValueCache maskedValueCache) {
         this.defaultSalt = salt.getSalt16();
+        this.maskedValueCache = maskedValueCache;
         final List<String> tokens = Splitter.on("::").splitToList(Objects.requireNonNull(value));
         final int tokenCount = tokens.size();
         if (tokenCount == 1) {
@@ -56,19 +68,14 @@ public class MaskedField {
     }
 
     public byte[] mask(byte[] value) {
-        if (isDefault()) {
-            return blake2bHash(value);
-        } else {
-            return customHash(value);
+        if (maskedValueCache != null) {
+            return maskedValueCache.mask(this, value, this::maskUncached).clone();
         }
+        return maskUncached(value);
     }
 
     public String mask(String value) {
-        if (isDefault()) {
-            return blake2bHash(value);
-        } else {
-            return customHash(value);
-        }
+        return new String(maskShared(value.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
     }
 
     public BytesRef mask(BytesRef value) {
@@ -76,8 +83,28 @@ public class MaskedField {
             return null;
         }
 
+        if (maskedValueCache == null && isDefault()) {
+            // the digest can consume the referenced slice directly, no need to copy it
+            return new BytesRef(blake2bHash(value.bytes, value.offset, value.length));
+        }
+
+        // not shared with the cache, callers may modify the returned bytes
+        return new BytesRef(mask(BytesRef.deepCopyOf(value).bytes));
+    }
+
+    /**
+     * Masks the value, the returned array may be shared with the cache and must not be modified
+     */
+    private byte[] maskShared(byte[] value) {
+        if (maskedValueCache != null) {
+            return maskedValueCache.mask(this, value, this::maskUncached);
+        }
+        return maskUncached(value);
+    }
+
+    private byte[] maskUncached(byte[] value) {
         if (isDefault()) {
-            return blake2bHash(value);
+            return blake2bHash(value, 0, value.length);
         } else {
             return customHash(value);
         }
@@ -136,16 +163,11 @@ public class MaskedField {
 
     private byte[] customHash(byte[] in) {
         if (algo != null) {
-            try {
-                MessageDigest digest = MessageDigest.getInstance(algo);
-                return Hex.encode(digest.digest(in));
-            } catch (NoSuchAlgorithmException e) {
-                throw new IllegalArgumentException(e);
-            }
+            return Hex.encode(messageDigest(algo).digest(in));
         } else if (regexReplacements != null) {
             String cur = new String(in, StandardCharsets.UTF_8);
             for (RegexReplacement rr : regexReplacements) {
-                cur = cur.replaceAll(rr.getRegex(), rr.getReplacement());
+                cur = rr.getPattern().matcher(cur).replaceAll(rr.getReplacement());
             }
             return cur.getBytes(StandardCharsets.UTF_8);
 
@@ -154,40 +176,60 @@ public class MaskedField {
         }
     }
 
-    private BytesRef customHash(BytesRef in) {
-        final BytesRef copy = BytesRef.deepCopyOf(in);
-        return new BytesRef(customHash(copy.bytes));
-    }
-
-    private String customHash(String in) {
-        return new String(customHash(in.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+    private static MessageDigest messageDigest(final String algo) {
+        final Map<String, MessageDigest> digests = DIGESTS.get();
+        MessageDigest digest = digests.get(algo);
+        if (digest == null) {
+            try {
+                digest = MessageDigest.getInstance(algo);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalArgumentException(e);
+            }
+            digests.put(algo, digest);
+        }
+        return digest;
     }
 
-    private byte[] blake2bHash(byte[] in) {
-        final Blake2bDigest hash = new Blake2bDigest(null, 32, null, defaultSalt);
-        hash.update(in, 0, in.length);
-        final byte[] out = new byte[hash.getDigestSize()];
-        hash.doFinal(out, 0);
-        return Hex.encode(out);
+    private byte[] blake2bHash(byte[] in, int offset, int length) {
+        final Blake2bState state = BLAKE2B.get();
+        final Blake2bDigest hash = state.digest(defaultSalt);
+        hash.update(in, offset, length);
+        // doFinal() resets the digest so it can be reused by the next call on this thread
+        hash.doFinal(state.out, 0);
+        return Hex.encode(state.out);
     }
 
-    private BytesRef blake2bHash(BytesRef in) {
-        final BytesRef copy = BytesRef.deepCopyOf(in);
-        return new BytesRef(blake2bHash(copy.bytes));
-    }
+    /**
+     * Per thread Blake2b digest and output buffer, recreated if the salt changes
+     */
+    private static final class Blake2bState {
+        private byte[] salt;
+        private Blake2bDigest digest;
+        private final byte[] out = new byte[32];
 
-    private String blake2bHash(String in) {
-        return new String(blake2bHash(in.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+        private Blake2bDigest digest(final byte[] salt) {
+            if (digest == null || this.salt != salt) {
+                this.digest = new Blake2bDigest(null, 32, null, salt);
+                this.salt = salt;
+            }
+            return digest;
+        }
     }
 
     private static class RegexReplacement {
         private final String regex;
         private final String replacement;
+        private final Pattern pattern;
 
         public RegexReplacement(String regex, String replacement) {
             super();
             this.regex = regex.substring(1).substring(0, regex.length() - 2);
             this.replacement = replacement;
+            this.pattern = Pattern.compile(this.regex);
+        }
+
+        public Pattern getPattern() {
+            return pattern;
         }
 
         public String getRegex() {
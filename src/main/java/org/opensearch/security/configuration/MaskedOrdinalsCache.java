@@ -0,0 +1,375 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
+
+import org.opensearch.common.CheckedSupplier;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.security.support.ConfigConstants;
+
+/**
+ * Node wide cache of the masked term dictionaries of sorted and sorted set doc values.
+ * <p>
+ * For every segment, field and mask the terms are masked once, sorted and de-duplicated. Wrapped doc values
+ * then translate segment ordinals into ordinals of the masked dictionary, so that aggregations on masked
+ * fields do not need to mask every looked up term again. Entries are dropped when the segment core is closed.
+ */
+public class MaskedOrdinalsCache {
+
+    // rough per term cost: ordinal remap entry, BytesRef instance and masked bytes
+    private static final int BYTES_PER_TERM_ESTIMATE = 120;
+
+    private final long maxWeightInBytes;
+    private final Cache<Key, MaskedOrdinals> cache;
+    private final Set<IndexReader.CacheKey> registeredCores = ConcurrentHashMap.newKeySet();
+
+    public MaskedOrdinalsCache(final Settings settings) {
+        this.maxWeightInBytes = settings.getAsMemory(
+            ConfigConstants.SECURITY_MASKED_FIELDS_ORDINALS_CACHE_SIZE,
+            ConfigConstants.SECURITY_MASKED_FIELDS_ORDINALS_CACHE_SIZE_DEFAULT
+        ).getBytes();
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(Math.max(maxWeightInBytes, 0))
+            .weigher((Key key, MaskedOrdinals ordinals) -> (int) Math.min(Integer.MAX_VALUE, ordinals.ramBytesUsed()))
+            .build();
+    }
+
+    /**
+     * Wraps sorted doc values of a masked field so that they expose the masked dictionary.
+     *
+     * @param reader the unwrapped segment reader
+     * @return the wrapped doc values, or null if the dictionary is too large to be cached. In that case
+     * terms need to be masked one by one.
+     */
+    SortedDocValues wrap(final LeafReader reader, final String field, final MaskedField maskedField, final SortedDocValues docValues)
+        throws IOException {
+        final MaskedOrdinals ordinals = get(
+            reader,
+            field,
+            maskedField,
+            docValues.getValueCount(),
+            () -> reader.getSortedDocValues(field).termsEnum()
+        );
+        return ordinals != null ? new MaskedSortedDocValues(docValues, ordinals) : null;
+    }
+
+    /**
+     * Wraps sorted set doc values of a masked field so that they expose the masked dictionary.
+     *
+     * @param reader the unwrapped segment reader
+     * @return the wrapped doc values, or null if the dictionary is too large to be cached. In that case
+     * terms need to be masked one by one.
+     */
+    SortedSetDocValues wrap(
+        final LeafReader reader,
+        final String field,
+        final MaskedField maskedField,
+        final SortedSetDocValues docValues
+    ) throws IOException {
+        final MaskedOrdinals ordinals = get(
+            reader,
+            field,
+            maskedField,
+            docValues.getValueCount(),
+            () -> reader.getSortedSetDocValues(field).termsEnum()
+        );
+        return ordinals != null ? new MaskedSortedSetDocValues(docValues, ordinals) : null;
+    }
+
+    private MaskedOrdinals get(
+        final LeafReader reader,
+        final String field,
+        final MaskedField maskedField,
+        final long valueCount,
+        final CheckedSupplier<TermsEnum, IOException> termsEnum
+    ) throws IOException {
+        final IndexReader.CacheHelper coreCacheHelper = reader.getCoreCacheHelper();
+
+        if (coreCacheHelper == null || valueCount > Integer.MAX_VALUE || valueCount * BYTES_PER_TERM_ESTIMATE > maxWeightInBytes) {
+            return null;
+        }
+
+        final Key key = new Key(coreCacheHelper.getKey(), field, maskedField);
+        MaskedOrdinals ordinals = cache.getIfPresent(key);
+
+        if (ordinals == null) {
+            ordinals = MaskedOrdinals.build((int) valueCount, maskedField, termsEnum.get());
+            if (registeredCores.add(key.coreKey)) {
+                coreCacheHelper.addClosedListener(this::onCoreClosed);
+            }
+            cache.put(key, ordinals);
+        }
+
+        return ordinals;
+    }
+
+    long size() {
+        return cache.size();
+    }
+
+    private void onCoreClosed(final IndexReader.CacheKey coreKey) {
+        registeredCores.remove(coreKey);
+        cache.asMap().keySet().removeIf(key -> key.coreKey == coreKey);
+    }
+
+    /**
+     * Masked, sorted and de-duplicated terms of one field in one segment
+     */
+    static final class MaskedOrdinals {
+        private final int[] ordinalMap;
+        private final BytesRef[] terms;
+        private final long ramBytesUsed;
+
+        private MaskedOrdinals(final int[] ordinalMap, final BytesRef[] terms, final long ramBytesUsed) {
+            this.ordinalMap = ordinalMap;
+            this.terms = terms;
+            this.ramBytesUsed = ramBytesUsed;
+        }
+
+        static MaskedOrdinals build(final int valueCount, final MaskedField maskedField, final TermsEnum termsEnum) throws IOException {
+            final BytesRef[] masked = new BytesRef[valueCount];
+            int ord = 0;
+
+            for (BytesRef term = termsEnum.next(); term != null && ord < valueCount; term = termsEnum.next()) {
+                masked[ord++] = maskedField.mask(term);
+            }
+
+            final Integer[] sortedOrds = new Integer[ord];
+            for (int i = 0; i < ord; i++) {
+                sortedOrds[i] = i;
+            }
+            Arrays.sort(sortedOrds, Comparator.comparing(i -> masked[i]));
+
+            final int[] ordinalMap = new int[ord];
+            final BytesRef[] terms = new BytesRef[ord];
+            long ramBytesUsed = 4L * ord;
+            int maskedOrd = -1;
+
+            for (int i = 0; i < ord; i++) {
+                final BytesRef term = masked[sortedOrds[i]];
+                if (maskedOrd == -1 || !terms[maskedOrd].equals(term)) {
+                    terms[++maskedOrd] = term;
+                    ramBytesUsed += 32 + term.length;
+                }
+                ordinalMap[sortedOrds[i]] = maskedOrd;
+            }
+
+            return new MaskedOrdinals(ordinalMap, Arrays.copyOf(terms, maskedOrd + 1), ramBytesUsed);
+        }
+
+        int maskedOrd(final long ord) {
+            return ordinalMap[(int) ord];
+        }
+
+        BytesRef lookupOrd(final long maskedOrd) {
+            return terms[(int) maskedOrd];
+        }
+
+        int getValueCount() {
+            return terms.length;
+        }
+
+        long ramBytesUsed() {
+            return ramBytesUsed;
+        }
+    }
+
+    /**
+     * Sorted doc values whose ordinals refer to the masked dictionary. Term lookups, terms enums and
+     * intersections are served by the default implementations on top of {@link #lookupOrd(int)}.
+     */
+    private static final class MaskedSortedDocValues extends SortedDocValues {
+        private final SortedDocValues in;
+        private final MaskedOrdinals ordinals;
+
+        private MaskedSortedDocValues(final SortedDocValues in, final MaskedOrdinals ordinals) {
+            this.in = in;
+            this.ordinals = ordinals;
+        }
+
+        @Override
+        public int ordValue() throws IOException {
+            return ordinals.maskedOrd(in.ordValue());
+        }
+
+        @Override
+        public BytesRef lookupOrd(final int ord) {
+            return ordinals.lookupOrd(ord);
+        }
+
+        @Override
+        public int getValueCount() {
+            return ordinals.getValueCount();
+        }
+
+        @Override
+        public boolean advanceExact(final int target) throws IOException {
+            return in.advanceExact(target);
+        }
+
+        @Override
+        public int docID() {
+            return in.docID();
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            return in.nextDoc();
+        }
+
+        @Override
+        public int advance(final int target) throws IOException {
+            return in.advance(target);
+        }
+
+        @Override
+        public long cost() {
+            return in.cost();
+        }
+    }
+
+    /**
+     * Sorted set doc values whose ordinals refer to the masked dictionary. As different terms may be masked
+     * to the same value, the ordinals of each document are remapped, sorted and de-duplicated when positioning.
+     */
+    private static final class MaskedSortedSetDocValues extends SortedSetDocValues {
+        private final SortedSetDocValues in;
+        private final MaskedOrdinals ordinals;
+        private long[] docOrds = new long[8];
+        private int docOrdCount;
+        private int nextOrdIndex;
+
+        private MaskedSortedSetDocValues(final SortedSetDocValues in, final MaskedOrdinals ordinals) {
+            this.in = in;
+            this.ordinals = ordinals;
+        }
+
+        @Override
+        public long nextOrd() {
+            return nextOrdIndex < docOrdCount ? docOrds[nextOrdIndex++] : -1;
+        }
+
+        @Override
+        public int docValueCount() {
+            return docOrdCount;
+        }
+
+        @Override
+        public BytesRef lookupOrd(final long ord) {
+            return ordinals.lookupOrd(ord);
+        }
+
+        @Override
+        public long getValueCount() {
+            return ordinals.getValueCount();
+        }
+
+        @Override
+        public boolean advanceExact(final int target) throws IOException {
+            final boolean found = in.advanceExact(target);
+            if (found) {
+                loadOrds();
+            }
+            return found;
+        }
+
+        @Override
+        public int docID() {
+            return in.docID();
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            return loadOrds(in.nextDoc());
+        }
+
+        @Override
+        public int advance(final int target) throws IOException {
+            return loadOrds(in.advance(target));
+        }
+
+        @Override
+        public long cost() {
+            return in.cost();
+        }
+
+        private int loadOrds(final int doc) throws IOException {
+            if (doc != NO_MORE_DOCS) {
+                loadOrds();
+            }
+            return doc;
+        }
+
+        private void loadOrds() throws IOException {
+            final int count = in.docValueCount();
+            if (docOrds.length < count) {
+                docOrds = new long[ArrayUtil.oversize(count, Long.BYTES)];
+            }
+            for (int i = 0; i < count; i++) {
+                docOrds[i] = ordinals.maskedOrd(in.nextOrd());
+            }
+            Arrays.sort(docOrds, 0, count);
+
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (unique == 0 || docOrds[unique - 1] != docOrds[i]) {
+                    docOrds[unique++] = docOrds[i];
+                }
+            }
+            docOrdCount = unique;
+            nextOrdIndex = 0;
+        }
+    }
+
+    private static final class Key {
+        private final IndexReader.CacheKey coreKey;
+        private final String field;
+        private final MaskedField maskedField;
+        private final int hashCode;
+
+        private Key(final IndexReader.CacheKey coreKey, final String field, final MaskedField maskedField) {
+            this.coreKey = coreKey;
+            this.field = field;
+            this.maskedField = maskedField;
+            this.hashCode = Objects.hash(coreKey, field, maskedField);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            final Key other = (Key) obj;
+            return coreKey == other.coreKey && field.equals(other.field) && maskedField.equals(other.maskedField);
+        }
+    }
+}
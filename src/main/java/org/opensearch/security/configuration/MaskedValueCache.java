@@ -0,0 +1,96 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.lucene.util.BytesRef;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.security.support.ConfigConstants;
+
+/**
+ * Node wide bounded LRU of already masked values, so masking cost scales with the number of distinct values
+ * instead of the number of fetched documents. The size limit is expressed in bytes of keys and masked values.
+ */
+public class MaskedValueCache {
+
+    // rough per entry overhead of the cache segment entry, the key and the arrays
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final Cache<Key, byte[]> cache;
+
+    public MaskedValueCache(final long maxSizeInBytes) {
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(maxSizeInBytes)
+            .weigher((Key key, byte[] masked) -> ENTRY_OVERHEAD_BYTES + key.value.length + masked.length)
+            .build();
+    }
+
+    /**
+     * @return a cache sized according to the node settings, or null if masked value caching is disabled
+     */
+    public static MaskedValueCache from(final Settings settings) {
+        final long maxSizeInBytes = settings.getAsMemory(
+            ConfigConstants.SECURITY_MASKED_FIELDS_CACHE_SIZE,
+            ConfigConstants.SECURITY_MASKED_FIELDS_CACHE_SIZE_DEFAULT
+        ).getBytes();
+        return maxSizeInBytes > 0 ? new MaskedValueCache(maxSizeInBytes) : null;
+    }
+
+    /**
+     * Returns the masked value for the given raw value. The returned array is shared and must not be modified.
+     */
+    byte[] mask(final MaskedField field, final byte[] value, final Function<byte[], byte[]> masker) {
+        final Key key = new Key(field, value);
+        byte[] masked = cache.getIfPresent(key);
+
+        if (masked == null) {
+            masked = masker.apply(value);
+            cache.put(key, masked);
+        }
+
+        return masked;
+    }
+
+    long size() {
+        return cache.size();
+    }
+
+    private static final class Key {
+        private final MaskedField field;
+        private final byte[] value;
+        private final int hashCode;
+
+        private Key(final MaskedField field, final byte[] value) {
+            this.field = field;
+            this.value = value;
+            this.hashCode = 31 * field.hashCode() + new BytesRef(value).hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            final Key other = (Key) obj;
+            return hashCode == other.hashCode && Arrays.equals(value, other.value) && field.equals(other.field);
+        }
+    }
+}
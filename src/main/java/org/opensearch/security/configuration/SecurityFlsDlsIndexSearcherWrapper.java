@@ -12,11 +12,16 @@
 package org.opensearch.security.configuration;
 
 import java.io.IOException;
-import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.LongSupplier;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.search.ConstantScoreQuery;
@@ -31,7 +36,9 @@ import org.opensearch.index.query.QueryShardContext;
 import org.opensearch.index.shard.ShardUtils;
 import org.opensearch.security.auditlog.AuditLog;
 import org.opensearch.security.compliance.ComplianceIndexingOperationListener;
+import org.opensearch.security.compliance.FieldReadAggregator;
 import org.opensearch.security.privileges.PrivilegesEvaluator;
+import org.opensearch.security.support.Base64Helper;
 import org.opensearch.security.support.ConfigConstants;
 import org.opensearch.security.support.HeaderHelper;
 import org.opensearch.security.support.SecurityUtils;
@@ -57,12 +64,23 @@ public class SecurityFlsDlsIndexSearcherWrapper extends SecurityIndexSearcherWra
         "_ttl",
         "_type"
     );
+
+    private static final int MAX_CACHED_READER_CONFIGS = 256;
+
     private final ClusterService clusterService;
     private final IndexService indexService;
     private final AuditLog auditlog;
     private final LongSupplier nowInMillis;
     private final DlsQueryParser dlsQueryParser;
     private final Salt salt;
+    private final DlsBitsetCache dlsBitsetCache;
+    private final MaskedValueCache maskedValueCache;
+    private final MaskedOrdinalsCache maskedOrdinalsCache;
+    private final FlsFieldInfosCache flsFieldInfosCache;
+    private final boolean aggregateReadHistory;
+    private final Cache<ReaderConfigKey, DlsFlsFilterLeafReader.ReaderConfig> readerConfigs = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_READER_CONFIGS)
+        .build();
 
     public SecurityFlsDlsIndexSearcherWrapper(
         final IndexService indexService,
@@ -72,14 +90,19 @@ public class SecurityFlsDlsIndexSearcherWrapper extends SecurityIndexSearcherWra
         final AuditLog auditlog,
         final ComplianceIndexingOperationListener ciol,
         final PrivilegesEvaluator evaluator,
-        final Salt salt
+        final Salt salt,
+        final DlsBitsetCache dlsBitsetCache,
+        final MaskedValueCache maskedValueCache,
+        final MaskedOrdinalsCache maskedOrdinalsCache,
+        final FlsFieldInfosCache flsFieldInfosCache,
+        final DlsQueryCache dlsQueryCache
     ) {
         super(indexService, settings, adminDNs, evaluator);
         ciol.setIs(indexService);
         this.clusterService = clusterService;
         this.indexService = indexService;
         this.auditlog = auditlog;
-        this.dlsQueryParser = new DlsQueryParser(indexService.xContentRegistry());
+        this.dlsQueryParser = new DlsQueryParser(indexService.xContentRegistry(), dlsQueryCache);
         final boolean allowNowinDlsQueries = settings.getAsBoolean(ConfigConstants.SECURITY_UNSUPPORTED_ALLOW_NOW_IN_DLS, false);
         if (allowNowinDlsQueries) {
             nowInMillis = () -> System.currentTimeMillis();
@@ -88,69 +111,172 @@ public class SecurityFlsDlsIndexSearcherWrapper extends SecurityIndexSearcherWra
         }
         log.debug("FLS/DLS {} enabled for index {}", this, indexService.index().getName());
         this.salt = salt;
+        this.dlsBitsetCache = dlsBitsetCache;
+        this.maskedValueCache = maskedValueCache;
+        this.maskedOrdinalsCache = maskedOrdinalsCache;
+        this.flsFieldInfosCache = flsFieldInfosCache;
+        this.aggregateReadHistory = settings.getAsBoolean(ConfigConstants.SECURITY_COMPLIANCE_HISTORY_READ_AGGREGATED, false);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     protected DirectoryReader dlsFlsWrap(final DirectoryReader reader, boolean isAdmin) throws IOException {
 
         final ShardId shardId = ShardUtils.extractShardId(reader);
+        final DlsFlsFilterLeafReader.ReaderConfig config = isAdmin
+            ? DlsFlsFilterLeafReader.ReaderConfig.UNRESTRICTED
+            : readerConfig(shardId);
+
+        return new DlsFlsFilterLeafReader.DlsFlsDirectoryReader(
+            reader,
+            config,
+            indexService,
+            threadContext,
+            clusterService,
+            auditlog,
+            shardId,
+            salt,
+            dlsBitsetCache,
+            maskedValueCache,
+            maskedOrdinalsCache,
+            aggregateReadHistory ? new FieldReadAggregator(threadContext, auditlog, indexService.index().getName(), shardId) : null
+        );
+    }
+
+    /**
+     * Returns the prepared restrictions for the FLS, DLS and masked field headers of the current request.
+     * These are cached by the raw header values, so that the headers are only deserialized and the DLS
+     * queries only parsed once per shard, mapping version and set of restrictions.
+     */
+    @VisibleForTesting
+    DlsFlsFilterLeafReader.ReaderConfig readerConfig(final ShardId shardId) throws IOException {
+        final String flsHeader = HeaderHelper.getSafeFromHeader(threadContext, ConfigConstants.OPENDISTRO_SECURITY_FLS_FIELDS_HEADER);
+        final String dlsHeader = HeaderHelper.getSafeFromHeader(threadContext, ConfigConstants.OPENDISTRO_SECURITY_DLS_QUERY_HEADER);
+        final String maskedHeader = HeaderHelper.getSafeFromHeader(threadContext, ConfigConstants.OPENDISTRO_SECURITY_MASKED_FIELD_HEADER);
+
+        if (Strings.isNullOrEmpty(flsHeader) && Strings.isNullOrEmpty(dlsHeader) && Strings.isNullOrEmpty(maskedHeader)) {
+            return DlsFlsFilterLeafReader.ReaderConfig.UNRESTRICTED;
+        }
+
+        final Boolean useJdkSerialization = threadContext.getTransient(ConfigConstants.USE_JDK_SERIALIZATION);
+        final ReaderConfigKey key = new ReaderConfigKey(
+            shardId.getId(),
+            indexService.getMetadata().getMappingVersion(),
+            flsHeader,
+            dlsHeader,
+            maskedHeader,
+            useJdkSerialization
+        );
+
+        DlsFlsFilterLeafReader.ReaderConfig config = readerConfigs.getIfPresent(key);
+
+        if (config == null) {
+            final QueryShardContext queryShardContext = this.indexService.newQueryShardContext(shardId.getId(), null, nowInMillis, null);
+            config = buildReaderConfig(flsHeader, dlsHeader, maskedHeader, useJdkSerialization, queryShardContext);
+
+            // DLS queries using "now" must be evaluated again for every request
+            if (!config.isTimeDependent()) {
+                readerConfigs.put(key, config);
+            }
+        }
+
+        return config;
+    }
 
+    @SuppressWarnings("unchecked")
+    private DlsFlsFilterLeafReader.ReaderConfig buildReaderConfig(
+        final String flsHeader,
+        final String dlsHeader,
+        final String maskedHeader,
+        final Boolean useJdkSerialization,
+        final QueryShardContext queryShardContext
+    ) throws IOException {
         Set<String> flsFields = null;
         Set<String> maskedFields = null;
         Query dlsQuery = null;
 
-        if (!isAdmin) {
-
-            final Map<String, Set<String>> allowedFlsFields = (Map<String, Set<String>>) HeaderHelper.deserializeSafeFromHeader(
-                threadContext,
-                ConfigConstants.OPENDISTRO_SECURITY_FLS_FIELDS_HEADER
-            );
-            final Map<String, Set<String>> queries = (Map<String, Set<String>>) HeaderHelper.deserializeSafeFromHeader(
-                threadContext,
-                ConfigConstants.OPENDISTRO_SECURITY_DLS_QUERY_HEADER
-            );
-            final Map<String, Set<String>> maskedFieldsMap = (Map<String, Set<String>>) HeaderHelper.deserializeSafeFromHeader(
-                threadContext,
-                ConfigConstants.OPENDISTRO_SECURITY_MASKED_FIELD_HEADER
-            );
-
-            final String flsEval = SecurityUtils.evalMap(allowedFlsFields, index.getName());
-            final String dlsEval = SecurityUtils.evalMap(queries, index.getName());
-            final String maskedEval = SecurityUtils.evalMap(maskedFieldsMap, index.getName());
-
-            if (flsEval != null) {
-                flsFields = Sets.union(metaFields, allowedFlsFields.get(flsEval));
-            }
+        final Map<String, Set<String>> allowedFlsFields = (Map<String, Set<String>>) deserialize(flsHeader, useJdkSerialization);
+        final Map<String, Set<String>> queries = (Map<String, Set<String>>) deserialize(dlsHeader, useJdkSerialization);
+        final Map<String, Set<String>> maskedFieldsMap = (Map<String, Set<String>>) deserialize(maskedHeader, useJdkSerialization);
 
-            if (dlsEval != null) {
-                Set<String> unparsedDlsQueries = queries.get(dlsEval);
+        final String flsEval = SecurityUtils.evalMap(allowedFlsFields, index.getName());
+        final String dlsEval = SecurityUtils.evalMap(queries, index.getName());
+        final String maskedEval = SecurityUtils.evalMap(maskedFieldsMap, index.getName());
 
-                if (unparsedDlsQueries != null && !unparsedDlsQueries.isEmpty()) {
-                    QueryShardContext queryShardContext = this.indexService.newQueryShardContext(shardId.getId(), null, nowInMillis, null);
-                    // no need for scoring here, so its possible to wrap this in a
-                    // ConstantScoreQuery
-                    dlsQuery = new ConstantScoreQuery(dlsQueryParser.parse(unparsedDlsQueries, queryShardContext).build());
-                }
-            }
+        if (flsEval != null) {
+            flsFields = ImmutableSet.copyOf(Sets.union(metaFields, allowedFlsFields.get(flsEval)));
+        }
+
+        if (dlsEval != null) {
+            Set<String> unparsedDlsQueries = queries.get(dlsEval);
 
-            if (maskedEval != null) {
-                maskedFields = new HashSet<>();
-                maskedFields.addAll(maskedFieldsMap.get(maskedEval));
+            if (unparsedDlsQueries != null && !unparsedDlsQueries.isEmpty()) {
+                // no need for scoring here, so its possible to wrap this in a
+                // ConstantScoreQuery
+                dlsQuery = new ConstantScoreQuery(dlsQueryParser.toQuery(unparsedDlsQueries, queryShardContext, false));
             }
         }
 
-        return new DlsFlsFilterLeafReader.DlsFlsDirectoryReader(
-            reader,
+        if (maskedEval != null) {
+            maskedFields = ImmutableSet.copyOf(maskedFieldsMap.get(maskedEval));
+        }
+
+        return new DlsFlsFilterLeafReader.ReaderConfig(
             flsFields,
             dlsQuery,
-            indexService,
-            threadContext,
-            clusterService,
-            auditlog,
             maskedFields,
-            shardId,
-            salt
+            !queryShardContext.isCacheable(),
+            salt,
+            maskedValueCache,
+            flsFieldInfosCache
         );
     }
+
+    private static Object deserialize(final String header, final Boolean useJdkSerialization) {
+        return Strings.isNullOrEmpty(header) ? null : Base64Helper.deserializeObject(header, useJdkSerialization);
+    }
+
+    private static final class ReaderConfigKey {
+        private final int shardId;
+        private final long mappingVersion;
+        private final String flsHeader;
+        private final String dlsHeader;
+        private final String maskedHeader;
+        private final Boolean useJdkSerialization;
+        private final int hashCode;
+
+        private ReaderConfigKey(
+            final int shardId,
+            final long mappingVersion,
+            final String flsHeader,
+            final String dlsHeader,
+            final String maskedHeader,
+            final Boolean useJdkSerialization
+        ) {
+            this.shardId = shardId;
+            this.mappingVersion = mappingVersion;
+            this.flsHeader = flsHeader;
+            this.dlsHeader = dlsHeader;
+            this.maskedHeader = maskedHeader;
+            this.useJdkSerialization = useJdkSerialization;
+            this.hashCode = Objects.hash(shardId, mappingVersion, flsHeader, dlsHeader, maskedHeader, useJdkSerialization);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof ReaderConfigKey)) return false;
+            final ReaderConfigKey other = (ReaderConfigKey) obj;
+            return shardId == other.shardId
+                && mappingVersion == other.mappingVersion
+                && Objects.equals(flsHeader, other.flsHeader)
+                && Objects.equals(dlsHeader, other.dlsHeader)
+                && Objects.equals(maskedHeader, other.maskedHeader)
+                && Objects.equals(useJdkSerialization, other.useJdkSerialization);
+        }
+    }
 }
@@ -0,0 +1,207 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionType;
+import org.opensearch.action.get.GetAction;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.client.Client;
+import org.opensearch.client.FilterClient;
+import org.opensearch.common.lucene.uid.Versions;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.action.ActionResponse;
+import org.opensearch.core.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.core.index.Index;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.engine.Engine;
+import org.opensearch.index.query.QueryRewriteContext;
+import org.opensearch.index.shard.IndexEventListener;
+import org.opensearch.index.shard.IndexingOperationListener;
+import org.opensearch.indices.cluster.IndicesClusterStateService.AllocatedIndices.IndexRemovalReason;
+import org.opensearch.security.support.ConfigConstants;
+
+/**
+ * Caches the documents fetched by terms lookup queries in filter level DLS queries. These are typically per user
+ * entitlement documents which would otherwise be fetched for every request.
+ * <p>
+ * Entries are invalidated when the document is written or deleted on a shard allocated to this node. As writes on
+ * other nodes are not visible here, entries also expire after
+ * {@link ConfigConstants#SECURITY_DLS_TERMS_LOOKUP_CACHE_EXPIRE_AFTER}, which thus bounds their staleness: an
+ * entitlement revoked on another node may keep granting access on this node for up to that time. The cache is
+ * therefore disabled unless {@link ConfigConstants#SECURITY_DLS_TERMS_LOOKUP_CACHE_SIZE} is set.
+ * <p>
+ * Only lookups by concrete index name and without routing are cached, as writes are only reported with these.
+ * Lookups done while FLS or field masking applies are not cached, as the fetched source depends on the user.
+ */
+public final class TermsLookupCache implements IndexingOperationListener, IndexEventListener {
+
+    private final Cache<Key, GetResponse> cache;
+    private final ThreadContext threadContext;
+    private final NamedXContentRegistry xContentRegistry;
+    private final NamedWriteableRegistry namedWriteableRegistry;
+
+    public TermsLookupCache(
+        Settings settings,
+        ThreadContext threadContext,
+        NamedXContentRegistry xContentRegistry,
+        NamedWriteableRegistry namedWriteableRegistry
+    ) {
+        final int size = settings.getAsInt(
+            ConfigConstants.SECURITY_DLS_TERMS_LOOKUP_CACHE_SIZE,
+            ConfigConstants.SECURITY_DLS_TERMS_LOOKUP_CACHE_SIZE_DEFAULT
+        );
+        final TimeValue expireAfter = settings.getAsTime(
+            ConfigConstants.SECURITY_DLS_TERMS_LOOKUP_CACHE_EXPIRE_AFTER,
+            ConfigConstants.SECURITY_DLS_TERMS_LOOKUP_CACHE_EXPIRE_AFTER_DEFAULT
+        );
+
+        if (size > 0 && expireAfter.millis() > 0) {
+            this.cache = CacheBuilder.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(expireAfter.millis(), TimeUnit.MILLISECONDS)
+                .build();
+        } else {
+            this.cache = null;
+        }
+
+        this.threadContext = threadContext;
+        this.xContentRegistry = xContentRegistry;
+        this.namedWriteableRegistry = namedWriteableRegistry;
+    }
+
+    /**
+     * @return a context for rewriting DLS queries, which fetches terms lookup documents via this cache
+     */
+    QueryRewriteContext rewriteContext(Client client) {
+        return new QueryRewriteContext(
+            xContentRegistry,
+            namedWriteableRegistry,
+            new CachingClient(client),
+            System::currentTimeMillis
+        );
+    }
+
+    long size() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    @Override
+    public void postIndex(ShardId shardId, Engine.Index index, Engine.IndexResult result) {
+        invalidate(shardId.getIndexName(), index.id());
+    }
+
+    @Override
+    public void postDelete(ShardId shardId, Engine.Delete delete, Engine.DeleteResult result) {
+        invalidate(shardId.getIndexName(), delete.id());
+    }
+
+    @Override
+    public void afterIndexRemoved(Index index, IndexSettings indexSettings, IndexRemovalReason reason) {
+        if (cache != null) {
+            cache.asMap().keySet().removeIf((key) -> key.index.equals(index.getName()));
+        }
+    }
+
+    void invalidate(String index, String id) {
+        if (cache != null) {
+            cache.invalidate(new Key(index, id));
+        }
+    }
+
+    private boolean isCacheable(GetRequest request) {
+        return cache != null
+            && request.routing() == null
+            && request.storedFields() == null
+            && request.version() == Versions.MATCH_ANY
+            && threadContext.getHeader(ConfigConstants.OPENDISTRO_SECURITY_FLS_FIELDS_HEADER) == null
+            && threadContext.getHeader(ConfigConstants.OPENDISTRO_SECURITY_MASKED_FIELD_HEADER) == null;
+    }
+
+    private final class CachingClient extends FilterClient {
+
+        CachingClient(Client in) {
+            super(in);
+        }
+
+        @Override
+        protected <Request extends ActionRequest, Response extends ActionResponse> void doExecute(
+            ActionType<Response> action,
+            Request request,
+            ActionListener<Response> listener
+        ) {
+            if (action != GetAction.INSTANCE || !isCacheable((GetRequest) request)) {
+                super.doExecute(action, request, listener);
+                return;
+            }
+
+            final GetRequest getRequest = (GetRequest) request;
+            final Key key = new Key(getRequest.index(), getRequest.id());
+            final GetResponse cached = cache.getIfPresent(key);
+
+            @SuppressWarnings("unchecked")
+            final ActionListener<GetResponse> getListener = (ActionListener<GetResponse>) listener;
+
+            if (cached != null) {
+                getListener.onResponse(cached);
+                return;
+            }
+
+            super.doExecute(GetAction.INSTANCE, getRequest, ActionListener.wrap(response -> {
+                // Aliases are not cached, as writes are only reported with the concrete index name
+                if (response.isExists() && response.getIndex().equals(getRequest.index())) {
+                    cache.put(key, response);
+                }
+                getListener.onResponse(response);
+            }, getListener::onFailure));
+        }
+    }
+
+    private static final class Key {
+        private final String index;
+        private final String id;
+
+        private Key(String index, String id) {
+            this.index = index;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return index.equals(key.index) && id.equals(key.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, id);
+        }
+    }
+}
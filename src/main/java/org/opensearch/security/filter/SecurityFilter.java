@@ -387,12 +387,13 @@ public class SecurityFilter implements ActionFilter {
             if (pres.isAllowed()) {
                 auditLog.logGrantedPrivileges(action, request, task);
                 auditLog.logIndexEvent(action, request, task);
-                if (!dlsFlsValve.invoke(action, request, listener, pres.getEvaluatedDlsFlsConfig(), pres.getResolved())) {
+                final ActionListener<Response> dlsFlsListener = dlsFlsValve.wrapListener(listener);
+                if (!dlsFlsValve.invoke(action, request, dlsFlsListener, pres.getEvaluatedDlsFlsConfig(), pres.getResolved())) {
                     return;
                 }
                 final CreateIndexRequestBuilder createIndexRequestBuilder = pres.getCreateIndexRequestBuilder();
                 if (createIndexRequestBuilder == null) {
-                    chain.proceed(task, action, request, listener);
+                    chain.proceed(task, action, request, dlsFlsListener);
                 } else {
                     CreateIndexRequest createIndexRequest = createIndexRequestBuilder.request();
                     log.info(
@@ -411,7 +412,7 @@ public class SecurityFilter implements ActionFilter {
                                     alias2Name(createIndexRequest.aliases()),
                                     request.getClass().getSimpleName()
                                 );
-                                chain.proceed(task, action, request, listener);
+                                chain.proceed(task, action, request, dlsFlsListener);
                             } else {
                                 String message = LoggerMessageFormat.format(
                                     "Request to create index {} with aliases {} was not acknowledged, failing {}",
@@ -420,7 +421,7 @@ public class SecurityFilter implements ActionFilter {
                                     request.getClass().getSimpleName()
                                 );
                                 log.error(message);
-                                listener.onFailure(new OpenSearchException(message));
+                                dlsFlsListener.onFailure(new OpenSearchException(message));
                             }
                         }
 
@@ -435,7 +436,7 @@ public class SecurityFilter implements ActionFilter {
                                     request.getClass().getSimpleName(),
                                     e
                                 );
-                                chain.proceed(task, action, request, listener);
+                                chain.proceed(task, action, request, dlsFlsListener);
                             } else {
                                 log.error(
                                     "Request to create index {} with aliases {} failed, failing {}",
@@ -444,7 +445,7 @@ public class SecurityFilter implements ActionFilter {
                                     request.getClass().getSimpleName(),
                                     e
                                 );
-                                listener.onFailure(e);
+                                dlsFlsListener.onFailure(e);
                             }
                         }
                     });
@@ -54,6 +54,8 @@ import org.apache.hc.core5.ssl.SSLContexts;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.index.IndexResponse;
 import org.opensearch.action.support.WriteRequest.RefreshPolicy;
@@ -63,6 +65,7 @@ import org.opensearch.client.RestClient;
 import org.opensearch.client.RestClientBuilder;
 import org.opensearch.client.RestHighLevelClient;
 import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.action.ActionListener;
 
 public class HttpClient implements Closeable {
 
@@ -241,6 +244,13 @@ public class HttpClient implements Closeable {
         }
     }
 
+    /**
+     * Sends the given bulk request without blocking; requests are distributed over the configured servers.
+     */
+    public void bulkAsync(final BulkRequest request, final ActionListener<BulkResponse> listener) {
+        rclient.bulkAsync(request, RequestOptions.DEFAULT, listener);
+    }
+
     private final HttpAsyncClientBuilder asyncClientBuilder(HttpAsyncClientBuilder httpClientBuilder) throws NoSuchAlgorithmException,
         KeyStoreException, UnrecoverableKeyException, KeyManagementException {
 
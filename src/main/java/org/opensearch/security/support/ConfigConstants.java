@@ -37,6 +37,7 @@ import com.google.common.collect.ImmutableSet;
 
 import org.opensearch.Version;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.security.auditlog.impl.AuditCategory;
 
 public class ConfigConstants {
@@ -151,6 +152,17 @@ public class ConfigConstants {
     public static final String SECURITY_AUDIT_CONFIG_ENDPOINTS = "plugins.security.audit.endpoints";
     public static final String SECURITY_AUDIT_THREADPOOL_SIZE = "plugins.security.audit.threadpool.size";
     public static final String SECURITY_AUDIT_THREADPOOL_MAX_QUEUE_LEN = "plugins.security.audit.threadpool.max_queue_len";
+    public static final String SECURITY_AUDIT_SPOOL_ENABLED = "plugins.security.audit.spool.enabled";
+    public static final String SECURITY_AUDIT_SPOOL_PATH = "plugins.security.audit.spool.path";
+    public static final String SECURITY_AUDIT_SPOOL_SEGMENT_SIZE = "plugins.security.audit.spool.segment_size";
+    public static final String SECURITY_AUDIT_SPOOL_SEGMENT_SIZE_DEFAULT = "64mb";
+    public static final String SECURITY_AUDIT_SPOOL_MAX_SIZE = "plugins.security.audit.spool.max_size";
+    public static final String SECURITY_AUDIT_SPOOL_MAX_SIZE_DEFAULT = "1gb";
+    public static final String SECURITY_AUDIT_CONFIG_AGGREGATED_CATEGORIES = "plugins.security.audit.config.aggregated_categories";
+    public static final String SECURITY_AUDIT_AGGREGATION_MAX_ENTRIES = "plugins.security.audit.aggregation.max_entries";
+    public static final int SECURITY_AUDIT_AGGREGATION_MAX_ENTRIES_DEFAULT = 10000;
+    public static final String SECURITY_AUDIT_REQUEST_BODY_MAX_SIZE = "plugins.security.audit.request_body.max_size";
+    public static final String SECURITY_AUDIT_REQUEST_BODY_MAX_SIZE_DEFAULT = "1mb";
     public static final String OPENDISTRO_SECURITY_AUDIT_LOG_REQUEST_BODY = "opendistro_security.audit.log_request_body";
     public static final String OPENDISTRO_SECURITY_AUDIT_RESOLVE_INDICES = "opendistro_security.audit.resolve_indices";
     public static final String OPENDISTRO_SECURITY_AUDIT_ENABLE_REST = "opendistro_security.audit.enable_rest";
@@ -198,9 +210,42 @@ public class ConfigConstants {
     public static final String SECURITY_AUDIT_WEBHOOK_URL = "webhook.url";
     public static final String SECURITY_AUDIT_WEBHOOK_FORMAT = "webhook.format";
     public static final String SECURITY_AUDIT_WEBHOOK_SSL_VERIFY = "webhook.ssl.verify";
+    public static final String SECURITY_AUDIT_WEBHOOK_BATCH_PAYLOAD = "webhook.batch.payload";
+    public static final String SECURITY_AUDIT_WEBHOOK_BATCH_PAYLOAD_NDJSON = "ndjson";
+    public static final String SECURITY_AUDIT_WEBHOOK_BATCH_PAYLOAD_JSON_ARRAY = "json_array";
     public static final String SECURITY_AUDIT_WEBHOOK_PEMTRUSTEDCAS_FILEPATH = "webhook.ssl.pemtrustedcas_filepath";
     public static final String SECURITY_AUDIT_WEBHOOK_PEMTRUSTEDCAS_CONTENT = "webhook.ssl.pemtrustedcas_content";
 
+    // Batching
+    public static final String SECURITY_AUDIT_BATCH_ENABLED = "batch.enabled";
+    public static final String SECURITY_AUDIT_BATCH_MAX_MESSAGES = "batch.max_messages";
+    public static final int SECURITY_AUDIT_BATCH_MAX_MESSAGES_DEFAULT = 500;
+    public static final String SECURITY_AUDIT_BATCH_MAX_SIZE = "batch.max_size";
+    public static final String SECURITY_AUDIT_BATCH_MAX_SIZE_DEFAULT = "5mb";
+    public static final String SECURITY_AUDIT_BATCH_LINGER = "batch.linger";
+    public static final TimeValue SECURITY_AUDIT_BATCH_LINGER_DEFAULT = TimeValue.timeValueSeconds(1);
+    public static final String SECURITY_AUDIT_BATCH_MAX_IN_FLIGHT = "batch.max_in_flight";
+    public static final int SECURITY_AUDIT_BATCH_MAX_IN_FLIGHT_DEFAULT = 2;
+    public static final String SECURITY_AUDIT_BATCH_MAX_QUEUED_MESSAGES = "batch.max_queued_messages";
+    public static final int SECURITY_AUDIT_BATCH_MAX_QUEUED_MESSAGES_DEFAULT = 10000;
+
+    // Sink executors
+    public static final String SECURITY_AUDIT_EXECUTOR_THREADS = "executor.threads";
+    public static final String SECURITY_AUDIT_EXECUTOR_QUEUE_SIZE = "executor.queue_size";
+    public static final String SECURITY_AUDIT_EXECUTOR_OVERFLOW = "executor.overflow";
+    public static final String SECURITY_AUDIT_EXECUTOR_OVERFLOW_BLOCK = "block";
+    public static final String SECURITY_AUDIT_EXECUTOR_OVERFLOW_DROP_OLDEST = "drop_oldest";
+    public static final String SECURITY_AUDIT_EXECUTOR_OVERFLOW_FALLBACK = "fallback";
+
+    // Kafka
+    public static final String SECURITY_AUDIT_KAFKA_FORMAT = "kafka.format";
+    public static final String SECURITY_AUDIT_KAFKA_KEY = "kafka.key";
+    public static final String SECURITY_AUDIT_KAFKA_KEY_NONE = "none";
+    public static final String SECURITY_AUDIT_KAFKA_KEY_USER = "user";
+    public static final String SECURITY_AUDIT_KAFKA_KEY_INDEX = "index";
+    public static final String SECURITY_AUDIT_KAFKA_MAX_IN_FLIGHT_MESSAGES = "kafka.max_in_flight_messages";
+    public static final int SECURITY_AUDIT_KAFKA_MAX_IN_FLIGHT_MESSAGES_DEFAULT = 10000;
+
     // Log4j
     public static final String SECURITY_AUDIT_LOG4J_LOGGER_NAME = "log4j.logger_name";
     public static final String SECURITY_AUDIT_LOG4J_LEVEL = "log4j.level";
@@ -231,12 +276,19 @@ public class ConfigConstants {
         "opendistro_security.compliance.history.write.metadata_only";
     public static final String OPENDISTRO_SECURITY_COMPLIANCE_HISTORY_READ_METADATA_ONLY =
         "opendistro_security.compliance.history.read.metadata_only";
+    public static final String SECURITY_COMPLIANCE_HISTORY_READ_AGGREGATED = "plugins.security.compliance.history.read.aggregated";
     public static final String OPENDISTRO_SECURITY_COMPLIANCE_HISTORY_READ_WATCHED_FIELDS =
         "opendistro_security.compliance.history.read.watched_fields";
     public static final String OPENDISTRO_SECURITY_COMPLIANCE_HISTORY_WRITE_WATCHED_INDICES =
         "opendistro_security.compliance.history.write.watched_indices";
     public static final String OPENDISTRO_SECURITY_COMPLIANCE_HISTORY_WRITE_LOG_DIFFS =
         "opendistro_security.compliance.history.write.log_diffs";
+    public static final String SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_SOURCE_SIZE =
+        "plugins.security.compliance.history.write.diff_max_source_size";
+    public static final String SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_SOURCE_SIZE_DEFAULT = "256kb";
+    public static final String SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_QUEUED_SIZE =
+        "plugins.security.compliance.history.write.diff_max_queued_size";
+    public static final String SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_QUEUED_SIZE_DEFAULT = "64mb";
     public static final String OPENDISTRO_SECURITY_COMPLIANCE_HISTORY_READ_IGNORE_USERS =
         "opendistro_security.compliance.history.read.ignore_users";
     public static final String OPENDISTRO_SECURITY_COMPLIANCE_HISTORY_WRITE_IGNORE_USERS =
@@ -267,6 +319,22 @@ public class ConfigConstants {
 
     public static final String SECURITY_FILTER_SECURITYINDEX_FROM_ALL_REQUESTS = "plugins.security.filter_securityindex_from_all_requests";
     public static final String SECURITY_DLS_MODE = "plugins.security.dls.mode";
+    public static final String SECURITY_DLS_FLS_REQUEST_CACHE_ENABLED = "plugins.security.dls_fls.request_cache.enabled";
+    public static final boolean SECURITY_DLS_FLS_REQUEST_CACHE_ENABLED_DEFAULT = true;
+    public static final String SECURITY_DLS_FILTER_LEVEL_REALTIME_GET_ENABLED = "plugins.security.dls.filter_level.realtime_get.enabled";
+    public static final boolean SECURITY_DLS_FILTER_LEVEL_REALTIME_GET_ENABLED_DEFAULT = true;
+    public static final String SECURITY_DLS_TERMS_LOOKUP_CACHE_SIZE = "plugins.security.dls.terms_lookup_cache.size";
+    public static final int SECURITY_DLS_TERMS_LOOKUP_CACHE_SIZE_DEFAULT = 0;
+    public static final String SECURITY_DLS_TERMS_LOOKUP_CACHE_EXPIRE_AFTER = "plugins.security.dls.terms_lookup_cache.expire_after";
+    public static final TimeValue SECURITY_DLS_TERMS_LOOKUP_CACHE_EXPIRE_AFTER_DEFAULT = TimeValue.timeValueSeconds(10);
+    public static final String SECURITY_DLS_BITSET_CACHE_SIZE = "plugins.security.dls.bitset_cache.size";
+    public static final String SECURITY_DLS_BITSET_CACHE_SIZE_DEFAULT = "1%";
+    public static final String SECURITY_DLS_QUERY_CACHE_SIZE = "plugins.security.dls.query_cache.size";
+    public static final String SECURITY_DLS_QUERY_CACHE_SIZE_DEFAULT = "10mb";
+    public static final String SECURITY_MASKED_FIELDS_CACHE_SIZE = "plugins.security.masked_fields.cache.size";
+    public static final String SECURITY_MASKED_FIELDS_CACHE_SIZE_DEFAULT = "0b";
+    public static final String SECURITY_MASKED_FIELDS_ORDINALS_CACHE_SIZE = "plugins.security.masked_fields.ordinals_cache.size";
+    public static final String SECURITY_MASKED_FIELDS_ORDINALS_CACHE_SIZE_DEFAULT = "1%";
     // REST API
     public static final String SECURITY_RESTAPI_ROLES_ENABLED = "plugins.security.restapi.roles_enabled";
     public static final String SECURITY_RESTAPI_ADMIN_ENABLED = "plugins.security.restapi.admin.enabled";
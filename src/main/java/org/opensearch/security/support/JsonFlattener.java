@@ -14,6 +14,8 @@ import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 
 import org.opensearch.core.common.Strings;
@@ -21,6 +23,20 @@ import org.opensearch.security.DefaultObjectMapper;
 
 public class JsonFlattener {
 
+    /**
+     * Receives the flattened paths of a document. Paths are the same as the keys of {@link #flattenAsMap(String)}.
+     */
+    public interface FieldVisitor {
+
+        /**
+         * @param isString whether the value of the path is a string
+         * @return true if the value of the path shall be passed to {@link #value(String, Object)}
+         */
+        boolean needsValue(String path, boolean isString);
+
+        void value(String path, Object value);
+    }
+
     public static Map<String, Object> flattenAsMap(String jsonString) {
         try {
             final TypeReference<Map<String, Object>> typeReference = new TypeReference<>() {
@@ -63,4 +79,92 @@ public class JsonFlattener {
         }
     }
 
+    /**
+     * Streaming variant of {@link #flattenAsMap(String)}: the tokens of the given JSON object are only walked once
+     * and values are only materialized for the paths for which the visitor asks.
+     */
+    public static void flatten(final byte[] json, final FieldVisitor visitor) {
+        try (final JsonParser parser = DefaultObjectMapper.objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Unparseable json");
+            }
+            flattenObject(parser, new StringBuilder(), visitor);
+        } catch (final IOException ioe) {
+            throw new IllegalArgumentException("Unparseable json", ioe);
+        }
+    }
+
+    /**
+     * Variant of {@link #flatten(byte[], FieldVisitor)} for already parsed documents
+     */
+    public static void flatten(final Map<String, Object> jsonMap, final FieldVisitor visitor) {
+        visitChildren("", jsonMap, visitor);
+    }
+
+    private static void flattenObject(final JsonParser parser, final StringBuilder path, final FieldVisitor visitor) throws IOException {
+        final int length = path.length();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (length > 0) {
+                path.append('.');
+            }
+            path.append(parser.currentName());
+            parser.nextToken();
+            flattenToken(parser, path, visitor);
+            path.setLength(length);
+        }
+    }
+
+    private static void flattenArray(final JsonParser parser, final StringBuilder path, final FieldVisitor visitor) throws IOException {
+        final int length = path.length();
+        int counter = 0;
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            path.append('[').append(counter++).append(']');
+            flattenToken(parser, path, visitor);
+            path.setLength(length);
+        }
+    }
+
+    private static void flattenToken(final JsonParser parser, final StringBuilder path, final FieldVisitor visitor) throws IOException {
+        final JsonToken token = parser.currentToken();
+        final String key = path.toString();
+
+        if (!visitor.needsValue(key, token == JsonToken.VALUE_STRING)) {
+            if (token == JsonToken.START_OBJECT) {
+                flattenObject(parser, path, visitor);
+            } else if (token == JsonToken.START_ARRAY) {
+                flattenArray(parser, path, visitor);
+            }
+            return;
+        }
+
+        final Object value = parser.readValueAs(Object.class);
+        visitChildren(key, value, visitor);
+        visitor.value(key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void visitChildren(final String prefix, final Object source, final FieldVisitor visitor) {
+        if (source instanceof Iterable) {
+            int counter = 0;
+            for (final Object o : (Iterable<Object>) source) {
+                visitElement(prefix + "[" + counter + "]", o, visitor);
+                counter++;
+            }
+        }
+        if (source instanceof Map) {
+            final String keyPrefix = Strings.isNullOrEmpty(prefix) ? "" : prefix + ".";
+            for (final Map.Entry<String, Object> e : ((Map<String, Object>) source).entrySet()) {
+                visitElement(keyPrefix.concat(e.getKey()), e.getValue(), visitor);
+            }
+        }
+    }
+
+    private static void visitElement(final String path, final Object value, final FieldVisitor visitor) {
+        visitChildren(path, value, visitor);
+        if (visitor.needsValue(path, value instanceof String)) {
+            visitor.value(path, value);
+        }
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.support;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.opensearch.core.xcontent.XContentBuilder;
+
+/**
+ * Lock-free histogram of latencies with fixed buckets from 1ms to 30s.
+ * <p>
+ * A latency is counted in the first bucket whose bound it is below, {@code lt_<bound>}; latencies of at least the
+ * last bound are counted in the {@code lt_inf} bucket. Besides the buckets, the number, the sum and the maximum of all
+ * latencies are kept. Percentiles are reported as the upper bound of the bucket they fall into.
+ */
+public final class LatencyHistogram {
+
+    private static final long[] BOUNDS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000 };
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        final long millis = TimeUnit.NANOSECONDS.toMillis(value);
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && millis >= BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        sumNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return the upper bound of the bucket containing the given percentile in milliseconds; -1 if there are no samples
+     * or the percentile exceeds the largest bucket
+     */
+    public long percentileMillis(final double percentile) {
+        final long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+
+        final long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return BOUNDS_MILLIS[i];
+            }
+        }
+        return -1;
+    }
+
+    public XContentBuilder toXContent(final String name, final XContentBuilder builder) throws IOException {
+        final long total = count.sum();
+        builder.startObject(name);
+        builder.field("count", total);
+        builder.field("avg_in_millis", total == 0 ? 0.0 : sumNanos.sum() / (double) total / TimeUnit.MILLISECONDS.toNanos(1));
+        builder.field("max_in_millis", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+        builder.field("p50_in_millis", percentileMillis(50));
+        builder.field("p99_in_millis", percentileMillis(99));
+        builder.startObject("buckets");
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            builder.field("lt_" + BOUNDS_MILLIS[i], buckets[i].sum());
+        }
+        builder.field("lt_inf", buckets[BOUNDS_MILLIS.length].sum());
+        builder.endObject();
+        return builder.endObject();
+    }
+}
@@ -136,4 +136,32 @@ public class ComplianceConfigTest {
         assertSame(WildcardMatcher.NONE, complianceConfig.getIgnoredComplianceUsersForReadMatcher());
         assertSame(WildcardMatcher.NONE, complianceConfig.getIgnoredComplianceUsersForWriteMatcher());
     }
+
+    @Test
+    public void testReadFieldsMatcherSharedByPattern() {
+        // arrange
+        final Settings settings = Settings.builder()
+            .putList(
+                ConfigConstants.OPENDISTRO_SECURITY_COMPLIANCE_HISTORY_READ_WATCHED_FIELDS,
+                "logs-*,message,user*",
+                "logs-web-*,status"
+            )
+            .build();
+        // act
+        final ComplianceConfig complianceConfig = ComplianceConfig.from(settings);
+        final WildcardMatcher logs = complianceConfig.readHistoryEnabledFieldsMatcher("logs-2024.01.01");
+        final WildcardMatcher web = complianceConfig.readHistoryEnabledFieldsMatcher("logs-web-2024.01.01");
+        // assert
+        assertSame(logs, complianceConfig.readHistoryEnabledFieldsMatcher("logs-2024.01.02"));
+        assertSame(web, complianceConfig.readHistoryEnabledFieldsMatcher("logs-web-2024.01.02"));
+        assertSame(WildcardMatcher.NONE, complianceConfig.readHistoryEnabledFieldsMatcher("metrics-2024.01.01"));
+        for (int i = 0; i < 2; i++) {
+            assertTrue(logs.test("message"));
+            assertTrue(logs.test("user_name"));
+            assertFalse(logs.test("status"));
+            assertTrue(web.test("message"));
+            assertTrue(web.test("status"));
+            assertFalse(web.test("host"));
+        }
+    }
 }
@@ -20,6 +20,8 @@ import java.util.function.Function;
 import com.google.common.collect.ImmutableSet;
 import org.junit.Test;
 
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.search.SearchRequest;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.security.auditlog.config.AuditConfig.Filter.FilterEntries;
 import org.opensearch.security.auditlog.impl.AuditCategory;
@@ -132,6 +134,25 @@ public class AuditConfigFilterTest {
         assertTrue(auditConfigFilter.getDisabledTransportCategories().isEmpty());
     }
 
+    @Test
+    public void testCompiledChecks() {
+        // arrange
+        final Settings settings = Settings.builder()
+            .put(ConfigConstants.OPENDISTRO_SECURITY_AUDIT_ENABLE_REST, false)
+            .putList(ConfigConstants.OPENDISTRO_SECURITY_AUDIT_IGNORE_REQUESTS, "Search*")
+            .putList(ConfigConstants.OPENDISTRO_SECURITY_AUDIT_CONFIG_DISABLED_TRANSPORT_CATEGORIES, BAD_HEADERS.toString())
+            .build();
+        // act
+        final AuditConfig.Filter auditConfigFilter = AuditConfig.Filter.from(settings);
+        // assert
+        for (AuditCategory category : AuditCategory.values()) {
+            assertFalse(auditConfigFilter.isRestCategoryAudited(category));
+            assertEquals(category != BAD_HEADERS, auditConfigFilter.isTransportCategoryAudited(category));
+        }
+        assertTrue(auditConfigFilter.isRequestAuditDisabled(SearchRequest.class));
+        assertFalse(auditConfigFilter.isRequestAuditDisabled(IndexRequest.class));
+    }
+
     @Test
     public void testFilterEntries() {
         assertThat(FilterEntries.ENABLE_REST.getKey(), equalTo("enable_rest"));
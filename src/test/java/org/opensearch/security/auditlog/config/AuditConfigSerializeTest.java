@@ -25,6 +25,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.XContentFactory;
 import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.security.auditlog.impl.AuditCategory;
@@ -33,10 +34,15 @@ import org.opensearch.security.support.ConfigConstants;
 import org.opensearch.security.support.WildcardMatcher;
 
 import static org.opensearch.security.auditlog.impl.AuditCategory.AUTHENTICATED;
+import static org.opensearch.security.auditlog.impl.AuditCategory.COMPLIANCE_DOC_READ;
+import static org.opensearch.security.auditlog.impl.AuditCategory.COMPLIANCE_DOC_WRITE;
+import static org.opensearch.security.auditlog.impl.AuditCategory.COMPLIANCE_INTERNAL_CONFIG_WRITE;
 import static org.opensearch.security.auditlog.impl.AuditCategory.GRANTED_PRIVILEGES;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 public class AuditConfigSerializeTest {
@@ -311,6 +317,41 @@ public class AuditConfigSerializeTest {
         assertEquals(".opendistro_security", configCompliance.getSecurityIndex());
     }
 
+    @Test
+    public void testAggregatedCategoriesRoundTrip() throws IOException {
+        // arrange
+        final String json = "{\"audit\":{\"aggregated_categories\":{\"index_event\":\"10s\",\"GRANTED_PRIVILEGES\":\"1m\"}}}";
+        // act
+        final AuditConfig auditConfig = objectMapper.readValue(json, AuditConfig.class);
+        final AuditConfig.Filter audit = auditConfig.getFilter();
+        final AuditConfig.Filter reread = objectMapper.readValue(objectMapper.writeValueAsString(audit), AuditConfig.Filter.class);
+        // assert
+        assertEquals(TimeValue.timeValueSeconds(10), audit.getAggregationWindow(AuditCategory.INDEX_EVENT));
+        assertEquals(TimeValue.timeValueMinutes(1), audit.getAggregationWindow(GRANTED_PRIVILEGES));
+        assertNull(audit.getAggregationWindow(AUTHENTICATED));
+        assertEquals(audit.getAggregatedCategories(), reread.getAggregatedCategories());
+        assertFalse(objectMapper.writeValueAsString(AuditConfig.Filter.DEFAULT).contains("aggregated_categories"));
+    }
+
+    @Test
+    public void testAggregatedCategoriesAreValidated() {
+        final String key = ConfigConstants.SECURITY_AUDIT_CONFIG_AGGREGATED_CATEGORIES;
+
+        final IllegalArgumentException unknown = assertThrows(
+            IllegalArgumentException.class,
+            () -> AuditConfig.Filter.from(Settings.builder().put(key + ".unknown", "10s").build())
+        );
+        assertTrue(unknown.getMessage().contains("Unknown audit category unknown"));
+
+        for (final AuditCategory category : EnumSet.of(COMPLIANCE_DOC_READ, COMPLIANCE_DOC_WRITE, COMPLIANCE_INTERNAL_CONFIG_WRITE)) {
+            final IllegalArgumentException compliance = assertThrows(
+                IllegalArgumentException.class,
+                () -> AuditConfig.Filter.from(Settings.builder().put(key + "." + category, "10s").build())
+            );
+            assertTrue(compliance.getMessage().contains("cannot be aggregated"));
+        }
+    }
+
     @Test
     public void testCustomSettings() throws IOException {
         // arrange
@@ -0,0 +1,102 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.impl;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.security.auditlog.config.AuditConfig;
+import org.opensearch.security.auditlog.helper.MockAuditMessageFactory;
+import org.opensearch.security.support.ConfigConstants;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+public class AuditMessageAggregatorTest {
+
+    private static final AuditConfig.Filter FILTER = AuditConfig.Filter.from(
+        Settings.builder()
+            .put(ConfigConstants.SECURITY_AUDIT_CONFIG_AGGREGATED_CATEGORIES + ".index_event", "100ms")
+            .put(ConfigConstants.SECURITY_AUDIT_CONFIG_AGGREGATED_CATEGORIES + ".GRANTED_PRIVILEGES", "1h")
+            .build()
+    );
+
+    @Test
+    public void testIdenticalEventsAreAggregated() throws Exception {
+        final List<AuditMessage> emitted = new CopyOnWriteArrayList<>();
+        try (AuditMessageAggregator aggregator = new AuditMessageAggregator(100, emitted::add)) {
+            aggregator.setFilter(FILTER);
+            final AuditMessage first = message(AuditCategory.INDEX_EVENT, "index-1");
+            Assert.assertTrue(aggregator.aggregate(first));
+            Assert.assertTrue(aggregator.aggregate(message(AuditCategory.INDEX_EVENT, "index-1")));
+            Assert.assertTrue(aggregator.aggregate(message(AuditCategory.INDEX_EVENT, "index-1")));
+            Assert.assertTrue(aggregator.aggregate(message(AuditCategory.INDEX_EVENT, "index-2")));
+            Assert.assertEquals(2, aggregator.size());
+
+            awaitEmitted(emitted, 2);
+            Assert.assertEquals(0, aggregator.size());
+            final AuditMessage aggregated = emitted.stream().filter(msg -> msg == first).findFirst().orElseThrow();
+            Assert.assertEquals(3, aggregated.getAsMap().get(AuditMessage.AGGREGATION_COUNT));
+            Assert.assertEquals(first.getTimestamp(), aggregated.getAsMap().get(AuditMessage.AGGREGATION_FIRST_TIMESTAMP));
+            Assert.assertNotNull(aggregated.getAsMap().get(AuditMessage.AGGREGATION_LAST_TIMESTAMP));
+            final AuditMessage single = emitted.stream().filter(msg -> msg != first).findFirst().orElseThrow();
+            Assert.assertNull(single.getAsMap().get(AuditMessage.AGGREGATION_COUNT));
+
+            // a new window is opened after the previous one was emitted
+            Assert.assertTrue(aggregator.aggregate(message(AuditCategory.INDEX_EVENT, "index-1")));
+            awaitEmitted(emitted, 3);
+        }
+    }
+
+    @Test
+    public void testOtherCategoriesAreNotAggregated() {
+        try (AuditMessageAggregator aggregator = new AuditMessageAggregator(100, msg -> Assert.fail("unexpected " + msg))) {
+            Assert.assertFalse(aggregator.aggregate(message(AuditCategory.INDEX_EVENT, "index-1")));
+            aggregator.setFilter(FILTER);
+            Assert.assertFalse(aggregator.aggregate(message(AuditCategory.FAILED_LOGIN, "index-1")));
+            Assert.assertEquals(0, aggregator.size());
+        }
+    }
+
+    @Test
+    public void testBoundedAndFlushedOnClose() {
+        final List<AuditMessage> emitted = new CopyOnWriteArrayList<>();
+        final AuditMessageAggregator aggregator = new AuditMessageAggregator(2, emitted::add);
+        aggregator.setFilter(FILTER);
+        Assert.assertTrue(aggregator.aggregate(message(AuditCategory.GRANTED_PRIVILEGES, "index-1")));
+        Assert.assertTrue(aggregator.aggregate(message(AuditCategory.GRANTED_PRIVILEGES, "index-2")));
+        Assert.assertTrue(aggregator.aggregate(message(AuditCategory.GRANTED_PRIVILEGES, "index-2")));
+        Assert.assertFalse(aggregator.aggregate(message(AuditCategory.GRANTED_PRIVILEGES, "index-3")));
+        Assert.assertTrue(emitted.isEmpty());
+
+        aggregator.close();
+
+        Assert.assertEquals(2, emitted.size());
+        Assert.assertEquals(0, aggregator.size());
+        Assert.assertFalse(aggregator.aggregate(message(AuditCategory.GRANTED_PRIVILEGES, "index-1")));
+    }
+
+    private static AuditMessage message(final AuditCategory category, final String index) {
+        final AuditMessage msg = MockAuditMessageFactory.validAuditMessage(category);
+        msg.addIndices(new String[] { index });
+        return msg;
+    }
+
+    private static void awaitEmitted(final List<AuditMessage> emitted, final int expected) {
+        Awaitility.await().until(emitted::size, greaterThanOrEqualTo(expected));
+        Assert.assertEquals(expected, emitted.size());
+    }
+}
@@ -25,13 +25,16 @@ import org.opensearch.cluster.ClusterName;
 import org.opensearch.cluster.node.DiscoveryNode;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.xcontent.XContentHelper;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.core.common.bytes.BytesReference;
 import org.opensearch.security.auditlog.AuditLog;
 import org.opensearch.security.securityconf.impl.CType;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -141,4 +144,41 @@ public class AuditMessageTest {
         message.addSecurityConfigTupleToRequestBody(new Tuple<>(XContentType.JSON, ref), internalUsersDocId);
         assertEquals("Hash in tuple is __HASH__", message.getAsMap().get(AuditMessage.REQUEST_BODY));
     }
+
+    @Test
+    public void testComplianceWriteDiffHashes() {
+        message.addComplianceWriteDiffHashes("abc", "def");
+        assertEquals("abc", message.getAsMap().get(AuditMessage.COMPLIANCE_DIFF_ORIGINAL_SHA256));
+        assertEquals("def", message.getAsMap().get(AuditMessage.COMPLIANCE_DIFF_CURRENT_SHA256));
+        assertEquals(false, message.getAsMap().get(AuditMessage.COMPLIANCE_DIFF_IS_NOOP));
+
+        message.addComplianceWriteDiffHashes("abc", "abc");
+        assertEquals(true, message.getAsMap().get(AuditMessage.COMPLIANCE_DIFF_IS_NOOP));
+    }
+
+    @Test
+    public void testSerializationIsSharedUntilModified() {
+        final BytesReference json = message.toJsonBytes();
+        assertSame(json, message.toJsonBytes());
+        assertEquals(json.utf8ToString(), message.toString());
+
+        message.addEffectiveUser("user");
+        assertNotSame(json, message.toJsonBytes());
+
+        final Map<String, Object> parsed = XContentHelper.convertToMap(message.toJsonBytes(), false, XContentType.JSON).v2();
+        assertEquals("user", parsed.get(AuditMessage.REQUEST_EFFECTIVE_USER));
+        assertEquals(parsed, XContentHelper.convertToMap(message.toBytes(XContentType.SMILE), false, XContentType.SMILE).v2());
+    }
+
+    @Test
+    public void testFromMap() {
+        message.addEffectiveUser("user");
+        final Map<String, Object> parsed = XContentHelper.convertToMap(message.toJsonBytes(), false, XContentType.JSON).v2();
+
+        final AuditMessage restored = AuditMessage.fromMap(parsed);
+        assertEquals(AuditCategory.AUTHENTICATED, restored.getCategory());
+        assertEquals(AuditLog.Origin.REST, restored.getOrigin());
+        assertEquals("user", restored.getEffectiveUser());
+        assertEquals(parsed, XContentHelper.convertToMap(restored.toJsonBytes(), false, XContentType.JSON).v2());
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.ToXContent;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.security.auditlog.helper.MockAuditMessageFactory;
+import org.opensearch.security.support.ConfigConstants;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RequestBodyCaptureTest {
+
+    private static final String SOURCE = "{\"field\":\"value\"}";
+
+    @Test
+    public void testCapturedBodyIsConvertedOnRead() {
+        final RequestBodyCapture capture = new RequestBodyCapture(-1);
+        final AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+
+        capture.capture(msg, null, new BytesArray(SOURCE));
+
+        assertEquals(SOURCE, msg.getRequestBody());
+        assertFalse(msg.getAsMap().containsKey(AuditMessage.REQUEST_BODY_TRUNCATED));
+        assertTrue(msg.toString().contains("\"audit_request_body\":\"{\\\"field\\\":\\\"value\\\"}\""));
+    }
+
+    @Test
+    public void testLaterBodyReplacesCapturedBody() {
+        final RequestBodyCapture capture = new RequestBodyCapture(-1);
+        final AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+
+        capture.capture(msg, XContentType.JSON, new BytesArray(SOURCE));
+        msg.addUnescapedJsonToRequestBody("{}");
+
+        assertEquals("{}", msg.getRequestBody());
+    }
+
+    @Test
+    public void testJsonBodyIsTruncated() {
+        final RequestBodyCapture capture = new RequestBodyCapture(5);
+        final AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+
+        capture.capture(msg, XContentType.JSON, new BytesArray(SOURCE));
+
+        assertEquals(SOURCE.substring(0, 5), msg.getRequestBody());
+        assertEquals(true, msg.getAsMap().get(AuditMessage.REQUEST_BODY_TRUNCATED));
+    }
+
+    @Test
+    public void testTruncatedJsonBodyKeepsCharacters() {
+        final RequestBodyCapture capture = new RequestBodyCapture(4);
+        final AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+
+        // "ü" is encoded in the bytes at index 3 and 4
+        capture.capture(msg, XContentType.JSON, new BytesArray("{\"füeld\":1}".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("{\"f", msg.getRequestBody());
+        assertEquals(true, msg.getAsMap().get(AuditMessage.REQUEST_BODY_TRUNCATED));
+    }
+
+    @Test
+    public void testCapturedBodyIsCopied() {
+        final RequestBodyCapture capture = new RequestBodyCapture(-1);
+        final AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+        final byte[] buffer = SOURCE.getBytes(StandardCharsets.UTF_8);
+
+        capture.capture(msg, XContentType.JSON, new BytesArray(buffer));
+        // the request buffer is recycled before the message is serialized
+        Arrays.fill(buffer, (byte) 'x');
+
+        assertEquals(SOURCE, msg.getRequestBody());
+    }
+
+    @Test
+    public void testOtherBodyIsOmittedIfTooLarge() throws Exception {
+        final RequestBodyCapture capture = new RequestBodyCapture(5);
+        final AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+        final XContentBuilder smile = XContentFactory.contentBuilder(XContentType.SMILE).startObject().field("field", "value").endObject();
+
+        capture.capture(msg, XContentType.SMILE, BytesReference.bytes(smile));
+
+        assertNull(msg.getRequestBody());
+        assertEquals(true, msg.getAsMap().get(AuditMessage.REQUEST_BODY_TRUNCATED));
+    }
+
+    @Test
+    public void testStats() throws Exception {
+        final RequestBodyCapture capture = RequestBodyCapture.from(
+            Settings.builder().put(ConfigConstants.SECURITY_AUDIT_REQUEST_BODY_MAX_SIZE, "10b").build()
+        );
+        capture.capture(MockAuditMessageFactory.validAuditMessage(), XContentType.JSON, new BytesArray("{}"));
+        capture.capture(MockAuditMessageFactory.validAuditMessage(), XContentType.JSON, new BytesArray(SOURCE));
+
+        final XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
+        capture.toXContent(builder, ToXContent.EMPTY_PARAMS);
+        builder.endObject();
+        final Map<String, Object> stats = XContentHelper.convertToMap(BytesReference.bytes(builder), false, XContentType.JSON).v2();
+
+        assertEquals(Map.of("captured", 2, "captured_in_bytes", 12, "truncated", 1), stats.get("request_bodies"));
+    }
+}
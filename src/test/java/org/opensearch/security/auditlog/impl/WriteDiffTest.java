@@ -0,0 +1,196 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.index.engine.Engine.Index;
+import org.opensearch.index.engine.Engine.IndexResult;
+import org.opensearch.index.get.GetResult;
+import org.opensearch.security.auditlog.config.AuditConfig;
+import org.opensearch.security.auditlog.config.ThreadPoolConfig;
+import org.opensearch.security.auditlog.helper.LoggingSink;
+import org.opensearch.security.auditlog.routing.AsyncStoragePool;
+import org.opensearch.security.auditlog.routing.AuditMessageRouter;
+import org.opensearch.security.auditlog.sink.SinkProvider;
+import org.opensearch.security.support.ConfigConstants;
+import org.opensearch.security.test.AbstractSecurityUnitTest;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WriteDiffTest {
+
+    private static final String ORIGINAL = "{\"amount\":10}";
+    private static final String CURRENT = "{\"amount\":20}";
+    private static final String DIFF = "[{\"op\":\"replace\",\"path\":\"/amount\",\"value\":20}]";
+
+    private final ClusterService cs = mock(ClusterService.class);
+    private final DiscoveryNode dn = mock(DiscoveryNode.class);
+    private final List<Runnable> queued = new ArrayList<>();
+    private boolean rejecting;
+    private AuditLogImpl auditLog;
+    private LoggingSink sink;
+
+    @Before
+    public void setup() {
+        when(dn.getHostAddress()).thenReturn("hostaddress");
+        when(dn.getId()).thenReturn("hostaddress");
+        when(dn.getHostName()).thenReturn("hostaddress");
+        when(cs.localNode()).thenReturn(dn);
+        when(cs.getClusterName()).thenReturn(new ClusterName("cname"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (auditLog != null) {
+            auditLog.close();
+        }
+    }
+
+    @Test
+    public void testDiffIsGeneratedOnAuditThread() {
+        createAuditLog(Settings.EMPTY);
+        final byte[] original = ORIGINAL.getBytes(StandardCharsets.UTF_8);
+
+        logDocumentWritten(original, CURRENT);
+        Assert.assertEquals(1, queued.size());
+        Assert.assertTrue("the message is stored once its diff is generated", sink.messages.isEmpty());
+
+        // the buffers of the indexing request may be reused before the diff is generated
+        System.arraycopy("{\"amount\":99}".getBytes(StandardCharsets.UTF_8), 0, original, 0, original.length);
+        runQueued();
+        Assert.assertEquals(1, sink.messages.size());
+        Assert.assertEquals(DIFF, sink.messages.get(0).getAsMap().get(AuditMessage.COMPLIANCE_DIFF_CONTENT));
+    }
+
+    @Test
+    public void testDiffIsGeneratedInlineIfPoolRejects() {
+        createAuditLog(Settings.EMPTY);
+        rejecting = true;
+
+        logDocumentWritten(ORIGINAL.getBytes(StandardCharsets.UTF_8), CURRENT);
+
+        Assert.assertTrue(queued.isEmpty());
+        Assert.assertEquals(1, sink.messages.size());
+        Assert.assertEquals(DIFF, sink.messages.get(0).getAsMap().get(AuditMessage.COMPLIANCE_DIFF_CONTENT));
+    }
+
+    @Test
+    public void testLargeSourcesAreHashedInline() {
+        createAuditLog(Settings.builder().put(ConfigConstants.SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_SOURCE_SIZE, "10b").build());
+
+        logDocumentWritten(ORIGINAL.getBytes(StandardCharsets.UTF_8), CURRENT);
+
+        Assert.assertTrue(queued.isEmpty());
+        Assert.assertEquals(1, sink.messages.size());
+        final AuditMessage msg = sink.messages.get(0);
+        Assert.assertNull(msg.getAsMap().get(AuditMessage.COMPLIANCE_DIFF_CONTENT));
+        Assert.assertEquals(DigestUtils.sha256Hex(ORIGINAL), msg.getAsMap().get(AuditMessage.COMPLIANCE_DIFF_ORIGINAL_SHA256));
+        Assert.assertEquals(DigestUtils.sha256Hex(CURRENT), msg.getAsMap().get(AuditMessage.COMPLIANCE_DIFF_CURRENT_SHA256));
+        Assert.assertEquals(false, msg.getAsMap().get(AuditMessage.COMPLIANCE_DIFF_IS_NOOP));
+    }
+
+    @Test
+    public void testQueuedSourcesAreBounded() {
+        // room for the sources of a single write
+        createAuditLog(Settings.builder().put(ConfigConstants.SECURITY_COMPLIANCE_HISTORY_WRITE_DIFF_MAX_QUEUED_SIZE, "30b").build());
+
+        logDocumentWritten(ORIGINAL.getBytes(StandardCharsets.UTF_8), CURRENT);
+        Assert.assertEquals(1, queued.size());
+
+        logDocumentWritten(ORIGINAL.getBytes(StandardCharsets.UTF_8), CURRENT);
+        Assert.assertEquals(1, queued.size());
+        Assert.assertEquals("the diff is generated inline while the queue is full", 1, sink.messages.size());
+
+        runQueued();
+        Assert.assertEquals(2, sink.messages.size());
+
+        logDocumentWritten(ORIGINAL.getBytes(StandardCharsets.UTF_8), CURRENT);
+        Assert.assertEquals("the queued sources are released once their diff is generated", 1, queued.size());
+    }
+
+    @Test
+    public void testCompletionRunsWhileDisabled() {
+        createAuditLog(Settings.EMPTY);
+        auditLog.setConfig(new AuditConfig(false, null, null));
+
+        final boolean[] completed = new boolean[1];
+        auditLog.saveAsync(new AuditMessage(AuditCategory.COMPLIANCE_DOC_WRITE, cs, null, null), () -> completed[0] = true);
+
+        Assert.assertTrue("the completion releases the queued sources", completed[0]);
+        Assert.assertTrue(queued.isEmpty());
+        Assert.assertTrue(sink.messages.isEmpty());
+    }
+
+    private void createAuditLog(final Settings diffSettings) {
+        final Settings settings = Settings.builder()
+            .put(diffSettings)
+            .put("plugins.security.audit.type", LoggingSink.class.getName())
+            .put(ConfigConstants.OPENDISTRO_SECURITY_COMPLIANCE_HISTORY_WRITE_LOG_DIFFS, true)
+            .putList(ConfigConstants.OPENDISTRO_SECURITY_COMPLIANCE_HISTORY_WRITE_WATCHED_INDICES, "*")
+            .build();
+        final AsyncStoragePool storagePool = new AsyncStoragePool(new ThreadPoolConfig(1, 1)) {
+            @Override
+            public boolean execute(final Runnable task) {
+                return !rejecting && queued.add(task);
+            }
+        };
+        final SinkProvider sinkProvider = new SinkProvider(settings, null, null, null);
+        sink = (LoggingSink) sinkProvider.getDefaultSink();
+        final AuditMessageRouter router = new AuditMessageRouter(sinkProvider, storagePool);
+        auditLog = new AuditLogImpl(settings, AbstractSecurityUnitTest.MOCK_POOL, null, cs, null, router);
+        auditLog.setConfig(AuditConfig.from(settings));
+    }
+
+    private void logDocumentWritten(final byte[] original, final String current) {
+        final Index index = mock(Index.class);
+        when(index.id()).thenReturn("1");
+        when(index.source()).thenReturn(new BytesArray(current));
+        final IndexResult result = mock(IndexResult.class);
+        when(result.getVersion()).thenReturn(2L);
+        when(result.isCreated()).thenReturn(false);
+        final GetResult originalResult = new GetResult(
+            "deals",
+            "1",
+            0,
+            1,
+            1,
+            true,
+            new BytesArray(original),
+            Collections.emptyMap(),
+            Collections.emptyMap()
+        );
+        auditLog.logDocumentWritten(new ShardId("deals", "uuid", 0), originalResult, index, result);
+    }
+
+    private void runQueued() {
+        final List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        tasks.forEach(Runnable::run);
+    }
+}
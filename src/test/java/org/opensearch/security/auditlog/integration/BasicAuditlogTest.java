@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableMap;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.message.BasicHeader;
 import org.apache.http.HttpStatus;
+import org.awaitility.Awaitility;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -42,6 +43,7 @@ import org.opensearch.security.test.helper.file.FileHelper;
 import org.opensearch.security.test.helper.rest.RestHelper.HttpResponse;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.opensearch.rest.RestRequest.Method.DELETE;
 import static org.opensearch.rest.RestRequest.Method.GET;
@@ -544,11 +546,13 @@ public class BasicAuditlogTest extends AbstractAuditlogiUnitTest {
         final String keystore = rh.keystore;
         rh.sendAdminCertificate = true;
         rh.keystore = "auditlog/kirk-keystore.jks";
-        HttpResponse res = rh.executeGetRequest("_cat/indices", new Header[0]);
-        rh.sendAdminCertificate = sendAdminCertificate;
-        rh.keystore = keystore;
-
-        Assert.assertTrue(res.getBody().contains("auditlog-20"));
+        try {
+            // audit messages are indexed in batches
+            Awaitility.await().until(() -> rh.executeGetRequest("_cat/indices", new Header[0]).getBody(), containsString("auditlog-20"));
+        } finally {
+            rh.sendAdminCertificate = sendAdminCertificate;
+            rh.keystore = keystore;
+        }
     }
 
     @Test
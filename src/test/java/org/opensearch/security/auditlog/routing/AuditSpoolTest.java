@@ -0,0 +1,123 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.routing;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.opensearch.security.auditlog.AuditLog.Origin;
+import org.opensearch.security.auditlog.helper.MockAuditMessageFactory;
+import org.opensearch.security.auditlog.impl.AuditCategory;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+public class AuditSpoolTest {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    @Test
+    public void testDispatchesInOrder() throws Exception {
+        final Path directory = testFolder.newFolder().toPath();
+        final List<AuditMessage> dispatched = new CopyOnWriteArrayList<>();
+
+        try (AuditSpool spool = new AuditSpool(directory, 4096, 1024 * 1024)) {
+            spool.start(dispatched::add);
+            // spans several segments
+            for (int i = 0; i < 100; i++) {
+                Assert.assertTrue(spool.append(message(i)));
+            }
+            awaitDispatched(dispatched, 100);
+            Assert.assertEquals(0, spool.pendingBytes());
+        }
+
+        for (int i = 0; i < 100; i++) {
+            final AuditMessage msg = dispatched.get(i);
+            Assert.assertEquals("id" + i, msg.getDocId());
+            Assert.assertEquals(AuditCategory.INDEX_EVENT, msg.getCategory());
+            Assert.assertEquals(Origin.TRANSPORT, msg.getOrigin());
+            Assert.assertEquals("John Doe", msg.getEffectiveUser());
+        }
+    }
+
+    @Test
+    public void testResumesAfterRestart() throws Exception {
+        final Path directory = testFolder.newFolder().toPath();
+        final List<AuditMessage> dispatched = new CopyOnWriteArrayList<>();
+
+        try (AuditSpool spool = new AuditSpool(directory, 4096, 1024 * 1024)) {
+            spool.start(dispatched::add);
+            Assert.assertTrue(spool.append(message(0)));
+            awaitDispatched(dispatched, 1);
+        }
+
+        // not dispatched before the restart
+        try (AuditSpool spool = new AuditSpool(directory, 4096, 1024 * 1024)) {
+            for (int i = 1; i < 50; i++) {
+                Assert.assertTrue(spool.append(message(i)));
+            }
+        }
+
+        try (AuditSpool spool = new AuditSpool(directory, 4096, 1024 * 1024)) {
+            Assert.assertTrue(spool.pendingBytes() > 0);
+            spool.start(dispatched::add);
+            Assert.assertTrue(spool.append(message(50)));
+            awaitDispatched(dispatched, 51);
+        }
+
+        for (int i = 0; i < 51; i++) {
+            Assert.assertEquals("id" + i, dispatched.get(i).getDocId());
+        }
+
+        try (AuditSpool spool = new AuditSpool(directory, 4096, 1024 * 1024)) {
+            Assert.assertEquals(0, spool.pendingBytes());
+        }
+    }
+
+    @Test
+    public void testRejectsWhenFull() throws Exception {
+        final Path directory = testFolder.newFolder().toPath();
+
+        try (AuditSpool spool = new AuditSpool(directory, 4096, 8192)) {
+            int appended = 0;
+            while (spool.append(message(appended))) {
+                appended++;
+                Assert.assertTrue("spool must be bounded", appended < 1000);
+            }
+            Assert.assertTrue(appended > 0);
+
+            final List<AuditMessage> dispatched = new CopyOnWriteArrayList<>();
+            spool.start(dispatched::add);
+            awaitDispatched(dispatched, appended);
+            Assert.assertTrue(spool.append(message(appended)));
+        }
+    }
+
+    private static AuditMessage message(final int i) {
+        final AuditMessage msg = MockAuditMessageFactory.validAuditMessage(AuditCategory.INDEX_EVENT);
+        msg.addId("id" + i);
+        return msg;
+    }
+
+    private static void awaitDispatched(final List<AuditMessage> dispatched, final int expected) {
+        Awaitility.await().until(dispatched::size, greaterThanOrEqualTo(expected));
+        Assert.assertEquals(expected, dispatched.size());
+    }
+}
@@ -97,6 +97,33 @@ public class RouterTest extends AbstractAuditlogiUnitTest {
 
     }
 
+    @Test
+    public void testRoutingToFallbackSink() throws Exception {
+        Settings settings = Settings.builder()
+            .loadFromPath(FileHelper.getAbsoluteFilePathFromClassPath("auditlog/endpoints/routing/routing_fallback.yml"))
+            .put("path.home", ".")
+            .put(ConfigConstants.OPENDISTRO_SECURITY_AUDIT_CONFIG_DISABLED_TRANSPORT_CATEGORIES, "NONE")
+            .build();
+
+        AuditMessageRouter router = createMessageRouterComplianceEnabled(settings);
+        AuditMessage msg = MockAuditMessageFactory.validAuditMessage(AuditCategory.MISSING_PRIVILEGES);
+        router.route(msg);
+        List<AuditLogSink> sinks = router.categorySinks.get(AuditCategory.MISSING_PRIVILEGES);
+        Assert.assertEquals(2, sinks.size());
+        Assert.assertEquals("endpoint1", sinks.get(0).getName());
+        Assert.assertEquals(List.of(msg), ((LoggingSink) sinks.get(0)).messages);
+        Assert.assertEquals("fallback", sinks.get(1).getName());
+        Assert.assertEquals(List.of(msg), ((LoggingSink) sinks.get(1)).messages);
+
+        router = createMessageRouterComplianceEnabled(settings);
+        msg = MockAuditMessageFactory.validAuditMessage(AuditCategory.COMPLIANCE_DOC_READ);
+        router.route(msg);
+        sinks = router.categorySinks.get(AuditCategory.COMPLIANCE_DOC_READ);
+        Assert.assertEquals(1, sinks.size());
+        Assert.assertEquals("fallback", sinks.get(0).getName());
+        Assert.assertEquals(List.of(msg), ((LoggingSink) sinks.get(0)).messages);
+    }
+
     private void testMessageDeliveredForCategory(
         AuditMessageRouter router,
         AuditMessage msg,
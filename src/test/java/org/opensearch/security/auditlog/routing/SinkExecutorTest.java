@@ -0,0 +1,295 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.routing;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.ToXContent;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.security.auditlog.config.ThreadPoolConfig;
+import org.opensearch.security.auditlog.helper.FailingSink;
+import org.opensearch.security.auditlog.helper.LoggingSink;
+import org.opensearch.security.auditlog.helper.MockAuditMessageFactory;
+import org.opensearch.security.auditlog.impl.AuditCategory;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+import org.opensearch.security.auditlog.sink.AuditLogSink;
+import org.opensearch.security.support.ConfigConstants;
+
+public class SinkExecutorTest {
+
+    private static final String PREFIX = ConfigConstants.SECURITY_AUDIT_CONFIG_ENDPOINTS + ".slow.config";
+
+    @Test
+    public void testDropOldest() throws Exception {
+        final SlowSink sink = new SlowSink(Settings.EMPTY);
+        final SinkExecutor executor = new SinkExecutor(sink, new ThreadPoolConfig(1, 1), SinkExecutor.Overflow.DROP_OLDEST);
+        final AuditMessage first = message();
+        final AuditMessage dropped = message();
+        final AuditMessage last = message();
+
+        executor.submit(first);
+        sink.awaitStoring();
+        executor.submit(dropped);
+        executor.submit(last);
+        Assert.assertEquals(1, executor.queued());
+
+        sink.release.countDown();
+        executor.close();
+        Assert.assertEquals(List.of(first, last), sink.messages);
+        Assert.assertEquals(Map.of("stored", 2, "dropped", 1, "fallback", 0), counters(executor));
+        final Map<String, Object> stats = stats(executor, "slow");
+        Assert.assertEquals(2, ((Map<?, ?>) stats.get("queue_latency")).get("count"));
+        Assert.assertEquals(2, ((Map<?, ?>) stats.get("latency")).get("count"));
+    }
+
+    @Test
+    public void testFallback() throws Exception {
+        final SlowSink sink = new SlowSink(Settings.EMPTY);
+        final SinkExecutor executor = new SinkExecutor(sink, new ThreadPoolConfig(1, 1), SinkExecutor.Overflow.FALLBACK);
+        final AuditMessage overflowing = message();
+
+        executor.submit(message());
+        sink.awaitStoring();
+        executor.submit(message());
+        executor.submit(overflowing);
+        Assert.assertEquals(List.of(overflowing), ((LoggingSink) sink.getFallbackSink()).messages);
+
+        sink.release.countDown();
+        executor.close();
+        Assert.assertEquals(2, sink.messages.size());
+        Assert.assertEquals(Map.of("stored", 2, "dropped", 0, "fallback", 1), counters(executor));
+    }
+
+    @Test
+    public void testBlock() throws Exception {
+        final SlowSink sink = new SlowSink(Settings.EMPTY);
+        final SinkExecutor executor = new SinkExecutor(sink, new ThreadPoolConfig(1, 1), SinkExecutor.Overflow.BLOCK);
+
+        executor.submit(message());
+        sink.awaitStoring();
+        executor.submit(message());
+        final Thread caller = new Thread(() -> executor.submit(message()));
+        caller.start();
+        caller.join(100);
+        Assert.assertTrue("caller must wait while the queue is full", caller.isAlive());
+
+        sink.release.countDown();
+        caller.join(TimeUnit.SECONDS.toMillis(10));
+        Assert.assertFalse(caller.isAlive());
+        executor.close();
+        Assert.assertEquals(3, sink.messages.size());
+        Assert.assertEquals(Map.of("stored", 3, "dropped", 0, "fallback", 0), counters(executor));
+    }
+
+    @Test
+    public void testBlockFallsBackOnNetworkThreads() throws Exception {
+        final SlowSink sink = new SlowSink(Settings.EMPTY);
+        final SinkExecutor executor = new SinkExecutor(sink, new ThreadPoolConfig(1, 1), SinkExecutor.Overflow.BLOCK);
+        final AuditMessage overflowing = message();
+
+        executor.submit(message());
+        sink.awaitStoring();
+        executor.submit(message());
+        final Thread caller = new Thread(() -> executor.submit(overflowing), "opensearch[node][transport_worker][T#1]");
+        caller.start();
+        caller.join(TimeUnit.SECONDS.toMillis(10));
+        Assert.assertFalse("network threads must not wait while the queue is full", caller.isAlive());
+        Assert.assertEquals(List.of(overflowing), ((LoggingSink) sink.getFallbackSink()).messages);
+
+        sink.release.countDown();
+        executor.close();
+        Assert.assertEquals(Map.of("stored", 2, "dropped", 0, "fallback", 1), counters(executor));
+    }
+
+    @Test
+    public void testSharedThreadPool() {
+        final ThreadPoolConfig pool = new ThreadPoolConfig(10, 100_000);
+        Assert.assertSame(pool, SinkExecutor.share(pool, 1));
+
+        ThreadPoolConfig share = SinkExecutor.share(pool, 4);
+        Assert.assertEquals(2, share.getThreadPoolSize());
+        Assert.assertEquals(25_000, share.getThreadPoolMaxQueueLen());
+
+        share = SinkExecutor.share(pool, 20);
+        Assert.assertEquals(1, share.getThreadPoolSize());
+        Assert.assertEquals(5_000, share.getThreadPoolMaxQueueLen());
+    }
+
+    @Test
+    public void testSinkSettings() throws Exception {
+        final Settings settings = Settings.builder()
+            .put(PREFIX + "." + ConfigConstants.SECURITY_AUDIT_EXECUTOR_THREADS, 2)
+            .put(PREFIX + "." + ConfigConstants.SECURITY_AUDIT_EXECUTOR_QUEUE_SIZE, 50)
+            .put(PREFIX + "." + ConfigConstants.SECURITY_AUDIT_EXECUTOR_OVERFLOW, "Drop_Oldest")
+            .build();
+        final SinkExecutor executor = SinkExecutor.create(new SlowSink(settings), new ThreadPoolConfig(10, 100));
+        final Map<String, Object> stats = stats(executor, "slow");
+        Assert.assertEquals("SlowSink", stats.get("type"));
+        Assert.assertEquals(2, stats.get("threads"));
+        Assert.assertEquals(50, stats.get("queue_size"));
+        Assert.assertEquals("drop_oldest", stats.get("overflow"));
+        executor.close();
+
+        final Settings invalid = Settings.builder().put(PREFIX + "." + ConfigConstants.SECURITY_AUDIT_EXECUTOR_OVERFLOW, "wait").build();
+        Assert.assertThrows(IllegalArgumentException.class, () -> SinkExecutor.create(new SlowSink(invalid), new ThreadPoolConfig(1, 1)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailureStats() throws Exception {
+        final Settings settings = Settings.builder()
+            .put(ConfigConstants.SECURITY_AUDIT_RETRY_COUNT, 2)
+            .put(ConfigConstants.SECURITY_AUDIT_RETRY_DELAY_MS, 1)
+            .build();
+        final FailingSink sink = new FailingSink("failing", settings, null, new LoggingSink("fallback", Settings.EMPTY, null, null));
+        final SinkExecutor executor = new SinkExecutor(sink, new ThreadPoolConfig(1, 1), SinkExecutor.Overflow.FALLBACK);
+
+        executor.submit(message(AuditCategory.FAILED_LOGIN));
+
+        final Map<String, Object> stats = stats(executor, "failing");
+        Assert.assertEquals(0, stats.get("threads"));
+        Assert.assertEquals(1, stats.get("failed"));
+        Assert.assertEquals(2, stats.get("retries"));
+        Assert.assertEquals(1, stats.get("delivery_failures"));
+        Assert.assertNull("synchronous sinks have no queue", stats.get("queue_latency"));
+        Assert.assertEquals(1, ((Map<String, Object>) stats.get("latency")).get("count"));
+        final Map<String, Object> categories = (Map<String, Object>) stats.get("categories");
+        Assert.assertEquals(Set.of("FAILED_LOGIN"), categories.keySet());
+        Assert.assertEquals(1, ((Map<String, Object>) categories.get("FAILED_LOGIN")).get("failed"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLatencyOfAsynchronousSinks() throws Exception {
+        final AsyncSink sink = new AsyncSink();
+        final SinkExecutor executor = new SinkExecutor(sink, new ThreadPoolConfig(1, 1), SinkExecutor.Overflow.FALLBACK);
+        final AuditMessage delivered = message();
+        final AuditMessage failed = message(AuditCategory.FAILED_LOGIN);
+
+        Thread.sleep(20);
+        executor.submit(delivered);
+        executor.submit(failed);
+        Assert.assertEquals("messages are stored once delivered", 0, stats(executor, "async").get("stored"));
+        Assert.assertEquals(0, ((Map<String, Object>) stats(executor, "async").get("latency")).get("count"));
+
+        sink.deliver(delivered);
+        sink.fail(failed);
+
+        final Map<String, Object> stats = stats(executor, "async");
+        Assert.assertEquals(1, stats.get("stored"));
+        Assert.assertEquals(1, stats.get("failed"));
+        final Map<String, Object> latency = (Map<String, Object>) stats.get("latency");
+        Assert.assertEquals(2, latency.get("count"));
+        Assert.assertTrue("latency is measured from routing", ((Number) latency.get("max_in_millis")).longValue() >= 20);
+        final Map<String, Object> categories = (Map<String, Object>) stats.get("categories");
+        Assert.assertEquals(Set.of("MISSING_PRIVILEGES", "FAILED_LOGIN"), categories.keySet());
+        Assert.assertEquals(1, ((Map<String, Object>) categories.get("FAILED_LOGIN")).get("failed"));
+    }
+
+    private static AuditMessage message() {
+        return message(AuditCategory.MISSING_PRIVILEGES);
+    }
+
+    private static AuditMessage message(final AuditCategory category) {
+        final AuditMessage msg = MockAuditMessageFactory.validAuditMessage(category);
+        msg.markRouted();
+        return msg;
+    }
+
+    private static Map<String, Object> counters(final SinkExecutor executor) throws Exception {
+        final Map<String, Object> stats = stats(executor, "slow");
+        return Map.of("stored", stats.get("stored"), "dropped", stats.get("dropped"), "fallback", stats.get("fallback"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> stats(final SinkExecutor executor, final String sinkName) throws Exception {
+        final XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
+        executor.toXContent(builder, ToXContent.EMPTY_PARAMS);
+        builder.endObject();
+        return (Map<String, Object>) XContentHelper.convertToMap(BytesReference.bytes(builder), false, XContentType.JSON)
+            .v2()
+            .get(sinkName);
+    }
+
+    /**
+     * Accepts messages and stores them when told so, like a sink delivering batches
+     */
+    private static final class AsyncSink extends AuditLogSink {
+
+        private AsyncSink() {
+            super("async", Settings.EMPTY, null, new LoggingSink("fallback", Settings.EMPTY, null, null));
+        }
+
+        @Override
+        public boolean isHandlingBackpressure() {
+            return true;
+        }
+
+        @Override
+        public boolean isStoringAsynchronously() {
+            return true;
+        }
+
+        @Override
+        protected boolean doStore(final AuditMessage msg) {
+            return true;
+        }
+
+        void deliver(final AuditMessage msg) {
+            stored(msg);
+        }
+
+        void fail(final AuditMessage msg) {
+            storeFallback(msg);
+        }
+    }
+
+    private static final class SlowSink extends AuditLogSink {
+        private final List<AuditMessage> messages = new CopyOnWriteArrayList<>();
+        private final CountDownLatch storing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private SlowSink(final Settings settings) {
+            super("slow", settings, PREFIX, new LoggingSink("fallback", settings, null, null));
+        }
+
+        void awaitStoring() throws InterruptedException {
+            Assert.assertTrue(storing.await(10, TimeUnit.SECONDS));
+        }
+
+        @Override
+        protected boolean doStore(final AuditMessage msg) {
+            storing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            messages.add(msg);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.sink;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.impl.HttpProcessors;
+import org.apache.hc.core5.http.impl.bootstrap.HttpServer;
+import org.apache.hc.core5.http.impl.bootstrap.ServerBootstrap;
+import org.apache.hc.core5.http.io.HttpRequestHandler;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.index.IndexResponse;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.security.auditlog.helper.LoggingSink;
+import org.opensearch.security.auditlog.helper.MockAuditMessageFactory;
+import org.opensearch.security.auditlog.impl.AuditCategory;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+import org.opensearch.security.httpclient.HttpClient;
+import org.opensearch.security.support.ConfigConstants;
+
+public class ExternalOpenSearchSinkTest {
+
+    private static final String PREFIX = ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT;
+
+    private HttpServer server;
+    private BulkHandler handler;
+    private int port;
+
+    @Before
+    public void setUp() throws Exception {
+        port = findFreePort();
+        handler = new BulkHandler();
+        server = ServerBootstrap.bootstrap()
+            .setListenerPort(port)
+            .setHttpProcessor(HttpProcessors.server("Test/1.1"))
+            .register("*", handler)
+            .create();
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testToBulkRequest() {
+        final AuditMessage msg = MockAuditMessageFactory.validAuditMessage(AuditCategory.FAILED_LOGIN);
+        final IndexedAuditMessage message = new IndexedAuditMessage(msg, "auditlog");
+
+        final BulkRequest request = IndexedAuditMessage.toBulkRequest(List.of(message, message));
+
+        Assert.assertEquals(2, request.numberOfActions());
+        for (DocWriteRequest<?> item : request.requests()) {
+            final IndexRequest indexRequest = (IndexRequest) item;
+            Assert.assertEquals("auditlog", indexRequest.index());
+            Assert.assertEquals(msg.toJsonBytes(), indexRequest.source());
+        }
+        Assert.assertEquals(msg.toJsonBytes().length(), message.size());
+    }
+
+    @Test
+    public void testFailedItemsAreMappedToTheirMessages() {
+        final List<IndexedAuditMessage> batch = IntStream.range(0, 3)
+            .mapToObj(i -> new IndexedAuditMessage(MockAuditMessageFactory.validAuditMessage(), "auditlog"))
+            .collect(Collectors.toList());
+
+        final BulkResponse noFailures = new BulkResponse(new BulkItemResponse[] { success(0), success(1), success(2) }, 1);
+        Assert.assertEquals(Collections.emptyList(), IndexedAuditMessage.failed(batch, noFailures));
+
+        final BulkResponse partialFailure = new BulkResponse(new BulkItemResponse[] { success(0), failure(1), failure(2) }, 1);
+        Assert.assertEquals(List.of(batch.get(1), batch.get(2)), IndexedAuditMessage.failed(batch, partialFailure));
+    }
+
+    @Test
+    public void testBulkAsync() throws Exception {
+        handler.failures.add(Set.of(1));
+        final BulkRequest request = new BulkRequest().add(new IndexRequest("auditlog").source("{\"a\":1}", XContentType.JSON))
+            .add(new IndexRequest("auditlog").source("{\"a\":2}", XContentType.JSON));
+        final CompletableFuture<BulkResponse> future = new CompletableFuture<>();
+
+        try (HttpClient client = HttpClient.builder("localhost:" + port).build()) {
+            client.bulkAsync(request, ActionListener.wrap(future::complete, future::completeExceptionally));
+            final BulkResponse response = future.get(10, TimeUnit.SECONDS);
+
+            Assert.assertTrue(response.hasFailures());
+            Assert.assertFalse(response.getItems()[0].isFailed());
+            Assert.assertTrue(response.getItems()[1].isFailed());
+        }
+        Assert.assertEquals(1, handler.requests.size());
+        Assert.assertEquals(4, handler.requests.get(0).split("\n").length);
+    }
+
+    @Test
+    public void testPendingBatchIsSentOnClose() throws Exception {
+        final LoggingSink fallback = new LoggingSink("fallback", Settings.EMPTY, null, null);
+        final ExternalOpenSearchSink sink = createSink(Settings.EMPTY, fallback);
+        Assert.assertTrue(sink.isHandlingBackpressure());
+
+        Assert.assertTrue(sink.store(MockAuditMessageFactory.validAuditMessage(AuditCategory.FAILED_LOGIN)));
+        Assert.assertTrue(sink.store(MockAuditMessageFactory.validAuditMessage(AuditCategory.MISSING_PRIVILEGES)));
+        Assert.assertTrue("the batch lingers until it is full", handler.requests.isEmpty());
+
+        sink.close();
+
+        Assert.assertEquals(1, handler.requests.size());
+        final String body = handler.requests.get(0);
+        Assert.assertEquals(4, body.split("\n").length);
+        Assert.assertTrue(body, body.contains("FAILED_LOGIN"));
+        Assert.assertTrue(body, body.contains("MISSING_PRIVILEGES"));
+        Assert.assertTrue(fallback.messages.isEmpty());
+    }
+
+    @Test
+    public void testFailedMessagesAreRetried() throws Exception {
+        handler.failures.add(Set.of(1));
+        final LoggingSink fallback = new LoggingSink("fallback", Settings.EMPTY, null, null);
+        final ExternalOpenSearchSink sink = createSink(
+            Settings.builder()
+                .put(ConfigConstants.SECURITY_AUDIT_RETRY_COUNT, 1)
+                .put(ConfigConstants.SECURITY_AUDIT_RETRY_DELAY_MS, 1)
+                .build(),
+            fallback
+        );
+
+        sink.store(MockAuditMessageFactory.validAuditMessage(AuditCategory.FAILED_LOGIN));
+        sink.store(MockAuditMessageFactory.validAuditMessage(AuditCategory.MISSING_PRIVILEGES));
+        sink.close();
+
+        // only the failed message is sent again
+        Assert.assertEquals(2, handler.requests.size());
+        final String retried = handler.requests.get(1);
+        Assert.assertEquals(2, retried.split("\n").length);
+        Assert.assertTrue(retried, retried.contains("MISSING_PRIVILEGES"));
+        Assert.assertEquals(1, sink.getRetries());
+        Assert.assertEquals(0, sink.getFallbacks());
+        Assert.assertTrue(fallback.messages.isEmpty());
+    }
+
+    @Test
+    public void testFailedMessagesAreHandedToFallback() throws Exception {
+        handler.failures.add(Set.of(0));
+        final LoggingSink fallback = new LoggingSink("fallback", Settings.EMPTY, null, null);
+        final ExternalOpenSearchSink sink = createSink(Settings.EMPTY, fallback);
+        final AuditMessage failing = MockAuditMessageFactory.validAuditMessage(AuditCategory.FAILED_LOGIN);
+
+        sink.store(failing);
+        sink.store(MockAuditMessageFactory.validAuditMessage(AuditCategory.MISSING_PRIVILEGES));
+        sink.close();
+
+        Assert.assertEquals(1, handler.requests.size());
+        Assert.assertEquals(List.of(failing), fallback.messages);
+        Assert.assertEquals(1, sink.getFallbacks());
+    }
+
+    @Test
+    public void testUnreachableServerFallsBack() throws Exception {
+        server.stop();
+        server = null;
+        final LoggingSink fallback = new LoggingSink("fallback", Settings.EMPTY, null, null);
+        final ExternalOpenSearchSink sink = createSink(Settings.EMPTY, fallback);
+        final AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+
+        sink.store(msg);
+        sink.close();
+
+        Assert.assertEquals(List.of(msg), fallback.messages);
+    }
+
+    private ExternalOpenSearchSink createSink(final Settings settings, final LoggingSink fallback) throws Exception {
+        return new ExternalOpenSearchSink(
+            "external",
+            Settings.builder()
+                .put(settings)
+                .put("path.home", ".")
+                .putList(PREFIX + "." + ConfigConstants.SECURITY_AUDIT_EXTERNAL_OPENSEARCH_HTTP_ENDPOINTS, "localhost:" + port)
+                .put(PREFIX + "." + ConfigConstants.SECURITY_AUDIT_OPENSEARCH_INDEX, "'auditlog'")
+                .put(PREFIX + "." + ConfigConstants.SECURITY_AUDIT_BATCH_LINGER, "1h")
+                .build(),
+            PREFIX,
+            null,
+            fallback
+        );
+    }
+
+    private static BulkItemResponse success(final int id) {
+        return new BulkItemResponse(
+            id,
+            DocWriteRequest.OpType.INDEX,
+            new IndexResponse(new ShardId("auditlog", "uuid", 0), String.valueOf(id), id, 1, 1, true)
+        );
+    }
+
+    private static BulkItemResponse failure(final int id) {
+        return new BulkItemResponse(
+            id,
+            DocWriteRequest.OpType.INDEX,
+            new BulkItemResponse.Failure("auditlog", String.valueOf(id), new IOException("rejected"))
+        );
+    }
+
+    private static int findFreePort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+
+    /**
+     * Answers bulk requests, failing the items given for each request
+     */
+    private static final class BulkHandler implements HttpRequestHandler {
+        private final List<String> requests = new CopyOnWriteArrayList<>();
+        private final Deque<Set<Integer>> failures = new ArrayDeque<>();
+
+        @Override
+        public synchronized void handle(final ClassicHttpRequest request, final ClassicHttpResponse response, final HttpContext context)
+            throws IOException {
+            final String body = EntityUtils.toString(request.getEntity(), StandardCharsets.UTF_8);
+            requests.add(body);
+            final int items = body.split("\n").length / 2;
+            final Set<Integer> failed = failures.isEmpty() ? Set.of() : failures.poll();
+
+            final String itemResponses = IntStream.range(0, items)
+                .mapToObj(
+                    i -> failed.contains(i)
+                        ? "{\"index\":{\"_index\":\"auditlog\",\"_id\":\""
+                            + i
+                            + "\",\"status\":429,\"error\":{\"type\":\"rejected_execution_exception\",\"reason\":\"rejected\"}}}"
+                        : "{\"index\":{\"_index\":\"auditlog\",\"_id\":\""
+                            + i
+                            + "\",\"_version\":1,\"result\":\"created\",\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},"
+                            + "\"_seq_no\":"
+                            + i
+                            + ",\"_primary_term\":1,\"status\":201}}"
+                )
+                .collect(Collectors.joining(","));
+            response.setCode(HttpStatus.SC_OK);
+            response.setEntity(
+                new StringEntity(
+                    "{\"took\":1,\"errors\":" + !failed.isEmpty() + ",\"items\":[" + itemResponses + "]}",
+                    ContentType.APPLICATION_JSON
+                )
+            );
+        }
+    }
+}
@@ -14,9 +14,11 @@ package org.opensearch.security.auditlog.sink;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.junit.Assert;
@@ -24,10 +26,15 @@ import org.junit.ClassRule;
 import org.junit.Test;
 
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.common.xcontent.yaml.YamlXContent;
+import org.opensearch.core.common.bytes.BytesArray;
 import org.opensearch.security.auditlog.AbstractAuditlogiUnitTest;
 import org.opensearch.security.auditlog.helper.MockAuditMessageFactory;
 import org.opensearch.security.auditlog.impl.AuditCategory;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+import org.opensearch.security.support.ConfigConstants;
 import org.opensearch.security.test.helper.file.FileHelper;
 
 import org.springframework.kafka.test.rule.EmbeddedKafkaRule;
@@ -35,7 +42,7 @@ import org.springframework.kafka.test.rule.EmbeddedKafkaRule;
 public class KafkaSinkTest extends AbstractAuditlogiUnitTest {
 
     @ClassRule
-    public static EmbeddedKafkaRule embeddedKafka = new EmbeddedKafkaRule(1, true, 1, "compliance") {
+    public static EmbeddedKafkaRule embeddedKafka = new EmbeddedKafkaRule(1, true, 1, "compliance", "compliance_smile") {
         // Prevents test exceptions from randomized runner, see https://bit.ly/3y17IkI
         private UncaughtExceptionHandler currentHandler;
 
@@ -76,13 +83,80 @@ public class KafkaSinkTest extends AbstractAuditlogiUnitTest {
 
     }
 
+    @Test
+    public void testKafkaBinaryKeyedByIndex() throws Exception {
+        final String prefix = ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT_PREFIX;
+        final Settings settings = Settings.builder()
+            .put("path.home", ".")
+            .put(ConfigConstants.SECURITY_AUDIT_TYPE_DEFAULT, "kafka")
+            .put(prefix + "bootstrap_servers", embeddedKafka.getEmbeddedKafka().getBrokersAsString())
+            .put(prefix + "topic_name", "compliance_smile")
+            .put(prefix + ConfigConstants.SECURITY_AUDIT_KAFKA_FORMAT, "smile")
+            .put(prefix + ConfigConstants.SECURITY_AUDIT_KAFKA_KEY, ConfigConstants.SECURITY_AUDIT_KAFKA_KEY_INDEX)
+            .put(prefix + ConfigConstants.SECURITY_AUDIT_KAFKA_MAX_IN_FLIGHT_MESSAGES, 1)
+            .build();
+        final Properties props = consumerProperties();
+        props.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+        props.put("value.deserializer", "org.apache.kafka.common.serialization.ByteArrayDeserializer");
+        try (KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(props)) {
+            consumer.subscribe(Arrays.asList("compliance_smile"));
+
+            final KafkaSink sink = (KafkaSink) new SinkProvider(settings, null, null, null).getDefaultSink();
+            try {
+                Assert.assertFalse(sink.isHandlingBackpressure());
+                for (String index : new String[] { "index-1", "index-2" }) {
+                    final AuditMessage msg = MockAuditMessageFactory.validAuditMessage(AuditCategory.MISSING_PRIVILEGES);
+                    msg.addIndices(new String[] { index, "other" });
+                    // the second message waits until the first one is acknowledged
+                    Assert.assertTrue(sink.doStore(msg));
+                }
+            } finally {
+                sink.close();
+            }
+            Assert.assertEquals(0, sink.inFlight());
+
+            final ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofSeconds(10));
+            Assert.assertEquals(2, records.count());
+            int i = 1;
+            for (ConsumerRecord<String, byte[]> record : records) {
+                Assert.assertEquals("index-" + i++, record.key());
+                final Map<String, Object> fields = XContentHelper.convertToMap(new BytesArray(record.value()), false, XContentType.SMILE)
+                    .v2();
+                Assert.assertEquals("John Doe", fields.get(AuditMessage.REQUEST_EFFECTIVE_USER));
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidFormat() throws Exception {
+        final String prefix = ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT_PREFIX;
+        final Settings settings = Settings.builder()
+            .put("path.home", ".")
+            .put(ConfigConstants.SECURITY_AUDIT_TYPE_DEFAULT, "kafka")
+            .put(prefix + "bootstrap_servers", embeddedKafka.getEmbeddedKafka().getBrokersAsString())
+            .put(prefix + "topic_name", "compliance")
+            .put(prefix + ConfigConstants.SECURITY_AUDIT_KAFKA_FORMAT, "yaml")
+            .build();
+        final AuditLogSink sink = new SinkProvider(settings, null, null, null).getDefaultSink();
+        try {
+            Assert.assertFalse(sink.doStore(MockAuditMessageFactory.validAuditMessage(AuditCategory.MISSING_PRIVILEGES)));
+        } finally {
+            sink.close();
+        }
+    }
+
     private KafkaConsumer<Long, String> createConsumer() {
+        Properties props = consumerProperties();
+        props.put("key.deserializer", "org.apache.kafka.common.serialization.LongDeserializer");
+        props.put("value.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+        return new KafkaConsumer<>(props);
+    }
+
+    private Properties consumerProperties() {
         Properties props = new Properties();
         props.put("bootstrap.servers", embeddedKafka.getEmbeddedKafka().getBrokersAsString());
         props.put("auto.offset.reset", "earliest");
         props.put("group.id", "mygroup" + System.currentTimeMillis() + "_" + new Random().nextDouble());
-        props.put("key.deserializer", "org.apache.kafka.common.serialization.LongDeserializer");
-        props.put("value.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
-        return new KafkaConsumer<>(props);
+        return props;
     }
 }
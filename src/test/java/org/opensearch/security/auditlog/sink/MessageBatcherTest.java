@@ -0,0 +1,169 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.sink;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class MessageBatcherTest {
+
+    @Test
+    public void testConfig() {
+        Assert.assertTrue(MessageBatcher.Config.from(Settings.EMPTY, true).isEnabled());
+        Assert.assertFalse(MessageBatcher.Config.from(Settings.EMPTY, false).isEnabled());
+        Assert.assertFalse(MessageBatcher.Config.from(Settings.builder().put("batch.enabled", false).build(), true).isEnabled());
+    }
+
+    @Test
+    public void testBatchesByCount() throws Exception {
+        final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch delivered = new CountDownLatch(2);
+        final MessageBatcher.Config config = new MessageBatcher.Config(true, 3, Long.MAX_VALUE, TimeValue.timeValueHours(1), 1, 100);
+
+        try (MessageBatcher<String> batcher = new MessageBatcher<>("test", config, 0, 0, String::length, (batch, onDone) -> {
+            batches.add(new ArrayList<>(batch));
+            onDone.accept(Collections.emptyList());
+            delivered.countDown();
+        }, failed -> Assert.fail("unexpected failure of " + failed))) {
+            for (int i = 0; i < 7; i++) {
+                Assert.assertTrue(batcher.offer("msg" + i));
+            }
+            Assert.assertTrue(delivered.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(List.of("msg0", "msg1", "msg2"), batches.get(0));
+            Assert.assertEquals(List.of("msg3", "msg4", "msg5"), batches.get(1));
+
+            batcher.flush();
+            awaitQueued(batcher, 0);
+            Assert.assertEquals(List.of("msg6"), batches.get(2));
+        }
+    }
+
+    @Test
+    public void testFailedMessagesAreRetriedThenHandedToFailureHandler() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final List<String> delivered = new CopyOnWriteArrayList<>();
+        final List<String> failures = new CopyOnWriteArrayList<>();
+        final MessageBatcher.Config config = new MessageBatcher.Config(true, 2, Long.MAX_VALUE, TimeValue.timeValueHours(1), 1, 100);
+
+        try (MessageBatcher<String> batcher = new MessageBatcher<>("test", config, 2, 1, String::length, (batch, onDone) -> {
+            attempts.incrementAndGet();
+            // only "bad" is rejected by the destination
+            onDone.accept(batch.contains("bad") ? List.of("bad") : Collections.emptyList());
+        }, delivered::add, failures::add)) {
+            Assert.assertTrue(batcher.offer("good"));
+            Assert.assertTrue(batcher.offer("bad"));
+            awaitQueued(batcher, 0);
+        }
+
+        Assert.assertEquals(3, attempts.get());
+        Assert.assertEquals(List.of("good"), delivered);
+        Assert.assertEquals(List.of("bad"), failures);
+    }
+
+    @Test
+    public void testFailureHandlerDoesNotBlockCompletion() throws Exception {
+        final List<Consumer<List<String>>> deliveries = new CopyOnWriteArrayList<>();
+        final List<String> handlerThreads = new CopyOnWriteArrayList<>();
+        final CountDownLatch release = new CountDownLatch(1);
+        final MessageBatcher.Config config = new MessageBatcher.Config(true, 1, Long.MAX_VALUE, TimeValue.timeValueHours(1), 1, 100);
+
+        try (MessageBatcher<String> batcher = new MessageBatcher<>("test", config, 0, 0, String::length, (batch, onDone) -> {
+            deliveries.add(onDone);
+        }, failed -> {
+            handlerThreads.add(Thread.currentThread().getName());
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        })) {
+            Assert.assertTrue(batcher.offer("msg0"));
+
+            // completes on the calling thread, which stands in for a transport or IO reactor thread
+            awaitDeliveries(deliveries, 1).accept(List.of("msg0"));
+            Assert.assertEquals(1, batcher.queued());
+
+            release.countDown();
+            awaitQueued(batcher, 0);
+            Assert.assertEquals(1, handlerThreads.size());
+            Assert.assertNotEquals(Thread.currentThread().getName(), handlerThreads.get(0));
+        }
+    }
+
+    @Test
+    public void testOfferIsRejectedWhenFull() throws Exception {
+        final List<Consumer<List<String>>> deliveries = new CopyOnWriteArrayList<>();
+        final MessageBatcher.Config config = new MessageBatcher.Config(true, 1, Long.MAX_VALUE, TimeValue.timeValueHours(1), 1, 2);
+
+        try (MessageBatcher<String> batcher = new MessageBatcher<>("test", config, 0, 0, String::length, (batch, onDone) -> {
+            deliveries.add(onDone);
+        }, failed -> Assert.fail("unexpected failure of " + failed))) {
+            Assert.assertTrue(batcher.offer("msg0"));
+            Assert.assertTrue(batcher.offer("msg1"));
+            Assert.assertFalse(batcher.offer("msg2"));
+            Assert.assertEquals(2, batcher.queued());
+
+            awaitDeliveries(deliveries, 1).accept(Collections.emptyList());
+            awaitQueued(batcher, 1);
+            Assert.assertTrue(batcher.offer("msg2"));
+
+            awaitDeliveries(deliveries, 2).accept(Collections.emptyList());
+            awaitDeliveries(deliveries, 3).accept(Collections.emptyList());
+            awaitQueued(batcher, 0);
+        }
+    }
+
+    @Test
+    public void testCloseHandsPendingMessagesToFailureHandler() {
+        final List<String> failures = new CopyOnWriteArrayList<>();
+        final MessageBatcher.Config config = new MessageBatcher.Config(true, 10, Long.MAX_VALUE, TimeValue.timeValueHours(1), 1, 100);
+        final MessageBatcher<String> batcher = new MessageBatcher<>(
+            "test",
+            config,
+            0,
+            0,
+            String::length,
+            (batch, onDone) -> onDone.accept(batch),
+            failures::add
+        );
+
+        Assert.assertTrue(batcher.offer("msg0"));
+        batcher.close();
+
+        Assert.assertEquals(List.of("msg0"), failures);
+        Assert.assertFalse(batcher.offer("msg1"));
+    }
+
+    private static <T> T awaitDeliveries(final List<T> deliveries, final int expected) {
+        Awaitility.await().until(deliveries::size, equalTo(expected));
+        return deliveries.get(expected - 1);
+    }
+
+    private static void awaitQueued(final MessageBatcher<?> batcher, final int expected) {
+        Awaitility.await().until(batcher::queued, equalTo(expected));
+    }
+}
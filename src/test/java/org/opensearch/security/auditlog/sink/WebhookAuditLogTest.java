@@ -343,6 +343,119 @@ public class WebhookAuditLogTest {
         server.awaitTermination(TimeValue.ofSeconds(3));
     }
 
+    @Test
+    public void batchedPostHttpTest() throws Exception {
+        TestHttpHandler handler = new TestHttpHandler();
+
+        int port = findFreePort();
+        server = ServerBootstrap.bootstrap()
+            .setListenerPort(port)
+            .setHttpProcessor(HttpProcessors.server("Test/1.1"))
+            .register("*", handler)
+            .create();
+
+        server.start();
+
+        String url = "http://localhost:" + port + "/endpoint";
+
+        // JSON, newline delimited
+        Settings settings = Settings.builder()
+            .put("plugins.security.audit.config.webhook.url", url)
+            .put("plugins.security.audit.config.webhook.format", "json")
+            .put("plugins.security.audit.config.batch.enabled", true)
+            .put("plugins.security.audit.config.batch.linger", "1h")
+            .put("path.home", ".")
+            .put(
+                SSLConfigConstants.SECURITY_SSL_TRANSPORT_TRUSTSTORE_FILEPATH,
+                FileHelper.getAbsoluteFilePathFromClassPath("auditlog/truststore.jks")
+            )
+            .build();
+
+        LoggingSink fallback = new LoggingSink("test", Settings.EMPTY, null, null);
+        WebhookSink auditlog = new WebhookSink("name", settings, ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT, null, fallback);
+        Assert.assertTrue(auditlog.isHandlingBackpressure());
+        AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+        auditlog.store(msg);
+        auditlog.store(msg);
+        // pending messages are sent on close
+        auditlog.close();
+        Assert.assertEquals("POST", handler.method);
+        String[] lines = handler.body.split("\n");
+        Assert.assertEquals(2, lines.length);
+        for (String line : lines) {
+            Assert.assertTrue(line, line.startsWith("{"));
+            assertStringContainsAllKeysAndValues(line);
+        }
+        Assert.assertEquals(0, fallback.messages.size());
+        handler.reset();
+
+        // JSON array
+        settings = Settings.builder()
+            .put(settings)
+            .put("plugins.security.audit.config.webhook.batch.payload", "json_array")
+            .build();
+        auditlog = new WebhookSink("name", settings, ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT, null, fallback);
+        auditlog.store(msg);
+        auditlog.store(msg);
+        auditlog.close();
+        Assert.assertTrue(handler.body, handler.body.startsWith("[{"));
+        Assert.assertTrue(handler.body, handler.body.endsWith("}]"));
+        Assert.assertEquals(0, fallback.messages.size());
+        handler.reset();
+
+        // text messages span several lines, so these are not batched but sent one by one
+        settings = Settings.builder()
+            .put(settings)
+            .put("plugins.security.audit.config.webhook.format", "text")
+            .build();
+        auditlog = new WebhookSink("name", settings, ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT, null, fallback);
+        Assert.assertFalse(auditlog.isHandlingBackpressure());
+        AuditMessage other = MockAuditMessageFactory.validAuditMessage(AuditCategory.MISSING_PRIVILEGES);
+        auditlog.store(msg);
+        Assert.assertEquals(msg.toText(), handler.body);
+        auditlog.store(other);
+        Assert.assertEquals(other.toText(), handler.body);
+        auditlog.close();
+        Assert.assertEquals(0, fallback.messages.size());
+        handler.reset();
+
+        // batching is not supported for URL parameters
+        settings = Settings.builder()
+            .put(settings)
+            .put("plugins.security.audit.config.webhook.format", "URL_PARAMETER_POST")
+            .build();
+        auditlog = new WebhookSink("name", settings, ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT, null, fallback);
+        Assert.assertFalse(auditlog.isHandlingBackpressure());
+        auditlog.store(msg);
+        Assert.assertEquals("POST", handler.method);
+        auditlog.close();
+
+        server.awaitTermination(TimeValue.ofSeconds(1));
+    }
+
+    @Test
+    public void batchedPostNoServerRunningHttpTest() throws Exception {
+        Settings settings = Settings.builder()
+            .put("plugins.security.audit.config.webhook.url", "http://localhost:" + findFreePort() + "/endpoint")
+            .put("plugins.security.audit.config.webhook.format", "json")
+            .put("plugins.security.audit.config.batch.enabled", true)
+            .put("path.home", ".")
+            .put(
+                SSLConfigConstants.SECURITY_SSL_TRANSPORT_TRUSTSTORE_FILEPATH,
+                FileHelper.getAbsoluteFilePathFromClassPath("auditlog/truststore.jks")
+            )
+            .build();
+
+        LoggingSink fallback = new LoggingSink("test", Settings.EMPTY, null, null);
+        WebhookSink auditlog = new WebhookSink("name", settings, ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT, null, fallback);
+        AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+        auditlog.store(msg);
+        auditlog.close();
+        // can't connect, message must be stored in fallback
+        Assert.assertEquals(1, fallback.messages.size());
+        Assert.assertEquals(msg, fallback.messages.get(0));
+    }
+
     @Test
     public void httpsTestWithoutTLSServer() throws Exception {
 
@@ -0,0 +1,155 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.compliance;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.security.auditlog.AuditLog;
+import org.opensearch.security.auditlog.AuditTestUtils;
+import org.opensearch.security.auditlog.impl.AbstractAuditLog;
+import org.opensearch.security.auditlog.impl.AuditCategory;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+import org.opensearch.security.auditlog.integration.TestAuditlogImpl;
+import org.opensearch.security.support.ConfigConstants;
+import org.opensearch.security.test.AbstractSecurityUnitTest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class FieldReadAggregatorTest {
+
+    private static final ShardId SHARD_ID = new ShardId("deals", "uuid", 0);
+
+    private final ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+    private final AuditLog auditLog = mock(AuditLog.class);
+    private final FieldReadAggregator aggregator = new FieldReadAggregator(threadContext, auditLog, "deals", SHARD_ID);
+
+    @Test
+    public void testReadsAreCountedPerField() {
+        aggregator.documentRead(List.of("amount", "dept"));
+        aggregator.documentRead(List.of("amount"));
+        aggregator.documentRead(List.of());
+        aggregator.documentRead(List.of("amount"));
+
+        aggregator.flush();
+
+        verify(auditLog).logDocumentsRead("deals", SHARD_ID, ImmutableMap.of("amount", "3", "dept", "1"));
+        verify(auditLog, never()).logDocumentRead(anyString(), any(), any(), anyMap());
+    }
+
+    @Test
+    public void testNothingIsLoggedWithoutReads() {
+        aggregator.documentRead(List.of());
+        aggregator.flush();
+
+        verifyNoMoreInteractions(auditLog);
+    }
+
+    @Test
+    public void testFlushResetsCounts() {
+        aggregator.documentRead(List.of("amount"));
+        aggregator.flush();
+        aggregator.flush();
+
+        aggregator.documentRead(List.of("dept"));
+        aggregator.flush();
+
+        verify(auditLog).logDocumentsRead("deals", SHARD_ID, ImmutableMap.of("amount", "1"));
+        verify(auditLog).logDocumentsRead("deals", SHARD_ID, ImmutableMap.of("dept", "1"));
+        verifyNoMoreInteractions(auditLog);
+    }
+
+    @Test
+    public void testContextOfReadingRequestIsRestored() {
+        try (ThreadContext.StoredContext ignored = threadContext.stashContext()) {
+            threadContext.putTransient("reader", "request");
+            aggregator.documentRead(List.of("amount"));
+        }
+        Assert.assertNull(threadContext.getTransient("reader"));
+
+        final String[] loggedWith = new String[1];
+        doAnswer(invocation -> {
+            loggedWith[0] = threadContext.getTransient("reader");
+            return null;
+        }).when(auditLog).logDocumentsRead(eq("deals"), eq(SHARD_ID), anyMap());
+
+        aggregator.flush();
+
+        Assert.assertEquals("request", loggedWith[0]);
+        Assert.assertNull(threadContext.getTransient("reader"));
+    }
+
+    @Test
+    public void testAggregatedReadsAreMarked() {
+        final ClusterService cs = mock(ClusterService.class);
+        final DiscoveryNode dn = mock(DiscoveryNode.class);
+        when(dn.getHostAddress()).thenReturn("hostaddress");
+        when(dn.getId()).thenReturn("hostaddress");
+        when(dn.getHostName()).thenReturn("hostaddress");
+        when(cs.localNode()).thenReturn(dn);
+        when(cs.getClusterName()).thenReturn(new ClusterName("cname"));
+        final Settings settings = Settings.builder()
+            .put("plugins.security.audit.type", TestAuditlogImpl.class.getName())
+            .put(ConfigConstants.OPENDISTRO_SECURITY_COMPLIANCE_HISTORY_READ_WATCHED_FIELDS, "deals")
+            .build();
+        final AbstractAuditLog al = AuditTestUtils.createAuditLog(settings, null, null, AbstractSecurityUnitTest.MOCK_POOL, null, cs);
+        final FieldReadAggregator aggregator = new FieldReadAggregator(
+            AbstractSecurityUnitTest.MOCK_POOL.getThreadContext(),
+            al,
+            "deals",
+            SHARD_ID
+        );
+
+        final List<AuditMessage> messages = TestAuditlogImpl.doThenWaitForMessages(() -> {
+            aggregator.documentRead(List.of("amount"));
+            aggregator.documentRead(List.of("amount"));
+            aggregator.flush();
+            al.logDocumentRead("deals", "1", SHARD_ID, ImmutableMap.of("amount", "10"));
+        }, 2);
+
+        Assert.assertEquals(2, messages.size());
+        for (final AuditMessage msg : messages) {
+            Assert.assertEquals(AuditCategory.COMPLIANCE_DOC_READ, msg.getCategory());
+            final Map<String, Object> fields = msg.getAsMap();
+            if (fields.containsKey(AuditMessage.COMPLIANCE_READ_AGGREGATED)) {
+                Assert.assertEquals(true, fields.get(AuditMessage.COMPLIANCE_READ_AGGREGATED));
+                Assert.assertEquals("{\"amount\":\"2\"}", fields.get(AuditMessage.REQUEST_BODY));
+                Assert.assertNull(fields.get(AuditMessage.ID));
+            } else {
+                Assert.assertEquals("1", fields.get(AuditMessage.ID));
+            }
+        }
+        Assert.assertEquals(
+            1,
+            messages.stream().filter(msg -> msg.getAsMap().containsKey(AuditMessage.COMPLIANCE_READ_AGGREGATED)).count()
+        );
+    }
+}
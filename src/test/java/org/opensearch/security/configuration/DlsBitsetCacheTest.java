@@ -0,0 +1,93 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.FixedBitSet;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.security.support.ConfigConstants;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class DlsBitsetCacheTest {
+
+    @Test
+    public void testBitsetIsReusedUntilSegmentIsClosed() throws Exception {
+        final DlsBitsetCache cache = new DlsBitsetCache(Settings.EMPTY, () -> null);
+        final AtomicInteger loads = new AtomicInteger();
+        final Query query = new TermQuery(new Term("dept", "a"));
+
+        try (Directory directory = new ByteBuffersDirectory()) {
+            try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+                for (int i = 0; i < 10; i++) {
+                    final Document doc = new Document();
+                    doc.add(new StringField("dept", i % 2 == 0 ? "a" : "b", Field.Store.NO));
+                    writer.addDocument(doc);
+                }
+            }
+
+            final DirectoryReader reader = DirectoryReader.open(directory);
+            final LeafReader leaf = reader.leaves().get(0).reader();
+
+            final FixedBitSet first = cache.getOrLoad(leaf, query, null, null, () -> {
+                loads.incrementAndGet();
+                return new FixedBitSet(leaf.maxDoc());
+            });
+            final FixedBitSet second = cache.getOrLoad(leaf, new TermQuery(new Term("dept", "a")), null, null, () -> {
+                loads.incrementAndGet();
+                return new FixedBitSet(leaf.maxDoc());
+            });
+
+            assertSame(first, second);
+            assertEquals(1, loads.get());
+            assertEquals(1, cache.hitCount());
+            assertEquals(1, cache.size());
+
+            cache.getOrLoad(leaf, query, ImmutableSet.of("~secret"), null, () -> {
+                loads.incrementAndGet();
+                return new FixedBitSet(leaf.maxDoc());
+            });
+            assertEquals(2, loads.get());
+            assertEquals(2, cache.size());
+
+            reader.close();
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void testCacheCanBeDisabled() throws Exception {
+        final DlsBitsetCache cache = new DlsBitsetCache(
+            Settings.builder().put(ConfigConstants.SECURITY_DLS_BITSET_CACHE_SIZE, "0b").build(),
+            () -> null
+        );
+        assertFalse(cache.isEnabled());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import org.opensearch.common.io.stream.BytesStreamOutput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+public class DlsFlsCacheKeyExtBuilderTest {
+
+    private static final String DLS = "{\"term\":{\"dept\":\"a\"}}";
+
+    @Test
+    public void testIdenticalRestrictionsShareKey() {
+        assertEquals(
+            DlsFlsCacheKeyExtBuilder.of(ImmutableSet.of(DLS, "{\"match_all\":{}}"), ImmutableSet.of("a", "b"), null),
+            DlsFlsCacheKeyExtBuilder.of(Arrays.asList("{\"match_all\":{}}", DLS), ImmutableSet.of("b", "a"), Collections.emptySet())
+        );
+    }
+
+    @Test
+    public void testDifferentRestrictionsHaveDifferentKeys() {
+        final DlsFlsCacheKeyExtBuilder dlsOnly = DlsFlsCacheKeyExtBuilder.of(ImmutableSet.of(DLS), null, null);
+
+        assertNotEquals(dlsOnly, DlsFlsCacheKeyExtBuilder.of(ImmutableSet.of("{\"term\":{\"dept\":\"b\"}}"), null, null));
+        assertNotEquals(dlsOnly, DlsFlsCacheKeyExtBuilder.of(ImmutableSet.of(DLS), ImmutableSet.of("~secret"), null));
+        assertNotEquals(dlsOnly, DlsFlsCacheKeyExtBuilder.of(ImmutableSet.of(DLS), null, ImmutableSet.of("ip")));
+        // the same value must not match in another section
+        assertNotEquals(
+            DlsFlsCacheKeyExtBuilder.of(null, ImmutableSet.of("ip"), null),
+            DlsFlsCacheKeyExtBuilder.of(null, null, ImmutableSet.of("ip"))
+        );
+    }
+
+    @Test
+    public void testNoKeyWithoutRestrictions() {
+        assertNull(DlsFlsCacheKeyExtBuilder.of(null, Collections.emptySet(), null));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        final DlsFlsCacheKeyExtBuilder key = DlsFlsCacheKeyExtBuilder.of(ImmutableSet.of(DLS), null, null);
+
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            key.writeTo(out);
+            assertEquals(key, new DlsFlsCacheKeyExtBuilder(out.bytes().streamInput()));
+        }
+    }
+}
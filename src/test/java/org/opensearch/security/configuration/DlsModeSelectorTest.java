@@ -0,0 +1,71 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.search.SearchModule;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.security.configuration.DlsFlsValveImpl.Mode;
+
+import static org.junit.Assert.assertEquals;
+
+public class DlsModeSelectorTest {
+
+    private static final Set<String> TERM_QUERY = ImmutableSet.of("{\"term\":{\"dept\":\"a\"}}");
+    private static final Set<String> WILDCARD_QUERY = ImmutableSet.of("{\"wildcard\":{\"dept\":\"a*\"}}");
+    private static final Set<String> TERMS_LOOKUP_QUERY = ImmutableSet.of(
+        "{\"terms\":{\"dept\":{\"index\":\"users\",\"id\":\"1\",\"path\":\"depts\"}}}"
+    );
+
+    private final DlsModeSelector selector = new DlsModeSelector(
+        new DlsQueryParser(new NamedXContentRegistry(new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedXContents()))
+    );
+
+    @Test
+    public void testTermsLookupRequiresFilterLevel() {
+        assertEquals(Mode.FILTER_LEVEL, selector.select(new GetRequest("idx", "1"), TERMS_LOOKUP_QUERY, () -> 1).mode());
+    }
+
+    @Test
+    public void testEstimate() {
+        assertEquals(Mode.LUCENE_LEVEL, selector.select(search(), TERM_QUERY, () -> 8).mode());
+        assertEquals(Mode.LUCENE_LEVEL, selector.select(search(), WILDCARD_QUERY, () -> 1).mode());
+        assertEquals(Mode.FILTER_LEVEL, selector.select(search(), WILDCARD_QUERY, () -> 8).mode());
+        assertEquals(Mode.LUCENE_LEVEL, selector.select(new GetRequest("idx", "1"), WILDCARD_QUERY, () -> 8).mode());
+        // scrolls are not supported by filter level DLS
+        assertEquals(Mode.LUCENE_LEVEL, selector.select(search().scroll("1m"), WILDCARD_QUERY, () -> 8).mode());
+    }
+
+    @Test
+    public void testMeasuredLatencyOverridesEstimate() {
+        for (int i = 0; i < 800; i++) {
+            DlsModeSelector.Selection selection = selector.select(search(), TERM_QUERY, () -> 1);
+            selector.record(selection, TimeUnit.MILLISECONDS.toNanos(selection.mode() == Mode.FILTER_LEVEL ? 1 : 10));
+        }
+
+        assertEquals(Mode.FILTER_LEVEL, selector.select(search(), TERM_QUERY, () -> 1).mode());
+    }
+
+    private static SearchRequest search() {
+        return new SearchRequest("idx").source(new SearchSourceBuilder());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.junit.Test;
+
+import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.search.SearchModule;
+import org.opensearch.security.support.ConfigConstants;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DlsQueryCacheTest {
+
+    private static final String TERM_QUERY = "{\"term\": {\"dept\": \"sales\"}}";
+    private static final String RANGE_QUERY = "{\"range\": {\"amount\": {\"gte\": 1000}}}";
+
+    private final DlsQueryCache cache = new DlsQueryCache(Settings.EMPTY);
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @Test
+    public void testKeyIgnoresQueryOrder() {
+        final Query query = get(new LinkedHashSet<>(List.of(TERM_QUERY, RANGE_QUERY)), false, "uuid", 1, cacheable());
+
+        assertSame(query, get(new LinkedHashSet<>(List.of(RANGE_QUERY, TERM_QUERY)), false, "uuid", 1, cacheable()));
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    public void testKeyContainsScoringIndexAndMappingVersion() {
+        final Set<String> queries = ImmutableSet.of(TERM_QUERY);
+        final Query query = get(queries, false, "uuid", 1, cacheable());
+
+        assertNotSame(query, get(queries, true, "uuid", 1, cacheable()));
+        assertNotSame(query, get(queries, false, "other-uuid", 1, cacheable()));
+        assertNotSame(query, get(queries, false, "uuid", 2, cacheable()));
+        assertNotSame(query, get(ImmutableSet.of(RANGE_QUERY), false, "uuid", 1, cacheable()));
+        assertEquals(5, builds.get());
+        assertEquals(5, cache.size());
+    }
+
+    @Test
+    public void testNonCacheableQueriesAreNotCached() {
+        final Set<String> queries = ImmutableSet.of("{\"range\": {\"date\": {\"gte\": \"now-1d\"}}}");
+        final Supplier<Tuple<Query, Boolean>> usingNow = () -> new Tuple<>(query(), false);
+
+        assertNotSame(get(queries, false, "uuid", 1, usingNow), get(queries, false, "uuid", 1, usingNow));
+        assertEquals(2, builds.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictionByWeight() {
+        final DlsQueryCache cache = new DlsQueryCache(
+            Settings.builder().put(ConfigConstants.SECURITY_DLS_QUERY_CACHE_SIZE, "64kb").build()
+        );
+
+        for (int i = 0; i < 1000; i++) {
+            cache.getOrBuild(ImmutableSet.of(TERM_QUERY), false, "uuid-" + i, 1, cacheable());
+        }
+
+        assertTrue(cache.size() > 0);
+        assertTrue(cache.size() < 1000);
+        assertTrue(cache.weightInBytes() <= 64 * 1024);
+        assertTrue(cache.stats().evictionCount() > 0);
+    }
+
+    @Test
+    public void testDisabled() {
+        final DlsQueryCache cache = new DlsQueryCache(Settings.builder().put(ConfigConstants.SECURITY_DLS_QUERY_CACHE_SIZE, "0b").build());
+
+        cache.getOrBuild(ImmutableSet.of(TERM_QUERY), false, "uuid", 1, cacheable());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testQueriesCapturingShardContextAreNotShared() {
+        final DlsQueryParser parser = new DlsQueryParser(
+            new NamedXContentRegistry(new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedXContents())
+        );
+
+        assertTrue(parser.isCacheable(ImmutableSet.of(TERM_QUERY, RANGE_QUERY)));
+        assertTrue(
+            parser.isCacheable(ImmutableSet.of("{\"bool\": {\"filter\": [" + TERM_QUERY + "], \"must_not\": [" + RANGE_QUERY + "]}}"))
+        );
+        assertTrue(parser.isCacheable(ImmutableSet.of("{\"terms\": {\"dept\": [\"sales\", \"support\"]}}")));
+
+        assertFalse(parser.isCacheable(ImmutableSet.of(TERM_QUERY, "{\"script\": {\"script\": \"doc['amount'].value > 10\"}}")));
+        assertFalse(
+            parser.isCacheable(
+                ImmutableSet.of("{\"terms\": {\"dept\": {\"index\": \"user_depts\", \"id\": \"${user.name}\", \"path\": \"depts\"}}}")
+            )
+        );
+        assertFalse(
+            parser.isCacheable(
+                ImmutableSet.of("{\"bool\": {\"should\": [" + TERM_QUERY + ", {\"script\": {\"script\": \"doc['x'].size() > 0\"}}]}}")
+            )
+        );
+        assertFalse(parser.isCacheable(ImmutableSet.of("{\"function_score\": {\"query\": " + TERM_QUERY + ", \"random_score\": {}}}")));
+    }
+
+    private Query get(
+        final Set<String> queries,
+        final boolean constantScoreClauses,
+        final String indexUUID,
+        final long mappingVersion,
+        final Supplier<Tuple<Query, Boolean>> builder
+    ) {
+        return cache.getOrBuild(queries, constantScoreClauses, indexUUID, mappingVersion, builder);
+    }
+
+    private Supplier<Tuple<Query, Boolean>> cacheable() {
+        return () -> new Tuple<>(query(), true);
+    }
+
+    private Query query() {
+        return new TermQuery(new Term("dept", "sales-" + builds.incrementAndGet()));
+    }
+}
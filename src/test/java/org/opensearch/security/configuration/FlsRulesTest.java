@@ -0,0 +1,141 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FlsRulesTest {
+
+    @Test
+    public void testFieldInfosAreSharedUntilSegmentIsClosed() throws Exception {
+        final FlsFieldInfosCache cache = new FlsFieldInfosCache();
+        final FlsRules rules = new FlsRules(ImmutableSet.of("~secret"), cache);
+
+        try (Directory directory = index()) {
+            final DirectoryReader reader = DirectoryReader.open(directory);
+            final LeafReader leaf = reader.leaves().get(0).reader();
+
+            final FieldInfos first = rules.fieldInfos(leaf);
+            assertSame(first, rules.fieldInfos(leaf));
+            assertEquals(1, cache.size());
+
+            assertNull(first.fieldInfo("secret"));
+            assertNull(first.fieldInfo("secret.keyword"));
+            assertNotNull(first.fieldInfo("name"));
+            assertNotNull(first.fieldInfo("address.zip"));
+
+            reader.close();
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void testWildcardIncludes() throws Exception {
+        final FlsRules rules = new FlsRules(ImmutableSet.of("address.*"), new FlsFieldInfosCache());
+
+        try (Directory directory = index(); DirectoryReader reader = DirectoryReader.open(directory)) {
+            final FieldInfos infos = rules.fieldInfos(reader.leaves().get(0).reader());
+
+            assertEquals(1, infos.size());
+            assertNotNull(infos.fieldInfo("address.zip"));
+        }
+    }
+
+    @Test
+    public void testRebuiltRulesRegisterOneListenerPerSegment() throws Exception {
+        final FlsFieldInfosCache cache = new FlsFieldInfosCache(10);
+
+        try (Directory directory = index()) {
+            final DirectoryReader reader = DirectoryReader.open(directory);
+            final ListenerCountingReader leaf = new ListenerCountingReader(reader.leaves().get(0).reader());
+
+            final FieldInfos first = new FlsRules(ImmutableSet.of("~secret"), cache).fieldInfos(leaf);
+            for (int i = 0; i < 1000; i++) {
+                assertSame(first, new FlsRules(ImmutableSet.of("~secret"), cache).fieldInfos(leaf));
+            }
+            for (int i = 0; i < 1000; i++) {
+                new FlsRules(ImmutableSet.of("~secret", "~field" + i), cache).fieldInfos(leaf);
+            }
+
+            assertEquals(1, leaf.listeners.get());
+            assertEquals(10, cache.size());
+
+            reader.close();
+            assertEquals(0, cache.size());
+        }
+    }
+
+    private static Directory index() throws Exception {
+        final Directory directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            final Document doc = new Document();
+            doc.add(new StringField("name", "john", Field.Store.YES));
+            doc.add(new StringField("secret", "s3cr3t", Field.Store.YES));
+            doc.add(new StringField("secret.keyword", "s3cr3t", Field.Store.NO));
+            doc.add(new StringField("address.zip", "123", Field.Store.YES));
+            writer.addDocument(doc);
+        }
+        return directory;
+    }
+
+    private static final class ListenerCountingReader extends FilterLeafReader {
+        private final AtomicInteger listeners = new AtomicInteger();
+        private final IndexReader.CacheHelper coreCacheHelper;
+
+        private ListenerCountingReader(final LeafReader in) {
+            super(in);
+            final IndexReader.CacheHelper delegate = in.getCoreCacheHelper();
+            this.coreCacheHelper = new IndexReader.CacheHelper() {
+                @Override
+                public IndexReader.CacheKey getKey() {
+                    return delegate.getKey();
+                }
+
+                @Override
+                public void addClosedListener(final IndexReader.ClosedListener listener) {
+                    listeners.incrementAndGet();
+                    delegate.addClosedListener(listener);
+                }
+            };
+        }
+
+        @Override
+        public IndexReader.CacheHelper getCoreCacheHelper() {
+            return coreCacheHelper;
+        }
+
+        @Override
+        public IndexReader.CacheHelper getReaderCacheHelper() {
+            return null;
+        }
+    }
+}
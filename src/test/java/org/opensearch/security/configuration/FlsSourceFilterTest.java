@@ -0,0 +1,151 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.logging.log4j.LogManager;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import org.opensearch.common.StopWatch;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.common.xcontent.support.XContentMapValues;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.security.dlic.rest.support.Utils;
+
+import static org.junit.Assert.assertEquals;
+
+public class FlsSourceFilterTest {
+
+    private static final String SOURCE = "{\"name\":\"john\",\"secret\":\"s3cr3t\",\"address\":{\"street\":\"main\",\"zip\":\"123\","
+        + "\"geo\":{\"lat\":1.0,\"lon\":2.0}},\"tags\":[\"a\",\"b\"],\"items\":[{\"id\":1,\"price\":10},{\"price\":20}],"
+        + "\"nested\":[[{\"id\":2}]],\"empty\":{},\"nothing\":null}";
+
+    @Test
+    public void testMatchesMapBasedFilteringForIncludes() throws Exception {
+        assertSameAsMapFilter(new String[] { "name" }, null);
+        assertSameAsMapFilter(new String[] { "address.zip", "items.id" }, null);
+        assertSameAsMapFilter(new String[] { "addr*", "n*" }, null);
+        assertSameAsMapFilter(new String[] { "*.lat" }, null);
+        assertSameAsMapFilter(new String[] { "empty", "tags" }, null);
+    }
+
+    @Test
+    public void testMatchesMapBasedFilteringForExcludes() throws Exception {
+        assertSameAsMapFilter(null, new String[] { "secret" });
+        assertSameAsMapFilter(null, new String[] { "address.geo" });
+        assertSameAsMapFilter(null, new String[] { "*.price", "nested.id" });
+        assertSameAsMapFilter(null, new String[] { "*" });
+        assertSameAsMapFilter(null, new String[] { "address.*" });
+    }
+
+    @Test
+    public void testTopLevelFields() throws Exception {
+        final Map<String, Object> source = XContentHelper.convertToMap(new BytesArray(SOURCE), true, XContentType.JSON).v2();
+
+        final Map<String, Object> excluded = filteredAsMap(
+            FlsSourceFilter.forTopLevelFields(ImmutableSet.of(), ImmutableSet.of("secret", "tags")),
+            SOURCE.getBytes(StandardCharsets.UTF_8)
+        );
+        source.keySet().removeAll(ImmutableSet.of("secret", "tags"));
+        assertEquals(source, excluded);
+
+        final Map<String, Object> included = filteredAsMap(
+            FlsSourceFilter.forTopLevelFields(ImmutableSet.of("name", "address"), ImmutableSet.of()),
+            SOURCE.getBytes(StandardCharsets.UTF_8)
+        );
+        source.keySet().retainAll(ImmutableSet.of("name", "address"));
+        assertEquals(source, included);
+    }
+
+    @Test
+    public void testPreservesContentType() throws Exception {
+        final Map<String, Object> source = XContentHelper.convertToMap(new BytesArray(SOURCE), true, XContentType.JSON).v2();
+
+        for (XContentType type : new XContentType[] { XContentType.SMILE, XContentType.CBOR }) {
+            final XContentBuilder builder = XContentBuilder.builder(type.xContent()).map(source);
+            final byte[] filtered = FlsSourceFilter.forPatterns(null, new String[] { "secret" })
+                .filter(BytesReference.toBytes(BytesReference.bytes(builder)));
+
+            final Map<String, Object> expected = XContentMapValues.filter(null, new String[] { "secret" }).apply(source);
+            assertEquals(expected, XContentHelper.convertToMap(new BytesArray(filtered), true, type).v2());
+        }
+    }
+
+    /**
+     * Compares map based and streaming filtering of documents from 1KB to 1MB; the timings are logged.
+     */
+    @Test
+    @Ignore(value = "benchmark, run manually")
+    public void testPerformance() throws Exception {
+        final String[] excludes = new String[] { "doc.secret", "*.ssn" };
+        final Function<Map<String, ?>, Map<String, Object>> mapFilter = XContentMapValues.filter(null, excludes);
+        final FlsSourceFilter streamingFilter = FlsSourceFilter.forPatterns(null, excludes);
+        final StopWatch sw = new StopWatch("FLS source filtering");
+
+        for (int size : new int[] { 1024, 10 * 1024, 100 * 1024, 1024 * 1024 }) {
+            final byte[] source = documentOfSize(size);
+            final int iterations = Math.max(10, 20 * 1024 * 1024 / size);
+
+            assertEquals(mapFilter.apply(Utils.byteArrayToMutableJsonMap(source)), filteredAsMap(streamingFilter, source));
+
+            sw.start(size + " bytes, map based, " + iterations + " documents");
+            for (int i = 0; i < iterations; i++) {
+                Utils.jsonMapToByteArray(mapFilter.apply(Utils.byteArrayToMutableJsonMap(source)));
+            }
+            sw.stop();
+
+            sw.start(size + " bytes, streaming, " + iterations + " documents");
+            for (int i = 0; i < iterations; i++) {
+                streamingFilter.filter(source);
+            }
+            sw.stop();
+        }
+
+        LogManager.getLogger(FlsSourceFilterTest.class).info(sw.prettyPrint());
+    }
+
+    private static byte[] documentOfSize(final int size) {
+        final StringBuilder sb = new StringBuilder("{\"doc\":{\"secret\":\"x\",\"entries\":[");
+        int i = 0;
+        while (sb.length() < size) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(i).append(",\"name\":\"name").append(i).append("\",\"ssn\":\"123-45-").append(i).append("\"}");
+            i++;
+        }
+        sb.append("]}}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void assertSameAsMapFilter(final String[] includes, final String[] excludes) throws Exception {
+        final Map<String, Object> source = XContentHelper.convertToMap(new BytesArray(SOURCE), true, XContentType.JSON).v2();
+        final Map<String, Object> expected = XContentMapValues.filter(includes, excludes).apply(source);
+        final Map<String, Object> actual = filteredAsMap(
+            FlsSourceFilter.forPatterns(includes, excludes),
+            SOURCE.getBytes(StandardCharsets.UTF_8)
+        );
+        assertEquals(expected, actual);
+    }
+
+    private static Map<String, Object> filteredAsMap(final FlsSourceFilter filter, final byte[] source) throws Exception {
+        return XContentHelper.convertToMap(new BytesArray(filter.filter(source)), true, XContentType.JSON).v2();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.lucene.util.BytesRef;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class MaskedFieldTest {
+
+    private static final Salt SALT = Salt.from(Settings.EMPTY);
+
+    @Test
+    public void testCachedMaskingMatchesUncachedMasking() {
+        final MaskedValueCache cache = new MaskedValueCache(1024 * 1024);
+
+        for (String definition : new String[] { "ip", "ip::SHA-256", "ip::/[0-9]{1,3}$/::XXX::/^[0-9]{1,3}/::***" }) {
+            final MaskedField uncached = new MaskedField(definition, SALT);
+            final MaskedField cached = new MaskedField(definition, SALT, cache);
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(uncached.mask("127.0.0.1"), cached.mask("127.0.0.1"));
+                assertArrayEquals(
+                    uncached.mask("10.0.0.1".getBytes(StandardCharsets.UTF_8)),
+                    cached.mask("10.0.0.1".getBytes(StandardCharsets.UTF_8))
+                );
+                assertEquals(
+                    uncached.mask(new BytesRef("xx192.168.0.1".getBytes(StandardCharsets.UTF_8), 2, 11)),
+                    cached.mask(new BytesRef("192.168.0.1"))
+                );
+            }
+        }
+
+        assertEquals(9, cache.size());
+    }
+
+    @Test
+    public void testCachedValuesAreNotExposed() {
+        final MaskedField field = new MaskedField("ip", SALT, new MaskedValueCache(1024 * 1024));
+        final BytesRef expected = field.mask(new BytesRef("127.0.0.1"));
+
+        final BytesRef masked = field.mask(new BytesRef("127.0.0.1"));
+        Arrays.fill(masked.bytes, masked.offset, masked.offset + masked.length, (byte) 0);
+        final byte[] maskedBytes = field.mask("127.0.0.1".getBytes(StandardCharsets.UTF_8));
+        Arrays.fill(maskedBytes, (byte) 0);
+
+        assertEquals(expected, field.mask(new BytesRef("127.0.0.1")));
+    }
+
+    @Test
+    public void testDigestIsResetBetweenValues() {
+        final MaskedField field = new MaskedField("name", SALT);
+
+        final String first = field.mask("a");
+        assertNotEquals(first, field.mask("b"));
+        assertEquals(first, field.mask("a"));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.security.support.ConfigConstants;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MaskedOrdinalsCacheTest {
+
+    private static final Salt SALT = Salt.from(Settings.EMPTY);
+    private static final String[] IPS = { "10.0.0.1", "10.0.0.2", "192.168.0.1", "10.0.0.3" };
+
+    @Test
+    public void testMaskedDictionaryIsSortedAndDeduplicated() throws Exception {
+        final MaskedOrdinalsCache cache = new MaskedOrdinalsCache(Settings.EMPTY);
+        final MaskedField mf = new MaskedField("ip::/[0-9]{1,3}$/::X", SALT);
+
+        try (Directory directory = indexIps()) {
+            final DirectoryReader reader = DirectoryReader.open(directory);
+            final LeafReader leaf = reader.leaves().get(0).reader();
+
+            final SortedSetDocValues masked = cache.wrap(leaf, "ips", mf, leaf.getSortedSetDocValues("ips"));
+            assertEquals(2, masked.getValueCount());
+            assertEquals(new BytesRef("10.0.0.X"), masked.lookupOrd(0));
+            assertEquals(new BytesRef("192.168.0.X"), masked.lookupOrd(1));
+
+            for (int doc = 0; doc < IPS.length; doc++) {
+                assertTrue(masked.advanceExact(doc));
+                // each document holds its ip and 10.0.0.1, which collapse into one masked value for 10.0.0.x
+                final int expectedCount = IPS[doc].startsWith("10.") ? 1 : 2;
+                assertEquals(expectedCount, masked.docValueCount());
+                long previous = -1;
+                for (int i = 0; i < expectedCount; i++) {
+                    final long ord = masked.nextOrd();
+                    assertTrue(ord > previous);
+                    previous = ord;
+                }
+            }
+
+            final SortedDocValues single = cache.wrap(leaf, "ip", mf, leaf.getSortedDocValues("ip"));
+            for (int doc = 0; doc < IPS.length; doc++) {
+                assertTrue(single.advanceExact(doc));
+                assertEquals(new BytesRef(mf.mask(IPS[doc])), single.lookupOrd(single.ordValue()));
+            }
+            final TermsEnum termsEnum = single.termsEnum();
+            assertEquals(new BytesRef("10.0.0.X"), termsEnum.next());
+            assertEquals(new BytesRef("192.168.0.X"), termsEnum.next());
+            assertNull(termsEnum.next());
+            assertEquals(1, single.lookupTerm(new BytesRef("192.168.0.X")));
+
+            assertEquals(2, cache.size());
+            cache.wrap(leaf, "ips", mf, leaf.getSortedSetDocValues("ips"));
+            assertEquals(2, cache.size());
+
+            reader.close();
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void testDictionariesExceedingTheCacheAreNotBuilt() throws Exception {
+        final MaskedOrdinalsCache cache = new MaskedOrdinalsCache(
+            Settings.builder().put(ConfigConstants.SECURITY_MASKED_FIELDS_ORDINALS_CACHE_SIZE, "0b").build()
+        );
+
+        try (Directory directory = indexIps(); DirectoryReader reader = DirectoryReader.open(directory)) {
+            final LeafReader leaf = reader.leaves().get(0).reader();
+            assertNull(cache.wrap(leaf, "ips", new MaskedField("ip", SALT), leaf.getSortedSetDocValues("ips")));
+            assertEquals(0, cache.size());
+        }
+    }
+
+    private static Directory indexIps() throws Exception {
+        final Directory directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (String ip : IPS) {
+                final Document doc = new Document();
+                doc.add(new SortedDocValuesField("ip", new BytesRef(ip)));
+                doc.add(new SortedSetDocValuesField("ips", new BytesRef(ip)));
+                doc.add(new SortedSetDocValuesField("ips", new BytesRef("10.0.0.1")));
+                writer.addDocument(doc);
+            }
+        }
+        return directory;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.index.IndexService;
+import org.opensearch.index.mapper.MapperService;
+import org.opensearch.index.query.ParsedQuery;
+import org.opensearch.index.query.QueryShardContext;
+import org.opensearch.search.SearchModule;
+import org.opensearch.security.auditlog.AuditLog;
+import org.opensearch.security.compliance.ComplianceIndexingOperationListener;
+import org.opensearch.security.privileges.PrivilegesEvaluator;
+import org.opensearch.security.support.Base64Helper;
+import org.opensearch.security.support.ConfigConstants;
+import org.opensearch.threadpool.ThreadPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SecurityFlsDlsIndexSearcherWrapperTest {
+
+    private static final ShardId SHARD_ID = new ShardId("deals", "uuid", 0);
+    private static final String TERM_QUERY = "{\"term\": {\"dept\": \"sales\"}}";
+    private static final String RANGE_QUERY = "{\"range\": {\"amount\": {\"gte\": 1000}}}";
+
+    private final ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+    private final IndexService indexService = mock(IndexService.class);
+    private final IndexMetadata indexMetadata = mock(IndexMetadata.class);
+    private final AtomicInteger queryShardContexts = new AtomicInteger();
+    private boolean usesNow;
+    private SecurityFlsDlsIndexSearcherWrapper wrapper;
+
+    @Before
+    public void setup() {
+        final ThreadPool threadPool = mock(ThreadPool.class);
+        when(threadPool.getThreadContext()).thenReturn(threadContext);
+        when(indexService.getThreadPool()).thenReturn(threadPool);
+        when(indexService.index()).thenReturn(SHARD_ID.getIndex());
+        when(indexService.xContentRegistry()).thenReturn(
+            new NamedXContentRegistry(new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedXContents())
+        );
+        when(indexService.getMetadata()).thenReturn(indexMetadata);
+        when(indexMetadata.getMappingVersion()).thenReturn(1L);
+        when(indexService.newQueryShardContext(anyInt(), any(), any(), any())).thenAnswer(invocation -> {
+            queryShardContexts.incrementAndGet();
+            final QueryShardContext queryShardContext = mock(QueryShardContext.class);
+            when(queryShardContext.getMapperService()).thenReturn(mock(MapperService.class));
+            when(queryShardContext.toQuery(any())).thenReturn(new ParsedQuery(new MatchAllDocsQuery()));
+            when(queryShardContext.isCacheable()).thenReturn(!usesNow);
+            return queryShardContext;
+        });
+
+        wrapper = new SecurityFlsDlsIndexSearcherWrapper(
+            indexService,
+            Settings.EMPTY,
+            mock(AdminDNs.class),
+            mock(ClusterService.class),
+            mock(AuditLog.class),
+            mock(ComplianceIndexingOperationListener.class),
+            mock(PrivilegesEvaluator.class),
+            Salt.from(Settings.EMPTY),
+            null,
+            null,
+            null,
+            null,
+            null
+        );
+    }
+
+    @Test
+    public void testUnrestricted() throws Exception {
+        assertSame(DlsFlsFilterLeafReader.ReaderConfig.UNRESTRICTED, readerConfig(null, null));
+        assertEquals(0, queryShardContexts.get());
+    }
+
+    @Test
+    public void testConfigsAreCachedPerHeaders() throws Exception {
+        final DlsFlsFilterLeafReader.ReaderConfig term = readerConfig(header(TERM_QUERY), null);
+
+        assertSame(term, readerConfig(header(TERM_QUERY), null));
+        assertEquals(1, queryShardContexts.get());
+
+        final DlsFlsFilterLeafReader.ReaderConfig range = readerConfig(header(RANGE_QUERY), null);
+        final DlsFlsFilterLeafReader.ReaderConfig termWithFls = readerConfig(header(TERM_QUERY), header("dept"));
+        assertNotSame(term, range);
+        assertNotSame(term, termWithFls);
+        assertNotSame(range, termWithFls);
+        assertEquals(3, queryShardContexts.get());
+
+        assertSame(range, readerConfig(header(RANGE_QUERY), null));
+        assertSame(termWithFls, readerConfig(header(TERM_QUERY), header("dept")));
+        assertEquals(3, queryShardContexts.get());
+    }
+
+    @Test
+    public void testMappingUpdateMissesCache() throws Exception {
+        final DlsFlsFilterLeafReader.ReaderConfig before = readerConfig(header(TERM_QUERY), null);
+
+        when(indexMetadata.getMappingVersion()).thenReturn(2L);
+        final DlsFlsFilterLeafReader.ReaderConfig after = readerConfig(header(TERM_QUERY), null);
+
+        assertNotSame(before, after);
+        assertSame(after, readerConfig(header(TERM_QUERY), null));
+        assertEquals(2, queryShardContexts.get());
+    }
+
+    @Test
+    public void testTimeDependentConfigsAreNotCached() throws Exception {
+        usesNow = true;
+        final String query = "{\"range\": {\"date\": {\"gte\": \"now-1d\"}}}";
+
+        final DlsFlsFilterLeafReader.ReaderConfig first = readerConfig(header(query), null);
+        final DlsFlsFilterLeafReader.ReaderConfig second = readerConfig(header(query), null);
+
+        assertTrue(first.isTimeDependent());
+        assertNotSame(first, second);
+        assertEquals(2, queryShardContexts.get());
+
+        usesNow = false;
+        final DlsFlsFilterLeafReader.ReaderConfig term = readerConfig(header(TERM_QUERY), null);
+        assertFalse(term.isTimeDependent());
+        assertSame(term, readerConfig(header(TERM_QUERY), null));
+    }
+
+    private DlsFlsFilterLeafReader.ReaderConfig readerConfig(final String dlsHeader, final String flsHeader) throws Exception {
+        try (ThreadContext.StoredContext ignored = threadContext.stashContext()) {
+            threadContext.putTransient(ConfigConstants.USE_JDK_SERIALIZATION, true);
+            if (dlsHeader != null) {
+                threadContext.putHeader(ConfigConstants.OPENDISTRO_SECURITY_DLS_QUERY_HEADER, dlsHeader);
+            }
+            if (flsHeader != null) {
+                threadContext.putHeader(ConfigConstants.OPENDISTRO_SECURITY_FLS_FIELDS_HEADER, flsHeader);
+            }
+            return wrapper.readerConfig(SHARD_ID);
+        }
+    }
+
+    private static String header(final String value) {
+        final HashMap<String, Set<String>> valuesByIndex = new HashMap<>();
+        valuesByIndex.put(SHARD_ID.getIndexName(), new HashSet<>(Collections.singleton(value)));
+        return Base64Helper.serializeObject((Serializable) valuesByIndex, true);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.action.get.GetAction;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.support.PlainActionFuture;
+import org.opensearch.client.Client;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.index.get.GetResult;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.Rewriteable;
+import org.opensearch.index.query.TermsQueryBuilder;
+import org.opensearch.indices.TermsLookup;
+import org.opensearch.security.support.ConfigConstants;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TermsLookupCacheTest {
+
+    private static final Settings ENABLED = Settings.builder().put(ConfigConstants.SECURITY_DLS_TERMS_LOOKUP_CACHE_SIZE, 100).build();
+
+    private final ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+    private final Client client = mock(Client.class);
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        doAnswer(invocation -> {
+            ((ActionListener<GetResponse>) invocation.getArgument(2)).onResponse(
+                new GetResponse(
+                    new GetResult(
+                        "users",
+                        "1",
+                        0,
+                        1,
+                        1,
+                        true,
+                        new BytesArray("{\"depts\":[\"a\",\"b\"]}"),
+                        Collections.emptyMap(),
+                        Collections.emptyMap()
+                    )
+                )
+            );
+            return null;
+        }).when(client).execute(eq(GetAction.INSTANCE), any(), any());
+    }
+
+    @Test
+    public void testLookupIsCachedUntilDocumentIsWritten() throws Exception {
+        final TermsLookupCache cache = new TermsLookupCache(ENABLED, threadContext, null, null);
+
+        assertEquals(new TermsQueryBuilder("dept", "a", "b"), resolve(cache));
+        assertEquals(new TermsQueryBuilder("dept", "a", "b"), resolve(cache));
+        verify(client, times(1)).execute(eq(GetAction.INSTANCE), any(), any());
+        assertEquals(1, cache.size());
+
+        cache.invalidate("users", "1");
+        resolve(cache);
+        verify(client, times(2)).execute(eq(GetAction.INSTANCE), any(), any());
+    }
+
+    @Test
+    public void testLookupIsNotCachedWithFls() throws Exception {
+        final TermsLookupCache cache = new TermsLookupCache(ENABLED, threadContext, null, null);
+        threadContext.putHeader(ConfigConstants.OPENDISTRO_SECURITY_FLS_FIELDS_HEADER, "fls");
+
+        resolve(cache);
+        resolve(cache);
+        verify(client, times(2)).execute(eq(GetAction.INSTANCE), any(), any());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        final TermsLookupCache cache = new TermsLookupCache(Settings.EMPTY, threadContext, null, null);
+
+        resolve(cache);
+        resolve(cache);
+        verify(client, times(2)).execute(eq(GetAction.INSTANCE), any(), any());
+        assertEquals(0, cache.size());
+    }
+
+    private QueryBuilder resolve(TermsLookupCache cache) {
+        final PlainActionFuture<QueryBuilder> future = PlainActionFuture.newFuture();
+        Rewriteable.rewriteAndFetch(
+            (QueryBuilder) new TermsQueryBuilder("dept", new TermsLookup("users", "1", "depts")),
+            cache.rewriteContext(client),
+            future
+        );
+        return future.actionGet();
+    }
+}
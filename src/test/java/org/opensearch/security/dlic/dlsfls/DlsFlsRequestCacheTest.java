@@ -0,0 +1,105 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.dlic.dlsfls;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.opensearch.action.admin.indices.create.CreateIndexRequest;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.support.WriteRequest.RefreshPolicy;
+import org.opensearch.client.Client;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.security.support.ConfigConstants;
+import org.opensearch.security.test.DynamicSecurityConfig;
+import org.opensearch.security.test.helper.cluster.ClusterConfiguration;
+import org.opensearch.security.test.helper.rest.RestHelper.HttpResponse;
+
+/**
+ * Searches of users with different DLS and FLS restrictions on the same index must never be answered from each
+ * other's shard request cache entries.
+ */
+public class DlsFlsRequestCacheTest extends AbstractDlsFlsTest {
+
+    private static final String AGGREGATION = "{\"size\": 0, \"aggs\": {\"total\": {\"sum\": {\"field\": \"amount\"}}}}";
+
+    @Override
+    protected void populateData(Client tc) {
+        tc.admin()
+            .indices()
+            .create(
+                new CreateIndexRequest("deals").settings(
+                    Settings.builder().put("index.number_of_shards", 1).put("index.number_of_replicas", 0)
+                )
+            )
+            .actionGet();
+        tc.index(new IndexRequest("deals").id("0").setRefreshPolicy(RefreshPolicy.IMMEDIATE).source("{\"amount\": 10}", XContentType.JSON))
+            .actionGet();
+        tc.index(
+            new IndexRequest("deals").id("1").setRefreshPolicy(RefreshPolicy.IMMEDIATE).source("{\"amount\": 1500}", XContentType.JSON)
+        ).actionGet();
+        tc.index(new IndexRequest("deals").id("2").setRefreshPolicy(RefreshPolicy.IMMEDIATE).source("{\"amount\": 5}", XContentType.JSON))
+            .actionGet();
+    }
+
+    @Test
+    public void testRestrictedUsersDoNotShareCacheEntries() throws Exception {
+        setup(true);
+
+        // every user searches twice, so that the second search of each user is served from the cache
+        for (int i = 0; i < 2; i++) {
+            // unrestricted
+            assertAggregation("admin", "admin", 3, 1515);
+            // DLS: only deals with an amount between 1000 and 20000
+            assertAggregation("dept_manager", "password", 1, 1500);
+            // FLS: amount is not visible
+            assertAggregation("dept_manager_fls", "password", 3, 0);
+        }
+
+        Assert.assertEquals(3, requestCacheStat("hit_count"));
+        Assert.assertEquals(3, requestCacheStat("miss_count"));
+    }
+
+    @Test
+    public void testRequestCacheCanBeDisabled() throws Exception {
+        setup(false);
+
+        for (int i = 0; i < 2; i++) {
+            assertAggregation("dept_manager", "password", 1, 1500);
+            assertAggregation("dept_manager_fls", "password", 3, 0);
+        }
+
+        Assert.assertEquals(0, requestCacheStat("hit_count"));
+    }
+
+    private void setup(boolean requestCacheEnabled) throws Exception {
+        setup(
+            Settings.builder().put(ConfigConstants.SECURITY_DLS_FLS_REQUEST_CACHE_ENABLED, requestCacheEnabled).build(),
+            new DynamicSecurityConfig(),
+            ClusterConfiguration.SINGLENODE
+        );
+    }
+
+    private void assertAggregation(String user, String password, int expectedHits, int expectedTotal) {
+        HttpResponse response = rh.executePostRequest("/deals/_search?request_cache=true", AGGREGATION, encodeBasicHeader(user, password));
+        Assert.assertEquals(response.getBody(), 200, response.getStatusCode());
+        Assert.assertEquals(user, String.valueOf(expectedHits), response.getTextFromJsonBody("/hits/total/value"));
+        Assert.assertEquals(user, expectedTotal, Double.parseDouble(response.getTextFromJsonBody("/aggregations/total/value")), 0.0);
+    }
+
+    private long requestCacheStat(String stat) {
+        HttpResponse response = rh.executeGetRequest("/deals/_stats/request_cache", encodeBasicHeader("admin", "admin"));
+        Assert.assertEquals(response.getBody(), 200, response.getStatusCode());
+        return Long.parseLong(response.getTextFromJsonBody("/_all/total/request_cache/" + stat));
+    }
+}
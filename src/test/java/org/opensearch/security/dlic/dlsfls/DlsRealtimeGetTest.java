@@ -0,0 +1,141 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.dlic.dlsfls;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.opensearch.action.admin.indices.create.CreateIndexRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.support.WriteRequest.RefreshPolicy;
+import org.opensearch.client.Client;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.security.support.ConfigConstants;
+import org.opensearch.security.test.DynamicSecurityConfig;
+import org.opensearch.security.test.helper.cluster.ClusterConfiguration;
+import org.opensearch.security.test.helper.rest.RestHelper.HttpResponse;
+
+/**
+ * Filter level DLS for get and mget requests. Documents are fetched by realtime gets and matched against the DLS
+ * query in memory; indices with nested mappings fall back to searches.
+ */
+public class DlsRealtimeGetTest extends AbstractDlsFlsTest {
+
+    @Override
+    protected void populateData(Client tc) {
+        // no periodic refreshes, so that documents indexed without refresh stay invisible to searches
+        final Settings noRefresh = Settings.builder().put("index.refresh_interval", "-1").build();
+
+        // dept_manager may only see deals with an amount between 1000 and 20000
+        tc.admin().indices().create(new CreateIndexRequest("deals").settings(noRefresh)).actionGet();
+        tc.index(new IndexRequest("deals").id("0").setRefreshPolicy(RefreshPolicy.IMMEDIATE).source("{\"amount\": 10}", XContentType.JSON))
+            .actionGet();
+        tc.index(
+            new IndexRequest("deals").id("1").setRefreshPolicy(RefreshPolicy.IMMEDIATE).source("{\"amount\": 1500}", XContentType.JSON)
+        ).actionGet();
+        tc.index(new IndexRequest("deals").id("2").source("{\"amount\": 2000}", XContentType.JSON)).actionGet();
+        tc.index(new IndexRequest("deals").id("3").source("{\"amount\": 5}", XContentType.JSON)).actionGet();
+
+        // dept_manager may only see logs with termX A; documents of nested mappings cannot be matched in memory
+        tc.admin()
+            .indices()
+            .create(
+                new CreateIndexRequest("logs").settings(noRefresh)
+                    .mapping("{\"properties\": {\"termX\": {\"type\": \"keyword\"}, \"tags\": {\"type\": \"nested\"}}}", XContentType.JSON)
+            )
+            .actionGet();
+        tc.index(
+            new IndexRequest("logs").id("0").setRefreshPolicy(RefreshPolicy.IMMEDIATE).source("{\"termX\": \"A\"}", XContentType.JSON)
+        ).actionGet();
+        tc.index(
+            new IndexRequest("logs").id("1").setRefreshPolicy(RefreshPolicy.IMMEDIATE).source("{\"termX\": \"B\"}", XContentType.JSON)
+        ).actionGet();
+        tc.index(new IndexRequest("logs").id("2").source("{\"termX\": \"A\"}", XContentType.JSON)).actionGet();
+    }
+
+    private void setupFilterLevelDls() throws Exception {
+        setup(
+            Settings.builder().put(ConfigConstants.SECURITY_DLS_MODE, "filter_level").build(),
+            new DynamicSecurityConfig(),
+            ClusterConfiguration.SINGLENODE
+        );
+    }
+
+    @Test
+    public void testRealtimeGet() throws Exception {
+        setupFilterLevelDls();
+
+        Assert.assertTrue(executeGet("deals", "1", "dept_manager", "password").isExists());
+        Assert.assertFalse(executeGet("deals", "0", "dept_manager", "password").isExists());
+
+        // not yet refreshed documents are returned by realtime gets, but only if permitted
+        final GetResponse unrefreshed = executeGet("deals", "2", "dept_manager", "password");
+        Assert.assertTrue(unrefreshed.isExists());
+        Assert.assertEquals(2000, unrefreshed.getSourceAsMap().get("amount"));
+        Assert.assertFalse(executeGet("deals", "3", "dept_manager", "password").isExists());
+
+        Assert.assertTrue(executeGet("deals", "3", "admin", "admin").isExists());
+    }
+
+    @Test
+    public void testRealtimeMultiGet() throws Exception {
+        setupFilterLevelDls();
+
+        final MultiGetResponse response = executeMGet("deals", "0", "1", "2", "3");
+
+        // hidden documents are reported as missing
+        Assert.assertEquals(4, response.getResponses().length);
+        Assert.assertEquals(Set.of("1", "2"), existingIds(response));
+    }
+
+    @Test
+    public void testSearchFallbackForNestedMappings() throws Exception {
+        setupFilterLevelDls();
+
+        Assert.assertTrue(executeGet("logs", "0", "dept_manager", "password").isExists());
+        Assert.assertFalse(executeGet("logs", "1", "dept_manager", "password").isExists());
+        // searches do not see documents which are not yet refreshed
+        Assert.assertFalse(executeGet("logs", "2", "dept_manager", "password").isExists());
+
+        Assert.assertEquals(Set.of("0"), existingIds(executeMGet("logs", "0", "1", "2")));
+    }
+
+    private MultiGetResponse executeMGet(String index, String... ids) throws Exception {
+        String body = "{ \"docs\": ["
+            + Arrays.stream(ids).map(id -> "{ \"_index\": \"" + index + "\", \"_id\": \"" + id + "\" }").collect(Collectors.joining(","))
+            + "] }";
+
+        HttpResponse response = rh.executePostRequest("/_mget?pretty", body, encodeBasicHeader("dept_manager", "password"));
+        Assert.assertEquals(200, response.getStatusCode());
+        XContentParser xcp = XContentType.JSON.xContent()
+            .createParser(NamedXContentRegistry.EMPTY, LoggingDeprecationHandler.INSTANCE, response.getBody());
+        return MultiGetResponse.fromXContent(xcp);
+    }
+
+    private static Set<String> existingIds(MultiGetResponse response) {
+        return Arrays.stream(response.getResponses())
+            .filter(item -> !item.isFailed() && item.getResponse().isExists())
+            .map(MultiGetItemResponse::getId)
+            .collect(Collectors.toSet());
+    }
+}
@@ -10,6 +10,7 @@
 
 package org.opensearch.security.support;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -401,4 +402,51 @@ public class JsonFlattenerTest {
             )
         );
     }
+
+    @Test
+    public void testStreamingFlattenMatchesFlattenAsMap() {
+        final String json = "{\"a\":{\"b\":1,\"c\":null,\"d\":[false,{\"i\":{\"j\":[false,true,\"xy\"]}}]},\"e\":\"f\",\"g\":2.3,\"z\":[]}";
+        final Map<String, Object> flattened = new HashMap<>();
+
+        JsonFlattener.flatten(json.getBytes(StandardCharsets.UTF_8), new JsonFlattener.FieldVisitor() {
+            @Override
+            public boolean needsValue(String path, boolean isString) {
+                return true;
+            }
+
+            @Override
+            public void value(String path, Object value) {
+                flattened.put(path, value);
+            }
+        });
+
+        assertThat(flattened, is(new HashMap<>(JsonFlattener.flattenAsMap(json))));
+    }
+
+    @Test
+    public void testStreamingFlattenOnlyMaterializesRequestedValues() {
+        final String json = "{\"a\":{\"b\":1,\"c\":\"x\"},\"d\":[1,{\"e\":\"y\"}]}";
+        final Map<String, Object> values = new HashMap<>();
+        final Map<String, Boolean> visited = new HashMap<>();
+
+        JsonFlattener.flatten(json.getBytes(StandardCharsets.UTF_8), new JsonFlattener.FieldVisitor() {
+            @Override
+            public boolean needsValue(String path, boolean isString) {
+                visited.put(path, isString);
+                return path.equals("a.c") || path.equals("d");
+            }
+
+            @Override
+            public void value(String path, Object value) {
+                values.put(path, value);
+            }
+        });
+
+        assertThat(visited.keySet(), containsInAnyOrder("a", "a.b", "a.c", "d", "d[0]", "d[1]", "d[1].e"));
+        assertThat(visited.get("a.c"), is(true));
+        assertThat(visited.get("a.b"), is(false));
+        assertThat(values.keySet(), containsInAnyOrder("a.c", "d"));
+        assertThat(values.get("a.c"), is("x"));
+        assertThat(values.get("d"), is(Arrays.asList(1, Collections.singletonMap("e", "y"))));
+    }
 }
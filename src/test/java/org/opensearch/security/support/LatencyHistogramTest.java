@@ -0,0 +1,76 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.support;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+public class LatencyHistogramTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBuckets() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(500));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(7));
+        histogram.record(TimeUnit.SECONDS.toNanos(30));
+        histogram.record(-1);
+
+        final XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
+        histogram.toXContent("latency", builder);
+        builder.endObject();
+        final Map<String, Object> latency = (Map<String, Object>) XContentHelper.convertToMap(
+            BytesReference.bytes(builder),
+            false,
+            XContentType.JSON
+        ).v2().get("latency");
+
+        Assert.assertEquals(5, latency.get("count"));
+        Assert.assertEquals(30000, latency.get("max_in_millis"));
+        final Map<String, Object> buckets = (Map<String, Object>) latency.get("buckets");
+        Assert.assertEquals(2, buckets.get("lt_1"));
+        Assert.assertEquals(1, buckets.get("lt_2"));
+        Assert.assertEquals(1, buckets.get("lt_10"));
+        Assert.assertEquals(0, buckets.get("lt_10000"));
+        Assert.assertEquals(0, buckets.get("lt_30000"));
+        Assert.assertEquals(1, buckets.get("lt_inf"));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(-1, histogram.percentileMillis(99));
+
+        for (int i = 0; i < 99; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(150));
+
+        Assert.assertEquals(100, histogram.count());
+        Assert.assertEquals(5, histogram.percentileMillis(50));
+        Assert.assertEquals(5, histogram.percentileMillis(99));
+        Assert.assertEquals(200, histogram.percentileMillis(100));
+
+        histogram.record(TimeUnit.MINUTES.toNanos(1));
+        Assert.assertEquals("percentiles beyond the largest bucket are unknown", -1, histogram.percentileMillis(100));
+    }
+}